@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker;
+
+import com.vmware.transport.broker.inmemory.InMemoryGalacticChannelConfig;
+import com.vmware.transport.broker.inmemory.InMemoryMessageBroker;
+import com.vmware.transport.bus.BusTransaction;
+import com.vmware.transport.bus.EventBus;
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.store.StoreManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Galactic channel throughput between two simulated nodes connected through the
+ * {@link InMemoryMessageBroker}, with and without batching. The consuming node has
+ * several local listeners sharing a single broker subscription.
+ */
+@State(Scope.Benchmark)
+public class GalacticChannelBenchmark {
+
+    private static final String CHANNEL = "bench-galactic";
+
+    @Param({"0", "64"})
+    public int batchSize;
+
+    @Param({"1", "10"})
+    public int listeners;
+
+    private InMemoryMessageBroker broker;
+    private EventBus producer;
+    private final List<BusTransaction> transactions = new ArrayList<>();
+    private final LongAdder received = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        broker = InMemoryMessageBroker.newInstance();
+        producer = createNode("producer");
+        EventBus consumer = createNode("consumer");
+
+        InMemoryGalacticChannelConfig producerConfig = new InMemoryGalacticChannelConfig("producer", CHANNEL);
+        if (batchSize > 0) {
+            producerConfig.setBatching(GalacticChannelBatching.newInstance()
+                    .setMaxBatchSize(batchSize)
+                    .setLingerMillis(1)
+                    .setQueueCapacity(100000));
+        }
+        producer.markChannelAsGalactic(CHANNEL, producerConfig);
+        consumer.markChannelAsGalactic(CHANNEL, new InMemoryGalacticChannelConfig("consumer", CHANNEL));
+
+        for (int i = 0; i < listeners; i++) {
+            transactions.add(consumer.listenStream(CHANNEL, message -> received.increment()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transactions.forEach(BusTransaction::unsubscribe);
+        transactions.clear();
+        producer.markChannelAsLocal(CHANNEL);
+        broker.close();
+    }
+
+    @Benchmark
+    public void sendGalacticMessage() {
+        producer.sendRequestMessage(CHANNEL, "payload");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void sendGalacticMessageContended() {
+        producer.sendRequestMessage(CHANNEL, "payload");
+    }
+
+    private EventBus createNode(String nodeId) {
+        EventBusImpl bus = new EventBusImpl();
+        bus.setStoreManager(new StoreManager(bus));
+        bus.registerMessageBroker(broker.createConnector(nodeId));
+        return bus;
+    }
+}
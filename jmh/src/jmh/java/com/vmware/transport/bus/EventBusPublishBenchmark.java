@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.bus.store.StoreManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publish/subscribe cost of the bus: requests delivered to N request listeners
+ * and responses fanned out to N stream listeners.
+ */
+@State(Scope.Benchmark)
+public class EventBusPublishBenchmark {
+
+    private static final String REQUEST_CHANNEL = "bench-requests";
+    private static final String RESPONSE_CHANNEL = "bench-responses";
+
+    @Param({"1", "10", "100"})
+    public int listeners;
+
+    private EventBus bus;
+    private Blackhole blackhole;
+    private final List<BusTransaction> transactions = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        EventBusImpl eventBus = new EventBusImpl();
+        eventBus.setStoreManager(new StoreManager(eventBus));
+        this.bus = eventBus;
+        this.blackhole = blackhole;
+
+        for (int i = 0; i < listeners; i++) {
+            transactions.add(bus.listenRequestStream(REQUEST_CHANNEL,
+                    message -> this.blackhole.consume(message.getPayload())));
+            transactions.add(bus.listenStream(RESPONSE_CHANNEL,
+                    message -> this.blackhole.consume(message.getPayload())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transactions.forEach(BusTransaction::unsubscribe);
+        transactions.clear();
+    }
+
+    @Benchmark
+    public void sendRequestMessage() {
+        bus.sendRequestMessage(REQUEST_CHANNEL, "payload");
+    }
+
+    @Benchmark
+    public void listenStreamFanOut() {
+        bus.sendResponseMessage(RESPONSE_CHANNEL, "payload");
+    }
+}
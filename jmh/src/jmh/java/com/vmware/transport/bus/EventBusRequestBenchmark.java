@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.bus.store.StoreManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Request/response round-trips through requestOnce and respondOnce, including the cost
+ * of registering and removing the single use listeners, and channel create/close churn.
+ */
+@State(Scope.Benchmark)
+public class EventBusRequestBenchmark {
+
+    private static final String CHANNEL = "bench-round-trip";
+
+    private EventBus bus;
+    private int channelCounter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EventBusImpl eventBus = new EventBusImpl();
+        eventBus.setStoreManager(new StoreManager(eventBus));
+        this.bus = eventBus;
+    }
+
+    @Benchmark
+    public void requestOnceRoundTrip(Blackhole blackhole) {
+        bus.respondOnce(CHANNEL, request -> request.getPayload());
+        // The bus delivers synchronously, the response is consumed before requestOnce returns.
+        bus.requestOnce(CHANNEL, "ping", response -> blackhole.consume(response.getPayload()));
+    }
+
+    @Benchmark
+    public void channelChurn(Blackhole blackhole) {
+        String channel = "bench-churn-" + (channelCounter++ & 1023);
+        blackhole.consume(bus.getApi().getChannelObject(channel, "bench"));
+        bus.closeChannel(channel, "bench");
+    }
+}
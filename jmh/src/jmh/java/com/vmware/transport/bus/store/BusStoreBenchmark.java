@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store;
+
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.store.model.BusStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * BusStore put/get/remove under contention, 4 threads working on the same store.
+ * The mixed group runs writers and readers concurrently.
+ */
+@State(Scope.Benchmark)
+public class BusStoreBenchmark {
+
+    private static final int KEY_SPACE = 10000;
+
+    private BusStore<String, String> store;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EventBusImpl bus = new EventBusImpl();
+        StoreManager storeManager = new StoreManager(bus);
+        bus.setStoreManager(storeManager);
+
+        keys = new String[KEY_SPACE];
+        Map<String, String> items = new HashMap<>();
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = "key-" + i;
+            items.put(keys[i], "value-" + i);
+        }
+        store = storeManager.createStore("bench-store");
+        store.populate(items);
+        store.initialize();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void put() {
+        store.put(randomKey(), "value", "Updated");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String get() {
+        return store.get(randomKey());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void putRemove() {
+        String key = randomKey();
+        store.remove(key, "Removed");
+        store.put(key, "value", "Added");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedWriter() {
+        store.put(randomKey(), "value", "Updated");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public String mixedReader() {
+        return store.get(randomKey());
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(KEY_SPACE)];
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store;
+
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.store.model.BusStore;
+import com.vmware.transport.bus.store.model.StoreContent;
+import com.vmware.transport.bus.store.model.StoreStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost of the store snapshots and of broadcasting changes to onAllChanges listeners.
+ */
+public class BusStoreContentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ContentState {
+
+        @Param({"1000", "100000", "1000000"})
+        public int entries;
+
+        BusStore<String, String> store;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            store = createStore("bench-content-store");
+            Map<String, String> items = new HashMap<>(entries * 2);
+            for (int i = 0; i < entries; i++) {
+                items.put("key-" + i, "value-" + i);
+            }
+            store.populate(items);
+            store.initialize();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ListenersState {
+
+        @Param({"1", "100", "1000"})
+        public int listeners;
+
+        BusStore<String, String> store;
+        final List<StoreStream<String>> streams = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void setup(Blackhole blackhole) {
+            store = createStore("bench-listeners-store");
+            store.initialize();
+            for (int i = 0; i < listeners; i++) {
+                StoreStream<String> stream = store.onAllChanges("Updated");
+                stream.subscribe(blackhole::consume);
+                streams.add(stream);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            streams.forEach(StoreStream::unsubscribe);
+            streams.clear();
+        }
+    }
+
+    @Benchmark
+    public StoreContent<String, String> getStoreContent(ContentState state) {
+        return state.store.getStoreContent();
+    }
+
+    @Benchmark
+    public void onAllChangesFanOut(ListenersState state) {
+        state.store.put("key", "value", "Updated");
+    }
+
+    private static BusStore<String, String> createStore(String storeType) {
+        EventBusImpl bus = new EventBusImpl();
+        StoreManager storeManager = new StoreManager(bus);
+        bus.setStoreManager(storeManager);
+        return storeManager.createStore(storeType);
+    }
+}
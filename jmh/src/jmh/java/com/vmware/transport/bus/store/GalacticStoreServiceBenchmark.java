@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store;
+
+import com.vmware.transport.bridge.Request;
+import com.vmware.transport.bus.BusTransaction;
+import com.vmware.transport.bus.EventBus;
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.model.MessageObject;
+import com.vmware.transport.bus.model.MessageType;
+import com.vmware.transport.bus.model.MonitorObject;
+import com.vmware.transport.bus.model.MonitorType;
+import com.vmware.transport.bus.store.model.BusStore;
+import com.vmware.transport.bus.store.model.CloseStoreRequest;
+import com.vmware.transport.bus.store.model.OpenStoreRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GalacticStoreService with many client sync channels: streaming store updates to every
+ * channel which opened the store, and the openStore/closeStore flow of a new client.
+ */
+@State(Scope.Benchmark)
+public class GalacticStoreServiceBenchmark {
+
+    private static final String STORE = "bench-galactic-store";
+    private static final int STORE_SIZE = 1000;
+
+    @Param({"10", "100", "1000"})
+    public int syncChannels;
+
+    private AnnotationConfigApplicationContext context;
+    private EventBus bus;
+    private BusStore<String, String> store;
+    private String clientChannel;
+    private final List<BusTransaction> listeners = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        // GalacticStoreService is initialized by the bus when the context is refreshed.
+        context = new AnnotationConfigApplicationContext(
+                EventBusImpl.class, GalacticStoreService.class, StoreManager.class);
+        bus = context.getBean(EventBus.class);
+
+        store = context.getBean(StoreManager.class).createStore(STORE);
+        Map<String, String> items = new HashMap<>();
+        for (int i = 0; i < STORE_SIZE; i++) {
+            items.put("key-" + i, "value-" + i);
+        }
+        store.populate(items);
+        store.initialize();
+
+        for (int i = 0; i < syncChannels; i++) {
+            String channel = openSyncChannel(blackhole);
+            sendStoreRequest(channel, GalacticStoreService.GalacticStoreCommands.OpenStore, openStoreRequest());
+        }
+        clientChannel = openSyncChannel(blackhole);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        listeners.forEach(BusTransaction::unsubscribe);
+        listeners.clear();
+        context.close();
+    }
+
+    @Benchmark
+    public void streamUpdates() {
+        store.put("key-" + ThreadLocalRandom.current().nextInt(STORE_SIZE), "updated-value", "Updated");
+    }
+
+    @Benchmark
+    public void openAndCloseStore() {
+        sendStoreRequest(clientChannel, GalacticStoreService.GalacticStoreCommands.OpenStore, openStoreRequest());
+        CloseStoreRequest closeStoreRequest = new CloseStoreRequest();
+        closeStoreRequest.storeId = STORE;
+        sendStoreRequest(clientChannel, GalacticStoreService.GalacticStoreCommands.CloseStore, closeStoreRequest);
+    }
+
+    private String openSyncChannel(Blackhole blackhole) {
+        // Simulates a new bridge subscription to a store sync channel.
+        String channel = "fabric-store-sync." + UUID.randomUUID();
+        MonitorObject mo = new MonitorObject(MonitorType.MonitorNewBridgeSubscription, channel, "bench");
+        bus.getApi().getMonitor().onNext(new MessageObject<>(MessageType.MessageTypeRequest, mo));
+        listeners.add(bus.listenStream(channel, message -> blackhole.consume(message.getPayload())));
+        return channel;
+    }
+
+    private OpenStoreRequest openStoreRequest() {
+        OpenStoreRequest openStoreRequest = new OpenStoreRequest();
+        openStoreRequest.storeId = STORE;
+        return openStoreRequest;
+    }
+
+    private void sendStoreRequest(String channel, String command, Object payload) {
+        bus.sendRequestMessage(channel, new Request<>(command, payload));
+    }
+}
@@ -11,6 +11,7 @@ import com.vmware.transport.bridge.Response;
 import com.vmware.transport.bus.model.MessageHeaders;
 import com.vmware.transport.core.util.ClassMapper;
 import com.vmware.transport.core.util.Loggable;
+import com.vmware.transport.core.util.RequestDeadlines;
 import com.vmware.transport.bus.EventBus;
 import io.reactivex.exceptions.OnErrorNotImplementedException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,12 +27,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.security.Principal;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 @Controller
 public class MessageController extends Loggable {
 
     private EventBus bus;
 
+    private final LongAdder expiredRequestCount = new LongAdder();
+
     @Autowired
     MessageController(EventBus eventBus) {
         this.bus = eventBus;
@@ -49,6 +53,9 @@ public class MessageController extends Loggable {
                   (Map<String, Object>) headers.get(SimpMessageHeaderAccessor.SESSION_ATTRIBUTES));
         }
         MessageHeaders messageHeaders = ClassMapper.CastMessageHeaders(request.getHeaders());
+        if (isExpired(request, messageHeaders)) {
+            return;
+        }
         if (bus.isGalacticChannel(topicDestination)) {
             // unwrap the payload and forward it to the external message broker
             bus.sendRequestMessage(topicDestination, request.getPayload(), messageHeaders);
@@ -70,6 +77,9 @@ public class MessageController extends Loggable {
                   (Map<String, Object>) headers.get(SimpMessageHeaderAccessor.SESSION_ATTRIBUTES));
         }
         MessageHeaders messageHeaders = ClassMapper.CastMessageHeaders(request.getHeaders());
+        if (isExpired(request, messageHeaders)) {
+            return;
+        }
         this.logTraceMessage("New inbound message received for private channel: ", queueDestination);
         bus.sendRequestMessageToTarget(
                 queueDestination, request, request.getId(), principal.getName(), messageHeaders);
@@ -89,6 +99,27 @@ public class MessageController extends Loggable {
         return this.handleException(exception);
     }
 
+    /**
+     * Returns the number of inbound requests dropped because their deadline had passed.
+     */
+    public long getExpiredRequestCount() {
+        return expiredRequestCount.sum();
+    }
+
+    /**
+     * Resolve the request's timeout header into a deadline, returns true if the request
+     * already expired and should be dropped.
+     */
+    private boolean isExpired(Request request, MessageHeaders messageHeaders) {
+        long now = System.currentTimeMillis();
+        if (RequestDeadlines.isExpired(RequestDeadlines.resolveDeadline(messageHeaders, now), now)) {
+            this.logDebugMessage("Dropping expired inbound request", request.getId().toString());
+            expiredRequestCount.increment();
+            return true;
+        }
+        return false;
+    }
+
     private void validateRequest(Request request) throws RequestException {
         if(request.getId() == null) {
             throw new RequestException("Request 'id' is missing");
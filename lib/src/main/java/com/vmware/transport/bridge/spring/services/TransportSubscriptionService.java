@@ -15,6 +15,12 @@ import com.vmware.transport.bus.model.MessageType;
 import com.vmware.transport.bus.model.MonitorObject;
 import com.vmware.transport.bus.model.MonitorType;
 import com.vmware.transport.bus.model.SystemChannels;
+import com.vmware.transport.core.jfr.BridgeFrameSendEvent;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
+import com.vmware.transport.core.tracing.Span;
+import com.vmware.transport.core.tracing.SpanKind;
+import com.vmware.transport.core.tracing.TraceContext;
+import com.vmware.transport.core.tracing.TransportTracing;
 import com.vmware.transport.core.util.Loggable;
 import com.vmware.transport.bus.BusTransaction;
 import com.vmware.transport.bus.EventBus;
@@ -60,6 +66,26 @@ public class TransportSubscriptionService extends Loggable
         return new HashSet<>(openChannels.keySet());
     }
 
+    public synchronized int getSessionCount() {
+        return sessionChannels.size();
+    }
+
+    public int getSubscriptionCount() {
+        return openSubscriptions.size();
+    }
+
+    public int getOpenChannelCount() {
+        return openChannels.size();
+    }
+
+    /**
+     * Returns the number of bridge subscriptions to the channel, 0 if the channel is not bridged.
+     */
+    public int getChannelSubscriptionCount(String channel) {
+        OpenChannel openChannel = openChannels.get(channel);
+        return openChannel != null ? openChannel.activeSubscriptionsCount : 0;
+    }
+
     public Collection<String> getOpenChannelsWithAttribute(String attribute, Object attributeValue) {
         if (attribute == null || attributeValue == null) {
             return Collections.emptyList();
@@ -80,6 +106,8 @@ public class TransportSubscriptionService extends Loggable
             this.logTraceMessage("Transport sending payload over socket: " + msg.getPayload().toString() + " to ", channelName);
         }
 
+        TransportMetricsHolder.get().bridgeMessageSent(channelName);
+
         // Users might override the destination using the EXTERNAL_MESSAGE_BROKER_DESTINATION
         // message header.
         String destinationHeaderValue = (String) msg.getHeader(MessageHeaders.EXTERNAL_MESSAGE_BROKER_DESTINATION);
@@ -88,19 +116,53 @@ public class TransportSubscriptionService extends Loggable
             destination = destinationHeaderValue;
         }
 
+        // traced messages forward their trace context to the client as STOMP headers.
+        TraceContext context = TransportTracing.isEnabled() ? TransportTracing.extract(msg.getHeaders()) : null;
+        if (context == null) {
+            this.sendToDestination(msg, destinationPrefix, channelName, destination, null);
+            return;
+        }
+        Span span = TransportTracing.startSpan("bridge send " + channelName, SpanKind.PRODUCER, context);
+        span.setAttribute(TransportTracing.ATTR_CHANNEL, channelName)
+              .setAttribute(TransportTracing.ATTR_MESSAGE_ID, msg.getId());
+        Map<String, Object> stompHeaders = new HashMap<>();
+        TransportTracing.inject(stompHeaders, span.getContext());
+        try {
+            this.sendToDestination(msg, destinationPrefix, channelName, destination, stompHeaders);
+        } catch (RuntimeException e) {
+            span.setError(e.toString());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void sendToDestination(Message msg, String destinationPrefix, String channelName,
+                                   String destination, Map<String, Object> stompHeaders) {
+        BridgeFrameSendEvent event = new BridgeFrameSendEvent();
+        event.begin();
         // deliver the message to the target user if it is specified in the Message object.
         // otherwise, broadcast it to all subscribers.
         if (msg.getTargetUser() != null) {
             if (destination == null) {
                 destination = destinationPrefix.replace("/user", "") + channelName;
             }
-            msgTmpl.convertAndSendToUser(msg.getTargetUser(), destination, msg.getPayload());
+            if (stompHeaders != null) {
+                msgTmpl.convertAndSendToUser(msg.getTargetUser(), destination, msg.getPayload(), stompHeaders);
+            } else {
+                msgTmpl.convertAndSendToUser(msg.getTargetUser(), destination, msg.getPayload());
+            }
         } else {
             if (destination == null) {
                 destination = destinationPrefix + channelName;
             }
-            msgTmpl.convertAndSend(destination, msg.getPayload());
+            if (stompHeaders != null) {
+                msgTmpl.convertAndSend(destination, msg.getPayload(), stompHeaders);
+            } else {
+                msgTmpl.convertAndSend(destination, msg.getPayload());
+            }
         }
+        event.complete(channelName, destination, msg.getTargetUser(), msg.getPayload());
     }
 
     public synchronized void addSubscription(
@@ -134,6 +196,7 @@ public class TransportSubscriptionService extends Loggable
 
         openSubscriptions.put(subscription.uniqueId, subscription);
         openChannels.get(channelName).activeSubscriptionsCount++;
+        TransportMetricsHolder.get().bridgeSubscriptionChanged("subscribe");
 
         // check if this user has other channel subscriptions
         if (sessionChannels.containsKey(sessionId)) {
@@ -162,6 +225,7 @@ public class TransportSubscriptionService extends Loggable
                   sub.channelName, sub.uniqueId));
             openSubscriptions.remove(uniqueSubId);
             onUnsubscribeFromChannel(sub.channelName);
+            TransportMetricsHolder.get().bridgeSubscriptionChanged("unsubscribe");
 
             // remove from session mappings.
             if (sessionChannels.containsKey(sessionId)) {
@@ -192,6 +256,7 @@ public class TransportSubscriptionService extends Loggable
             }
 
             sessionChannels.remove(sessionId);
+            TransportMetricsHolder.get().bridgeSubscriptionChanged("disconnect");
         }
     }
 
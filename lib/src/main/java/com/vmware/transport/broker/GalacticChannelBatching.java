@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker;
+
+import lombok.Getter;
+
+/**
+ * Batching settings of a galactic channel, see {@link GalacticChannelConfig#setBatching}.
+ *
+ * Requests sent to a batched galactic channel are queued and forwarded to the
+ * message broker in batches with {@link MessageBrokerConnector#sendMessages}.
+ * A batch is sent once it has maxBatchSize messages or lingerMillis after its
+ * first message was queued, whichever comes first.
+ */
+public class GalacticChannelBatching {
+
+   /**
+    * The maximum number of messages sent in a single batch.
+    */
+   @Getter
+   private int maxBatchSize = 100;
+
+   /**
+    * The maximum time a message waits for its batch to fill up.
+    */
+   @Getter
+   private long lingerMillis = 10;
+
+   /**
+    * The maximum number of queued messages, messages exceeding it are dropped.
+    */
+   @Getter
+   private int queueCapacity = 10000;
+
+   /**
+    * The number of times a failed batch is resent before its messages are dropped.
+    */
+   @Getter
+   private int maxRetries = 3;
+
+   /**
+    * The delay before the first retry, doubled on every subsequent retry.
+    */
+   @Getter
+   private long retryBackoffMillis = 100;
+
+   GalacticChannelBatching() {}
+
+   public GalacticChannelBatching setMaxBatchSize(int maxBatchSize) {
+      if (maxBatchSize <= 0) {
+         throw new IllegalArgumentException("maxBatchSize must be positive.");
+      }
+      this.maxBatchSize = maxBatchSize;
+      return this;
+   }
+
+   public GalacticChannelBatching setLingerMillis(long lingerMillis) {
+      if (lingerMillis < 0) {
+         throw new IllegalArgumentException("lingerMillis cannot be negative.");
+      }
+      this.lingerMillis = lingerMillis;
+      return this;
+   }
+
+   public GalacticChannelBatching setQueueCapacity(int queueCapacity) {
+      if (queueCapacity <= 0) {
+         throw new IllegalArgumentException("queueCapacity must be positive.");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+   }
+
+   public GalacticChannelBatching setRetries(int maxRetries, long retryBackoffMillis) {
+      if (maxRetries < 0 || retryBackoffMillis < 0) {
+         throw new IllegalArgumentException("maxRetries and retryBackoffMillis cannot be negative.");
+      }
+      this.maxRetries = maxRetries;
+      this.retryBackoffMillis = retryBackoffMillis;
+      return this;
+   }
+
+   /**
+    * Create new GalacticChannelBatching instance.
+    */
+   public static GalacticChannelBatching newInstance() {
+      return new GalacticChannelBatching();
+   }
+}
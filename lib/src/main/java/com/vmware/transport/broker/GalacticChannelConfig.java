@@ -24,7 +24,33 @@ public abstract class GalacticChannelConfig {
    @Getter
    private final String messageBrokerId;
 
+   /**
+    * Optional batching settings, requests are sent to the message broker
+    * one by one on the sender's thread if not set.
+    */
+   @Getter
+   private GalacticChannelBatching batching;
+
+   /**
+    * If true, requests are also delivered directly to the local subscribers of
+    * the channel's responses instead of waiting for the message broker to echo
+    * them back. Echoes are dropped by message id, which requires a
+    * MessageBrokerConnector that carries the id to its subscribers.
+    */
+   @Getter
+   private boolean localLoopback;
+
    public GalacticChannelConfig(String messageBrokerId) {
       this.messageBrokerId = messageBrokerId;
    }
+
+   public GalacticChannelConfig setBatching(GalacticChannelBatching batching) {
+      this.batching = batching;
+      return this;
+   }
+
+   public GalacticChannelConfig setLocalLoopback(boolean localLoopback) {
+      this.localLoopback = localLoopback;
+      return this;
+   }
 }
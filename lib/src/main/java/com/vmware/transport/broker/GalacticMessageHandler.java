@@ -5,6 +5,10 @@
  */
 package com.vmware.transport.broker;
 
+import com.vmware.transport.bus.model.MessageHeaders;
+
+import java.util.UUID;
+
 /**
  * Handles message and errors coming from external MessageBrokers.
  */
@@ -15,6 +19,22 @@ public interface GalacticMessageHandler {
     */
    void onMessage(Object message);
 
+   /**
+    * Handles incoming message with the id it was sent with, used by
+    * MessageBrokerConnectors which propagate message ids.
+    */
+   default void onMessage(Object message, UUID messageId) {
+      onMessage(message);
+   }
+
+   /**
+    * Handles incoming message with the id and headers it was sent with, used by
+    * MessageBrokerConnectors which propagate message headers.
+    */
+   default void onMessage(Object message, UUID messageId, MessageHeaders headers) {
+      onMessage(message, messageId);
+   }
+
    /**
     * Handles incoming error.
     */
@@ -5,6 +5,11 @@
  */
 package com.vmware.transport.broker;
 
+import com.vmware.transport.bus.model.MessageHeaders;
+
+import java.util.List;
+import java.util.UUID;
+
 /**
  * MessageBrokerConnector interface allows extending the Transport EventBus by
  * connecting to external MessageBrokers like RabbitMQ.
@@ -41,6 +46,83 @@ public interface MessageBrokerConnector<T extends GalacticChannelConfig,
     */
    boolean sendMessage(T channelConfig, Object payload);
 
+   /**
+    * Send message with its id to external channel. Connectors which can attach
+    * the id to the broker message should override this method and pass the id
+    * to {@link GalacticMessageHandler#onMessage(Object, UUID)}, this allows
+    * galactic channels with local loopback to drop their own echoes.
+    * @param channelConfig, the galactic channel configuration.
+    * @param payload, the message to be send.
+    * @param messageId, the id of the message.
+    * @return true if the message was send successfully.
+    */
+   default boolean sendMessage(T channelConfig, Object payload, UUID messageId) {
+      return sendMessage(channelConfig, payload);
+   }
+
+   /**
+    * Send message with its id and headers to external channel. Connectors which can attach
+    * headers to the broker message should override this method and pass them to
+    * {@link GalacticMessageHandler#onMessage(Object, UUID, MessageHeaders)}, this carries
+    * the trace context of the message across the broker.
+    * @param channelConfig, the galactic channel configuration.
+    * @param payload, the message to be send.
+    * @param messageId, the id of the message.
+    * @param headers, the headers of the message, can be null.
+    * @return true if the message was send successfully.
+    */
+   default boolean sendMessage(T channelConfig, Object payload, UUID messageId, MessageHeaders headers) {
+      return sendMessage(channelConfig, payload, messageId);
+   }
+
+   /**
+    * Send a batch of messages to external channel, used by galactic channels
+    * with batching enabled. The default implementation sends the messages one by one,
+    * connectors which support batching natively should override it.
+    * @param channelConfig, the galactic channel configuration.
+    * @param payloads, the messages to be send, in order.
+    * @return the number of messages from the start of the batch which were send successfully,
+    *         the remaining messages are retried.
+    */
+   default int sendMessages(T channelConfig, List<Object> payloads) {
+      int sent = 0;
+      for (Object payload : payloads) {
+         if (!sendMessage(channelConfig, payload)) {
+            break;
+         }
+         sent++;
+      }
+      return sent;
+   }
+
+   /**
+    * Send a batch of messages with their ids to external channel,
+    * see {@link #sendMessage(GalacticChannelConfig, Object, UUID)}.
+    * The default implementation ignores the ids.
+    * @param channelConfig, the galactic channel configuration.
+    * @param payloads, the messages to be send, in order.
+    * @param messageIds, the ids of the messages.
+    * @return the number of messages from the start of the batch which were send successfully.
+    */
+   default int sendMessages(T channelConfig, List<Object> payloads, List<UUID> messageIds) {
+      return sendMessages(channelConfig, payloads);
+   }
+
+   /**
+    * Send a batch of messages with their ids and headers to external channel,
+    * see {@link #sendMessage(GalacticChannelConfig, Object, UUID, MessageHeaders)}.
+    * The default implementation ignores the headers.
+    * @param channelConfig, the galactic channel configuration.
+    * @param payloads, the messages to be send, in order.
+    * @param messageIds, the ids of the messages.
+    * @param headers, the headers of the messages, elements can be null.
+    * @return the number of messages from the start of the batch which were send successfully.
+    */
+   default int sendMessages(T channelConfig, List<Object> payloads, List<UUID> messageIds,
+                            List<MessageHeaders> headers) {
+      return sendMessages(channelConfig, payloads, messageIds);
+   }
+
    /**
     * Connects to the external message broker.
     */
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker.inmemory;
+
+import com.vmware.transport.broker.GalacticChannelConfig;
+import lombok.Getter;
+
+/**
+ * Galactic channel configuration for {@link InMemoryMessageBrokerConnector}.
+ */
+public class InMemoryGalacticChannelConfig extends GalacticChannelConfig {
+
+   /**
+    * The broker topic the galactic channel is mapped to.
+    */
+   @Getter
+   private final String topic;
+
+   public InMemoryGalacticChannelConfig(String messageBrokerId, String topic) {
+      super(messageBrokerId);
+      this.topic = topic;
+   }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker.inmemory;
+
+import com.vmware.transport.bus.model.MessageHeaders;
+import com.vmware.transport.core.util.Loggable;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Message broker living inside the JVM, it connects the buses of several simulated
+ * nodes through topics. Each node registers its own {@link InMemoryMessageBrokerConnector}
+ * created with {@link #createConnector(String)}.
+ *
+ * The broker can simulate network latency and message loss, which makes it usable for
+ * testing and benchmarking galactic channels without an external message broker.
+ * Without latency messages are delivered on the sender's thread, otherwise they are
+ * delivered in order on the broker's delivery thread.
+ */
+public class InMemoryMessageBroker extends Loggable {
+
+   private final Map<String, List<InMemoryMessageBrokerSubscription>> topics = new ConcurrentHashMap<>();
+
+   /**
+    * The delay before a message is delivered to the subscribers.
+    */
+   @Getter
+   private volatile long latencyMillis;
+
+   /**
+    * The probability of a delivery to a subscriber being lost, between 0 and 1.
+    */
+   @Getter
+   private volatile double lossRate;
+
+   private volatile ScheduledExecutorService deliveryExecutor;
+
+   private final LongAdder publishedCount = new LongAdder();
+   private final LongAdder deliveredCount = new LongAdder();
+   private final LongAdder lostCount = new LongAdder();
+
+   InMemoryMessageBroker() {}
+
+   public InMemoryMessageBroker setLatencyMillis(long latencyMillis) {
+      if (latencyMillis < 0) {
+         throw new IllegalArgumentException("latencyMillis cannot be negative.");
+      }
+      this.latencyMillis = latencyMillis;
+      return this;
+   }
+
+   public InMemoryMessageBroker setLossRate(double lossRate) {
+      if (lossRate < 0 || lossRate > 1) {
+         throw new IllegalArgumentException("lossRate must be between 0 and 1.");
+      }
+      this.lossRate = lossRate;
+      return this;
+   }
+
+   /**
+    * Create a connector for a simulated node. Every node should register its own
+    * connector with its bus.
+    */
+   public InMemoryMessageBrokerConnector createConnector(String messageBrokerId) {
+      return new InMemoryMessageBrokerConnector(this, messageBrokerId);
+   }
+
+   /**
+    * Returns the number of messages published to the broker.
+    */
+   public long getPublishedCount() {
+      return publishedCount.sum();
+   }
+
+   /**
+    * Returns the number of messages delivered to subscribers.
+    */
+   public long getDeliveredCount() {
+      return deliveredCount.sum();
+   }
+
+   /**
+    * Returns the number of deliveries lost because of the simulated loss rate.
+    */
+   public long getLostCount() {
+      return lostCount.sum();
+   }
+
+   /**
+    * Returns the number of subscriptions to the topic.
+    */
+   public int getSubscriberCount(String topic) {
+      List<InMemoryMessageBrokerSubscription> subscriptions = topics.get(topic);
+      return subscriptions != null ? subscriptions.size() : 0;
+   }
+
+   /**
+    * Stop the delivery thread, messages which are still delayed are discarded.
+    */
+   public synchronized void close() {
+      if (deliveryExecutor != null) {
+         deliveryExecutor.shutdownNow();
+         deliveryExecutor = null;
+      }
+   }
+
+   void subscribe(InMemoryMessageBrokerSubscription subscription) {
+      topics.computeIfAbsent(subscription.getTopic(), t -> new CopyOnWriteArrayList<>()).add(subscription);
+   }
+
+   boolean unsubscribe(InMemoryMessageBrokerSubscription subscription) {
+      List<InMemoryMessageBrokerSubscription> subscriptions = topics.get(subscription.getTopic());
+      return subscriptions != null && subscriptions.remove(subscription);
+   }
+
+   void publish(String topic, Object payload, UUID messageId, MessageHeaders headers) {
+      publishedCount.increment();
+      long latency = this.latencyMillis;
+      if (latency == 0) {
+         deliver(topic, payload, messageId, headers);
+         return;
+      }
+      try {
+         getDeliveryExecutor().schedule(
+               () -> deliver(topic, payload, messageId, headers), latency, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         // closed concurrently
+         lostCount.increment();
+      }
+   }
+
+   private void deliver(String topic, Object payload, UUID messageId, MessageHeaders headers) {
+      List<InMemoryMessageBrokerSubscription> subscriptions = topics.get(topic);
+      if (subscriptions == null) {
+         return;
+      }
+      double loss = this.lossRate;
+      for (InMemoryMessageBrokerSubscription subscription : subscriptions) {
+         if (!subscription.getConnector().isConnected()) {
+            continue;
+         }
+         if (loss > 0 && ThreadLocalRandom.current().nextDouble() < loss) {
+            lostCount.increment();
+            continue;
+         }
+         try {
+            subscription.getHandler().onMessage(payload, messageId, headers);
+            deliveredCount.increment();
+         } catch (Exception e) {
+            this.logErrorMessage("Failed to deliver message to topic '" + topic + "'", e.toString());
+         }
+      }
+   }
+
+   private ScheduledExecutorService getDeliveryExecutor() {
+      ScheduledExecutorService executor = this.deliveryExecutor;
+      if (executor == null) {
+         synchronized (this) {
+            if (this.deliveryExecutor == null) {
+               this.deliveryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                  Thread thread = new Thread(runnable, "in-memory-broker-delivery");
+                  thread.setDaemon(true);
+                  return thread;
+               });
+            }
+            executor = this.deliveryExecutor;
+         }
+      }
+      return executor;
+   }
+
+   /**
+    * Create new InMemoryMessageBroker instance.
+    */
+   public static InMemoryMessageBroker newInstance() {
+      return new InMemoryMessageBroker();
+   }
+}
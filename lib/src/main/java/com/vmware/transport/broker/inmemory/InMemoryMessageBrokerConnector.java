@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker.inmemory;
+
+import com.vmware.transport.broker.GalacticMessageHandler;
+import com.vmware.transport.broker.MessageBrokerConnector;
+import com.vmware.transport.bus.model.MessageHeaders;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Connects the bus of a simulated node to an {@link InMemoryMessageBroker}.
+ *
+ * Message ids are passed to the subscribers, so galactic channels with local loopback
+ * drop their own echoes, and message headers are passed along with them. Messages can't be sent while the connector is disconnected and
+ * the subscriptions of a disconnected connector don't receive messages.
+ */
+public class InMemoryMessageBrokerConnector implements
+      MessageBrokerConnector<InMemoryGalacticChannelConfig, InMemoryMessageBrokerSubscription> {
+
+   private final InMemoryMessageBroker broker;
+   private final String messageBrokerId;
+
+   private volatile boolean connected;
+
+   InMemoryMessageBrokerConnector(InMemoryMessageBroker broker, String messageBrokerId) {
+      this.broker = broker;
+      this.messageBrokerId = messageBrokerId;
+   }
+
+   @Override
+   public String getMessageBrokerId() {
+      return this.messageBrokerId;
+   }
+
+   public boolean isConnected() {
+      return connected;
+   }
+
+   @Override
+   public InMemoryMessageBrokerSubscription subscribeToChannel(
+         InMemoryGalacticChannelConfig channelConfig, GalacticMessageHandler handler) {
+
+      InMemoryMessageBrokerSubscription subscription =
+            new InMemoryMessageBrokerSubscription(channelConfig.getTopic(), this, handler);
+      broker.subscribe(subscription);
+      return subscription;
+   }
+
+   @Override
+   public boolean unsubscribeFromChannel(InMemoryMessageBrokerSubscription subscription) {
+      return broker.unsubscribe(subscription);
+   }
+
+   @Override
+   public boolean sendMessage(InMemoryGalacticChannelConfig channelConfig, Object payload) {
+      return sendMessage(channelConfig, payload, null);
+   }
+
+   @Override
+   public boolean sendMessage(InMemoryGalacticChannelConfig channelConfig, Object payload, UUID messageId) {
+      return sendMessage(channelConfig, payload, messageId, null);
+   }
+
+   @Override
+   public boolean sendMessage(InMemoryGalacticChannelConfig channelConfig, Object payload, UUID messageId,
+                              MessageHeaders headers) {
+      if (!connected) {
+         return false;
+      }
+      broker.publish(channelConfig.getTopic(), payload, messageId, headers);
+      return true;
+   }
+
+   @Override
+   public int sendMessages(InMemoryGalacticChannelConfig channelConfig, List<Object> payloads) {
+      return sendMessages(channelConfig, payloads, null);
+   }
+
+   @Override
+   public int sendMessages(InMemoryGalacticChannelConfig channelConfig, List<Object> payloads,
+                           List<UUID> messageIds) {
+      return sendMessages(channelConfig, payloads, messageIds, null);
+   }
+
+   @Override
+   public int sendMessages(InMemoryGalacticChannelConfig channelConfig, List<Object> payloads,
+                           List<UUID> messageIds, List<MessageHeaders> headers) {
+      if (!connected) {
+         return 0;
+      }
+      for (int i = 0; i < payloads.size(); i++) {
+         broker.publish(channelConfig.getTopic(), payloads.get(i),
+               messageIds != null ? messageIds.get(i) : null,
+               headers != null ? headers.get(i) : null);
+      }
+      return payloads.size();
+   }
+
+   @Override
+   public void connectMessageBroker() {
+      this.connected = true;
+   }
+
+   @Override
+   public void disconnectMessageBroker() {
+      this.connected = false;
+   }
+}
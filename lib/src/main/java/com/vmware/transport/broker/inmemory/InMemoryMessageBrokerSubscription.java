@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker.inmemory;
+
+import com.vmware.transport.broker.GalacticMessageHandler;
+import com.vmware.transport.broker.MessageBrokerSubscription;
+import lombok.Getter;
+
+/**
+ * Subscription of a simulated node to an {@link InMemoryMessageBroker} topic.
+ */
+public class InMemoryMessageBrokerSubscription extends MessageBrokerSubscription {
+
+   @Getter
+   private final String topic;
+
+   @Getter
+   private final InMemoryMessageBrokerConnector connector;
+
+   @Getter
+   private final GalacticMessageHandler handler;
+
+   InMemoryMessageBrokerSubscription(String topic, InMemoryMessageBrokerConnector connector,
+                                     GalacticMessageHandler handler) {
+      this.topic = topic;
+      this.connector = connector;
+      this.handler = handler;
+   }
+}
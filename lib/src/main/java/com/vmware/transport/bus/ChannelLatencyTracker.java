@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.bus.model.ChannelLatencyStatistics;
+import com.vmware.transport.bus.model.MessageObject;
+import com.vmware.transport.bus.model.MessageType;
+import com.vmware.transport.core.util.Loggable;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Records the time between a request sent with an id and the first response or error
+ * with the same id on the same channel.
+ *
+ * The send time of pending requests is kept in a fixed size table per channel, latencies
+ * are recorded in HdrHistogram recorders. Neither allocates once a channel has been seen.
+ * Every interval the recorders are swapped on the tracker's thread and the statistics of
+ * the interval are computed and published.
+ */
+class ChannelLatencyTracker extends Loggable {
+
+    static final int PENDING_REQUESTS_PER_CHANNEL = 4096;
+
+    // Latencies are recorded in microseconds with 2 significant digits, up to an hour.
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, ChannelLatency> channels = new ConcurrentHashMap<>();
+    private final Consumer<List<ChannelLatencyStatistics>> publisher;
+    private final ScheduledExecutorService executor;
+
+    ChannelLatencyTracker(long intervalMillis, Consumer<List<ChannelLatencyStatistics>> publisher) {
+        this.publisher = publisher;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "channel-latency-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(this::publishStatistics, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Track a message sent with an id.
+     */
+    void track(String channel, MessageObject messageObject) {
+        UUID id = messageObject.getId();
+        if (messageObject.getType() == MessageType.MessageTypeRequest) {
+            ChannelLatency latency = channels.get(channel);
+            if (latency == null) {
+                latency = channels.computeIfAbsent(channel, ChannelLatency::new);
+            }
+            latency.pendingRequests.put(id, System.nanoTime());
+        } else {
+            ChannelLatency latency = channels.get(channel);
+            if (latency == null) {
+                return;
+            }
+            long sendTime = latency.pendingRequests.take(id);
+            if (sendTime != 0) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendTime);
+                latency.recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of the channel's last interval, null if no interval has completed.
+     */
+    ChannelLatencyStatistics getStatistics(String channel) {
+        ChannelLatency latency = channels.get(channel);
+        return latency != null ? latency.statistics : null;
+    }
+
+    /**
+     * Returns the statistics of the last interval of all channels.
+     */
+    List<ChannelLatencyStatistics> getStatistics() {
+        List<ChannelLatencyStatistics> result = new ArrayList<>();
+        for (ChannelLatency latency : channels.values()) {
+            if (latency.statistics != null) {
+                result.add(latency.statistics);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Complete the current interval of all channels and publish their statistics.
+     */
+    synchronized void publishStatistics() {
+        List<ChannelLatencyStatistics> statistics = new ArrayList<>(channels.size());
+        for (ChannelLatency latency : channels.values()) {
+            statistics.add(latency.completeInterval());
+        }
+        if (statistics.isEmpty()) {
+            return;
+        }
+        try {
+            publisher.accept(statistics);
+        } catch (Exception e) {
+            this.logErrorMessage("Failed to publish channel latency statistics", e.toString());
+        }
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private static class ChannelLatency {
+
+        final String channel;
+        final PendingRequests pendingRequests = new PendingRequests(PENDING_REQUESTS_PER_CHANNEL);
+        final Recorder recorder = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+        // Only accessed in publishStatistics().
+        Histogram interval;
+        long totalCount;
+        long untrackedCount;
+
+        volatile ChannelLatencyStatistics statistics;
+
+        ChannelLatency(String channel) {
+            this.channel = channel;
+        }
+
+        ChannelLatencyStatistics completeInterval() {
+            interval = recorder.getIntervalHistogram(interval);
+            long count = interval.getTotalCount();
+            totalCount += count;
+            long overwritten = pendingRequests.overwrittenCount.sumThenReset();
+            untrackedCount += overwritten;
+            statistics = new ChannelLatencyStatistics(channel,
+                    interval.getStartTimeStamp(), interval.getEndTimeStamp(),
+                    count, totalCount, untrackedCount,
+                    count > 0 ? interval.getMinValue() : 0,
+                    count > 0 ? interval.getMean() : 0,
+                    interval.getValueAtPercentile(50),
+                    interval.getValueAtPercentile(90),
+                    interval.getValueAtPercentile(99),
+                    interval.getValueAtPercentile(99.9),
+                    interval.getMaxValue());
+            return statistics;
+        }
+    }
+
+    /**
+     * Direct mapped table of the send times of pending requests. A request whose slot
+     * is taken replaces the older request, which is then counted as untracked.
+     */
+    static class PendingRequests {
+
+        private static final int LOCK_STRIPES = 16;
+
+        private final long[] mostSigBits;
+        private final long[] leastSigBits;
+        private final long[] sendTimes;
+        private final Object[] locks = new Object[LOCK_STRIPES];
+        private final int mask;
+        final LongAdder overwrittenCount = new LongAdder();
+
+        PendingRequests(int capacity) {
+            int size = capacity > 1 ? Integer.highestOneBit(capacity - 1) << 1 : 1;
+            this.mostSigBits = new long[size];
+            this.leastSigBits = new long[size];
+            this.sendTimes = new long[size];
+            this.mask = size - 1;
+            for (int i = 0; i < LOCK_STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        void put(UUID id, long sendTime) {
+            int slot = slot(id);
+            synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+                if (sendTimes[slot] != 0) {
+                    overwrittenCount.increment();
+                }
+                mostSigBits[slot] = id.getMostSignificantBits();
+                leastSigBits[slot] = id.getLeastSignificantBits();
+                // 0 marks a free slot.
+                sendTimes[slot] = sendTime != 0 ? sendTime : 1;
+            }
+        }
+
+        /**
+         * Remove the request and return its send time, 0 if the request is not pending.
+         */
+        long take(UUID id) {
+            int slot = slot(id);
+            synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+                long sendTime = sendTimes[slot];
+                if (sendTime == 0
+                        || mostSigBits[slot] != id.getMostSignificantBits()
+                        || leastSigBits[slot] != id.getLeastSignificantBits()) {
+                    return 0;
+                }
+                sendTimes[slot] = 0;
+                return sendTime;
+            }
+        }
+
+        private int slot(UUID id) {
+            int hash = id.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.vmware.transport.bus.model.MessageHeaders;
 import com.vmware.transport.bus.store.BusStoreApi;
 import io.reactivex.functions.Consumer;
 
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -801,6 +802,11 @@ public interface EventBus {
      */
     boolean isGalacticChannel(String channel);
 
+    /**
+     * Returns the names of the channels marked as galactic.
+     */
+    Set<String> getGalacticChannels();
+
     /**
      * Return reference to the bus store manager.
      * @return reference to the store manager
@@ -30,7 +30,10 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -726,20 +729,37 @@ public class EventBusImpl extends Loggable implements EventBus {
             // Register a request listener which will forward all requests
             // to the message broker. This will create a local {@link Channel} instance
             // which will act as a proxy to the message broker.
+            if (config.getBatching() != null) {
+                galacticChannel.batcher = new GalacticMessageBatcher(channel, config, messageBroker,
+                        message -> sendDroppedGalacticMessage(channel, message));
+            }
             galacticChannel.requestListener = this.listenRequestStream(channel, message -> {
+                UUID messageId = message.getId();
+                if (config.isLocalLoopback()) {
+                    // Deliver the message to the local subscribers right away and
+                    // remember its id so we can drop the echo from the message broker.
+                    if (messageId == null) {
+                        messageId = UUID.randomUUID();
+                    }
+                    galacticChannel.trackLoopbackMessage(messageId);
+                    sendResponseMessageWithId(channel, message.getPayload(), messageId, message.getHeaders());
+                }
+                if (galacticChannel.batcher != null) {
+                    galacticChannel.batcher.send(message, messageId);
+                    return;
+                }
                 boolean result;
                 String errorMsg = "";
                 try {
-                    result = messageBroker.sendMessage(config, message.getPayload());
+                    result = messageBroker.sendMessage(
+                            config, message.getPayload(), messageId, message.getHeaders());
                 } catch (Exception ex) {
                     errorMsg = ex.getMessage();
                     result = false;
                 }
                 if (!result) {
                     logErrorMessage("Failed to send galactic message to channel '" + channel + "' ", errorMsg);
-                    MonitorObject mo = new MonitorObject(
-                            MonitorType.MonitorDropped, channel, getName(), message);
-                    this.api.getMonitorStream().send(new MessageObject<>(MessageType.MessageTypeRequest, mo));
+                    sendDroppedGalacticMessage(channel, message);
                 }
             });
 
@@ -749,6 +769,11 @@ public class EventBusImpl extends Loggable implements EventBus {
         return true;
     }
 
+    private void sendDroppedGalacticMessage(String channel, Message message) {
+        MonitorObject mo = new MonitorObject(MonitorType.MonitorDropped, channel, getName(), message);
+        this.api.getMonitorStream().send(new MessageObject<>(MessageType.MessageTypeRequest, mo));
+    }
+
     @Override
     public boolean markChannelAsLocal(String channel) {
         GalacticChannelData galacticChannel = this.galacticChannelsMap.remove(channel);
@@ -767,6 +792,11 @@ public class EventBusImpl extends Loggable implements EventBus {
         return this.galacticChannelsMap.containsKey(channel);
     }
 
+    @Override
+    public Set<String> getGalacticChannels() {
+        return new HashSet<>(this.galacticChannelsMap.keySet());
+    }
+
     private void init() {
         if (useJazz) {
             this.logBannerMessage("\uD83C\uDF08", "Starting Transport with id ["
@@ -808,6 +838,20 @@ public class EventBusImpl extends Loggable implements EventBus {
                 sendResponseMessage(channelName, message);
             }
 
+            @Override
+            public void onMessage(Object message, UUID messageId) {
+                onMessage(message, messageId, null);
+            }
+
+            @Override
+            public void onMessage(Object message, UUID messageId, MessageHeaders headers) {
+                if (galacticChannel.isLoopbackEcho(messageId)) {
+                    // Already delivered to the local subscribers.
+                    return;
+                }
+                sendResponseMessageWithId(channelName, message, messageId, headers);
+            }
+
             @Override
             public void onError(Object error) {
                 sendErrorMessage(channelName, error);
@@ -823,18 +867,50 @@ public class EventBusImpl extends Loggable implements EventBus {
 
     private static class GalacticChannelData {
 
+        private static final int MAX_LOOPBACK_MESSAGE_IDS = 4096;
+
         final GalacticChannelConfig config;
         final MessageBrokerConnector messageBroker;
 
         BusTransaction requestListener;
 
+        GalacticMessageBatcher batcher;
+
         private MessageBrokerSubscription brokerSubscription;
 
         private int responseListeners = 0;
 
+        // Ids of the recent messages delivered with local loopback.
+        private final Map<UUID, Boolean> loopbackMessageIds;
+
         GalacticChannelData(GalacticChannelConfig config, MessageBrokerConnector messageBroker) {
             this.config = config;
             this.messageBroker = messageBroker;
+            this.loopbackMessageIds = new LinkedHashMap<UUID, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                    return size() > MAX_LOOPBACK_MESSAGE_IDS;
+                }
+            };
+        }
+
+        void trackLoopbackMessage(UUID messageId) {
+            synchronized (loopbackMessageIds) {
+                loopbackMessageIds.put(messageId, Boolean.TRUE);
+            }
+        }
+
+        /**
+         * Returns true if the message was sent by this bus and already delivered to
+         * the local subscribers, every echo is dropped only once.
+         */
+        boolean isLoopbackEcho(UUID messageId) {
+            if (messageId == null || !config.isLocalLoopback()) {
+                return false;
+            }
+            synchronized (loopbackMessageIds) {
+                return loopbackMessageIds.remove(messageId) != null;
+            }
         }
 
         /**
@@ -873,6 +949,10 @@ public class EventBusImpl extends Loggable implements EventBus {
             if (requestListener != null) {
                 requestListener.unsubscribe();
             }
+            if (batcher != null) {
+                // Send the already queued requests.
+                batcher.close();
+            }
             if (brokerSubscription != null) {
                 messageBroker.unsubscribeFromChannel(brokerSubscription);
                 responseListeners = 0;
@@ -6,11 +6,18 @@
 package com.vmware.transport.bus;
 
 import com.vmware.transport.bus.model.Channel;
+import com.vmware.transport.bus.model.ChannelLatencyStatistics;
 import com.vmware.transport.bus.model.Message;
 import com.vmware.transport.bus.model.MessageObject;
+import com.vmware.transport.bus.model.MonitorObject;
+import com.vmware.transport.bus.model.MonitorSamplingConfig;
+import com.vmware.transport.bus.model.MonitorType;
+import com.vmware.transport.bus.model.SlowHandlerReport;
+import com.vmware.transport.bus.model.SystemChannels;
 import io.reactivex.Observable;
 import io.reactivex.subjects.Subject;
 
+import java.util.List;
 import java.util.Map;
 
 public interface EventBusLowApi {
@@ -20,6 +27,12 @@ public interface EventBusLowApi {
      */
     Map<String, Channel> getChannelMap();
 
+    /**
+     * Returns a snapshot of the channels which can safely be iterated while channels are
+     * created and destroyed.
+     */
+    List<Channel> getChannels();
+
     /**
      * Get a subscription to the monitor channel.
      */
@@ -201,4 +214,84 @@ public interface EventBusLowApi {
      * @param error the error to be send.
      */
     void error(String channel, Error error);
+
+    /**
+     * Start recording the time between requests sent with an id and the response or error
+     * with the same id on the same channel. Every intervalMillis the latency statistics of
+     * the interval are computed and sent to {@link SystemChannels#CHANNEL_LATENCY} as a list
+     * of {@link ChannelLatencyStatistics}, if that channel exists.
+     *
+     * @param intervalMillis the length of the statistics intervals.
+     */
+    void enableLatencyTracking(long intervalMillis);
+
+    /**
+     * Stop recording request to response latencies, the statistics are discarded.
+     */
+    void disableLatencyTracking();
+
+    /**
+     * Returns true if request to response latencies are recorded.
+     */
+    boolean isLatencyTrackingEnabled();
+
+    /**
+     * Returns the latency statistics of the channel's last completed interval, null if
+     * latency tracking is disabled or the channel had no requests.
+     *
+     * @param channel the name of the channel.
+     */
+    ChannelLatencyStatistics getChannelLatencyStatistics(String channel);
+
+    /**
+     * Returns the latency statistics of the last completed interval of all channels.
+     */
+    List<ChannelLatencyStatistics> getChannelLatencyStatistics();
+
+    /**
+     * Start measuring message handlers and responders. Handlers running longer than the threshold
+     * are reported once on the monitor stream as {@link MonitorType#MonitorSlowHandler} events with
+     * a {@link SlowHandlerReport}, including a stack sample of the handler's thread if the handler
+     * was still running when it was detected.
+     *
+     * @param thresholdMillis the duration after which a handler is reported.
+     */
+    void enableSlowHandlerDetection(long thresholdMillis);
+
+    /**
+     * Stop measuring message handlers.
+     */
+    void disableSlowHandlerDetection();
+
+    /**
+     * Returns true if slow handlers are reported.
+     */
+    boolean isSlowHandlerDetectionEnabled();
+
+    /**
+     * Start publishing a sample of the monitor stream's events on the sampled monitor stream.
+     * The config selects the events by channel and type and decides if the messages carried by
+     * the events are kept. Events are buffered and published on a separate thread, so subscribers
+     * of the sampled monitor stream never slow down the senders; events which don't fit in the
+     * buffer are discarded. Enabling sampling again replaces the previous config.
+     *
+     * @param config the sampling configuration.
+     */
+    void enableMonitorSampling(MonitorSamplingConfig config);
+
+    /**
+     * Stop publishing events on the sampled monitor stream, buffered events are discarded.
+     */
+    void disableMonitorSampling();
+
+    /**
+     * Returns true if monitor events are sampled.
+     */
+    boolean isMonitorSamplingEnabled();
+
+    /**
+     * Returns the sampled monitor stream. Subscriptions remain valid when sampling is disabled
+     * or reconfigured.
+     */
+    Observable<MonitorObject> getSampledMonitor();
 }
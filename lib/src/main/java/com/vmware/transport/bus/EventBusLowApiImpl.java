@@ -6,25 +6,44 @@
 package com.vmware.transport.bus;
 
 import com.vmware.transport.bus.model.Channel;
+import com.vmware.transport.bus.model.ChannelLatencyStatistics;
 import com.vmware.transport.bus.model.Message;
 import com.vmware.transport.bus.model.MessageHeaders;
 import com.vmware.transport.bus.model.MessageObject;
 import com.vmware.transport.bus.model.MessageType;
 import com.vmware.transport.bus.model.MonitorChannel;
 import com.vmware.transport.bus.model.MonitorObject;
+import com.vmware.transport.bus.model.MonitorSamplingConfig;
 import com.vmware.transport.bus.model.MonitorType;
+import com.vmware.transport.bus.model.SlowHandlerReport;
 import com.vmware.transport.bus.model.SystemChannels;
+import com.vmware.transport.core.jfr.ChannelCreatedEvent;
+import com.vmware.transport.core.jfr.ChannelDestroyedEvent;
+import com.vmware.transport.core.jfr.MessageSendEvent;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
+import com.vmware.transport.core.tracing.TraceContext;
+import com.vmware.transport.core.tracing.TransportTracing;
 import com.vmware.transport.core.util.Loggable;
 import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @SuppressWarnings("unchecked")
 public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
+    private static final int MAX_TRACED_REQUESTS = 4096;
+
     private final Map<String, Channel> internalChannelMap;
 
     private final Map<String, Map<String, Object>> channelAttributesMap;
@@ -35,6 +54,22 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
     private boolean dumpMonitor;
 
+    private volatile ChannelLatencyTracker latencyTracker;
+
+    private volatile SlowHandlerWatchdog slowHandlerWatchdog;
+
+    private volatile MonitorSampler monitorSampler;
+    private final Subject<MonitorObject> sampledMonitor = PublishSubject.<MonitorObject>create().toSerialized();
+
+    /**
+     * The trace context of recent requests, so responses sent from another thread
+     * (or without the request's headers) continue the trace of their request.
+     * The oldest requests are removed in insertion order once the map is full.
+     */
+    private final Map<UUID, TraceContext> requestTraceContexts = new ConcurrentHashMap<>();
+    private final Queue<UUID> tracedRequestIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tracedRequestCount = new AtomicInteger();
+
     public EventBusLowApiImpl(Map<String, Channel> channelMap) {
         this.internalChannelMap = channelMap;
 
@@ -64,6 +99,13 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
         return Collections.unmodifiableMap(this.internalChannelMap);
     }
 
+    @Override
+    public List<Channel> getChannels() {
+        synchronized (this.internalChannelMap) {
+            return new ArrayList<>(this.internalChannelMap.values());
+        }
+    }
+
     @Override
     public Subject<Message> getMonitor() {
         return this.monitorStream.getStreamObject();
@@ -130,6 +172,7 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
     public Channel getChannelObject(String cname, String from, boolean noRefCount) {
         Channel channel;
         String symbol = " [+] ";
+        boolean created = false;
 
         synchronized (this.internalChannelMap) {
             if (this.internalChannelMap.containsKey(cname)) {
@@ -139,11 +182,15 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
                 this.internalChannelMap.put(cname, channel);
                 this.channelAttributesMap.put(cname, new ConcurrentHashMap<>());
                 symbol = " [+++] ";
+                created = true;
             }
             if (!noRefCount) {
                 channel.increment();
             }
         }
+        if (created) {
+            ChannelCreatedEvent.record(cname, from);
+        }
 
         MonitorObject mo = new MonitorObject(MonitorType.MonitorNewChannel, cname, from, symbol);
         this.monitorStream.send(new MessageObject<>(MessageType.MessageTypeRequest, mo));
@@ -169,8 +216,15 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
     @Override
     public Observable<Message> getChannel(String channel, String from, boolean noRefCount) {
-        return this.getChannelObject(channel, from, noRefCount)
-              .getStreamObject();
+        Channel channelObject = this.getChannelObject(channel, from, noRefCount);
+        return this.countDeliveries(channelObject, channelObject.getStreamObject());
+    }
+
+    /**
+     * Count the messages which pass the stream's filters as delivered on the channel.
+     */
+    private Observable<Message> countDeliveries(Channel channel, Observable<Message> stream) {
+        return stream.doOnNext((Message message) -> channel.getDeliveryMeter().record());
     }
 
     @Override
@@ -199,10 +253,11 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
     @Override
     public Observable<Message> getRequestChannel(String channel, String from, boolean noRefCount) {
-        return this.getChannel(channel, from, noRefCount)
+        Channel channelObject = this.getChannelObject(channel, from, noRefCount);
+        return this.countDeliveries(channelObject, channelObject.getStreamObject()
               .filter(
                     (Message message) -> message.isRequest()
-              );
+              ));
     }
 
     @Override
@@ -212,10 +267,11 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
     @Override
     public Observable<Message> getResponseChannel(String channel, String from, boolean noRefCount) {
-        return this.getChannel(channel, from, noRefCount)
+        Channel channelObject = this.getChannelObject(channel, from, noRefCount);
+        return this.countDeliveries(channelObject, channelObject.getStreamObject()
               .filter(
                     (Message message) -> message.isResponse()
-              );
+              ));
     }
 
     @Override
@@ -225,16 +281,21 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
     @Override
     public Observable<Message> getErrorChannel(String channel, String from, boolean noRefCount) {
-        return this.getChannel(channel, from, noRefCount)
+        Channel channelObject = this.getChannelObject(channel, from, noRefCount);
+        return this.countDeliveries(channelObject, channelObject.getStreamObject()
               .filter(
                     (Message message) -> message.isError()
-              );
+              ));
     }
 
     @Override
     public void send(String channel, MessageObject messageObject, String from) {
         MonitorObject mo;
 
+        if (TransportTracing.isEnabled()) {
+            this.propagateTraceContext(messageObject);
+        }
+
         Channel channelObj;
         synchronized (this.internalChannelMap) {
             channelObj = this.internalChannelMap.get(channel);
@@ -258,6 +319,7 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
             this.logWarnMessage(String.format("Failed to send message. Cannot find channel: %s", channel));
             mo = new MonitorObject(MonitorType.MonitorDropped, channel, from, messageObject);
             this.monitorStream.send(new MessageObject<>(MessageType.MessageTypeRequest, mo));
+            TransportMetricsHolder.get().messageDropped(channel);
             return;
         }
 
@@ -271,7 +333,17 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
 
         mo = new MonitorObject(type, channel, from, messageObject);
         this.monitorStream.send(new MessageObject<>(MessageType.MessageTypeRequest, mo));
+        TransportMetricsHolder.get().messageSent(channel, messageObject.getType());
+
+        // requests must be tracked before they are delivered, handlers may respond synchronously.
+        ChannelLatencyTracker tracker = this.latencyTracker;
+        if (tracker != null && messageObject.getId() != null) {
+            tracker.track(channel, messageObject);
+        }
+        MessageSendEvent event = new MessageSendEvent();
+        event.begin();
         channelObj.send(messageObject);
+        event.complete(channel, messageObject.getType(), messageObject.getPayload(), from);
 
     }
 
@@ -291,9 +363,153 @@ public class EventBusLowApiImpl extends Loggable implements EventBusLowApi {
         channelObj.error(error);
     }
 
+    @Override
+    public synchronized void enableLatencyTracking(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be positive.");
+        }
+        this.disableLatencyTracking();
+        this.latencyTracker = new ChannelLatencyTracker(intervalMillis, this::publishLatencyStatistics);
+    }
+
+    @Override
+    public synchronized void disableLatencyTracking() {
+        if (this.latencyTracker != null) {
+            this.latencyTracker.close();
+            this.latencyTracker = null;
+        }
+    }
+
+    @Override
+    public boolean isLatencyTrackingEnabled() {
+        return this.latencyTracker != null;
+    }
+
+    @Override
+    public ChannelLatencyStatistics getChannelLatencyStatistics(String channel) {
+        ChannelLatencyTracker tracker = this.latencyTracker;
+        return tracker != null ? tracker.getStatistics(channel) : null;
+    }
+
+    @Override
+    public List<ChannelLatencyStatistics> getChannelLatencyStatistics() {
+        ChannelLatencyTracker tracker = this.latencyTracker;
+        return tracker != null ? tracker.getStatistics() : Collections.emptyList();
+    }
+
+    /**
+     * Returns the latency tracker, null if latency tracking is disabled.
+     */
+    ChannelLatencyTracker getLatencyTracker() {
+        return this.latencyTracker;
+    }
+
+    @Override
+    public synchronized void enableSlowHandlerDetection(long thresholdMillis) {
+        SlowHandlerWatchdog watchdog = new SlowHandlerWatchdog(thresholdMillis, this::reportSlowHandler);
+        this.disableSlowHandlerDetection();
+        this.slowHandlerWatchdog = watchdog;
+    }
+
+    @Override
+    public synchronized void disableSlowHandlerDetection() {
+        if (this.slowHandlerWatchdog != null) {
+            this.slowHandlerWatchdog.close();
+            this.slowHandlerWatchdog = null;
+        }
+    }
+
+    @Override
+    public boolean isSlowHandlerDetectionEnabled() {
+        return this.slowHandlerWatchdog != null;
+    }
+
+    SlowHandlerWatchdog getSlowHandlerWatchdog() {
+        return this.slowHandlerWatchdog;
+    }
+
+    @Override
+    public synchronized void enableMonitorSampling(MonitorSamplingConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config cannot be null.");
+        }
+        this.disableMonitorSampling();
+        this.monitorSampler = new MonitorSampler(
+              this.monitorStream.getStreamObject(), config, this.sampledMonitor::onNext);
+    }
+
+    @Override
+    public synchronized void disableMonitorSampling() {
+        if (this.monitorSampler != null) {
+            this.monitorSampler.close();
+            this.monitorSampler = null;
+        }
+    }
+
+    @Override
+    public boolean isMonitorSamplingEnabled() {
+        return this.monitorSampler != null;
+    }
+
+    @Override
+    public Observable<MonitorObject> getSampledMonitor() {
+        return this.sampledMonitor;
+    }
+
+    MonitorSampler getMonitorSampler() {
+        return this.monitorSampler;
+    }
+
+    private void reportSlowHandler(SlowHandlerReport report) {
+        this.logWarnMessage("Slow message handler detected: " + report);
+        TransportMetricsHolder.get().slowHandlerDetected(
+              report.channel, TimeUnit.MILLISECONDS.toNanos(report.durationMillis));
+        MonitorObject mo = new MonitorObject(
+              MonitorType.MonitorSlowHandler, report.channel, "SlowHandlerWatchdog", report);
+        this.monitorStream.send(new MessageObject<>(MessageType.MessageTypeRequest, mo));
+    }
+
+    /**
+     * Add the trace context of the current operation to messages which don't carry one yet.
+     * Responses and errors sent outside the request's handler fall back to the context of their request.
+     */
+    private void propagateTraceContext(MessageObject messageObject) {
+        UUID id = messageObject.getId();
+        TraceContext context = TransportTracing.extract(messageObject.getHeaders());
+        if (context == null) {
+            context = TransportTracing.getCurrentContext();
+            if (context == null && id != null && !messageObject.isRequest()) {
+                context = this.requestTraceContexts.get(id);
+            }
+            if (context == null) {
+                return;
+            }
+            messageObject.setHeaders(TransportTracing.inject(messageObject.getHeaders(), context));
+        }
+        if (id != null && messageObject.isRequest() && this.requestTraceContexts.put(id, context) == null) {
+            this.tracedRequestIds.offer(id);
+            if (this.tracedRequestCount.incrementAndGet() > MAX_TRACED_REQUESTS) {
+                UUID oldestId = this.tracedRequestIds.poll();
+                if (oldestId != null) {
+                    this.requestTraceContexts.remove(oldestId);
+                    this.tracedRequestCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void publishLatencyStatistics(List<ChannelLatencyStatistics> statistics) {
+        // avoid creating the channel or logging dropped messages while nobody listens.
+        if (this.internalChannelMap.containsKey(SystemChannels.CHANNEL_LATENCY)) {
+            this.send(SystemChannels.CHANNEL_LATENCY,
+                    new MessageObject<>(MessageType.MessageTypeResponse, statistics), "ChannelLatencyTracker");
+        }
+    }
+
     private void destroy(Channel channel, String from, boolean removeFromMap) {
         MonitorObject mo = new MonitorObject(MonitorType.MonitorDestroyChannel, channel.getName(), from);
         this.monitorStream.send(new MessageObject(MessageType.MessageTypeResponse, mo));
+        ChannelDestroyedEvent.record(channel.getName(), from);
         if (removeFromMap) {
             synchronized (this.internalChannelMap) {
                 this.internalChannelMap.remove(channel.getName());
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.broker.GalacticChannelBatching;
+import com.vmware.transport.broker.GalacticChannelConfig;
+import com.vmware.transport.broker.MessageBrokerConnector;
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
+import com.vmware.transport.core.util.Loggable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Forwards the requests of a batched galactic channel to the message broker.
+ *
+ * The bus thread only adds the message to a bounded queue, batches are sent on the
+ * batcher's own thread. A failed batch is retried with exponential backoff, new batches
+ * wait until it is sent so the messages reach the broker in order. Messages are dropped
+ * when the queue is full or the batch runs out of retries.
+ */
+class GalacticMessageBatcher extends Loggable {
+
+    private final String channel;
+    private final GalacticChannelConfig config;
+    private final MessageBrokerConnector messageBroker;
+    private final GalacticChannelBatching batching;
+    private final Consumer<Message> dropHandler;
+
+    private final BlockingQueue<BatchedMessage> queue;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicBoolean lingerFlushPending = new AtomicBoolean();
+    private final AtomicBoolean sizeFlushPending = new AtomicBoolean();
+
+    // Only accessed on the executor thread.
+    private List<BatchedMessage> failedBatch;
+    private int failedAttempts;
+
+    GalacticMessageBatcher(String channel, GalacticChannelConfig config,
+                           MessageBrokerConnector messageBroker, Consumer<Message> dropHandler) {
+        this.channel = channel;
+        this.config = config;
+        this.messageBroker = messageBroker;
+        this.batching = config.getBatching();
+        this.dropHandler = dropHandler;
+        this.queue = new ArrayBlockingQueue<>(batching.getQueueCapacity());
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "galactic-batcher-" + channel);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue the message, never blocks.
+     */
+    void send(Message message, UUID messageId) {
+        BatchedMessage batchedMessage = new BatchedMessage(message, messageId);
+        if (!queue.offer(batchedMessage)) {
+            logErrorMessage("Failed to send galactic message to channel '" + channel + "' ",
+                    "batching queue is full");
+            dropHandler.accept(message);
+            return;
+        }
+        try {
+            if (queue.size() >= batching.getMaxBatchSize()) {
+                if (sizeFlushPending.compareAndSet(false, true)) {
+                    executor.execute(() -> {
+                        sizeFlushPending.set(false);
+                        flush();
+                    });
+                }
+            } else if (lingerFlushPending.compareAndSet(false, true)) {
+                executor.schedule(() -> {
+                    lingerFlushPending.set(false);
+                    flush();
+                }, batching.getLingerMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // The batcher was closed, the message will not be send.
+            if (queue.remove(batchedMessage)) {
+                dropHandler.accept(message);
+            }
+        }
+    }
+
+    /**
+     * Send the queued messages and stop the batcher thread.
+     */
+    void close() {
+        try {
+            executor.execute(this::flush);
+        } catch (RejectedExecutionException ignored) {
+            // already closed
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Send all queued messages, must be called on the executor thread.
+     */
+    private void flush() {
+        if (failedBatch != null) {
+            // The retry will flush the queue once the failed batch is sent.
+            return;
+        }
+        while (!queue.isEmpty()) {
+            List<BatchedMessage> batch = new ArrayList<>(batching.getMaxBatchSize());
+            queue.drainTo(batch, batching.getMaxBatchSize());
+            if (!sendBatch(batch)) {
+                return;
+            }
+        }
+    }
+
+    private void retry() {
+        if (sendBatch(failedBatch)) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns false if the batch failed and a retry was scheduled.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean sendBatch(List<BatchedMessage> batch) {
+        List<Object> payloads = new ArrayList<>(batch.size());
+        List<UUID> messageIds = new ArrayList<>(batch.size());
+        List<MessageHeaders> headers = new ArrayList<>(batch.size());
+        for (BatchedMessage batchedMessage : batch) {
+            payloads.add(batchedMessage.message.getPayload());
+            messageIds.add(batchedMessage.id);
+            headers.add(batchedMessage.message.getHeaders());
+        }
+
+        int sent;
+        String errorMsg = "";
+        try {
+            sent = messageBroker.sendMessages(config, payloads, messageIds, headers);
+        } catch (Exception ex) {
+            errorMsg = ex.toString();
+            sent = 0;
+        }
+        if (sent >= batch.size()) {
+            failedBatch = null;
+            failedAttempts = 0;
+            return true;
+        }
+
+        List<BatchedMessage> remaining = new ArrayList<>(batch.subList(Math.max(sent, 0), batch.size()));
+        if (failedAttempts < batching.getMaxRetries() && !executor.isShutdown()) {
+            long delay = batching.getRetryBackoffMillis() << Math.min(failedAttempts, 20);
+            failedBatch = remaining;
+            failedAttempts++;
+            logWarnMessage("Failed to send galactic batch to channel '" + channel + "', retrying in "
+                    + delay + "ms " + errorMsg);
+            try {
+                executor.schedule(this::retry, delay, TimeUnit.MILLISECONDS);
+                return false;
+            } catch (RejectedExecutionException ignored) {
+                // closed while retrying, drop the batch
+            }
+        }
+
+        logErrorMessage("Failed to send galactic message to channel '" + channel + "' ",
+                remaining.size() + " messages dropped " + errorMsg);
+        failedBatch = null;
+        failedAttempts = 0;
+        for (BatchedMessage batchedMessage : remaining) {
+            dropHandler.accept(batchedMessage.message);
+        }
+        return true;
+    }
+
+    private static class BatchedMessage {
+        final Message message;
+        final UUID id;
+
+        BatchedMessage(Message message, UUID id) {
+            this.message = message;
+            this.id = id;
+        }
+    }
+}
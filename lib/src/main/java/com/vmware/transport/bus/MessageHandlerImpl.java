@@ -8,6 +8,11 @@ package com.vmware.transport.bus;
 import com.vmware.transport.bus.model.Message;
 import com.vmware.transport.bus.model.MessageObjectHandlerConfig;
 import com.vmware.transport.bus.model.MessageType;
+import com.vmware.transport.core.jfr.MessageHandlerEvent;
+import com.vmware.transport.core.metrics.TransportMetrics;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
+import com.vmware.transport.core.tracing.TraceContext;
+import com.vmware.transport.core.tracing.TransportTracing;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Consumer;
@@ -55,7 +60,19 @@ public class MessageHandlerImpl<T> implements MessageHandler<T> {
     private Consumer<Message> createHandler(Consumer<Message> consumer) {
         return (Message message) -> {
             if (consumer != null) {
-                consumer.accept(message);
+                TraceContext context = TransportTracing.isEnabled()
+                      ? TransportTracing.extract(message.getHeaders()) : null;
+                if (context != null) {
+                    // messages sent by the handler continue the trace of the message it handles.
+                    TraceContext previous = TransportTracing.setCurrentContext(context);
+                    try {
+                        this.accept(consumer, message);
+                    } finally {
+                        TransportTracing.setCurrentContext(previous);
+                    }
+                } else {
+                    this.accept(consumer, message);
+                }
             }
             if (this.config.isSingleResponse()) {
                 this.bus.closeChannel(this.config.getReturnChannel(), this.getClass().getName());
@@ -65,6 +82,41 @@ public class MessageHandlerImpl<T> implements MessageHandler<T> {
         };
     }
 
+    private void accept(Consumer<Message> consumer, Message message) throws Exception {
+        MessageHandlerEvent event = new MessageHandlerEvent();
+        event.begin();
+        SlowHandlerWatchdog watchdog = SlowHandlerWatchdog.of(this.bus);
+        SlowHandlerWatchdog.Invocation invocation =
+              watchdog != null ? watchdog.begin(this.config.getReturnChannel()) : null;
+        boolean failed = true;
+        try {
+            TransportMetrics metrics = TransportMetricsHolder.get();
+            if (metrics.isEnabled()) {
+                this.acceptAndRecord(consumer, message, metrics);
+            } else {
+                consumer.accept(message);
+            }
+            failed = false;
+        } finally {
+            if (invocation != null) {
+                watchdog.end(invocation);
+            }
+            event.complete(this.config.getReturnChannel(), message.getPayload(), failed);
+        }
+    }
+
+    private void acceptAndRecord(Consumer<Message> consumer, Message message, TransportMetrics metrics)
+          throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            consumer.accept(message);
+            failed = false;
+        } finally {
+            metrics.handlerCompleted(this.config.getReturnChannel(), System.nanoTime() - start, failed);
+        }
+    }
+
     @Override
     public Disposable handle(Consumer<Message> successHandler, Consumer<Message> errorHandler) {
         if (this.requestStream) {
@@ -7,6 +7,7 @@ package com.vmware.transport.bus;
 
 import com.vmware.transport.bus.model.Message;
 import com.vmware.transport.bus.model.MessageObjectHandlerConfig;
+import com.vmware.transport.core.jfr.MessageHandlerEvent;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Consumer;
@@ -30,7 +31,7 @@ public class MessageResponderImpl<T> implements MessageResponder<T> {
         return (Message message) -> {
             if (supplier != null) {
                 String returnChannel = this.config.getReturnChannel();
-                T response = supplier.apply(message);
+                T response = this.generateResponse(supplier, message);
                 if (message.getId() != null) {
                     this.bus.sendResponseMessageWithId(returnChannel, response, message.getId());
                 } else {
@@ -43,6 +44,25 @@ public class MessageResponderImpl<T> implements MessageResponder<T> {
         };
     }
 
+    private T generateResponse(Function<Message, T> supplier, Message message) {
+        MessageHandlerEvent event = new MessageHandlerEvent();
+        event.begin();
+        SlowHandlerWatchdog watchdog = SlowHandlerWatchdog.of(this.bus);
+        SlowHandlerWatchdog.Invocation invocation =
+                watchdog != null ? watchdog.begin(this.config.getSendChannel()) : null;
+        boolean failed = true;
+        try {
+            T response = supplier.apply(message);
+            failed = false;
+            return response;
+        } finally {
+            if (invocation != null) {
+                watchdog.end(invocation);
+            }
+            event.complete(this.config.getSendChannel(), message.getPayload(), failed);
+        }
+    }
+
     public Disposable generate(Function<Message, T> generator) {
         this.channel = this.bus.getApi().getRequestChannel(this.config.getSendChannel(), this.getClass().getName());
         if (this.config.isSingleResponse()) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MonitorObject;
+import com.vmware.transport.bus.model.MonitorSamplingConfig;
+import com.vmware.transport.core.util.Loggable;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Selects a sample of the monitor stream's events and publishes them on its own thread.
+ *
+ * The monitor stream is delivered synchronously on the thread which sent the message, so the
+ * sampler only filters and buffers the events there. Publishing happens on the sampler's thread,
+ * slow subscribers fill the buffer and the events which don't fit are discarded instead of
+ * slowing down the senders.
+ */
+class MonitorSampler extends Loggable {
+
+    // bounds the per channel sample rate cache, the cache is cleared when it is full.
+    private static final int MAX_CACHED_CHANNELS = 10000;
+
+    private final MonitorSamplingConfig config;
+    private final Consumer<MonitorObject> publisher;
+    private final BlockingQueue<MonitorObject> buffer;
+    private final Map<String, Double> sampleRates = new ConcurrentHashMap<>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Disposable subscription;
+    private final Thread thread;
+
+    MonitorSampler(Observable<Message> monitor, MonitorSamplingConfig config, Consumer<MonitorObject> publisher) {
+        this.config = config;
+        this.publisher = publisher;
+        this.buffer = new ArrayBlockingQueue<>(config.getBufferSize());
+        this.thread = new Thread(this::publishEvents, "monitor-sampler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.subscription = monitor.subscribe(this::sample);
+    }
+
+    /**
+     * Returns the number of sampled events discarded because the buffer was full.
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    void close() {
+        subscription.dispose();
+        thread.interrupt();
+        buffer.clear();
+    }
+
+    private void sample(Message message) {
+        if (!(message.getPayload() instanceof MonitorObject)) {
+            return;
+        }
+        MonitorObject mo = (MonitorObject) message.getPayload();
+        if (!config.isTypeSampled(mo.getType())) {
+            return;
+        }
+        double sampleRate = getSampleRate(mo.getChannel());
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (!config.isCapturePayload() && mo.getData() instanceof Message) {
+            mo = new MonitorObject(mo.getType(), mo.getChannel(), mo.getFrom());
+        }
+        if (!buffer.offer(mo) && droppedCount.getAndIncrement() == 0) {
+            this.logWarnMessage("Monitor sampler buffer is full, discarding sampled events.");
+        }
+    }
+
+    private double getSampleRate(String channel) {
+        if (channel == null) {
+            return config.getDefaultSampleRate();
+        }
+        Double sampleRate = sampleRates.get(channel);
+        if (sampleRate == null) {
+            if (sampleRates.size() >= MAX_CACHED_CHANNELS) {
+                sampleRates.clear();
+            }
+            sampleRate = config.getSampleRate(channel);
+            sampleRates.put(channel, sampleRate);
+        }
+        return sampleRate;
+    }
+
+    private void publishEvents() {
+        while (!Thread.currentThread().isInterrupted()) {
+            MonitorObject mo;
+            try {
+                mo = buffer.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                publisher.accept(mo);
+            } catch (Exception e) {
+                this.logErrorMessage("Failed to publish sampled monitor event", e.toString());
+            }
+        }
+    }
+}
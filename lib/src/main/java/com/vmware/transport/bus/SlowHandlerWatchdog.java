@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.bus.model.SlowHandlerReport;
+import com.vmware.transport.core.util.Loggable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures message handler invocations and reports the ones which run longer than the threshold.
+ *
+ * Delivery is synchronous, so a blocked handler stalls the thread which sent the message.
+ * The watchdog's thread checks the running invocations several times per threshold and reports
+ * a stuck handler with a stack sample of its thread while it is still running. Handlers which
+ * exceed the threshold between two checks are reported when they complete. Every slow
+ * invocation is reported once.
+ */
+class SlowHandlerWatchdog extends Loggable {
+
+    private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
+
+    private static final long MIN_CHECK_INTERVAL_MILLIS = 5;
+
+    private final long thresholdMillis;
+    private final long thresholdNanos;
+    private final Consumer<SlowHandlerReport> reporter;
+    private final Set<Invocation> invocations = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor;
+
+    SlowHandlerWatchdog(long thresholdMillis, Consumer<SlowHandlerReport> reporter) {
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("thresholdMillis must be positive.");
+        }
+        this.thresholdMillis = thresholdMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.reporter = reporter;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-handler-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkInterval = Math.max(MIN_CHECK_INTERVAL_MILLIS, thresholdMillis / 4);
+        this.executor.scheduleAtFixedRate(this::checkInvocations, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the watchdog of the bus, null if slow handler detection is disabled.
+     */
+    static SlowHandlerWatchdog of(EventBus bus) {
+        EventBusLowApi api = bus.getApi();
+        return api instanceof EventBusLowApiImpl ? ((EventBusLowApiImpl) api).getSlowHandlerWatchdog() : null;
+    }
+
+    /**
+     * Start measuring a handler invocation on the current thread.
+     */
+    Invocation begin(String channel) {
+        Invocation invocation = new Invocation(channel, Thread.currentThread(), System.nanoTime());
+        invocations.add(invocation);
+        return invocation;
+    }
+
+    /**
+     * Complete the invocation, reports it if it was slow and has not been reported yet.
+     */
+    void end(Invocation invocation) {
+        invocations.remove(invocation);
+        long duration = System.nanoTime() - invocation.startNanos;
+        if (duration >= thresholdNanos && invocation.markReported()) {
+            report(invocation, duration, true, NO_STACK_TRACE);
+        }
+    }
+
+    /**
+     * Report the invocations which have been running longer than the threshold.
+     */
+    void checkInvocations() {
+        long now = System.nanoTime();
+        for (Invocation invocation : invocations) {
+            long duration = now - invocation.startNanos;
+            if (duration >= thresholdNanos && invocation.markReported()) {
+                report(invocation, duration, false, invocation.thread.getStackTrace());
+            }
+        }
+    }
+
+    void close() {
+        executor.shutdownNow();
+        invocations.clear();
+    }
+
+    private void report(Invocation invocation, long durationNanos, boolean completed, StackTraceElement[] stack) {
+        SlowHandlerReport report = new SlowHandlerReport(
+              invocation.channel,
+              invocation.thread.getName(),
+              invocation.thread.getId(),
+              TimeUnit.NANOSECONDS.toMillis(durationNanos),
+              thresholdMillis,
+              completed,
+              stack);
+        try {
+            reporter.accept(report);
+        } catch (Exception e) {
+            this.logErrorMessage("Failed to report slow handler", e.toString());
+        }
+    }
+
+    static class Invocation {
+
+        final String channel;
+        final Thread thread;
+        final long startNanos;
+
+        private boolean reported;
+
+        Invocation(String channel, Thread thread, long startNanos) {
+            this.channel = channel;
+            this.thread = thread;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Returns true for the first caller only.
+         */
+        synchronized boolean markReported() {
+            if (reported) {
+                return false;
+            }
+            reported = true;
+            return true;
+        }
+    }
+}
@@ -7,12 +7,17 @@ package com.vmware.transport.bus;
 
 import com.vmware.transport.bus.model.Message;
 import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Asynchronous or synchronous transaction composed of bus requests. When committed asynchronous
  * transactions fire all requests at once and return once all of them complete. Synchronous transactions
  * will fire requests in sequence and only proceed to the next transaction event once
- * the preceding response has returned.
+ * the preceding response has returned. DAG transactions fire each request as soon as
+ * the requests it depends on have returned.
  */
 public interface Transaction {
 
@@ -23,6 +28,18 @@ public interface Transaction {
      */
     void sendRequest(String channel, Object payload);
 
+    /**
+     * Create a command to a channel which depends on earlier requests of a DAG transaction.
+     * The command is sent once all its dependencies have completed, independent commands
+     * are sent in parallel.
+     * @param channel channel to send the command to
+     * @param payloadFunction function which receives the responses of the dependencies, in the
+     *                        order they were listed, and returns the payload of the command.
+     * @param dependencies indices of the earlier requests this command depends on.
+     * @return the index of the request, which can be used as a dependency of later requests.
+     */
+    int sendRequest(String channel, Function<Message[], Object> payloadFunction, int... dependencies);
+
     /**
      * Wait for a store to be ready / initialized as a part of this transaction.
      * @param storeType, the ID of the store.
@@ -46,6 +63,28 @@ public interface Transaction {
      */
     void onError(Consumer<Message> errorHandler);
 
+    /**
+     * Abort the transaction if a single request doesn't complete within the timeout.
+     * The timeout of each request starts when the request is sent.
+     * @param timeout the timeout, 0 for no timeout.
+     * @param unit the unit of the timeout.
+     */
+    void setRequestTimeout(long timeout, TimeUnit unit);
+
+    /**
+     * Abort the transaction if it doesn't complete within the timeout after it was committed.
+     * @param timeout the timeout, 0 for no timeout.
+     * @param unit the unit of the timeout.
+     */
+    void setTimeout(long timeout, TimeUnit unit);
+
+    /**
+     * Limit the number of requests an asynchronous transaction has in flight at the same time.
+     * The remaining requests are sent as the earlier ones complete, in the order they were queued.
+     * @param maxParallelRequests the limit, 0 for no limit.
+     */
+    void setMaxParallelRequests(int maxParallelRequests);
+
     /**
      * Commit the transaction, all requests will be sent and will wait for responses.
      * Once all the responses are in, onComplete handlers will be called with the responses.
@@ -54,11 +93,19 @@ public interface Transaction {
      */
     TransactionReceipt commit();
 
+    /**
+     * Commit the transaction and return a future which completes with all responses
+     * in the order the requests were sent. If the transaction is aborted, the future
+     * completes exceptionally with a {@link TransactionException}.
+     */
+    CompletableFuture<Message[]> commitAsync();
+
     /**
      * Transaction type.
      */
     enum TransactionType {
         ASYNC,
-        SYNC
+        SYNC,
+        DAG
     }
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2018-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus;
+
+import com.vmware.transport.bus.model.Message;
+import lombok.Getter;
+
+/**
+ * Completes the future returned by {@link Transaction#commitAsync()} when
+ * the transaction is aborted because of an error or a timeout.
+ */
+public class TransactionException extends RuntimeException {
+
+    /**
+     * The error message which aborted the transaction.
+     */
+    @Getter
+    private final Message errorMessage;
+
+    public TransactionException(String message, Message errorMessage) {
+        super(message);
+        this.errorMessage = errorMessage;
+    }
+}
@@ -11,17 +11,36 @@ import com.vmware.transport.bus.model.MessageType;
 import com.vmware.transport.bus.store.BusStoreApi;
 import com.vmware.transport.core.util.Loggable;
 import io.reactivex.functions.Consumer;
-import io.reactivex.subjects.PublishSubject;
-import io.reactivex.subjects.Subject;
-import lombok.Getter;
+import io.reactivex.functions.Function;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class TransactionImpl extends Loggable implements Transaction {
 
+    // Shared timer for the request and transaction timeouts.
+    private static final ScheduledExecutorService timeoutScheduler =
+          Executors.newSingleThreadScheduledExecutor(runnable -> {
+              Thread thread = new Thread(runnable, "transaction-timeouts");
+              thread.setDaemon(true);
+              return thread;
+          });
+
     private final EventBus bus;
     private final BusStoreApi storeManager;
     private final TransactionType transactionType;
@@ -29,13 +48,29 @@ public class TransactionImpl extends Loggable implements Transaction {
     private final UUID id;
     private boolean useRandomIdForRequests;
 
-    private TransactionState state;
+    private volatile TransactionState state;
 
     private List<Consumer<Message[]>> onCompleteHandlers = new ArrayList<>();
     private List<Consumer<Message>> onErrorHandlers = new ArrayList<>();
     private List<TransactionRequest> requests = new ArrayList<>();
 
-    private Message[] responses;
+    private final CompletableFuture<Message[]> future = new CompletableFuture<>();
+
+    private long requestTimeoutMillis;
+    private long timeoutMillis;
+    private int maxParallelRequests;
+
+    // Requests whose dependencies have completed, in the order they became ready.
+    // Guarded by itself, together with inFlightRequests.
+    private final Queue<TransactionRequest> readyRequests = new ArrayDeque<>();
+    private int inFlightRequests;
+
+    // In-flight bus requests, store waits and request timeouts, keyed by request index.
+    private final Map<Integer, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<Integer, ScheduledFuture<?>> pendingTimeouts = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> transactionTimeout;
+
+    private AtomicReferenceArray<Message> responses;
 
     private TransactionReceiptImpl transactionReceipt;
 
@@ -64,6 +99,24 @@ public class TransactionImpl extends Loggable implements Transaction {
               new TransactionRequest(this.requests.size(), channel, payload, null, this.id));
     }
 
+    @Override
+    public int sendRequest(String channel, Function<Message[], Object> payloadFunction, int... dependencies) {
+        assertUncommittedState("cannot queue a new request via sendRequest()");
+        if (this.transactionType != TransactionType.DAG) {
+            throw new IllegalStateException("Request dependencies are supported only by DAG transactions.");
+        }
+        final int requestIndex = this.requests.size();
+        for (int dependency : dependencies) {
+            if (dependency < 0 || dependency >= requestIndex) {
+                throw new IllegalArgumentException(String.format(
+                      "Invalid dependency %d, requests can depend only on earlier requests.", dependency));
+            }
+        }
+        this.requests.add(new TransactionRequest(
+              requestIndex, channel, payloadFunction, dependencies, this.id));
+        return requestIndex;
+    }
+
     @Override
     public void waitForStoreReady(String storeType) {
         assertUncommittedState("cannot queue a new request via sendRequest()");
@@ -83,6 +136,24 @@ public class TransactionImpl extends Loggable implements Transaction {
         this.onErrorHandlers.add(errorHandler);
     }
 
+    @Override
+    public void setRequestTimeout(long timeout, TimeUnit unit) {
+        assertUncommittedState("cannot set request timeout");
+        this.requestTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    @Override
+    public void setTimeout(long timeout, TimeUnit unit) {
+        assertUncommittedState("cannot set transaction timeout");
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    @Override
+    public void setMaxParallelRequests(int maxParallelRequests) {
+        assertUncommittedState("cannot set max parallel requests");
+        this.maxParallelRequests = Math.max(0, maxParallelRequests);
+    }
+
     @Override
     public TransactionReceipt commit() {
         assertUncommittedState("cannot commit transaction");
@@ -91,72 +162,130 @@ public class TransactionImpl extends Loggable implements Transaction {
             throw new IllegalStateException("Transaction cannot be committed, no requests made.");
         }
 
+        this.transactionReceipt = new TransactionReceiptImpl(this.requests.size());
+        this.responses = new AtomicReferenceArray<>(this.requests.size());
+
         // Mark the transaction as committed
         this.state = TransactionState.committed;
 
-        this.transactionReceipt = new TransactionReceiptImpl(this.requests.size());
-        this.responses = new Message[this.requests.size()];
+        if (this.timeoutMillis > 0) {
+            this.transactionTimeout = timeoutScheduler.schedule(
+                  () -> abort(String.format("Transaction '%s' timed out after %d ms",
+                        this.transactionName, this.timeoutMillis), true),
+                  this.timeoutMillis, TimeUnit.MILLISECONDS);
+        }
 
-        if (this.transactionType == TransactionType.SYNC) {
-            startSyncTransaction();
-        } else {
-            startAsyncTransaction();
+        // Synchronous transactions are chains where every request depends on the preceding one,
+        // asynchronous transactions have no dependencies.
+        for (TransactionRequest request : this.requests) {
+            if (this.transactionType == TransactionType.SYNC && request.requestIndex > 0) {
+                request.dependencies = new int[] { request.requestIndex - 1 };
+            }
+            request.remainingDependencies.set(request.dependencies.length);
+            for (int dependency : request.dependencies) {
+                this.requests.get(dependency).dependents.add(request);
+            }
+            if (request.dependencies.length == 0) {
+                this.readyRequests.add(request);
+            }
         }
 
+        startReadyRequests();
+
         return this.transactionReceipt;
     }
 
-    private void startAsyncTransaction() {
-        for (TransactionRequest request : this.requests) {
-            if (request.isStoreTransaction()) {
-                waitForStoreAndListen(request, null);
-            } else {
-                sendRequestAndListen(request, null);
+    @Override
+    public CompletableFuture<Message[]> commitAsync() {
+        commit();
+        return this.future;
+    }
+
+    /**
+     * Start the ready requests while the number of in-flight requests is below maxParallelRequests.
+     */
+    private void startReadyRequests() {
+        while (true) {
+            final TransactionRequest request;
+            synchronized (this.readyRequests) {
+                if (this.state != TransactionState.committed ||
+                      (this.maxParallelRequests > 0 && this.inFlightRequests >= this.maxParallelRequests)) {
+                    return;
+                }
+                request = this.readyRequests.poll();
+                if (request == null) {
+                    return;
+                }
+                this.inFlightRequests++;
             }
+            startRequest(request);
         }
     }
 
-    private void startSyncTransaction() {
-        Subject<TransactionRequest> syncStream = PublishSubject.create();
-
-        syncStream.subscribe((TransactionRequest request) -> {
-            Consumer<Message> requestHandler = (Message response) -> {
-                // Fire the next request (if available).
-                if (request.requestIndex + 1 < this.requests.size()) {
-                    syncStream.onNext(this.requests.get(request.requestIndex + 1));
-                }
-            };
+    private void startRequest(TransactionRequest request) {
+        if (this.state != TransactionState.committed) {
+            return;
+        }
+        this.transactionReceipt.requestsSent.incrementAndGet();
+        request.startTime = System.nanoTime();
+
+        if (this.requestTimeoutMillis > 0) {
+            this.pendingTimeouts.put(request.requestIndex, timeoutScheduler.schedule(
+                  () -> abort(String.format("Transaction '%s' request %d timed out after %d ms",
+                        this.transactionName, request.requestIndex, this.requestTimeoutMillis), true),
+                  this.requestTimeoutMillis, TimeUnit.MILLISECONDS));
+        }
 
-            if (request.isStoreTransaction()) {
-                waitForStoreAndListen(request, requestHandler);
-            } else {
-                sendRequestAndListen(request, requestHandler);
+        if (request.isStoreTransaction()) {
+            waitForStoreAndListen(request);
+        } else {
+            try {
+                sendRequestAndListen(request);
+            } catch (Exception ex) {
+                abort(String.format("Transaction '%s' request %d failed: %s",
+                      this.transactionName, request.requestIndex, ex.getMessage()), false);
             }
-        });
+        }
+    }
 
-        syncStream.onNext(this.requests.get(0));
+    /**
+     * Mark the dependents of the completed request whose dependencies
+     * have all completed as ready and start them.
+     */
+    private void startNextRequests(TransactionRequest completedRequest) {
+        synchronized (this.readyRequests) {
+            this.inFlightRequests--;
+            for (TransactionRequest dependent : completedRequest.dependents) {
+                if (dependent.remainingDependencies.decrementAndGet() == 0) {
+                    this.readyRequests.add(dependent);
+                }
+            }
+        }
+        startReadyRequests();
     }
 
-    private void waitForStoreAndListen(TransactionRequest request, Consumer<Message> onSuccess) {
+    private void waitForStoreAndListen(TransactionRequest request) {
         this.logDebugMessage(String.format("➡️ Transaction: Waiting '%s' for store '%s'",
               this.transactionType.toString(), request.storeType), this.transactionName);
-        this.transactionReceipt.requestsSent++;
-        this.storeManager.createStore(request.storeType).whenReady( map -> {
-            if (this.state == TransactionState.aborted) {
+        final PendingRequest pendingRequest = new PendingRequest(null);
+        this.pendingRequests.put(request.requestIndex, pendingRequest);
+        BusTransaction storeWait = this.storeManager.createStore(request.storeType).whenReady( map -> {
+            this.pendingRequests.remove(request.requestIndex, pendingRequest);
+
+            if (this.state != TransactionState.committed) {
                 // Ignore this response if the transaction is in aborted state.
                 return;
             }
             onTransactionRequestSuccess(
-                  request, new MessageObject(MessageType.MessageTypeResponse, map), onSuccess);
+                  request, new MessageObject(MessageType.MessageTypeResponse, map));
         });
-
+        pendingRequest.setBusTransaction(storeWait);
     }
 
-    private void sendRequestAndListen(TransactionRequest request, Consumer<Message> onSuccess) {
+    private void sendRequestAndListen(TransactionRequest request) throws Exception {
 
         this.logDebugMessage(String.format("-->️ Transaction: Sending '%s' Request to channel: %s",
               this.transactionType.toString(), request.channel), this.transactionName);
-        this.transactionReceipt.requestsSent++;
         UUID requestId;
         if (useRandomIdForRequests) {
             requestId = UUID.randomUUID();
@@ -164,14 +293,32 @@ public class TransactionImpl extends Loggable implements Transaction {
             requestId = request.id;
         }
 
-        this.bus.requestOnceWithId(requestId,
+        final Object payload;
+        if (request.payloadFunction != null) {
+            // Pass the responses of the request dependencies to the payload function.
+            final Message[] dependencyResponses = new Message[request.dependencies.length];
+            for (int i = 0; i < dependencyResponses.length; i++) {
+                dependencyResponses[i] = this.responses.get(request.dependencies[i]);
+            }
+            payload = request.payloadFunction.apply(dependencyResponses);
+        } else {
+            payload = request.payload;
+        }
+
+        // Register the request before sending it, the response might be delivered
+        // before requestOnceWithId() returns.
+        final PendingRequest pendingRequest = new PendingRequest(request.channel);
+        this.pendingRequests.put(request.requestIndex, pendingRequest);
+
+        BusTransaction busTransaction = this.bus.requestOnceWithId(requestId,
               request.channel,
-              request.payload,
+              payload,
               request.channel,
               this.transactionName,
               (Message response) -> {
+                  this.pendingRequests.remove(request.requestIndex, pendingRequest);
 
-                  if (this.state == TransactionState.aborted) {
+                  if (this.state != TransactionState.committed) {
                       // Ignore this response if the transaction is in aborted state.
                       return;
                   }
@@ -182,10 +329,12 @@ public class TransactionImpl extends Loggable implements Transaction {
                         response.toString()),
                         this.transactionName);
 
-                  onTransactionRequestSuccess(request, response, onSuccess);
+                  onTransactionRequestSuccess(request, response);
               },
               (Message errMessage) -> {
-                  if (this.state == TransactionState.aborted) {
+                  this.pendingRequests.remove(request.requestIndex, pendingRequest);
+
+                  if (this.state != TransactionState.committed) {
                       // Ignore the error if the transaction is in aborted state.
                       return;
                   }
@@ -194,41 +343,140 @@ public class TransactionImpl extends Loggable implements Transaction {
                         request.channel,
                         errMessage.toString()),
                         this.transactionName);
-                  onTransactionError(errMessage);
+                  onTransactionError(errMessage, false);
               });
+
+        pendingRequest.setBusTransaction(busTransaction);
     }
 
-    private void onTransactionRequestSuccess(
-          TransactionRequest request, Message response, Consumer<Message> onSuccess) throws Exception {
+    private void onTransactionRequestSuccess(TransactionRequest request, Message response) throws Exception {
 
-        this.transactionReceipt.requestsCompleted++;
-        this.responses[request.requestIndex] = response;
-        if (onSuccess != null) {
-            onSuccess.accept(response);
+        if (!this.responses.compareAndSet(request.requestIndex, null, response)) {
+            return;
         }
-        if (this.transactionReceipt.requestsCompleted == this.transactionReceipt.totalRequests) {
+        request.endTime = System.nanoTime();
+        cancelTimeout(this.pendingTimeouts.remove(request.requestIndex));
+
+        int completed = this.transactionReceipt.requestsCompleted.incrementAndGet();
+        if (completed == this.transactionReceipt.totalRequests) {
             // Complete the transaction if this is the last request.
             onTransactionComplete();
+        } else {
+            startNextRequests(request);
         }
     }
 
-    private void onTransactionError(Message errMessage) throws Exception {
-        this.state = TransactionState.aborted;
-        this.transactionReceipt.aborted = true;
+    private void abort(String errorMessage, boolean isTimeout) {
+        try {
+            onTransactionError(new MessageObject<>(MessageType.MessageTypeError, errorMessage), isTimeout);
+        } catch (Exception ex) {
+            this.logErrorMessage(String.format("Transaction '%s' error handler failed", this.transactionName),
+                  ex.toString());
+        }
+    }
+
+    private void onTransactionError(Message errMessage, boolean isTimeout) throws Exception {
+        synchronized (this) {
+            if (this.state != TransactionState.committed) {
+                // Only the first error aborts the transaction.
+                return;
+            }
+            this.state = TransactionState.aborted;
+        }
+        this.transactionReceipt.timedOut = isTimeout;
         this.transactionReceipt.abortedTime = new Date();
+        this.transactionReceipt.aborted = true;
+
+        cancelPendingRequests();
 
-        for (Consumer<Message> onErrorHandler : this.onErrorHandlers) {
-            onErrorHandler.accept(errMessage);
+        try {
+            for (Consumer<Message> onErrorHandler : this.onErrorHandlers) {
+                onErrorHandler.accept(errMessage);
+            }
+        } finally {
+            this.future.completeExceptionally(new TransactionException(
+                  String.format("Transaction '%s' was aborted", this.transactionName), errMessage));
         }
     }
 
     private void onTransactionComplete() throws Exception {
-        this.transactionReceipt.complete = true;
+        synchronized (this) {
+            if (this.state != TransactionState.committed) {
+                return;
+            }
+            this.state = TransactionState.completed;
+        }
         this.transactionReceipt.completedTime = new Date();
-        this.state = TransactionState.completed;
+        setCriticalPath();
+        this.transactionReceipt.complete = true;
+
+        cancelTimeout(this.transactionTimeout);
+
+        final Message[] result = new Message[this.responses.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = this.responses.get(i);
+        }
+
+        try {
+            for (Consumer<Message[]> onCompleteHandler : this.onCompleteHandlers) {
+                onCompleteHandler.accept(result);
+            }
+        } finally {
+            this.future.complete(result);
+        }
+    }
+
+    /**
+     * Walk back from the request which completed last, following the dependency
+     * which completed last, and store the visited requests in the receipt.
+     */
+    private void setCriticalPath() {
+        TransactionRequest request = this.requests.get(0);
+        for (TransactionRequest r : this.requests) {
+            if (r.endTime > request.endTime) {
+                request = r;
+            }
+        }
+
+        final LinkedList<Integer> criticalPath = new LinkedList<>();
+        long criticalPathNanos = 0;
+        while (request != null) {
+            criticalPath.addFirst(request.requestIndex);
+            criticalPathNanos += request.endTime - request.startTime;
+            TransactionRequest lastDependency = null;
+            for (int dependency : request.dependencies) {
+                TransactionRequest r = this.requests.get(dependency);
+                if (lastDependency == null || r.endTime > lastDependency.endTime) {
+                    lastDependency = r;
+                }
+            }
+            request = lastDependency;
+        }
+
+        this.transactionReceipt.criticalPath = Collections.unmodifiableList(criticalPath);
+        this.transactionReceipt.criticalPathMillis = TimeUnit.NANOSECONDS.toMillis(criticalPathNanos);
+    }
+
+    /**
+     * Unsubscribe the handlers of the requests and store waits which are still
+     * waiting for a response and cancel all pending timeouts.
+     */
+    private void cancelPendingRequests() {
+        cancelTimeout(this.transactionTimeout);
+        for (Integer requestIndex : this.pendingTimeouts.keySet()) {
+            cancelTimeout(this.pendingTimeouts.remove(requestIndex));
+        }
+        for (Integer requestIndex : this.pendingRequests.keySet()) {
+            PendingRequest pendingRequest = this.pendingRequests.remove(requestIndex);
+            if (pendingRequest != null) {
+                pendingRequest.cancel();
+            }
+        }
+    }
 
-        for (Consumer<Message[]> onCompleteHandler : this.onCompleteHandlers) {
-            onCompleteHandler.accept(this.responses);
+    private void cancelTimeout(ScheduledFuture<?> timeout) {
+        if (timeout != null) {
+            timeout.cancel(false);
         }
     }
 
@@ -245,6 +493,55 @@ public class TransactionImpl extends Loggable implements Transaction {
         }
     }
 
+    /**
+     * A request or store wait which hasn't completed yet. It is registered before the request is
+     * sent and removed either by its response handler or by the cancellation, never by both.
+     */
+    private class PendingRequest {
+        // The request channel, null for store waits.
+        private final String channel;
+        private BusTransaction busTransaction;
+        private boolean isCancelled;
+
+        PendingRequest(String channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Attach the handler of the sent request, release it right away if
+         * the request was cancelled while it was being sent.
+         */
+        void setBusTransaction(BusTransaction busTransaction) {
+            synchronized (this) {
+                if (!this.isCancelled) {
+                    this.busTransaction = busTransaction;
+                    return;
+                }
+            }
+            release(busTransaction);
+        }
+
+        void cancel() {
+            final BusTransaction busTransaction;
+            synchronized (this) {
+                this.isCancelled = true;
+                busTransaction = this.busTransaction;
+            }
+            release(busTransaction);
+        }
+
+        private void release(BusTransaction busTransaction) {
+            if (busTransaction == null) {
+                return;
+            }
+            busTransaction.unsubscribe();
+            if (this.channel != null) {
+                // Release the response channel reference held by the request handler.
+                bus.closeChannel(this.channel, transactionName);
+            }
+        }
+    }
+
     private enum TransactionState {
         uncommitted,
         committed,
@@ -257,51 +554,117 @@ public class TransactionImpl extends Loggable implements Transaction {
         final int requestIndex;
         final String channel;
         final Object payload;
+        final Function<Message[], Object> payloadFunction;
         final UUID id;
         final String storeType;
 
+        int[] dependencies = new int[0];
+        final List<TransactionRequest> dependents = new ArrayList<>();
+        final AtomicInteger remainingDependencies = new AtomicInteger();
+
+        volatile long startTime;
+        volatile long endTime;
+
         TransactionRequest(int index, String channel, Object payload, String storeType, UUID id) {
             this.requestIndex = index;
             this.payload = payload;
+            this.payloadFunction = null;
             this.channel = channel;
             this.storeType = storeType;
             this.id = id;
         }
 
+        TransactionRequest(int index, String channel, Function<Message[], Object> payloadFunction,
+                int[] dependencies, UUID id) {
+            this.requestIndex = index;
+            this.payload = null;
+            this.payloadFunction = payloadFunction;
+            this.dependencies = dependencies;
+            this.channel = channel;
+            this.storeType = null;
+            this.id = id;
+        }
+
         public boolean isStoreTransaction() {
             return this.storeType != null;
         }
     }
 
+    /**
+     * Receipt counters are updated from the threads delivering the responses.
+     */
     private static class TransactionReceiptImpl implements TransactionReceipt {
 
-        @Getter
-        public int totalRequests;
+        final int totalRequests;
+        final AtomicInteger requestsSent = new AtomicInteger();
+        final AtomicInteger requestsCompleted = new AtomicInteger();
+        volatile boolean complete;
+        volatile boolean aborted;
+        volatile boolean timedOut;
+        final Date startedTime;
+        volatile Date completedTime;
+        volatile Date abortedTime;
+        volatile List<Integer> criticalPath = Collections.emptyList();
+        volatile long criticalPathMillis;
+
+        TransactionReceiptImpl(int totalRequests) {
+            this.totalRequests = totalRequests;
+            this.startedTime = new Date();
+        }
+
+        @Override
+        public int getTotalRequests() {
+            return totalRequests;
+        }
 
-        @Getter
-        public int requestsSent;
+        @Override
+        public int getRequestsSent() {
+            return requestsSent.get();
+        }
 
-        @Getter
-        public int requestsCompleted;
+        @Override
+        public int getRequestsCompleted() {
+            return requestsCompleted.get();
+        }
 
-        @Getter
-        public boolean complete;
+        @Override
+        public boolean isComplete() {
+            return complete;
+        }
 
-        @Getter
-        public boolean aborted;
+        @Override
+        public boolean isAborted() {
+            return aborted;
+        }
 
-        @Getter
-        public Date startedTime;
+        @Override
+        public boolean isTimedOut() {
+            return timedOut;
+        }
 
-        @Getter
-        public Date completedTime;
+        @Override
+        public Date getStartedTime() {
+            return startedTime;
+        }
 
-        @Getter
-        public Date abortedTime;
+        @Override
+        public Date getCompletedTime() {
+            return completedTime;
+        }
 
-        TransactionReceiptImpl(int totalRequests) {
-            this.totalRequests = totalRequests;
-            this.startedTime = new Date();
+        @Override
+        public Date getAbortedTime() {
+            return abortedTime;
+        }
+
+        @Override
+        public List<Integer> getCriticalPath() {
+            return criticalPath;
+        }
+
+        @Override
+        public long getCriticalPathMillis() {
+            return criticalPathMillis;
         }
     }
 }
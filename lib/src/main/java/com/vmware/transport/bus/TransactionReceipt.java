@@ -6,6 +6,7 @@
 package com.vmware.transport.bus;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * Describes the current state of a committed {@link Transaction}.
@@ -51,4 +52,21 @@ public interface TransactionReceipt {
      * The time when transaction was aborted. Will be null for completed or running transactions.
      */
     Date getAbortedTime();
+
+    /**
+     * Returns true if the transaction was aborted because a request or the whole transaction timed out.
+     */
+    boolean isTimedOut();
+
+    /**
+     * Indices of the requests on the critical path of a completed transaction: the request
+     * which completed last, preceded by its dependency which completed last, and so on.
+     * Empty for aborted or running transactions.
+     */
+    List<Integer> getCriticalPath();
+
+    /**
+     * The sum of the durations of the requests on the critical path.
+     */
+    long getCriticalPathMillis();
 }
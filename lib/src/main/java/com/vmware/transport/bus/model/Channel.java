@@ -25,6 +25,9 @@ public class Channel {
     private String name;
     private AtomicInteger refCount = new AtomicInteger(0);
     private Boolean closed;
+    private final long createdTime = System.currentTimeMillis();
+    private final MessageRateMeter publishMeter = new MessageRateMeter();
+    private final MessageRateMeter deliveryMeter = new MessageRateMeter();
 
     private Subject<Message> streamObject;
 
@@ -54,7 +57,30 @@ public class Channel {
         return closed;
     }
 
+    /**
+     * The time the channel was created, in epoch milliseconds.
+     */
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * Counts the messages sent on the channel.
+     */
+    public MessageRateMeter getPublishMeter() {
+        return publishMeter;
+    }
+
+    /**
+     * Counts the messages delivered to the channel's subscribers, a message sent on a channel
+     * with three subscribers is delivered three times.
+     */
+    public MessageRateMeter getDeliveryMeter() {
+        return deliveryMeter;
+    }
+
     public void send(Message messageObject) {
+        publishMeter.record();
         streamObject.onNext(messageObject);
     }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.model;
+
+/**
+ * Request to response latency of a channel during one interval,
+ * see {@link com.vmware.transport.bus.EventBusLowApi#enableLatencyTracking(long)}.
+ */
+public class ChannelLatencyStatistics {
+
+    /**
+     * The name of the channel.
+     */
+    public final String channel;
+
+    /**
+     * The start of the interval, in epoch milliseconds.
+     */
+    public final long intervalStartMillis;
+
+    /**
+     * The end of the interval, in epoch milliseconds.
+     */
+    public final long intervalEndMillis;
+
+    /**
+     * The number of responses received during the interval.
+     */
+    public final long count;
+
+    /**
+     * The number of responses received since latency tracking was enabled.
+     */
+    public final long totalCount;
+
+    /**
+     * The number of pending requests which were replaced by newer requests before their response
+     * was sent, since latency tracking was enabled. Their responses are not recorded.
+     */
+    public final long untrackedCount;
+
+    public final long minMicros;
+    public final double meanMicros;
+    public final long p50Micros;
+    public final long p90Micros;
+    public final long p99Micros;
+    public final long p999Micros;
+    public final long maxMicros;
+
+    public ChannelLatencyStatistics(String channel, long intervalStartMillis, long intervalEndMillis,
+                                    long count, long totalCount, long untrackedCount,
+                                    long minMicros, double meanMicros, long p50Micros, long p90Micros,
+                                    long p99Micros, long p999Micros, long maxMicros) {
+        this.channel = channel;
+        this.intervalStartMillis = intervalStartMillis;
+        this.intervalEndMillis = intervalEndMillis;
+        this.count = count;
+        this.totalCount = totalCount;
+        this.untrackedCount = untrackedCount;
+        this.minMicros = minMicros;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d p50=%dus p90=%dus p99=%dus p999=%dus max=%dus",
+                channel, count, p50Micros, p90Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
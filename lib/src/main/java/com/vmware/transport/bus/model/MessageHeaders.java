@@ -18,6 +18,28 @@ public class MessageHeaders {
     public static final String EXTERNAL_MESSAGE_BROKER_DESTINATION =
           "ext-msg-broker-destination";
 
+    /**
+     * The time in epoch milliseconds after which nobody waits for the response of the request.
+     */
+    public static final String REQUEST_DEADLINE = "request-deadline";
+
+    /**
+     * The number of milliseconds the sender of the request waits for the response,
+     * converted to a {@link #REQUEST_DEADLINE} when the request enters the bus.
+     */
+    public static final String REQUEST_TIMEOUT = "request-timeout";
+
+    /**
+     * The W3C trace context of the operation which sent the message, see
+     * {@link com.vmware.transport.core.tracing.TransportTracing}.
+     */
+    public static final String TRACEPARENT = "traceparent";
+
+    /**
+     * The vendor specific part of the W3C trace context.
+     */
+    public static final String TRACESTATE = "tracestate";
+
     private final Map<String, Object> headers;
 
     MessageHeaders() {
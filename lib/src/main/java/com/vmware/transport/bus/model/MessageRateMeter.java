@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts messages and derives their rate from the counter.
+ *
+ * Recording a message only increments the counter. The rate is computed when it is sampled,
+ * over the interval since the previous sample, so idle meters cost nothing.
+ */
+public class MessageRateMeter {
+
+    private final LongAdder count = new LongAdder();
+
+    private long sampleTimeNanos = System.nanoTime();
+    private long sampleCount;
+    private double rate;
+
+    public void record() {
+        count.increment();
+    }
+
+    /**
+     * Returns the number of messages recorded since the meter was created.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the rate in messages per second since the previous sample. Samples taken less than
+     * minIntervalMillis after the previous one return the previous rate, so frequent readers don't
+     * get rates computed over very short intervals.
+     */
+    public synchronized double sampleRate(long minIntervalMillis) {
+        long now = System.nanoTime();
+        long elapsed = now - sampleTimeNanos;
+        if (elapsed >= TimeUnit.MILLISECONDS.toNanos(minIntervalMillis) && elapsed > 0) {
+            long current = count.sum();
+            rate = (current - sampleCount) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            sampleCount = current;
+            sampleTimeNanos = now;
+        }
+        return rate;
+    }
+}
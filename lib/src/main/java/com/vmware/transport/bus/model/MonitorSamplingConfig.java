@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Describes which monitor events are published on the sampled monitor stream,
+ * see {@link com.vmware.transport.bus.EventBusLowApi#enableMonitorSampling(MonitorSamplingConfig)}.
+ *
+ * Channels are matched against glob patterns, where '*' matches any sequence of characters
+ * and '?' a single character. The first matching pattern decides the channel's sample rate,
+ * channels which match no pattern use the default sample rate.
+ */
+public class MonitorSamplingConfig {
+
+    /**
+     * The share of events published for channels which match no pattern, between 0 and 1.
+     */
+    @Getter
+    private double defaultSampleRate = 1;
+
+    /**
+     * The types of the published events, empty for all types.
+     */
+    @Getter
+    private Set<MonitorType> types = Collections.emptySet();
+
+    /**
+     * If false, the messages carried by data, error and dropped events are removed
+     * before the events are published.
+     */
+    @Getter
+    private boolean capturePayload;
+
+    /**
+     * The number of events waiting to be published, events arriving while the buffer
+     * is full are discarded.
+     */
+    @Getter
+    private int bufferSize = 10000;
+
+    private final List<ChannelSampleRate> channelSampleRates = new ArrayList<>();
+
+    MonitorSamplingConfig() {}
+
+    /**
+     * Publish the given share of the events of the channels matching the glob pattern.
+     */
+    public MonitorSamplingConfig sampleChannels(String pattern, double sampleRate) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern cannot be null.");
+        }
+        this.channelSampleRates.add(new ChannelSampleRate(pattern, validateSampleRate(sampleRate)));
+        return this;
+    }
+
+    public MonitorSamplingConfig setDefaultSampleRate(double sampleRate) {
+        this.defaultSampleRate = validateSampleRate(sampleRate);
+        return this;
+    }
+
+    public MonitorSamplingConfig setTypes(MonitorType... types) {
+        this.types = types.length == 0
+              ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(Arrays.asList(types)));
+        return this;
+    }
+
+    public MonitorSamplingConfig setCapturePayload(boolean capturePayload) {
+        this.capturePayload = capturePayload;
+        return this;
+    }
+
+    public MonitorSamplingConfig setBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive.");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Returns true if events of the given type are published.
+     */
+    public boolean isTypeSampled(MonitorType type) {
+        return types.isEmpty() || types.contains(type);
+    }
+
+    /**
+     * Returns the share of the channel's events which are published.
+     */
+    public double getSampleRate(String channel) {
+        if (channel != null) {
+            for (ChannelSampleRate channelSampleRate : channelSampleRates) {
+                if (channelSampleRate.pattern.matcher(channel).matches()) {
+                    return channelSampleRate.sampleRate;
+                }
+            }
+        }
+        return defaultSampleRate;
+    }
+
+    /**
+     * Create new MonitorSamplingConfig instance.
+     */
+    public static MonitorSamplingConfig newInstance() {
+        return new MonitorSamplingConfig();
+    }
+
+    private static double validateSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1.");
+        }
+        return sampleRate;
+    }
+
+    private static class ChannelSampleRate {
+
+        final Pattern pattern;
+        final double sampleRate;
+
+        ChannelSampleRate(String glob, double sampleRate) {
+            this.pattern = toPattern(glob);
+            this.sampleRate = sampleRate;
+        }
+
+        private static Pattern toPattern(String glob) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char c : glob.toCharArray()) {
+                if (c == '*' || c == '?') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '*' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+    }
+}
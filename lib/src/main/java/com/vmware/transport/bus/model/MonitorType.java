@@ -14,5 +14,6 @@ public enum MonitorType {
     MonitorError,
     MonitorDropped,
     MonitorNewBridgeSubscription,
-    MonitorNewGalacticChannel
+    MonitorNewGalacticChannel,
+    MonitorSlowHandler
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.model;
+
+/**
+ * A message handler which ran longer than the slow handler threshold, sent on the monitor
+ * stream as a {@link MonitorType#MonitorSlowHandler} event,
+ * see {@link com.vmware.transport.bus.EventBusLowApi#enableSlowHandlerDetection(long)}.
+ */
+public class SlowHandlerReport {
+
+    /**
+     * The channel of the message being handled.
+     */
+    public final String channel;
+
+    public final String threadName;
+
+    public final long threadId;
+
+    /**
+     * How long the handler had been running when it was reported.
+     */
+    public final long durationMillis;
+
+    public final long thresholdMillis;
+
+    /**
+     * False if the handler was still running when it was reported, true if it was only
+     * noticed once it completed.
+     */
+    public final boolean completed;
+
+    /**
+     * Stack sample of the handler's thread taken while the handler was running,
+     * empty for handlers reported after they completed.
+     */
+    public final StackTraceElement[] stackTrace;
+
+    public SlowHandlerReport(String channel, String threadName, long threadId, long durationMillis,
+                             long thresholdMillis, boolean completed, StackTraceElement[] stackTrace) {
+        this.channel = channel;
+        this.threadName = threadName;
+        this.threadId = threadId;
+        this.durationMillis = durationMillis;
+        this.thresholdMillis = thresholdMillis;
+        this.completed = completed;
+        this.stackTrace = stackTrace;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(
+              "Handler for channel '%s' on thread '%s' %s %d ms (threshold %d ms)",
+              channel, threadName, completed ? "completed after" : "running for",
+              durationMillis, thresholdMillis));
+        for (StackTraceElement element : stackTrace) {
+            builder.append("\n\tat ").append(element);
+        }
+        return builder.toString();
+    }
+}
@@ -12,5 +12,11 @@ public class SystemChannels {
     public static String EXTERNAL_MESSAGE_BROKER =
           "#external-msg-broker-" + UUID.randomUUID().toString().replaceAll("-", "");
 
+    /**
+     * Receives the request to response latency statistics of all channels,
+     * see {@link com.vmware.transport.bus.EventBusLowApi#enableLatencyTracking(long)}.
+     */
+    public static String CHANNEL_LATENCY = "transport-channel-latency";
+
     private SystemChannels() {}
 }
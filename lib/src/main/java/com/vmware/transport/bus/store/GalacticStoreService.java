@@ -13,16 +13,20 @@ import com.vmware.transport.bus.store.model.BusStore;
 import com.vmware.transport.bus.store.model.BusStoreError;
 import com.vmware.transport.bus.store.model.CloseStoreRequest;
 import com.vmware.transport.bus.store.model.OpenStoreRequest;
+import com.vmware.transport.bus.store.model.StoreBatchStream;
 import com.vmware.transport.bus.store.model.StoreContentResponse;
-import com.vmware.transport.bus.store.model.StoreStream;
+import com.vmware.transport.bus.store.model.StoreStateChange;
+import com.vmware.transport.bus.store.model.UpdateStoreBatchResponse;
 import com.vmware.transport.bus.store.model.UpdateStoreResponse;
 import com.vmware.transport.bus.store.model.UpdateStoreRequest;
 import com.vmware.transport.core.AbstractBase;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -295,19 +299,27 @@ public class GalacticStoreService extends AbstractBase {
 
         private final Set<String> clientChannels = new HashSet<>();
 
-        private final StoreStream<?> storeStream;
+        private final StoreBatchStream<?, ?> storeStream;
 
         private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
         GalacticStoreListener(final BusStore store) {
-            this.storeStream = store.onAllChanges();
-            this.storeStream.subscribe((item, stateChange) -> {
-
-                UpdateStoreResponse updateStoreMsg = new UpdateStoreResponse(
-                      store.getStoreType(),
-                      stateChange.getStoreVersion(),
-                      stateChange.getObjectId(),
-                      stateChange.isDeleteChange() ? null : stateChange.getValue());
+            this.storeStream = store.onAllBatchChanges();
+            this.storeStream.subscribe(batch -> {
+
+                // Forward single changes as UpdateStoreResponse and batches
+                // as one UpdateStoreBatchResponse frame.
+                final Object updateStoreMsg;
+                if (batch.getChanges().size() == 1) {
+                    updateStoreMsg = toUpdateStoreResponse(store, batch.getChanges().get(0));
+                } else {
+                    List<UpdateStoreResponse> updates = new ArrayList<>(batch.getChanges().size());
+                    for (StoreStateChange<?, ?, ?> stateChange : batch.getChanges()) {
+                        updates.add(toUpdateStoreResponse(store, stateChange));
+                    }
+                    updateStoreMsg = new UpdateStoreBatchResponse(
+                          store.getStoreType(), batch.getStoreVersion(), updates);
+                }
 
                 try {
                     readWriteLock.readLock().lock();
@@ -324,6 +336,14 @@ public class GalacticStoreService extends AbstractBase {
             });
         }
 
+        private UpdateStoreResponse toUpdateStoreResponse(BusStore store, StoreStateChange<?, ?, ?> stateChange) {
+            return new UpdateStoreResponse(
+                  store.getStoreType(),
+                  stateChange.getStoreVersion(),
+                  stateChange.getObjectId(),
+                  stateChange.isDeleteChange() ? null : stateChange.getValue());
+        }
+
         void addClientChannel(String clientChannel) {
             this.readWriteLock.writeLock().lock();
             try {
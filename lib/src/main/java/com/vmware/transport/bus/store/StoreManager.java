@@ -9,13 +9,16 @@ import com.vmware.transport.bus.EventBus;
 import com.vmware.transport.bus.store.model.BusStore;
 import com.vmware.transport.bus.store.model.BusStoreImpl;
 import com.vmware.transport.bus.store.model.StoreReadyResult;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
 import com.vmware.transport.core.util.Loggable;
 import io.reactivex.functions.Consumer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -44,6 +47,7 @@ public class StoreManager extends Loggable implements BusStoreApi {
 
       BusStore<K, T> busStore = new BusStoreImpl<>(this.bus, storeType);
       storeMap.put(storeType, busStore);
+      TransportMetricsHolder.get().storeCreated(busStore);
 
       return busStore;
    }
@@ -61,7 +65,21 @@ public class StoreManager extends Loggable implements BusStoreApi {
       if (storeType == null) {
          return false;
       }
-      return storeMap.remove(storeType) != null;
+      final BusStore<Object, Object> store = (BusStore<Object, Object>) storeMap.remove(storeType);
+      if (store == null) {
+         return false;
+      }
+      // stop the lane threads, the store keeps processing mutations on the caller's thread.
+      store.setMutationLanes(0);
+      TransportMetricsHolder.get().storeDestroyed(storeType);
+      return true;
+   }
+
+   /**
+    * Returns the types of the existing stores.
+    */
+   public Set<String> getStoreTypes() {
+      return new HashSet<>(storeMap.keySet());
    }
 
    @Override
@@ -5,9 +5,11 @@
  */
 package com.vmware.transport.bus.store.model;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import com.vmware.transport.bus.BusTransaction;
 import io.reactivex.functions.Consumer;
 
 public interface BusStore<K, T> {
@@ -33,6 +35,31 @@ public interface BusStore<K, T> {
     */
    T get(K id);
 
+   /**
+    * Retrieve an object from the store or load it with the store's loader if the
+    * object is missing. Concurrent loads of the same object are coalesced into a
+    * single loader call. If the store's eviction policy has a refresh-ahead time,
+    * objects close to their time-to-live are reloaded in the background.
+    * Loaded objects are broadcast with a {@link StoreLoadState} state.
+    * @param id, the id of the object you wish to get.
+    * @param successHandler, handler which accepts the stored or loaded object.
+    * @param errorHandler, handler which accepts the load error.
+    */
+   void getOrLoad(K id, Consumer<T> successHandler, Consumer<Object> errorHandler);
+
+   /**
+    * Same as getOrLoad(id, successHandler, errorHandler) but uses the provided
+    * loader instead of the store's loader.
+    */
+   void getOrLoad(K id, BusStoreLoader<K, T> loader,
+         Consumer<T> successHandler, Consumer<Object> errorHandler);
+
+   /**
+    * Set the loader used by getOrLoad() to load missing objects.
+    * @param loader, the loader or null to remove the store's loader.
+    */
+   void setLoader(BusStoreLoader<K, T> loader);
+
    /**
     * Get all values from sotre.
     * @return {@link List<T>} with every item in the store.
@@ -59,6 +86,32 @@ public interface BusStore<K, T> {
     */
     <State> boolean remove(K id , State state);
 
+   /**
+    * Place a collection of objects into the store as a single atomic change. The store
+    * version is increased only once and subscribers receive a single batch broadcast.
+    * @param items, a Map of your ids mapped to your Objects.
+    * @param state, the state change event you want to broadcast for every item.
+    * @throws IllegalArgumentException if one of the objects is null, none of the objects are placed.
+    */
+   <State> void putAll(Map<K, T> items, State state);
+
+   /**
+    * Remove a collection of objects from the store as a single atomic change.
+    * @param ids, the ids of the objects to be removed.
+    * @param state, the state to be sent to subscribers notifying store deletion.
+    * @return the number of objects which were removed.
+    */
+   <State> int removeAll(Collection<K> ids, State state);
+
+   /**
+    * Apply a group of put and remove operations atomically. The operations are
+    * collected by the batchFunction and applied under a single store version. If the
+    * batchFunction throws or queues a null object, none of the operations are applied.
+    * @param batchFunction, handler which queues changes in the provided {@link BusStoreBatch}.
+    * @return false if the batchFunction failed and the store was left unchanged.
+    */
+   boolean batch(Consumer<BusStoreBatch<K, T>> batchFunction);
+
    /**
     * Send a mutation command to any subscribers handling mutations.
     * @param mutationRequest, mutation request describing what store value(s) that should be mutated.
@@ -71,6 +124,35 @@ public interface BusStore<K, T> {
          MutationRequestType mutationRequest, MutationType mutationType,
          Consumer<Object> successHandler, Consumer<Object> errorHandler);
 
+   /**
+    * Send a mutation command for a specific store object. If the store has mutation
+    * lanes, mutations of the same object are processed in order on the object's lane.
+    * @param id, the id of the mutated object.
+    * @param mutationRequest, mutation request describing how the object should be mutated.
+    * @param mutationType, the type of the mutation.
+    * @param successHandler, handler which will be invoked if the mutation operation was successful.
+    * @param errorHandler, handler which will be invoked if the mutation operation fails.
+    * @return true if mutation command was placed in stream
+    */
+   <MutationRequestType, MutationType> boolean mutate(
+         K id, MutationRequestType mutationRequest, MutationType mutationType,
+         Consumer<Object> successHandler, Consumer<Object> errorHandler);
+
+   /**
+    * Process mutations on the given number of worker lanes instead of the thread calling mutate().
+    * Mutations are assigned to lanes by the hash of their object id, mutations without id
+    * are processed on the first lane. Mutations on different lanes are processed in parallel,
+    * so mutation handlers must be thread safe. Should be configured before mutations are sent.
+    * @param laneCount, the number of lanes, 0 to process mutations on the caller's thread.
+    */
+   void setMutationLanes(int laneCount);
+
+   /**
+    * Returns the queue and utilization counters of the store's mutation lanes,
+    * an empty list if the store has no mutation lanes.
+    */
+   List<StoreMutationLaneStatistics> getMutationLaneStatistics();
+
    /**
     * Populate the store with a collection of objects and their ID's.
     * @param items, a Map of your ids mapped to your Objects.
@@ -101,6 +183,13 @@ public interface BusStore<K, T> {
     */
    <State> StoreStream<T> onAllChanges(State... stateChangeType);
 
+   /**
+    * Subscribe to state change batches for all objects in the store. Each put() or
+    * remove() is delivered as a batch with a single change.
+    * @return {@link StoreBatchStream} stream that will tick every change batch.
+    */
+   StoreBatchStream<K, T> onAllBatchChanges();
+
    /**
     * Subscribe to mutation requests via mutate()
     * @param mutationType, optional mutation types
@@ -112,8 +201,10 @@ public interface BusStore<K, T> {
    /**
     * Notify when the store has been initialized (via populate() or initialize(), etc.)
     * @param readyFunction, handler that accepts the entire store as a map.
+    * @return the transaction waiting for the store, unsubscribe it to stop waiting.
+    *         null if the store was already initialized and readyFunction has been called.
     */
-   void whenReady(Consumer<Map<K, T>> readyFunction);
+   BusTransaction whenReady(Consumer<Map<K, T>> readyFunction);
 
    /**
     * Flip an internal bit to set the store to ready, notify all watchers.
@@ -136,6 +227,29 @@ public interface BusStore<K, T> {
     */
    long getCurrentVersion();
 
+   /**
+    * Set the eviction policy of the store, null disables eviction. Evicted items are
+    * broadcast as delete changes with a {@link StoreEvictionState} state.
+    * @param evictionPolicy, the policy describing the store size and expiration limits.
+    */
+   void setEvictionPolicy(StoreEvictionPolicy evictionPolicy);
+
+   /**
+    * Returns the eviction policy of the store or null if the store has no eviction policy.
+    */
+   StoreEvictionPolicy getEvictionPolicy();
+
+   /**
+    * Evict all expired items. Expired items are also evicted automatically
+    * when the store is accessed.
+    */
+   void cleanUp();
+
+   /**
+    * Returns a snapshot of the store's size, hit, miss and eviction counters.
+    */
+   StoreStatistics getStatistics();
+
    /**
     * The type of the store's values. The type will be used at runtime
     * to deserialize item values coming from the UI. Should be set for
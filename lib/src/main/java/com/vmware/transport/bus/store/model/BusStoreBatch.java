@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+/**
+ * Collects a group of store changes which are applied atomically by
+ * the BusStore.batch() API. All changes in a batch share a single store version
+ * and are broadcast to subscribers as one {@link StoreStateChangeBatch}.
+ */
+public interface BusStoreBatch<K, T> {
+
+   /**
+    * Queue an object to be placed into the store.
+    * @param id, the id of your object.
+    * @param value, the object to be added to the store.
+    * @param state, the state change event you want to broadcast with this change.
+    * @throws IllegalArgumentException if the value is null, the whole batch is rejected.
+    */
+   <State> BusStoreBatch<K, T> put(K id, T value, State state);
+
+   /**
+    * Queue an object to be removed from the store.
+    * @param id, the id of the object to be removed.
+    * @param state, the state change event you want to broadcast with this change.
+    */
+   <State> BusStoreBatch<K, T> remove(K id, State state);
+}
@@ -5,21 +5,31 @@
  */
 package com.vmware.transport.bus.store.model;
 
+import com.vmware.transport.bus.BusTransaction;
 import com.vmware.transport.bus.EventBus;
 import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.core.jfr.StoreMutationEvent;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
 import com.vmware.transport.core.util.Loggable;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 import io.reactivex.functions.Consumer;
 import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.disposables.Disposables;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.ArrayUtils;
@@ -31,6 +41,21 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
    private final EventBus eventBus;
    private final Map<K, T> cache;
 
+   /**
+    * Per-object change listeners registered via onChange(), keyed by object id.
+    * Entries exist only while there is at least one active subscriber.
+    */
+   private final Map<K, List<ObservableEmitter<StoreStateChange<?, T, ?>>>> objectListeners;
+
+   /**
+    * Mutation request listeners registered via onMutationRequest(), called directly
+    * on the lane threads when mutations are processed on mutation lanes.
+    */
+   private final List<Consumer<StoreStateMutation<?, ?>>> mutationListeners =
+         new CopyOnWriteArrayList<>();
+
+   private volatile StoreMutationEngine mutationEngine;
+
    private final String cacheStreamChannelName;
    private final String cacheMutationChannelName;
    private final String cacheReadyChannelName;
@@ -39,6 +64,27 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
 
    private final AtomicLong storeVersion = new AtomicLong(0);
 
+   private final LongAdder hitCount = new LongAdder();
+   private final LongAdder missCount = new LongAdder();
+   private final LongAdder evictionCount = new LongAdder();
+   private final LongAdder loadSuccessCount = new LongAdder();
+   private final LongAdder loadFailureCount = new LongAdder();
+
+   /**
+    * In-flight getOrLoad() loads, keyed by object id.
+    */
+   private final Map<K, PendingLoad<T>> pendingLoads = new ConcurrentHashMap<>();
+
+   private volatile BusStoreLoader<K, T> loader;
+
+   /**
+    * Tracks item usage for the store's eviction policy, null if the store
+    * doesn't evict items. Guarded by the cache lock.
+    */
+   private volatile StoreEvictionTracker<K> evictionTracker;
+
+   private LongSupplier clock = System::currentTimeMillis;
+
    @Getter @Setter
    private Class<T> valueType;
 
@@ -50,6 +96,7 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       this.uuid = UUID.randomUUID();
       this.storeType = storeType;
       this.cache = new ConcurrentHashMap<>();
+      this.objectListeners = new ConcurrentHashMap<>();
       this.cacheStreamChannelName = "stores__store-change-" + this.uuid + "-" + this.storeType;
       this.cacheMutationChannelName = "stores__store-mutation-" + this.uuid + "-" + this.storeType;
       this.cacheReadyChannelName = "stores__store-ready-" + this.uuid + "-" + this.storeType;
@@ -72,12 +119,19 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       if (id == null) {
          return;
       }
+      StoreMutationEvent event = new StoreMutationEvent();
+      event.begin();
       long version;
+      final StoreStateChangeBatch<T, K> evictions;
       synchronized (this.cache) {
          this.cache.put(id, value);
          version = this.storeVersion.incrementAndGet();
+         evictions = this.trackWrite(id);
       }
       this.sendChangeBroadcast(state, id, value, version, false);
+      this.sendEvictionBroadcast(evictions);
+      event.complete(this.storeType, "put", this.cacheStreamChannelName, value, 1);
+      TransportMetricsHolder.get().storeOperation(this.storeType, "put");
       this.logDebugMessage(String.format("Store: [%s] added new object with id: %s", storeType, id));
    }
 
@@ -86,23 +140,80 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       if (id  == null) {
          return null;
       }
-      return cache.get(id);
+
+      T value = cache.get(id);
+      final StoreEvictionTracker<K> tracker = this.evictionTracker;
+      if (value != null && tracker != null && !tracker.recordAccess(id, this.clock.getAsLong())) {
+         // The item has expired, take the lock only to evict it.
+         final StoreStateChangeBatch<T, K> evictions;
+         synchronized (this.cache) {
+            evictions = this.evictEntries();
+            value = cache.get(id);
+         }
+         this.sendEvictionBroadcast(evictions);
+      }
+
+      if (value != null) {
+         this.hitCount.increment();
+      } else {
+         this.missCount.increment();
+      }
+      return value;
+   }
+
+   @Override
+   public void getOrLoad(K id, Consumer<T> successHandler, Consumer<Object> errorHandler) {
+      this.getOrLoad(id, this.loader, successHandler, errorHandler);
+   }
+
+   @Override
+   public void getOrLoad(K id, BusStoreLoader<K, T> loader,
+         Consumer<T> successHandler, Consumer<Object> errorHandler) {
+
+      if (id == null) {
+         this.invokeHandler(errorHandler, new IllegalArgumentException("Invalid store item id."));
+         return;
+      }
+
+      final T value = this.get(id);
+      if (value != null) {
+         if (loader != null && this.shouldRefresh(id)) {
+            this.load(id, loader, StoreLoadState.REFRESHED, null);
+         }
+         this.invokeHandler(successHandler, value);
+         return;
+      }
+
+      if (loader == null) {
+         this.invokeHandler(errorHandler, new IllegalStateException(
+               String.format("Store: [%s] has no loader for missing item %s", this.storeType, id)));
+         return;
+      }
+      this.load(id, loader, StoreLoadState.LOADED, new LoadWaiter<>(successHandler, errorHandler));
+   }
+
+   @Override
+   public void setLoader(BusStoreLoader<K, T> loader) {
+      this.loader = loader;
    }
 
    @Override
    public List<T> allValues() {
+      this.cleanUp();
       return new ArrayList<>(cache.values());
    }
 
    @Override
    public Map<K, T> allValuesAsMap() {
+      this.cleanUp();
       return new HashMap<>(cache);
    }
 
    @Override
    public StoreContent<K, T> getStoreContent() {
+      this.cleanUp();
       synchronized (this.cache) {
-         return new StoreContent<>(this.getCurrentVersion(), allValuesAsMap());
+         return new StoreContent<>(this.getCurrentVersion(), new HashMap<>(cache));
       }
    }
 
@@ -111,36 +222,121 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       if (id == null) {
          return false;
       }
+      StoreMutationEvent event = new StoreMutationEvent();
+      event.begin();
       T obj;
       long version = 0;
       synchronized (this.cache) {
          obj = this.cache.remove(id);
          if (obj != null) {
             version = this.storeVersion.incrementAndGet();
+            if (this.evictionTracker != null) {
+               this.evictionTracker.recordRemoval(id);
+            }
          }
       }
       if (obj != null) {
          this.sendChangeBroadcast(state, id, obj, version, true);
-         this.eventBus.getApi().complete(getObjectChannelName(id), this.storeType);
+         event.complete(this.storeType, "remove", this.cacheStreamChannelName, obj, 1);
+         TransportMetricsHolder.get().storeOperation(this.storeType, "remove");
          this.logDebugMessage(String.format(" Store: [%s] Remove object with id %s", this.storeType, id.toString()));
          return true;
       }
       return false;
    }
 
+   @Override
+   public <State> void putAll(Map<K, T> items, State state) {
+      if (items == null || items.isEmpty()) {
+         return;
+      }
+      final List<BatchOperation<K, T>> operations = new ArrayList<>(items.size());
+      for (Map.Entry<K, T> item : items.entrySet()) {
+         if (item.getKey() != null) {
+            operations.add(this.createPutOperation(item.getKey(), item.getValue(), state));
+         }
+      }
+      this.applyBatch(operations);
+   }
+
+   @Override
+   public <State> int removeAll(Collection<K> ids, State state) {
+      if (ids == null || ids.isEmpty()) {
+         return 0;
+      }
+      final List<BatchOperation<K, T>> operations = new ArrayList<>(ids.size());
+      for (K id : ids) {
+         if (id != null) {
+            operations.add(new BatchOperation<>(id, null, state, true));
+         }
+      }
+      return this.applyBatch(operations);
+   }
+
+   @Override
+   public boolean batch(Consumer<BusStoreBatch<K, T>> batchFunction) {
+      if (batchFunction == null) {
+         return false;
+      }
+      final List<BatchOperation<K, T>> operations = new ArrayList<>();
+      final BusStoreBatch<K, T> batch = new BusStoreBatch<K, T>() {
+         @Override
+         public <State> BusStoreBatch<K, T> put(K id, T value, State state) {
+            if (id != null) {
+               operations.add(createPutOperation(id, value, state));
+            }
+            return this;
+         }
+
+         @Override
+         public <State> BusStoreBatch<K, T> remove(K id, State state) {
+            if (id != null) {
+               operations.add(new BatchOperation<>(id, null, state, true));
+            }
+            return this;
+         }
+      };
+
+      try {
+         batchFunction.accept(batch);
+      } catch (Exception ex) {
+         this.logErrorMessage(String.format("Store: [%s] batch failed, no changes were applied", this.storeType),
+               ex.getMessage() != null ? ex.getMessage() : ex.toString());
+         return false;
+      }
+
+      this.applyBatch(operations);
+      return true;
+   }
+
    @Override
    public <V, MutationType> boolean mutate(V value, MutationType mutationType,
          Consumer<Object> successHandler, Consumer<Object> errorHandler) {
+      return this.sendMutation(null, value, mutationType, successHandler, errorHandler);
+   }
 
-      final StoreStateMutation<MutationType, V> mutation =
-            new StoreStateMutation<>(mutationType, value);
-      mutation.setSuccessHandler(successHandler);
-      mutation.setErrorHandler(errorHandler);
+   @Override
+   public <V, MutationType> boolean mutate(K id, V value, MutationType mutationType,
+         Consumer<Object> successHandler, Consumer<Object> errorHandler) {
+      return this.sendMutation(id, value, mutationType, successHandler, errorHandler);
+   }
 
-      this.eventBus.sendRequestMessage(this.cacheMutationChannelName, mutation);
+   @Override
+   public synchronized void setMutationLanes(int laneCount) {
+      if (laneCount < 0) {
+         throw new IllegalArgumentException("laneCount cannot be negative.");
+      }
+      final StoreMutationEngine previousEngine = this.mutationEngine;
+      this.mutationEngine = laneCount > 0 ? new StoreMutationEngine(this.storeType, laneCount) : null;
+      if (previousEngine != null) {
+         previousEngine.shutdown();
+      }
+   }
 
-      this.logDebugMessage(String.format("Store: [%s] fired mutation operation", this.storeType));
-      return true;
+   @Override
+   public List<StoreMutationLaneStatistics> getMutationLaneStatistics() {
+      final StoreMutationEngine engine = this.mutationEngine;
+      return engine != null ? engine.getStatistics() : Collections.emptyList();
    }
 
    @Override
@@ -148,13 +344,12 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
          onMutationRequest(MutationType... mutationType) {
 
       final Observable<StoreStateMutation<MutationType, MutationRequestType>> stream =
-         this.eventBus.getApi().getChannel(this.cacheMutationChannelName, getName()).map(
-               (Message msg) -> (StoreStateMutation<MutationType, MutationRequestType>) msg.getPayload());
+            this.eventBus.getApi().getChannel(this.cacheMutationChannelName, getName()).map(
+                  (Message msg) -> (StoreStateMutation<MutationType, MutationRequestType>) msg.getPayload());
 
       final Observable<MutationRequestWrapper<MutationRequestType>> filterStream =
             stream.filter((StoreStateMutation<MutationType, MutationRequestType> mutation) ->
-               ArrayUtils.isEmpty(mutationType) ||
-                     ArrayUtils.indexOf(mutationType, mutation.getType()) >= 0
+               isMutationType(mutation, mutationType)
             ).map((StoreStateMutation<MutationType, MutationRequestType> mutation) ->
                 new MutationRequestWrapper<>(
                      mutation.getValue(),
@@ -162,7 +357,25 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
                      mutation.getErrorHandler())
             );
 
-      return new MutateStreamImpl<>(filterStream);
+      // Mutations processed on lanes are handed to the handler on the lane's thread, so
+      // mutations of different lanes are handled in parallel and each lane stays in order.
+      return new MutateStreamImpl<>(filterStream, handler -> {
+         final Consumer<StoreStateMutation<?, ?>> listener = (StoreStateMutation<?, ?> mutation) -> {
+            if (isMutationType(mutation, mutationType)) {
+               handler.accept(new MutationRequestWrapper<>(
+                     (MutationRequestType) mutation.getValue(),
+                     mutation.getSuccessHandler(),
+                     mutation.getErrorHandler()));
+            }
+         };
+         this.mutationListeners.add(listener);
+         return Disposables.fromAction(() -> this.mutationListeners.remove(listener));
+      });
+   }
+
+   private static <MutationType> boolean isMutationType(
+         StoreStateMutation<?, ?> mutation, MutationType[] mutationType) {
+      return ArrayUtils.isEmpty(mutationType) || ArrayUtils.indexOf(mutationType, mutation.getType()) >= 0;
    }
 
    @Override
@@ -170,6 +383,7 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       if (this.cache.isEmpty() && !this.isInitialized()) {
          for (Map.Entry<K, T> item : items.entrySet()) {
             this.cache.put(item.getKey(), item.getValue());
+            this.trackInitialItem(item.getKey());
          }
 
          this.initialize();
@@ -189,6 +403,7 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
          public BusStoreInitializer<K, T> add(K id, T value) {
             if (id != null) {
                cache.put(id, value);
+               trackInitialItem(id);
             }
             return this;
          }
@@ -206,14 +421,10 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
          return null;
       }
 
-      final Observable<Message> cacheStreamChannel =
-            this.eventBus.getApi().getResponseChannel(getObjectChannelName(id), getName());
-      final Observable<Message> cacheErrorChannel =
-            this.eventBus.getApi().getErrorChannel(getObjectChannelName(id), getName());
-
-      final Observable<StoreStateChange<?, T, ?>> stream =
-            Observable.merge(cacheStreamChannel, cacheErrorChannel)
-                  .map( (Message msg) -> (StoreStateChange<?, T, K>) msg.getPayload());
+      final Observable<StoreStateChange<?, T, ?>> stream = Observable.create(emitter -> {
+         addObjectListener(id, emitter);
+         emitter.setCancellable(() -> removeObjectListener(id, emitter));
+      });
 
       return new StoreStreamImpl<>(filterByChangeType(stream, stateChangeType));
    }
@@ -225,15 +436,26 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       final Observable<Message> cacheErrorChannel =
             this.eventBus.getApi().getErrorChannel(this.cacheStreamChannelName, getName());
 
+      // Batches are broadcast as a single message, unwrap them so that
+      // subscribers receive every change individually.
       final Observable<StoreStateChange<?, T, ?>> stream =
             Observable.merge(cacheStreamChannel, cacheErrorChannel)
-                  .map( (Message msg) -> (StoreStateChange<?, T, K>) msg.getPayload());
+                  .flatMapIterable( (Message msg) -> toStateChanges(msg.getPayload()));
 
       return new StoreStreamImpl<>(filterByChangeType(stream, stateChangeType));
    }
 
    @Override
-   public synchronized void whenReady(Consumer<Map<K, T>> readyFunction) {
+   public StoreBatchStream<K, T> onAllBatchChanges() {
+      final Observable<StoreStateChangeBatch<T, K>> stream =
+            this.eventBus.getApi().getResponseChannel(this.cacheStreamChannelName, getName())
+                  .map( (Message msg) -> toStateChangeBatch(msg.getPayload()));
+
+      return new StoreBatchStreamImpl<>(stream);
+   }
+
+   @Override
+   public synchronized BusTransaction whenReady(Consumer<Map<K, T>> readyFunction) {
       if (this.isCacheInitialized.get()) {
          this.logDebugMessage(String.format("Store: [%s] Ready! Contains %d values",
                this.storeType, this.cache.size()));
@@ -242,8 +464,9 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
          } catch(Exception ex) {
             this.logErrorMessage("Error in whenReady handler.", ex.getMessage());
          }
+         return null;
       } else {
-         this.eventBus.listenOnce(this.cacheReadyChannelName, (Message message) -> {
+         return this.eventBus.listenOnce(this.cacheReadyChannelName, (Message message) -> {
             readyFunction.accept((Map<K, T>) message.getPayload());
          });
       }
@@ -260,7 +483,12 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
 
    @Override
    public synchronized void reset() {
-      this.cache.clear();
+      synchronized (this.cache) {
+         this.cache.clear();
+         if (this.evictionTracker != null) {
+            this.evictionTracker.clear();
+         }
+      }
       this.isCacheInitialized.set(false);
       infoMsg(String.format("Store: [%s] has been reset. All data wiped", this.storeType));
    }
@@ -270,6 +498,87 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       return storeVersion.get();
    }
 
+   @Override
+   public void setEvictionPolicy(StoreEvictionPolicy evictionPolicy) {
+      final StoreStateChangeBatch<T, K> evictions;
+      synchronized (this.cache) {
+         if (evictionPolicy == null) {
+            this.evictionTracker = null;
+            return;
+         }
+         final StoreEvictionTracker<K> tracker = new StoreEvictionTracker<>(evictionPolicy);
+         final long now = this.clock.getAsLong();
+         for (K id : this.cache.keySet()) {
+            tracker.recordWrite(id, now);
+         }
+         this.evictionTracker = tracker;
+         evictions = this.evictEntries();
+      }
+      this.sendEvictionBroadcast(evictions);
+   }
+
+   @Override
+   public StoreEvictionPolicy getEvictionPolicy() {
+      final StoreEvictionTracker<K> tracker = this.evictionTracker;
+      return tracker != null ? tracker.getPolicy() : null;
+   }
+
+   @Override
+   public void cleanUp() {
+      if (this.evictionTracker == null) {
+         return;
+      }
+      final StoreStateChangeBatch<T, K> evictions;
+      synchronized (this.cache) {
+         evictions = this.evictEntries();
+      }
+      this.sendEvictionBroadcast(evictions);
+   }
+
+   @Override
+   public StoreStatistics getStatistics() {
+      return new StoreStatistics(this.cache.size(), this.hitCount.sum(),
+            this.missCount.sum(), this.evictionCount.sum(),
+            this.loadSuccessCount.sum(), this.loadFailureCount.sum());
+   }
+
+   /**
+    * Replace the time source used for item expiration, used by tests.
+    */
+   void setClock(LongSupplier clock) {
+      this.clock = clock;
+   }
+
+   private <V, MutationType> boolean sendMutation(K id, V value, MutationType mutationType,
+         Consumer<Object> successHandler, Consumer<Object> errorHandler) {
+
+      final StoreStateMutation<MutationType, V> mutation =
+            new StoreStateMutation<>(mutationType, value);
+      mutation.setSuccessHandler(successHandler);
+      mutation.setErrorHandler(errorHandler);
+
+      final StoreMutationEngine engine = this.mutationEngine;
+      if (engine != null) {
+         engine.execute(id, () -> this.dispatchMutation(mutation));
+      } else {
+         this.eventBus.sendRequestMessage(this.cacheMutationChannelName, mutation);
+      }
+
+      this.logDebugMessage(String.format("Store: [%s] fired mutation operation", this.storeType));
+      return true;
+   }
+
+   private void dispatchMutation(StoreStateMutation<?, ?> mutation) {
+      for (Consumer<StoreStateMutation<?, ?>> listener : this.mutationListeners) {
+         try {
+            listener.accept(mutation);
+         } catch (Exception ex) {
+            this.logErrorMessage(String.format("Store: [%s] mutation handler failed", this.storeType),
+                  ex.getMessage() != null ? ex.getMessage() : ex.toString());
+         }
+      }
+   }
+
    private <State> Observable<StoreStateChange<?, T, ?>> filterByChangeType(
          Observable<StoreStateChange<?, T, ?>> stream, State... stateChangeType) {
 
@@ -285,7 +594,274 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
             new StoreStateChange<>(id, changeType, value, storeVersion, isDeleteChange);
 
       sendResponseMessage(this.cacheStreamChannelName, stateChange);
-      sendResponseMessage(this.getObjectChannelName(stateChange.getObjectId()), stateChange);
+      dispatchObjectChange(stateChange);
+   }
+
+   /**
+    * Validate the value while the batch is collected, so a batch with a null value
+    * is rejected before any of its operations is applied.
+    */
+   private BatchOperation<K, T> createPutOperation(K id, T value, Object state) {
+      if (value == null) {
+         throw new IllegalArgumentException(
+               String.format("Store: [%s] batch contains a null value for id: %s", this.storeType, id));
+      }
+      return new BatchOperation<>(id, value, state, false);
+   }
+
+   /**
+    * Apply the operations under a single store version and broadcast them
+    * as one {@link StoreStateChangeBatch}. Returns the number of applied changes.
+    */
+   private int applyBatch(List<BatchOperation<K, T>> operations) {
+      if (operations.isEmpty()) {
+         return 0;
+      }
+
+      StoreMutationEvent event = new StoreMutationEvent();
+      event.begin();
+      final List<BatchOperation<K, T>> applied = new ArrayList<>(operations.size());
+      final List<StoreStateChange<?, T, K>> changes;
+      final long version;
+      final StoreStateChangeBatch<T, K> evictions;
+      synchronized (this.cache) {
+         final StoreEvictionTracker<K> tracker = this.evictionTracker;
+         final long now = tracker != null ? this.clock.getAsLong() : 0;
+         for (BatchOperation<K, T> operation : operations) {
+            if (operation.isDelete) {
+               T removed = this.cache.remove(operation.id);
+               if (removed != null) {
+                  applied.add(new BatchOperation<>(operation.id, removed, operation.state, true));
+                  if (tracker != null) {
+                     tracker.recordRemoval(operation.id);
+                  }
+               }
+            } else {
+               this.cache.put(operation.id, operation.value);
+               applied.add(operation);
+               if (tracker != null) {
+                  tracker.recordWrite(operation.id, now);
+               }
+            }
+         }
+         if (applied.isEmpty()) {
+            return 0;
+         }
+         version = this.storeVersion.incrementAndGet();
+         evictions = this.evictEntries();
+      }
+
+      changes = new ArrayList<>(applied.size());
+      for (BatchOperation<K, T> operation : applied) {
+         changes.add(new StoreStateChange<>(
+               operation.id, operation.state, operation.value, version, operation.isDelete));
+      }
+
+      this.sendBatchBroadcast(new StoreStateChangeBatch<>(version, changes));
+      this.sendEvictionBroadcast(evictions);
+      event.complete(this.storeType, "batch", this.cacheStreamChannelName,
+            applied.get(0).value, changes.size());
+      TransportMetricsHolder.get().storeOperation(this.storeType, "batch");
+      this.logDebugMessage(String.format("Store: [%s] applied batch with %d changes", this.storeType, changes.size()));
+      return changes.size();
+   }
+
+   /**
+    * Start a load of the item or join the in-flight load of the same item.
+    * Refresh loads have no waiter and are skipped if a load is already running.
+    */
+   private void load(K id, BusStoreLoader<K, T> loader, StoreLoadState state, LoadWaiter<T> waiter) {
+      final PendingLoad<T> pendingLoad = new PendingLoad<>(waiter);
+      PendingLoad<T> inFlight = this.pendingLoads.putIfAbsent(id, pendingLoad);
+      while (inFlight != null) {
+         if (waiter == null || inFlight.addWaiter(waiter)) {
+            return;
+         }
+         // The in-flight load has just completed.
+         final T value = this.cache.get(id);
+         if (value != null) {
+            this.invokeHandler(waiter.successHandler, value);
+            return;
+         }
+         this.pendingLoads.remove(id, inFlight);
+         inFlight = this.pendingLoads.putIfAbsent(id, pendingLoad);
+      }
+
+      try {
+         loader.load(id,
+               (T value) -> this.onLoadSuccess(id, pendingLoad, value, state),
+               (Object error) -> this.onLoadError(id, pendingLoad, error));
+      } catch (Exception ex) {
+         this.onLoadError(id, pendingLoad, ex);
+      }
+   }
+
+   private void onLoadSuccess(K id, PendingLoad<T> pendingLoad, T value, StoreLoadState state) {
+      if (!pendingLoad.isCompleted.compareAndSet(false, true)) {
+         return;
+      }
+      if (value != null) {
+         this.put(id, value, state);
+      }
+      final List<LoadWaiter<T>> waiters = pendingLoad.close();
+      this.pendingLoads.remove(id, pendingLoad);
+      this.loadSuccessCount.increment();
+
+      for (LoadWaiter<T> waiter : waiters) {
+         this.invokeHandler(waiter.successHandler, value);
+      }
+   }
+
+   private void onLoadError(K id, PendingLoad<T> pendingLoad, Object error) {
+      if (!pendingLoad.isCompleted.compareAndSet(false, true)) {
+         return;
+      }
+      final List<LoadWaiter<T>> waiters = pendingLoad.close();
+      this.pendingLoads.remove(id, pendingLoad);
+      this.loadFailureCount.increment();
+      this.logDebugMessage(String.format("Store: [%s] failed to load object with id: %s", this.storeType, id));
+
+      for (LoadWaiter<T> waiter : waiters) {
+         this.invokeHandler(waiter.errorHandler, error);
+      }
+   }
+
+   private boolean shouldRefresh(K id) {
+      final StoreEvictionTracker<K> tracker = this.evictionTracker;
+      return tracker != null && tracker.shouldRefresh(id, this.clock.getAsLong());
+   }
+
+   private <V> void invokeHandler(Consumer<V> handler, V value) {
+      if (handler == null) {
+         return;
+      }
+      try {
+         handler.accept(value);
+      } catch (Exception ex) {
+         this.logErrorMessage(String.format("Store: [%s] error in getOrLoad handler.", this.storeType),
+               ex.getMessage() != null ? ex.getMessage() : ex.toString());
+      }
+   }
+
+   /**
+    * Record a put() in the eviction tracker and evict the items over the policy limits.
+    * Must be called while holding the cache lock.
+    */
+   private StoreStateChangeBatch<T, K> trackWrite(K id) {
+      if (this.evictionTracker == null) {
+         return null;
+      }
+      this.evictionTracker.recordWrite(id, this.clock.getAsLong());
+      return this.evictEntries();
+   }
+
+   private void trackInitialItem(K id) {
+      synchronized (this.cache) {
+         if (this.evictionTracker != null) {
+            this.evictionTracker.recordWrite(id, this.clock.getAsLong());
+         }
+      }
+   }
+
+   /**
+    * Remove the items selected by the eviction tracker from the cache under a new
+    * store version. Must be called while holding the cache lock.
+    * @return the eviction changes, or null if nothing was evicted.
+    */
+   private StoreStateChangeBatch<T, K> evictEntries() {
+      final StoreEvictionTracker<K> tracker = this.evictionTracker;
+      if (tracker == null) {
+         return null;
+      }
+      final Map<K, StoreEvictionState> evicted = tracker.collectEvictions(this.clock.getAsLong());
+      if (evicted.isEmpty()) {
+         return null;
+      }
+
+      final List<StoreStateChange<?, T, K>> changes = new ArrayList<>(evicted.size());
+      final long version = this.storeVersion.incrementAndGet();
+      for (Map.Entry<K, StoreEvictionState> entry : evicted.entrySet()) {
+         T value = this.cache.remove(entry.getKey());
+         if (value != null) {
+            changes.add(new StoreStateChange<>(entry.getKey(), entry.getValue(), value, version, true));
+         }
+      }
+      this.evictionCount.add(changes.size());
+      return new StoreStateChangeBatch<>(version, changes);
+   }
+
+   private void sendEvictionBroadcast(StoreStateChangeBatch<T, K> evictions) {
+      if (evictions == null || evictions.getChanges().isEmpty()) {
+         return;
+      }
+      this.sendBatchBroadcast(evictions);
+      this.logDebugMessage(String.format("Store: [%s] evicted %d objects",
+            this.storeType, evictions.getChanges().size()));
+   }
+
+   private void sendBatchBroadcast(StoreStateChangeBatch<T, K> batch) {
+      sendResponseMessage(this.cacheStreamChannelName, batch);
+      if (this.objectListeners.isEmpty()) {
+         return;
+      }
+      for (StoreStateChange<?, T, K> stateChange : batch.getChanges()) {
+         dispatchObjectChange(stateChange);
+      }
+   }
+
+   private List<StoreStateChange<?, T, ?>> toStateChanges(Object payload) {
+      if (payload instanceof StoreStateChangeBatch) {
+         return (List<StoreStateChange<?, T, ?>>) (List<?>) ((StoreStateChangeBatch<T, K>) payload).getChanges();
+      }
+      return Collections.singletonList((StoreStateChange<?, T, ?>) payload);
+   }
+
+   private StoreStateChangeBatch<T, K> toStateChangeBatch(Object payload) {
+      if (payload instanceof StoreStateChangeBatch) {
+         return (StoreStateChangeBatch<T, K>) payload;
+      }
+      final StoreStateChange<?, T, K> stateChange = (StoreStateChange<?, T, K>) payload;
+      return new StoreStateChangeBatch<>(stateChange.getStoreVersion(),
+            Collections.singletonList(stateChange));
+   }
+
+   private void addObjectListener(K id, ObservableEmitter<StoreStateChange<?, T, ?>> emitter) {
+      this.objectListeners.compute(id, (key, listeners) -> {
+         if (listeners == null) {
+            listeners = new CopyOnWriteArrayList<>();
+         }
+         listeners.add(emitter);
+         return listeners;
+      });
+   }
+
+   private void removeObjectListener(K id, ObservableEmitter<StoreStateChange<?, T, ?>> emitter) {
+      this.objectListeners.computeIfPresent(id, (key, listeners) -> {
+         listeners.remove(emitter);
+         return listeners.isEmpty() ? null : listeners;
+      });
+   }
+
+   /**
+    * Deliver the change to the listeners of the changed object. Listeners
+    * of removed objects are completed after the delete change is delivered.
+    */
+   private void dispatchObjectChange(StoreStateChange<?, T, K> stateChange) {
+      final List<ObservableEmitter<StoreStateChange<?, T, ?>>> listeners;
+      if (stateChange.isDeleteChange()) {
+         listeners = this.objectListeners.remove(stateChange.getObjectId());
+      } else {
+         listeners = this.objectListeners.get(stateChange.getObjectId());
+      }
+      if (listeners == null) {
+         return;
+      }
+      for (ObservableEmitter<StoreStateChange<?, T, ?>> emitter : listeners) {
+         emitter.onNext(stateChange);
+         if (stateChange.isDeleteChange()) {
+            emitter.onComplete();
+         }
+      }
    }
 
    private void sendResponseMessage(String channel, Object payload) {
@@ -295,11 +871,62 @@ public class BusStoreImpl<K, T> extends Loggable implements BusStore<K, T> {
       }
    }
 
-   private String getObjectChannelName(K objectId) {
-      return "store-" + this.uuid + "-object-" + objectId;
-   }
-
    private void infoMsg(String msg) {
       this.logInfoMessage("\uD83D\uDDC4", getName(), msg);
    }
+
+   private static class LoadWaiter<T> {
+
+      final Consumer<T> successHandler;
+      final Consumer<Object> errorHandler;
+
+      LoadWaiter(Consumer<T> successHandler, Consumer<Object> errorHandler) {
+         this.successHandler = successHandler;
+         this.errorHandler = errorHandler;
+      }
+   }
+
+   private static class PendingLoad<T> {
+
+      final AtomicBoolean isCompleted = new AtomicBoolean(false);
+      private final List<LoadWaiter<T>> waiters = new ArrayList<>();
+      private boolean isClosed;
+
+      PendingLoad(LoadWaiter<T> waiter) {
+         if (waiter != null) {
+            this.waiters.add(waiter);
+         }
+      }
+
+      /**
+       * Returns false if the load has already completed.
+       */
+      synchronized boolean addWaiter(LoadWaiter<T> waiter) {
+         if (this.isClosed) {
+            return false;
+         }
+         this.waiters.add(waiter);
+         return true;
+      }
+
+      synchronized List<LoadWaiter<T>> close() {
+         this.isClosed = true;
+         return this.waiters;
+      }
+   }
+
+   private static class BatchOperation<K, T> {
+
+      final K id;
+      final T value;
+      final Object state;
+      final boolean isDelete;
+
+      BatchOperation(K id, T value, Object state, boolean isDelete) {
+         this.id = id;
+         this.value = value;
+         this.state = state;
+         this.isDelete = isDelete;
+      }
+   }
 }
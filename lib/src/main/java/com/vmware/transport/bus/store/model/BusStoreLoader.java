@@ -0,0 +1,24 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Asynchronously loads missing store items, see {@link BusStore#getOrLoad}.
+ */
+@FunctionalInterface
+public interface BusStoreLoader<K, T> {
+
+   /**
+    * Load the item with the given id. Exactly one of the handlers should be invoked
+    * when the load completes, from any thread.
+    * @param id, the id of the missing item.
+    * @param successHandler, handler which accepts the loaded item.
+    * @param errorHandler, handler which accepts the load error.
+    */
+   void load(K id, Consumer<T> successHandler, Consumer<Object> errorHandler) throws Exception;
+}
@@ -6,14 +6,29 @@
 package com.vmware.transport.bus.store.model;
 
 import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Consumer;
 
+import java.util.function.Function;
+
 public class MutateStreamImpl<T> extends BaseStoreStream implements MutateStream<T> {
 
    private final Observable<MutationRequestWrapper<T>> stream;
+   private final Function<Consumer<MutationRequestWrapper<T>>, Disposable> directSubscriber;
 
    public MutateStreamImpl(Observable<MutationRequestWrapper<T>> stream) {
+      this(stream, null);
+   }
+
+   /**
+    * @param directSubscriber, registers the handler for mutations which are delivered without
+    *                          the stream, returns the registration.
+    */
+   public MutateStreamImpl(Observable<MutationRequestWrapper<T>> stream,
+         Function<Consumer<MutationRequestWrapper<T>>, Disposable> directSubscriber) {
       this.stream = stream;
+      this.directSubscriber = directSubscriber;
    }
 
    @Override
@@ -23,7 +38,18 @@ public class MutateStreamImpl<T> extends BaseStoreStream implements MutateStream
       }
       assertNotSubscribed();
 
-      this.subscription = this.stream.subscribe(
-            (MutationRequestWrapper<T> request) -> handler.accept(request));
+      final Consumer<MutationRequestWrapper<T>> safeHandler = (MutationRequestWrapper<T> request) -> {
+         try {
+            handler.accept(request);
+         } catch (Exception ex) {
+            // Report handler failures to the mutation's sender
+            // instead of terminating the subscription.
+            request.error(ex);
+         }
+      };
+
+      final Disposable streamSubscription = this.stream.subscribe(safeHandler);
+      this.subscription = this.directSubscriber == null ? streamSubscription
+            : new CompositeDisposable(streamSubscription, this.directSubscriber.apply(safeHandler));
    }
 }
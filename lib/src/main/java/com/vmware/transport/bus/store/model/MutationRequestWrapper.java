@@ -41,7 +41,7 @@ public class MutationRequestWrapper<RequestType> {
     * Notify client that mutation operation was successful.
     */
    public void success(Object result) throws Exception {
-      if (errorHandler != null) {
+      if (successHandler != null) {
          successHandler.accept(result);
       }
    }
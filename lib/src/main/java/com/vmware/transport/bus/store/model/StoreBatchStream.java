@@ -0,0 +1,26 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import io.reactivex.functions.Consumer;
+
+/**
+ * StoreBatchStream wraps an Observable of store change batches. Single store
+ * changes are delivered as batches containing one change.
+ */
+public interface StoreBatchStream<K, T> {
+
+   /**
+    * Subscribe to Observable stream.
+    * @param handler, a Consumer function to handle change batches.
+    */
+   void subscribe(Consumer<StoreStateChangeBatch<T, K>> handler);
+
+   /**
+    * Unsubscribe from the Store stream.
+    */
+   void unsubscribe();
+}
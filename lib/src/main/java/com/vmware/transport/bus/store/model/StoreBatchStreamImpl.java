@@ -0,0 +1,29 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import io.reactivex.Observable;
+import io.reactivex.functions.Consumer;
+
+public class StoreBatchStreamImpl<K, T> extends BaseStoreStream implements StoreBatchStream<K, T> {
+
+   private final Observable<StoreStateChangeBatch<T, K>> stream;
+
+   public StoreBatchStreamImpl(Observable<StoreStateChangeBatch<T, K>> stream) {
+      this.stream = stream;
+   }
+
+   @Override
+   public void subscribe(Consumer<StoreStateChangeBatch<T, K>> handler) {
+      if (handler == null) {
+         throw new IllegalArgumentException("Invalid store stream handler.");
+      }
+      assertNotSubscribed();
+
+      this.subscription = this.stream.subscribe(
+            (StoreStateChangeBatch<T, K> batch) -> handler.accept(batch));
+   }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes when items should be evicted from a {@link BusStore}. By default
+ * a policy doesn't evict anything; each limit is enabled by setting it to a
+ * positive value.
+ *
+ * Size bounded stores evict the least recently used items first.
+ */
+public class StoreEvictionPolicy {
+
+   /**
+    * The maximum number of items in the store, 0 for unbounded stores.
+    */
+   @Getter
+   private int maxEntries;
+
+   /**
+    * The time after which an item expires, counted from the last put() of the item.
+    */
+   @Getter
+   private long timeToLiveMillis;
+
+   /**
+    * The time after which an item expires, counted from the last put() or get() of the item.
+    */
+   @Getter
+   private long timeToIdleMillis;
+
+   /**
+    * Items loaded via getOrLoad() are reloaded in the background when they are
+    * read within this time before their time-to-live expires.
+    */
+   @Getter
+   private long refreshAheadMillis;
+
+   StoreEvictionPolicy() {}
+
+   public StoreEvictionPolicy setMaxEntries(int maxEntries) {
+      if (maxEntries < 0) {
+         throw new IllegalArgumentException("maxEntries cannot be negative.");
+      }
+      this.maxEntries = maxEntries;
+      return this;
+   }
+
+   public StoreEvictionPolicy setTimeToLive(long duration, TimeUnit unit) {
+      if (duration < 0) {
+         throw new IllegalArgumentException("timeToLive cannot be negative.");
+      }
+      this.timeToLiveMillis = unit.toMillis(duration);
+      return this;
+   }
+
+   public StoreEvictionPolicy setTimeToIdle(long duration, TimeUnit unit) {
+      if (duration < 0) {
+         throw new IllegalArgumentException("timeToIdle cannot be negative.");
+      }
+      this.timeToIdleMillis = unit.toMillis(duration);
+      return this;
+   }
+
+   public StoreEvictionPolicy setRefreshAhead(long duration, TimeUnit unit) {
+      if (duration < 0) {
+         throw new IllegalArgumentException("refreshAhead cannot be negative.");
+      }
+      this.refreshAheadMillis = unit.toMillis(duration);
+      return this;
+   }
+
+   /**
+    * Create new StoreEvictionPolicy instance.
+    */
+   public static StoreEvictionPolicy newInstance() {
+      return new StoreEvictionPolicy();
+   }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+/**
+ * State change types broadcast when a store evicts an item
+ * according to its {@link StoreEvictionPolicy}.
+ */
+public enum StoreEvictionState {
+   /**
+    * The item was evicted because the store reached its maximum size.
+    */
+   SIZE_EVICTED,
+   /**
+    * The item was not updated within the store's time-to-live.
+    */
+   TTL_EXPIRED,
+   /**
+    * The item was not accessed within the store's time-to-idle.
+    */
+   TTI_EXPIRED
+}
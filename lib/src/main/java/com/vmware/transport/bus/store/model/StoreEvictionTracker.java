@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the access and write order of the store items and selects the items
+ * which should be evicted according to a {@link StoreEvictionPolicy}.
+ *
+ * Only recordAccess() and shouldRefresh() are thread safe, BusStoreImpl guards
+ * the other methods with the store lock. Reads update the item's access time and
+ * queue the item in an access buffer, the buffer is applied to the access order
+ * when the next write or eviction holds the lock. Accesses which don't fit in the
+ * buffer only update the access time, which is checked again before an item is evicted.
+ */
+class StoreEvictionTracker<K> {
+
+   static final int MAX_BUFFERED_ACCESSES = 1024;
+
+   private final StoreEvictionPolicy policy;
+
+   // Item ids mapped to their last recorded access time, least recently used first.
+   private final LinkedHashMap<K, Long> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+   // Item ids mapped to their last write time, oldest first.
+   private final LinkedHashMap<K, Long> writeOrder = new LinkedHashMap<>();
+
+   // The current write and access times of the items, read and updated without the lock.
+   private final Map<K, ItemTimes> itemTimes = new ConcurrentHashMap<>();
+
+   private final Queue<K> accessBuffer = new ConcurrentLinkedQueue<>();
+   private final AtomicInteger bufferedAccesses = new AtomicInteger();
+
+   StoreEvictionTracker(StoreEvictionPolicy policy) {
+      this.policy = policy;
+   }
+
+   StoreEvictionPolicy getPolicy() {
+      return policy;
+   }
+
+   void recordWrite(K id, long now) {
+      // Apply the earlier reads first, so the access order stays sorted by time.
+      drainAccessBuffer();
+      itemTimes.put(id, new ItemTimes(now));
+      accessOrder.put(id, now);
+      // Re-insert the id so that it moves to the end of the write order.
+      writeOrder.remove(id);
+      writeOrder.put(id, now);
+   }
+
+   /**
+    * Record a read of the item, can be called without the store lock.
+    * @return false if the item has expired and should be evicted.
+    */
+   boolean recordAccess(K id, long now) {
+      final ItemTimes times = itemTimes.get(id);
+      if (times == null) {
+         return true;
+      }
+      if (isExpired(times, now)) {
+         return false;
+      }
+      times.accessTime = now;
+      if (bufferedAccesses.incrementAndGet() <= MAX_BUFFERED_ACCESSES) {
+         accessBuffer.offer(id);
+      } else {
+         bufferedAccesses.decrementAndGet();
+      }
+      return true;
+   }
+
+   void recordRemoval(K id) {
+      itemTimes.remove(id);
+      accessOrder.remove(id);
+      writeOrder.remove(id);
+   }
+
+   /**
+    * Returns true if the item's time-to-live expires within the policy's refresh-ahead time,
+    * can be called without the store lock.
+    */
+   boolean shouldRefresh(K id, long now) {
+      if (policy.getTimeToLiveMillis() <= 0 || policy.getRefreshAheadMillis() <= 0) {
+         return false;
+      }
+      final ItemTimes times = itemTimes.get(id);
+      return times != null &&
+            times.writeTime + policy.getTimeToLiveMillis() - policy.getRefreshAheadMillis() <= now;
+   }
+
+   void clear() {
+      itemTimes.clear();
+      accessOrder.clear();
+      writeOrder.clear();
+      drainAccessBuffer();
+   }
+
+   /**
+    * Removes the expired and the least recently used items above the
+    * maximum size from the tracker and returns them with the eviction reason.
+    */
+   Map<K, StoreEvictionState> collectEvictions(long now) {
+      drainAccessBuffer();
+      final Map<K, StoreEvictionState> evictions = new LinkedHashMap<>();
+
+      if (policy.getTimeToLiveMillis() > 0) {
+         Iterator<Map.Entry<K, Long>> it = writeOrder.entrySet().iterator();
+         while (it.hasNext()) {
+            Map.Entry<K, Long> entry = it.next();
+            if (entry.getValue() + policy.getTimeToLiveMillis() > now) {
+               break;
+            }
+            it.remove();
+            itemTimes.remove(entry.getKey());
+            accessOrder.remove(entry.getKey());
+            evictions.put(entry.getKey(), StoreEvictionState.TTL_EXPIRED);
+         }
+      }
+
+      // Items read after their recorded access whose access didn't fit in the
+      // buffer, they are moved to the end of the access order instead of being evicted.
+      final List<K> accessedItems = new ArrayList<>();
+
+      if (policy.getTimeToIdleMillis() > 0) {
+         Iterator<Map.Entry<K, Long>> it = accessOrder.entrySet().iterator();
+         while (it.hasNext()) {
+            Map.Entry<K, Long> entry = it.next();
+            if (entry.getValue() + policy.getTimeToIdleMillis() > now) {
+               break;
+            }
+            it.remove();
+            if (getAccessTime(entry.getKey(), entry.getValue()) + policy.getTimeToIdleMillis() > now) {
+               accessedItems.add(entry.getKey());
+               continue;
+            }
+            itemTimes.remove(entry.getKey());
+            writeOrder.remove(entry.getKey());
+            evictions.put(entry.getKey(), StoreEvictionState.TTI_EXPIRED);
+         }
+      }
+
+      int excessItems = policy.getMaxEntries() > 0
+            ? accessOrder.size() + accessedItems.size() - policy.getMaxEntries() : 0;
+      if (excessItems > 0) {
+         Iterator<Map.Entry<K, Long>> it = accessOrder.entrySet().iterator();
+         while (excessItems > 0 && it.hasNext()) {
+            Map.Entry<K, Long> entry = it.next();
+            it.remove();
+            if (getAccessTime(entry.getKey(), entry.getValue()) > entry.getValue()) {
+               accessedItems.add(entry.getKey());
+               continue;
+            }
+            evictSize(entry.getKey(), evictions);
+            excessItems--;
+         }
+      }
+
+      for (K id : accessedItems) {
+         if (excessItems > 0) {
+            // All the remaining items were read, evict them in the order they were found.
+            evictSize(id, evictions);
+            excessItems--;
+         } else {
+            accessOrder.put(id, getAccessTime(id, now));
+         }
+      }
+
+      return evictions;
+   }
+
+   private void evictSize(K id, Map<K, StoreEvictionState> evictions) {
+      itemTimes.remove(id);
+      writeOrder.remove(id);
+      evictions.put(id, StoreEvictionState.SIZE_EVICTED);
+   }
+
+   /**
+    * Move the buffered reads to the end of the access order. Must be called with the store lock.
+    */
+   private void drainAccessBuffer() {
+      K id;
+      while ((id = accessBuffer.poll()) != null) {
+         bufferedAccesses.decrementAndGet();
+         final ItemTimes times = itemTimes.get(id);
+         if (times != null && accessOrder.containsKey(id)) {
+            accessOrder.put(id, times.accessTime);
+         }
+      }
+   }
+
+   private long getAccessTime(K id, long defaultTime) {
+      final ItemTimes times = itemTimes.get(id);
+      return times != null ? times.accessTime : defaultTime;
+   }
+
+   private boolean isExpired(ItemTimes times, long now) {
+      return (policy.getTimeToLiveMillis() > 0 && times.writeTime + policy.getTimeToLiveMillis() <= now) ||
+            (policy.getTimeToIdleMillis() > 0 && times.accessTime + policy.getTimeToIdleMillis() <= now);
+   }
+
+   private static class ItemTimes {
+      final long writeTime;
+      volatile long accessTime;
+
+      ItemTimes(long writeTime) {
+         this.writeTime = writeTime;
+         this.accessTime = writeTime;
+      }
+   }
+}
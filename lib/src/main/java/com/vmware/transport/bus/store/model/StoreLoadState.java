@@ -0,0 +1,20 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+/**
+ * State change types broadcast when a {@link BusStoreLoader} places an item into the store.
+ */
+public enum StoreLoadState {
+   /**
+    * The item was missing and has been loaded.
+    */
+   LOADED,
+   /**
+    * The item has been reloaded before its time-to-live expired.
+    */
+   REFRESHED
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs store mutations on a fixed number of single threaded lanes. Mutations
+ * are assigned to lanes by the hash of their key, so mutations of the same key
+ * are executed in order while mutations of different keys run in parallel.
+ */
+class StoreMutationEngine {
+
+   private final Lane[] lanes;
+   private final long startTime = System.nanoTime();
+
+   StoreMutationEngine(String storeType, int laneCount) {
+      this.lanes = new Lane[laneCount];
+      for (int i = 0; i < laneCount; i++) {
+         this.lanes[i] = new Lane("store-mutation-" + storeType + "-" + i);
+      }
+   }
+
+   int getLaneCount() {
+      return this.lanes.length;
+   }
+
+   /**
+    * Queue the task on the lane of the key. Tasks without a key all run on the first lane.
+    */
+   void execute(Object key, Runnable task) {
+      final Lane lane = this.lanes[laneIndex(key, this.lanes.length)];
+      final long queuedTime = System.nanoTime();
+      lane.queueSize.incrementAndGet();
+      lane.executor.execute(() -> lane.run(task, queuedTime));
+   }
+
+   List<StoreMutationLaneStatistics> getStatistics() {
+      final long elapsed = Math.max(1, System.nanoTime() - this.startTime);
+      final List<StoreMutationLaneStatistics> result = new ArrayList<>(this.lanes.length);
+      for (int i = 0; i < this.lanes.length; i++) {
+         final Lane lane = this.lanes[i];
+         final long processed = lane.processedCount.sum();
+         result.add(new StoreMutationLaneStatistics(
+               i,
+               lane.queueSize.get(),
+               processed,
+               Math.min(1.0, (double) lane.busyNanos.sum() / elapsed),
+               processed > 0 ? TimeUnit.NANOSECONDS.toMicros(lane.queueNanos.sum() / processed) : 0,
+               TimeUnit.NANOSECONDS.toMicros(lane.maxQueueNanos.get())));
+      }
+      return result;
+   }
+
+   /**
+    * Stop the lanes after the already queued mutations are processed.
+    */
+   void shutdown() {
+      for (Lane lane : this.lanes) {
+         lane.executor.shutdown();
+      }
+   }
+
+   static int laneIndex(Object key, int laneCount) {
+      if (key == null) {
+         return 0;
+      }
+      final int hash = key.hashCode();
+      return Math.floorMod(hash ^ (hash >>> 16), laneCount);
+   }
+
+   private static class Lane {
+
+      final ExecutorService executor;
+      final AtomicInteger queueSize = new AtomicInteger();
+      final LongAdder processedCount = new LongAdder();
+      final LongAdder busyNanos = new LongAdder();
+      final LongAdder queueNanos = new LongAdder();
+      final AtomicLong maxQueueNanos = new AtomicLong();
+
+      Lane(String threadName) {
+         this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
+
+      void run(Runnable task, long queuedTime) {
+         final long startTime = System.nanoTime();
+         final long waitTime = startTime - queuedTime;
+         this.queueSize.decrementAndGet();
+         this.queueNanos.add(waitTime);
+         this.maxQueueNanos.accumulateAndGet(waitTime, Math::max);
+         try {
+            task.run();
+         } finally {
+            this.busyNanos.add(System.nanoTime() - startTime);
+            this.processedCount.increment();
+         }
+      }
+   }
+}
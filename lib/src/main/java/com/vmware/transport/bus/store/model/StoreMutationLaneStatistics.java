@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+/**
+ * Snapshot of a single mutation lane's counters, see {@link BusStore#setMutationLanes(int)}.
+ */
+public class StoreMutationLaneStatistics {
+
+   /**
+    * The index of the lane.
+    */
+   public final int lane;
+
+   /**
+    * The number of mutations waiting in the lane's queue.
+    */
+   public final int queueSize;
+
+   /**
+    * The number of processed mutations.
+    */
+   public final long processedCount;
+
+   /**
+    * The fraction of time the lane spent processing mutations since it was started (0 to 1).
+    */
+   public final double utilization;
+
+   /**
+    * The average time mutations waited in the lane's queue, in microseconds.
+    */
+   public final long averageQueueLatencyMicros;
+
+   /**
+    * The longest time a mutation waited in the lane's queue, in microseconds.
+    */
+   public final long maxQueueLatencyMicros;
+
+   public StoreMutationLaneStatistics(int lane, int queueSize, long processedCount, double utilization,
+         long averageQueueLatencyMicros, long maxQueueLatencyMicros) {
+      this.lane = lane;
+      this.queueSize = queueSize;
+      this.processedCount = processedCount;
+      this.utilization = utilization;
+      this.averageQueueLatencyMicros = averageQueueLatencyMicros;
+      this.maxQueueLatencyMicros = maxQueueLatencyMicros;
+   }
+}
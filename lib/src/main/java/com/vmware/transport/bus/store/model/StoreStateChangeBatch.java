@@ -0,0 +1,28 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Aggregates all {@link StoreStateChange} events produced by a single
+ * batch operation. Every change in the batch carries the same store version.
+ */
+public class StoreStateChangeBatch<V, K> {
+
+   @Getter
+   private final long storeVersion;
+
+   @Getter
+   private final List<StoreStateChange<?, V, K>> changes;
+
+   public StoreStateChangeBatch(long storeVersion, List<StoreStateChange<?, V, K>> changes) {
+      this.storeVersion = storeVersion;
+      this.changes = changes;
+   }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+/**
+ * Snapshot of the store's usage counters.
+ */
+public class StoreStatistics {
+
+   /**
+    * The number of items in the store.
+    */
+   public final int size;
+
+   /**
+    * The number of get() calls which found an item.
+    */
+   public final long hitCount;
+
+   /**
+    * The number of get() calls which didn't find an item.
+    */
+   public final long missCount;
+
+   /**
+    * The number of items evicted by the store's eviction policy.
+    */
+   public final long evictionCount;
+
+   /**
+    * The number of items successfully loaded by getOrLoad().
+    */
+   public final long loadSuccessCount;
+
+   /**
+    * The number of failed getOrLoad() loads.
+    */
+   public final long loadFailureCount;
+
+   public StoreStatistics(int size, long hitCount, long missCount, long evictionCount,
+         long loadSuccessCount, long loadFailureCount) {
+      this.size = size;
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+      this.loadSuccessCount = loadSuccessCount;
+      this.loadFailureCount = loadFailureCount;
+   }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2019-2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.bus.store.model;
+
+import java.util.List;
+
+public class UpdateStoreBatchResponse extends BaseStoreResponse {
+
+    /**
+     * The item updates, in the order they were applied to the store.
+     */
+    public final List<UpdateStoreResponse> updates;
+
+    public UpdateStoreBatchResponse(String storeId, long storeVersion, List<UpdateStoreResponse> updates) {
+        super("updateStoreBatchResponse", storeId, storeVersion);
+        this.updates = updates;
+    }
+}
@@ -53,6 +53,26 @@ public abstract class AbstractBase extends Loggable implements TransportEnabled
 
     protected ObjectMapper mapper = new ObjectMapper();
 
+    // deadline of the service request handled by the current thread, see AbstractService.
+    private static final ThreadLocal<Long> currentRequestDeadline = new ThreadLocal<>();
+
+    static void setCurrentRequestDeadline(Long deadline) {
+        if (deadline != null) {
+            currentRequestDeadline.set(deadline);
+        } else {
+            currentRequestDeadline.remove();
+        }
+    }
+
+    /**
+     * Returns the deadline in epoch milliseconds of the service request handled by the current
+     * thread, null if the request has no deadline. RestService calls made while handling the
+     * request inherit its deadline.
+     */
+    protected Long getCurrentRequestDeadline() {
+        return currentRequestDeadline.get();
+    }
+
     /**
      * Make a new RestService call.
      *
@@ -77,6 +97,21 @@ public abstract class AbstractBase extends Loggable implements TransportEnabled
             Consumer<Response<Resp>> successHandler,
             Consumer<Response<RestError>> errorHandler
     ) {
+        this.restServiceRequest(id, uri, method, payload, headers, responseApiClass,
+                this.getCurrentRequestDeadline(), successHandler, errorHandler);
+    }
+
+    private <Req, Resp> void restServiceRequest(
+            UUID id,
+            URI uri,
+            HttpMethod method,
+            Req payload,
+            Map<String, String> headers,
+            String responseApiClass,
+            Long deadline,
+            Consumer<Response<Resp>> successHandler,
+            Consumer<Response<RestError>> errorHandler
+    ) {
 
         BusStore<String, Map<String, String>> serviceWideHeadersStore =
                 storeManager.createStore(CoreStores.ServiceWideHeaders); // createStore is safe, guarantees no NPE.
@@ -107,6 +142,7 @@ public abstract class AbstractBase extends Loggable implements TransportEnabled
         req.setBody(payload);
         req.setSentFrom(this.getName());
         req.setHeaders(mergedHeaders);
+        req.setDeadline(deadline);
 
         Request request = new Request<Req>();
         request.setId(id);
@@ -158,6 +194,13 @@ public abstract class AbstractBase extends Loggable implements TransportEnabled
      */
     protected void restServiceRequest(RestOperation operation) {
 
+        // the call ends at the deadline of the current request or after the operation's timeout.
+        Long deadline = this.getCurrentRequestDeadline();
+        if (operation.getTimeoutMillis() > 0) {
+            long timeoutDeadline = System.currentTimeMillis() + operation.getTimeoutMillis();
+            deadline = deadline != null ? Math.min(deadline, timeoutDeadline) : timeoutDeadline;
+        }
+
         this.restServiceRequest(
                 operation.getId(),
                 operation.getUri(),
@@ -165,6 +208,7 @@ public abstract class AbstractBase extends Loggable implements TransportEnabled
                 operation.getBody(),
                 operation.getHeaders(),
                 operation.getApiClass(),
+                deadline,
                 response -> operation.getSuccessHandler().accept(response.getPayload()),
                 restErrorResponse -> operation.getErrorHandler().accept(restErrorResponse.getPayload())
         );
@@ -5,16 +5,42 @@
  */
 package com.vmware.transport.core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.vmware.transport.bus.BusTransaction;
 import com.vmware.transport.core.error.GeneralError;
 import com.vmware.transport.bus.model.Message;
 import com.vmware.transport.bridge.Request;
 import com.vmware.transport.bridge.Response;
+import com.vmware.transport.bus.store.model.BusStore;
+import com.vmware.transport.bus.store.model.StoreEvictionPolicy;
+import com.vmware.transport.bus.store.model.StoreStateChange;
+import com.vmware.transport.bus.store.model.StoreStatistics;
+import com.vmware.transport.bus.store.model.StoreStream;
 import com.vmware.transport.core.interfaces.BusServiceEnabled;
+import com.vmware.transport.core.metrics.TransportMetrics;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
+import com.vmware.transport.core.model.RequestCoalescingStatistics;
+import com.vmware.transport.core.model.ServiceAdmissionPolicy;
+import com.vmware.transport.core.model.ServiceAdmissionStatistics;
+import com.vmware.transport.core.model.ServicePriorityLaneStatistics;
+import com.vmware.transport.core.model.ServicePriorityLanes;
+import com.vmware.transport.core.tracing.Span;
+import com.vmware.transport.core.tracing.SpanKind;
+import com.vmware.transport.core.tracing.TraceContext;
+import com.vmware.transport.core.tracing.TransportTracing;
+import com.vmware.transport.core.util.RequestDeadlines;
+import io.reactivex.functions.BiPredicate;
+import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractService<RequestType extends Request, ResponseType extends Response>
@@ -22,6 +48,13 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
 
     protected String serviceChannel;
     protected BusTransaction serviceChannelStream;
+    private BusTransaction serviceReplyStream;
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private volatile ServiceResponseCache<RequestType> responseCache;
+    private volatile ServiceAdmissionController admissionController;
+    private volatile ServicePriorityLanes priorityLanes;
+    private volatile ServiceRequestScheduler requestScheduler;
+    private final LongAdder expiredRequestCount = new LongAdder();
 
     public AbstractService(String serviceChannel) {
         super();
@@ -71,6 +104,250 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
         this.online();
     }
 
+    /**
+     * Share the execution of identical concurrent requests. A request which arrives while an
+     * identical request is waiting for its response is not passed to handleServiceRequest(),
+     * instead it receives a copy of the first response sent for the in-flight request.
+     * Only use for requests answered with a single response.
+     *
+     * @param requests the names of the coalesced requests, all requests if empty.
+     */
+    public void enableRequestCoalescing(String... requests) {
+        this.requestCoalescer.enable(requests);
+    }
+
+    /**
+     * Stop coalescing requests, requests already waiting for an in-flight request still
+     * receive its response.
+     */
+    public void disableRequestCoalescing() {
+        this.requestCoalescer.disable();
+    }
+
+    /**
+     * Set the time after which requests waiting for an identical in-flight request which never
+     * got a response receive a 504 GeneralError, 60 seconds by default.
+     */
+    public void setRequestCoalescingTimeout(long timeoutMillis) {
+        this.requestCoalescer.setTimeout(timeoutMillis);
+    }
+
+    /**
+     * Returns the executed and coalesced request counters of the service.
+     */
+    public RequestCoalescingStatistics getRequestCoalescingStatistics() {
+        return this.requestCoalescer.getStatistics();
+    }
+
+    /**
+     * Limit the rate of requests accepted by the service, per service and per user, and the
+     * number of requests handled at the same time. Rejected requests receive a 429 GeneralError.
+     * Cached and coalesced requests count against the rate limits but don't occupy an
+     * in-flight slot.
+     *
+     * @param admissionPolicy the admission policy, null to accept every request.
+     */
+    public void setAdmissionPolicy(ServiceAdmissionPolicy admissionPolicy) {
+        this.admissionController = admissionPolicy != null ? new ServiceAdmissionController(admissionPolicy) : null;
+    }
+
+    /**
+     * Returns the admission counters and the rate limiter state of the service,
+     * null if the service has no admission policy.
+     */
+    public ServiceAdmissionStatistics getAdmissionStatistics() {
+        ServiceAdmissionController controller = this.admissionController;
+        return controller != null ? controller.getStatistics() : null;
+    }
+
+    /**
+     * Returns the user whose rate limit applies to the request, by default the target user
+     * of the request. Requests without user are only limited by the service's rate limit.
+     *
+     * @param request Request
+     * @return the user of the request or null.
+     */
+    protected String getRateLimitKey(RequestType request) {
+        return request.getTargetUser();
+    }
+
+    /**
+     * Handle requests on worker threads, taking them from the priority lanes in proportion to
+     * the lanes' weights, instead of handling them on the thread which sent the request.
+     * Requests exceeding the capacity of their lane are rejected with a 503 GeneralError.
+     * handleServiceRequest() must be thread safe if the lanes have more than one worker thread.
+     * The workers are stopped while the service is offline.
+     *
+     * @param priorityLanes the lanes of the service, null to handle requests on the sending thread.
+     */
+    public void setPriorityLanes(ServicePriorityLanes priorityLanes) {
+        ServiceRequestScheduler previousScheduler = this.requestScheduler;
+        this.priorityLanes = priorityLanes;
+        this.requestScheduler = priorityLanes != null
+                ? new ServiceRequestScheduler(this.getClass().getSimpleName(), priorityLanes) : null;
+        if (previousScheduler != null) {
+            previousScheduler.shutdown();
+        }
+    }
+
+    /**
+     * Returns the queue counters of the service's priority lanes, an empty list if the
+     * service has no priority lanes.
+     */
+    public List<ServicePriorityLaneStatistics> getPriorityLaneStatistics() {
+        ServiceRequestScheduler scheduler = this.requestScheduler;
+        return scheduler != null ? scheduler.getStatistics() : Collections.emptyList();
+    }
+
+    /**
+     * Cache the responses of the service's requests. A request whose response is cached is not
+     * passed to handleServiceRequest(), instead it receives a copy of the cached response.
+     * Error responses are not cached. Only use for requests answered with a single response.
+     * Responses are cached per target user by default, see getRequestKey().
+     * The cache is kept in a store named after the service channel, the eviction policy
+     * bounds its size and the time-to-live of the cached responses.
+     *
+     * @param evictionPolicy the eviction policy of the cache, null for an unbounded cache.
+     * @param requests the names of the cached requests, all requests if empty.
+     */
+    public void enableResponseCache(StoreEvictionPolicy evictionPolicy, String... requests) {
+        BusStore<String, ServiceResponseCache.CachedResponse<RequestType>> store =
+                this.storeManager.createStore(this.getResponseCacheStoreName());
+        store.reset();
+        store.setEvictionPolicy(evictionPolicy);
+
+        ServiceResponseCache<RequestType> previousCache = this.responseCache;
+        this.responseCache = new ServiceResponseCache<>(store, requests);
+        if (previousCache != null) {
+            previousCache.close();
+        }
+    }
+
+    /**
+     * Stop caching responses and destroy the cache.
+     */
+    public void disableResponseCache() {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        this.responseCache = null;
+        if (cache != null) {
+            cache.close();
+            this.storeManager.destroyStore(this.getResponseCacheStoreName());
+        }
+    }
+
+    /**
+     * Remove the cached responses of the given requests, of all requests if empty.
+     */
+    public void invalidateResponseCache(String... requests) {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (cache != null) {
+            cache.invalidate(new HashSet<>(Arrays.asList(requests)));
+        }
+    }
+
+    /**
+     * Remove the cached responses of the given requests, of all requests if empty,
+     * whenever an object in the store changes.
+     */
+    public <K, T> void invalidateResponseCacheOnChange(BusStore<K, T> store, String... requests) {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (cache == null) {
+            this.logErrorMessage("Unable to bind response cache invalidation, response cache is not enabled",
+                    store.getStoreType());
+            return;
+        }
+        Set<String> invalidatedRequests = new HashSet<>(Arrays.asList(requests));
+        StoreStream<T> stream = store.onAllChanges();
+        stream.subscribe((T value) -> cache.invalidate(invalidatedRequests));
+        cache.addInvalidationStream(stream);
+    }
+
+    /**
+     * Remove cached responses whenever an object in the store changes. The isAffected predicate
+     * is called with the store change and the request of every cached response and should
+     * return true if the response is affected by the change. Prefer binding the invalidation
+     * to request names, which doesn't test every cached response.
+     */
+    public <K, T> void invalidateResponseCacheOnChange(
+            BusStore<K, T> store, BiPredicate<StoreStateChange<?, T, ?>, RequestType> isAffected) {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (cache == null) {
+            this.logErrorMessage("Unable to bind response cache invalidation, response cache is not enabled",
+                    store.getStoreType());
+            return;
+        }
+        StoreStream<T> stream = store.onAllChanges();
+        stream.subscribe((T value, StoreStateChange<?, T, ?> change) -> cache.invalidate(request -> {
+            try {
+                return isAffected.test(change, request);
+            } catch (Exception e) {
+                return true;
+            }
+        }));
+        cache.addInvalidationStream(stream);
+    }
+
+    /**
+     * Returns the size, hit and miss counters of the response cache, null if the cache is disabled.
+     */
+    public StoreStatistics getResponseCacheStatistics() {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        return cache != null ? cache.getStore().getStatistics() : null;
+    }
+
+    protected String getResponseCacheStoreName() {
+        return this.serviceChannel + "-response-cache";
+    }
+
+    /**
+     * Returns the number of requests dropped because their deadline passed before
+     * they were handled.
+     */
+    public long getExpiredRequestCount() {
+        return this.expiredRequestCount.sum();
+    }
+
+    /**
+     * Returns the deadline of the request in epoch milliseconds, by default the value of the
+     * {@link com.vmware.transport.bus.model.MessageHeaders#REQUEST_DEADLINE} header.
+     *
+     * @param request Request
+     * @param busMessage the bus message carrying the request.
+     * @return the deadline of the request or null if it has none.
+     */
+    protected Long getRequestDeadline(RequestType request, Message busMessage) {
+        return RequestDeadlines.getDeadline(busMessage.getHeaders());
+    }
+
+    /**
+     * Called instead of handleServiceRequest() for requests whose deadline has passed.
+     * Nobody waits for the response anymore, but in-process callers are still sent
+     * a 504 GeneralError so they can release their response handlers.
+     *
+     * @param request Request
+     */
+    protected void handleExpiredRequest(RequestType request) {
+        this.rejectRequest(request, "request deadline expired", HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * Returns the key identifying identical requests for request coalescing and the response
+     * cache, by default the request name, the target user and the serialized payload, so the
+     * response to one user is never sent to another user. Override to include other request
+     * properties or return null for requests which should never be coalesced or cached.
+     *
+     * @param request Request
+     * @return the key of the request or null.
+     */
+    protected String getRequestKey(RequestType request) {
+        try {
+            String user = request.getTargetUser() != null ? request.getTargetUser() : "";
+            return request.getRequest() + ":" + user + ":" + this.mapper.writeValueAsString(request.getPayload());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
     protected abstract void handleServiceRequest(RequestType request, Message busMessage) throws Exception;
 
     protected void sendResponse(ResponseType response, UUID id) {
@@ -107,6 +384,280 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
         this.bus.sendErrorMessageToTarget(this.serviceChannel, errorResponse, id, targetUser);
     }
 
+    /**
+     * Cache the response of the request with the given id and send a copy of it to every
+     * request coalesced with it. Called by the reply stream for every response on the service channel.
+     */
+    private void completeRequest(Object payload, UUID id, boolean isError) {
+        ServiceAdmissionController controller = this.admissionController;
+        if (controller != null) {
+            controller.release(id);
+        }
+
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (cache != null) {
+            if (isError) {
+                cache.discard(id);
+            } else {
+                cache.put(id, payload);
+            }
+        }
+
+        List<RequestCoalescer.Follower> followers = this.requestCoalescer.complete(id);
+        for (RequestCoalescer.Follower follower : followers) {
+            Object followerPayload = payload instanceof Response
+                    ? RequestCoalescer.copyResponse((Response) payload, follower.id) : payload;
+            if (isError) {
+                if (follower.targetUser != null) {
+                    this.bus.sendErrorMessageToTarget(
+                            this.serviceChannel, followerPayload, follower.id, follower.targetUser);
+                } else {
+                    this.bus.sendErrorMessageWithId(this.serviceChannel, followerPayload, follower.id);
+                }
+            } else {
+                if (follower.targetUser != null) {
+                    this.bus.sendResponseMessageToTarget(
+                            this.serviceChannel, followerPayload, follower.id, follower.targetUser);
+                } else {
+                    this.bus.sendResponseMessageWithId(this.serviceChannel, followerPayload, follower.id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a request which failed with an exception and send an error to every request
+     * coalesced with it.
+     */
+    private void failRequest(UUID id, Exception e) {
+        ServiceAdmissionController controller = this.admissionController;
+        if (controller != null) {
+            controller.release(id);
+        }
+
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (cache != null) {
+            cache.discard(id);
+        }
+
+        List<RequestCoalescer.Follower> followers = this.requestCoalescer.complete(id);
+        for (RequestCoalescer.Follower follower : followers) {
+            this.sendFollowerError(follower, new GeneralError(
+                    this.getClass().getSimpleName() + " failed to handle request: " + e.getMessage(), e, 500));
+        }
+    }
+
+    /**
+     * Send a 504 error to the requests waiting for identical requests which never got a response.
+     */
+    private void failExpiredFollowers() {
+        for (RequestCoalescer.Follower follower : this.requestCoalescer.expire()) {
+            this.sendFollowerError(follower, new GeneralError(
+                    this.getClass().getSimpleName() + " rejected request: coalesced request timed out",
+                    HttpStatus.GATEWAY_TIMEOUT.getReasonPhrase(),
+                    HttpStatus.GATEWAY_TIMEOUT.value()));
+        }
+    }
+
+    private void sendFollowerError(RequestCoalescer.Follower follower, GeneralError error) {
+        if (follower.targetUser != null) {
+            this.bus.sendErrorMessageToTarget(this.serviceChannel, error, follower.id, follower.targetUser);
+        } else {
+            this.bus.sendErrorMessageWithId(this.serviceChannel, error, follower.id);
+        }
+    }
+
+    /**
+     * Returns false and sends a 429 error if the request is rejected by the admission policy.
+     */
+    private boolean admitRequest(RequestType requestType, boolean isRateCheck) {
+        ServiceAdmissionController controller = this.admissionController;
+        if (controller == null) {
+            return true;
+        }
+        ServiceAdmissionController.Admission admission = isRateCheck
+                ? controller.acquireRate(this.getRateLimitKey(requestType))
+                : controller.acquireInFlight(requestType.getId());
+        if (admission == ServiceAdmissionController.Admission.ADMITTED) {
+            return true;
+        }
+
+        String reason;
+        switch (admission) {
+            case USER_RATE_LIMITED:
+                reason = "user rate limit exceeded";
+                break;
+            case TOO_MANY_IN_FLIGHT:
+                reason = "too many requests in flight";
+                break;
+            default:
+                reason = "rate limit exceeded";
+        }
+        this.rejectRequest(requestType, reason, HttpStatus.TOO_MANY_REQUESTS);
+        return false;
+    }
+
+    /**
+     * Send a GeneralError with the given status to the sender of a rejected request.
+     */
+    private void rejectRequest(RequestType requestType, String reason, HttpStatus status) {
+        this.logDebugMessage("Service request rejected, " + reason, requestType.getRequest());
+        this.sendRequestError(requestType, new GeneralError(
+                this.getClass().getSimpleName() + " rejected request: " + reason,
+                status.getReasonPhrase(),
+                status.value()));
+    }
+
+    private void sendRequestError(RequestType requestType, GeneralError error) {
+        if (requestType.getTargetUser() != null) {
+            this.sendError(error, requestType.getId(), requestType.getTargetUser());
+        } else {
+            this.sendError(error, requestType.getId());
+        }
+    }
+
+    /**
+     * Handle a request on a priority lane worker. Exceptions can't be passed to the
+     * sender of the request, they are sent back as a 500 GeneralError instead.
+     */
+    private void handleQueuedRequest(RequestType requestType, Message message, Long deadline) {
+        // the request may have expired while it was queued.
+        if (this.dropExpiredRequest(requestType, deadline)) {
+            return;
+        }
+        Long previousDeadline = this.getCurrentRequestDeadline();
+        try {
+            setCurrentRequestDeadline(deadline);
+            this.handleAndRecordServiceRequest(requestType, message);
+        } catch (Exception e) {
+            this.logErrorMessage("Service unable to process request", e.toString());
+            this.sendRequestError(requestType, new GeneralError(
+                    this.getClass().getSimpleName() + " failed to handle request: " + e.getMessage(), e, 500));
+        } finally {
+            setCurrentRequestDeadline(previousDeadline);
+        }
+    }
+
+    /**
+     * Call handleServiceRequest() within a server span if tracing is enabled and record
+     * its duration if metrics are enabled.
+     */
+    private void handleAndRecordServiceRequest(RequestType requestType, Message message) throws Exception {
+        if (!TransportTracing.isEnabled()) {
+            this.handleAndMeasureServiceRequest(requestType, message);
+            return;
+        }
+        TraceContext parent = TransportTracing.extract(message.getHeaders());
+        Span span = TransportTracing.startSpan(
+              this.serviceChannel + " " + requestType.getRequest(),
+              SpanKind.SERVER,
+              parent != null ? parent : TransportTracing.getCurrentContext());
+        span.setAttribute(TransportTracing.ATTR_CHANNEL, this.serviceChannel)
+              .setAttribute(TransportTracing.ATTR_REQUEST, requestType.getRequest())
+              .setAttribute(TransportTracing.ATTR_MESSAGE_ID, requestType.getId())
+              .setAttribute(TransportTracing.ATTR_SERVICE, this.getClass().getSimpleName());
+
+        // responses and nested requests sent by the handler become part of the span.
+        TraceContext previous = TransportTracing.setCurrentContext(span.getContext());
+        try {
+            this.handleAndMeasureServiceRequest(requestType, message);
+        } catch (Exception e) {
+            span.setError(e.toString());
+            throw e;
+        } finally {
+            TransportTracing.setCurrentContext(previous);
+            span.end();
+        }
+    }
+
+    private void handleAndMeasureServiceRequest(RequestType requestType, Message message) throws Exception {
+        TransportMetrics metrics = TransportMetricsHolder.get();
+        if (!metrics.isEnabled()) {
+            this.handleServiceRequest(requestType, message);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            this.handleServiceRequest(requestType, message);
+            failed = false;
+        } finally {
+            metrics.serviceRequestCompleted(this.serviceChannel, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Returns true if the deadline of the request has passed and the request was dropped.
+     */
+    private boolean dropExpiredRequest(RequestType requestType, Long deadline) {
+        if (!RequestDeadlines.isExpired(deadline, System.currentTimeMillis())) {
+            return false;
+        }
+        this.expiredRequestCount.increment();
+        this.handleExpiredRequest(requestType);
+        return true;
+    }
+
+    /**
+     * Returns the key of the request if the request is cached or coalesced, otherwise null.
+     */
+    private String getRequestKeyIfNeeded(RequestType requestType) {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if ((cache != null && cache.isCached(requestType.getRequest()))
+                || this.requestCoalescer.isCoalesced(requestType.getRequest())) {
+            return this.getRequestKey(requestType);
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the request was answered with a cached response.
+     */
+    private boolean sendCachedResponse(RequestType requestType, String key) {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (key == null || cache == null || !cache.isCached(requestType.getRequest())) {
+            return false;
+        }
+        Response cachedResponse = cache.get(key);
+        if (cachedResponse == null) {
+            return false;
+        }
+
+        Response response = RequestCoalescer.copyResponse(cachedResponse, requestType.getId());
+        this.logInfoMessage(
+                "\uD83D\uDCE4",
+                "Sending Cached Service Response",
+                response.toString());
+        if (requestType.getTargetUser() != null) {
+            this.bus.sendResponseMessageToTarget(
+                    this.serviceChannel, response, requestType.getId(), requestType.getTargetUser());
+        } else {
+            this.bus.sendResponseMessageWithId(this.serviceChannel, response, requestType.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the request was attached to an identical in-flight request.
+     */
+    private boolean coalesceRequest(RequestType requestType, String key) {
+        if (key == null || !this.requestCoalescer.isCoalesced(requestType.getRequest())) {
+            return false;
+        }
+        this.failExpiredFollowers();
+        return this.requestCoalescer.join(key, requestType.getId(), requestType.getTargetUser());
+    }
+
+    /**
+     * Track the request so its response can be cached.
+     */
+    private void trackCachedRequest(RequestType requestType, String key) {
+        ServiceResponseCache<RequestType> cache = this.responseCache;
+        if (key != null && cache != null && cache.isCached(requestType.getRequest())) {
+            cache.track(key, requestType);
+        }
+    }
+
     <T> T castPayload(Class clazz, Request request) throws ClassCastException {
         return (T) this.mapper.convertValue(request.getPayload(), clazz);
     }
@@ -118,6 +669,8 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
                 "\uD83D\uDCE4",
                 "Sending Service Response (Unknown Request)",
                 response.toString());
+        // release the request's in-flight slot and fail identical requests waiting for it.
+        this.failRequest(request.getId(), new UnsupportedOperationException(unknownRequest));
         this.bus.sendResponseMessageWithId(this.serviceChannel, response, request.getId());
     }
 
@@ -152,8 +705,51 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
                         // mark message with request ID.
                         message.setId(requestType.getId());
 
-                        // handle service request.
-                        this.handleServiceRequest(requestType, message);
+                        // drop requests nobody waits for anymore.
+                        Long deadline = this.getRequestDeadline(requestType, message);
+                        if (this.dropExpiredRequest(requestType, deadline)) {
+                            return;
+                        }
+
+                        // reject requests exceeding the service's rate limits.
+                        if (!this.admitRequest(requestType, true)) {
+                            return;
+                        }
+
+                        // serve the cached response or wait for the response of an identical request in flight.
+                        String requestKey = this.getRequestKeyIfNeeded(requestType);
+                        if (this.sendCachedResponse(requestType, requestKey)
+                                || this.coalesceRequest(requestType, requestKey)) {
+                            return;
+                        }
+
+                        // reject the request if the service is handling too many requests.
+                        if (!this.admitRequest(requestType, false)) {
+                            return;
+                        }
+                        this.trackCachedRequest(requestType, requestKey);
+
+                        // queue the request on its priority lane.
+                        ServiceRequestScheduler scheduler = this.requestScheduler;
+                        if (scheduler != null) {
+                            if (!scheduler.submit(message, requestType,
+                                    () -> this.handleQueuedRequest(requestType, message, deadline))) {
+                                this.rejectRequest(requestType, "request queue is full", HttpStatus.SERVICE_UNAVAILABLE);
+                            }
+                            return;
+                        }
+
+                        // handle service request, nested RestService calls inherit its deadline.
+                        Long previousDeadline = this.getCurrentRequestDeadline();
+                        try {
+                            setCurrentRequestDeadline(deadline);
+                            this.handleAndRecordServiceRequest(requestType, message);
+                        } catch (Exception e) {
+                            this.failRequest(requestType.getId(), e);
+                            throw e;
+                        } finally {
+                            setCurrentRequestDeadline(previousDeadline);
+                        }
 
                     } catch (ClassCastException cce) {
                         this.logErrorMessage("Service unable to process request, " +
@@ -174,6 +770,18 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
                 }
         );
 
+        // complete every request answered on the service channel, whether it was answered with
+        // sendResponse(), sendError() or directly on the bus, so its in-flight slot is released,
+        // its response is cached and identical requests waiting for it get the response.
+        this.serviceReplyStream = this.bus.listenStream(this.serviceChannel,
+                (Message message) -> this.completeRequest(message.getPayload(), message.getId(), false),
+                (Message message) -> this.completeRequest(message.getPayload(), message.getId(), true));
+
+        // restart the priority lane workers stopped by offline().
+        if (this.priorityLanes != null && this.requestScheduler == null) {
+            this.requestScheduler = new ServiceRequestScheduler(this.getClass().getSimpleName(), this.priorityLanes);
+        }
+
         this.logInfoMessage("\uD83D\uDCE3", this.getClass().getSimpleName()
                 + " initialized, handling requests on channel", this.serviceChannel);
         // this.methodLookupUtil.loadCustomHandlers();
@@ -181,6 +789,20 @@ public abstract class AbstractService<RequestType extends Request, ResponseType
 
     public void offline() {
         this.serviceChannelStream.unsubscribe();
+
+        // stop the priority lane workers, requests still queued won't be handled anymore.
+        ServiceRequestScheduler scheduler = this.requestScheduler;
+        this.requestScheduler = null;
+        if (scheduler != null) {
+            for (Request request : scheduler.shutdownNow()) {
+                this.rejectRequest((RequestType) request, "service is offline", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+
+        if (this.serviceReplyStream != null) {
+            this.serviceReplyStream.unsubscribe();
+            this.serviceReplyStream = null;
+        }
     }
 
 }
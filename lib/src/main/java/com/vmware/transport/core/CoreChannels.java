@@ -8,4 +8,5 @@ package com.vmware.transport.core;
 public class CoreChannels {
     public static final String RestService = "fabric-rest";
     public static final String VersionService = "fabric-version";
+    public static final String TopologyService = "fabric-topology";
 }
@@ -7,4 +7,6 @@ package com.vmware.transport.core;
 
 public class CoreStoreStates {
     public static final String ServiceHeadersUpdated = "service-headers-updated";
+    public static final String ResponseCacheUpdated = "response-cache-updated";
+    public static final String ResponseCacheInvalidated = "response-cache-invalidated";
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core;
+
+import com.vmware.transport.bridge.Response;
+import com.vmware.transport.core.model.RequestCoalescingStatistics;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the in-flight executions of a service's coalesced requests. The first request with
+ * a given key is executed, identical requests which arrive before its response are attached to
+ * it as followers and receive a copy of the response instead of being executed.
+ */
+class RequestCoalescer {
+
+    private static final SpringObjenesis objenesis = new SpringObjenesis();
+
+    static final long DEFAULT_TIMEOUT_MILLIS = 60000;
+
+    private volatile boolean enabled;
+    private volatile Set<String> requests = Collections.emptySet();
+    private volatile long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIMEOUT_MILLIS);
+    private volatile long nextExpiryCheck = System.nanoTime();
+
+    private final Map<String, InFlightRequest> inFlightByKey = new ConcurrentHashMap<>();
+    private final Map<UUID, InFlightRequest> inFlightById = new ConcurrentHashMap<>();
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    void enable(String... requests) {
+        this.requests = new HashSet<>(Arrays.asList(requests));
+        this.enabled = true;
+    }
+
+    void disable() {
+        this.enabled = false;
+    }
+
+    boolean isCoalesced(String request) {
+        return enabled && (requests.isEmpty() || requests.contains(request));
+    }
+
+    /**
+     * Set the time after which an execution which didn't complete is abandoned.
+     */
+    void setTimeout(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis must be positive.");
+        }
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Attach the request to the in-flight execution with the same key.
+     * @return false if there is no such execution and the request must be executed.
+     */
+    boolean join(String key, UUID id, String targetUser) {
+        long now = System.nanoTime();
+        while (true) {
+            InFlightRequest inFlightRequest = new InFlightRequest(key, now);
+            InFlightRequest existing = inFlightByKey.putIfAbsent(key, inFlightRequest);
+            if (existing == null) {
+                inFlightById.put(id, inFlightRequest);
+                executedCount.increment();
+                return false;
+            }
+            if (!existing.isExpired(now, timeoutNanos) && existing.addFollower(new Follower(id, targetUser))) {
+                coalescedCount.increment();
+                return true;
+            }
+            // the execution has just completed or was abandoned, retry with a new one.
+            inFlightByKey.remove(key, existing);
+        }
+    }
+
+    /**
+     * Abandon the executions which didn't complete within the timeout. Executions are checked
+     * at most a few times per timeout period.
+     * @return the followers of the abandoned executions, they will never receive a response.
+     */
+    List<Follower> expire() {
+        long now = System.nanoTime();
+        if (now - nextExpiryCheck < 0 || inFlightById.isEmpty()) {
+            return Collections.emptyList();
+        }
+        nextExpiryCheck = now + timeoutNanos / 4;
+
+        List<Follower> result = new ArrayList<>();
+        for (Map.Entry<UUID, InFlightRequest> entry : inFlightById.entrySet()) {
+            InFlightRequest inFlightRequest = entry.getValue();
+            if (inFlightRequest.isExpired(now, timeoutNanos)
+                    && inFlightById.remove(entry.getKey(), inFlightRequest)) {
+                inFlightByKey.remove(inFlightRequest.key, inFlightRequest);
+                result.addAll(inFlightRequest.close());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Complete the execution started by the request with the given id.
+     * @return the followers waiting for the response, empty if the request was not coalesced.
+     */
+    List<Follower> complete(UUID id) {
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        InFlightRequest inFlightRequest = inFlightById.remove(id);
+        if (inFlightRequest == null) {
+            return Collections.emptyList();
+        }
+        inFlightByKey.remove(inFlightRequest.key, inFlightRequest);
+        return inFlightRequest.close();
+    }
+
+    RequestCoalescingStatistics getStatistics() {
+        return new RequestCoalescingStatistics(
+              executedCount.sum(), coalescedCount.sum(), inFlightById.size());
+    }
+
+    /**
+     * Returns a shallow copy of the response with the id of the follower's request.
+     */
+    static <R extends Response> R copyResponse(R response, UUID id) {
+        R copy = (R) objenesis.newInstance(response.getClass());
+        ReflectionUtils.shallowCopyFieldState(response, copy);
+        copy.setId(id);
+        return copy;
+    }
+
+    static class Follower {
+        final UUID id;
+        final String targetUser;
+
+        Follower(UUID id, String targetUser) {
+            this.id = id;
+            this.targetUser = targetUser;
+        }
+    }
+
+    private static class InFlightRequest {
+        private final String key;
+        private final long startNanos;
+        private List<Follower> followers = new ArrayList<>();
+        private boolean isCompleted;
+
+        InFlightRequest(String key, long startNanos) {
+            this.key = key;
+            this.startNanos = startNanos;
+        }
+
+        boolean isExpired(long now, long timeoutNanos) {
+            return now - startNanos >= timeoutNanos;
+        }
+
+        synchronized boolean addFollower(Follower follower) {
+            if (isCompleted) {
+                return false;
+            }
+            followers.add(follower);
+            return true;
+        }
+
+        synchronized List<Follower> close() {
+            isCompleted = true;
+            List<Follower> result = followers;
+            followers = Collections.emptyList();
+            return result;
+        }
+    }
+}
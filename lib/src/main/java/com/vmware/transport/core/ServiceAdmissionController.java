@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core;
+
+import com.vmware.transport.core.model.ServiceAdmissionPolicy;
+import com.vmware.transport.core.model.ServiceAdmissionStatistics;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies a {@link ServiceAdmissionPolicy} to the requests of a service.
+ */
+class ServiceAdmissionController {
+
+    enum Admission {
+        ADMITTED,
+        RATE_LIMITED,
+        USER_RATE_LIMITED,
+        TOO_MANY_IN_FLIGHT
+    }
+
+    // idle user buckets are dropped when there are more than this many buckets.
+    private static final int USER_BUCKETS_SWEEP_THRESHOLD = 1024;
+
+    private final ServiceAdmissionPolicy policy;
+    private final TokenBucket serviceBucket;
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    // the time each in-flight request acquired its slot, in nanoseconds.
+    private final Map<UUID, Long> inFlightRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicInteger userBucketsSweepCounter = new AtomicInteger();
+
+    private final LongAdder admittedCount = new LongAdder();
+    private final LongAdder rateLimitedCount = new LongAdder();
+    private final LongAdder userRateLimitedCount = new LongAdder();
+    private final LongAdder inFlightRejectedCount = new LongAdder();
+
+    ServiceAdmissionController(ServiceAdmissionPolicy policy) {
+        this.policy = policy;
+        this.serviceBucket = policy.getRequestsPerSecond() > 0
+                ? new TokenBucket(policy.getRequestsPerSecond(), policy.getRequestBurst(), System.nanoTime())
+                : null;
+    }
+
+    /**
+     * Consume a token from the service's and the user's rate limit.
+     * @param user the user sending the request, null if the request isn't sent by a specific user.
+     */
+    Admission acquireRate(String user) {
+        long now = System.nanoTime();
+        TokenBucket userBucket = null;
+        if (user != null && policy.getUserRequestsPerSecond() > 0) {
+            userBucket = userBuckets.computeIfAbsent(user, key -> new TokenBucket(
+                    policy.getUserRequestsPerSecond(), policy.getUserRequestBurst(), now));
+            if (!userBucket.tryAcquire(now)) {
+                userRateLimitedCount.increment();
+                return Admission.USER_RATE_LIMITED;
+            }
+            if (userBuckets.size() > USER_BUCKETS_SWEEP_THRESHOLD
+                    && userBucketsSweepCounter.incrementAndGet() % USER_BUCKETS_SWEEP_THRESHOLD == 0) {
+                TokenBucket acquiredBucket = userBucket;
+                userBuckets.values().removeIf(bucket -> bucket != acquiredBucket && bucket.isFull(now));
+            }
+        }
+        if (serviceBucket != null && !serviceBucket.tryAcquire(now)) {
+            // the request is rejected, don't charge it to the user.
+            if (userBucket != null) {
+                userBucket.refund();
+            }
+            rateLimitedCount.increment();
+            return Admission.RATE_LIMITED;
+        }
+        admittedCount.increment();
+        return Admission.ADMITTED;
+    }
+
+    /**
+     * Reserve an in-flight slot for a request which is about to be handled. When the service is
+     * full, the slots of requests which exceeded the in-flight timeout are reclaimed first.
+     */
+    Admission acquireInFlight(UUID id) {
+        int maxInFlight = policy.getMaxInFlightRequests();
+        if (maxInFlight > 0) {
+            if (!reserveInFlight(maxInFlight)
+                    && (releaseExpired(System.nanoTime()) == 0 || !reserveInFlight(maxInFlight))) {
+                inFlightRejectedCount.increment();
+                return Admission.TOO_MANY_IN_FLIGHT;
+            }
+            if (id == null || inFlightRequests.putIfAbsent(id, System.nanoTime()) != null) {
+                // requests without unique id can't be released, don't count them.
+                inFlightCount.decrementAndGet();
+            }
+        }
+        return Admission.ADMITTED;
+    }
+
+    /**
+     * Release the in-flight slot of a request once its response or error was sent.
+     */
+    void release(UUID id) {
+        if (id != null && inFlightRequests.remove(id) != null) {
+            inFlightCount.decrementAndGet();
+        }
+    }
+
+    private boolean reserveInFlight(int maxInFlight) {
+        if (inFlightCount.incrementAndGet() > maxInFlight) {
+            inFlightCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Release the slots of the requests which have been in flight longer than the timeout.
+     * @return the number of released slots.
+     */
+    private int releaseExpired(long now) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(policy.getInFlightTimeoutMillis());
+        int released = 0;
+        for (Map.Entry<UUID, Long> entry : inFlightRequests.entrySet()) {
+            if (now - entry.getValue() >= timeoutNanos && inFlightRequests.remove(entry.getKey(), entry.getValue())) {
+                inFlightCount.decrementAndGet();
+                released++;
+            }
+        }
+        return released;
+    }
+
+    ServiceAdmissionStatistics getStatistics() {
+        return new ServiceAdmissionStatistics(
+                admittedCount.sum(),
+                rateLimitedCount.sum(),
+                userRateLimitedCount.sum(),
+                inFlightRejectedCount.sum(),
+                inFlightCount.get(),
+                serviceBucket != null ? serviceBucket.getTokens(System.nanoTime()) : -1,
+                userBuckets.size());
+    }
+
+    private static class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double tokensPerSecond, int capacity, long now) {
+            this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        synchronized double getTokens(long now) {
+            refill(now);
+            return tokens;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core;
+
+import com.vmware.transport.bridge.Request;
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.core.model.ServicePriorityLaneStatistics;
+import com.vmware.transport.core.model.ServicePriorityLanes;
+import com.vmware.transport.core.util.Loggable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues the requests of a service on its priority lanes and handles them on the
+ * service's worker threads. Workers pick the next lane with smooth weighted round-robin
+ * over the lanes with queued requests, so a busy low priority lane can't starve the
+ * other lanes and an idle lane doesn't lose its share.
+ */
+class ServiceRequestScheduler extends Loggable {
+
+    private final ServicePriorityLanes config;
+    private final Lane[] lanes;
+    private final Map<String, Lane> lanesByName = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasRequests = lock.newCondition();
+    private boolean isShutdown;
+
+    ServiceRequestScheduler(String serviceName, ServicePriorityLanes config) {
+        if (config.getLanes().isEmpty()) {
+            throw new IllegalArgumentException("ServicePriorityLanes must have at least one lane.");
+        }
+        this.config = config;
+        this.lanes = new Lane[config.getLanes().size()];
+        for (int i = 0; i < this.lanes.length; i++) {
+            ServicePriorityLanes.Lane laneConfig = config.getLanes().get(i);
+            this.lanes[i] = new Lane(laneConfig.getName(), laneConfig.getWeight(), laneConfig.getQueueCapacity());
+            this.lanesByName.put(laneConfig.getName(), this.lanes[i]);
+        }
+
+        for (int i = 0; i < config.getWorkerThreads(); i++) {
+            Thread worker = new Thread(this::runWorker, serviceName + "-request-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queue the request on its lane.
+     * @return false if the lane's queue is full or the scheduler was shut down.
+     */
+    boolean submit(Message message, Request request, Runnable task) {
+        Lane lane = classify(message, request);
+        lock.lock();
+        try {
+            if (isShutdown || lane.queue.size() >= lane.queueCapacity) {
+                lane.rejectedCount.increment();
+                return false;
+            }
+            lane.queue.add(new QueuedRequest(request, task, System.nanoTime()));
+            hasRequests.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<ServicePriorityLaneStatistics> getStatistics() {
+        List<ServicePriorityLaneStatistics> result = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            int queueSize;
+            lock.lock();
+            try {
+                queueSize = lane.queue.size();
+            } finally {
+                lock.unlock();
+            }
+            long processed = lane.processedCount.sum();
+            result.add(new ServicePriorityLaneStatistics(
+                    lane.name,
+                    queueSize,
+                    processed,
+                    lane.rejectedCount.sum(),
+                    processed > 0 ? TimeUnit.NANOSECONDS.toMicros(lane.queueNanos.sum() / processed) : 0,
+                    TimeUnit.NANOSECONDS.toMicros(lane.maxQueueNanos.get())));
+        }
+        return result;
+    }
+
+    /**
+     * Stop the workers after the already queued requests are handled.
+     */
+    void shutdown() {
+        lock.lock();
+        try {
+            isShutdown = true;
+            hasRequests.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the workers without handling the queued requests, the workers exit once their
+     * current request is handled.
+     * @return the requests which were still queued.
+     */
+    List<Request> shutdownNow() {
+        List<Request> queuedRequests = new ArrayList<>();
+        lock.lock();
+        try {
+            isShutdown = true;
+            for (Lane lane : lanes) {
+                for (QueuedRequest queuedRequest : lane.queue) {
+                    queuedRequests.add(queuedRequest.request);
+                }
+                lane.queue.clear();
+            }
+            hasRequests.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return queuedRequests;
+    }
+
+    private Lane classify(Message message, Request request) {
+        Lane lane = null;
+        if (config.getClassifier() != null) {
+            try {
+                lane = lanesByName.get(config.getClassifier().apply(message));
+            } catch (Exception e) {
+                this.logErrorMessage("Priority lane classifier failed", e.toString());
+            }
+        }
+        if (lane == null && config.getLaneHeader() != null && message.getHeaders() != null) {
+            Object laneName = message.getHeaders().getHeader(config.getLaneHeader());
+            if (laneName != null) {
+                lane = lanesByName.get(laneName.toString());
+            }
+        }
+        if (lane == null && request.getRequest() != null) {
+            String laneName = config.getRequestLanes().get(request.getRequest());
+            if (laneName != null) {
+                lane = lanesByName.get(laneName);
+            }
+        }
+        return lane != null ? lane : lanes[0];
+    }
+
+    private void runWorker() {
+        while (true) {
+            Lane lane;
+            QueuedRequest queuedRequest;
+            lock.lock();
+            try {
+                while ((lane = nextLane()) == null) {
+                    if (isShutdown) {
+                        return;
+                    }
+                    hasRequests.awaitUninterruptibly();
+                }
+                queuedRequest = lane.queue.poll();
+            } finally {
+                lock.unlock();
+            }
+
+            long waitTime = System.nanoTime() - queuedRequest.queuedTime;
+            lane.queueNanos.add(waitTime);
+            lane.maxQueueNanos.accumulateAndGet(waitTime, Math::max);
+            try {
+                queuedRequest.task.run();
+            } catch (Exception e) {
+                this.logErrorMessage("Service request failed on lane " + lane.name, e.toString());
+            } finally {
+                lane.processedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Smooth weighted round-robin over the lanes with queued requests, must be called with the lock held.
+     */
+    private Lane nextLane() {
+        Lane selected = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes) {
+            if (lane.queue.isEmpty()) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            totalWeight += lane.weight;
+            if (selected == null || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (selected != null) {
+            selected.currentWeight -= totalWeight;
+        }
+        return selected;
+    }
+
+    private static class Lane {
+        final String name;
+        final int weight;
+        final int queueCapacity;
+        final ArrayDeque<QueuedRequest> queue = new ArrayDeque<>();
+        int currentWeight;
+
+        final LongAdder processedCount = new LongAdder();
+        final LongAdder rejectedCount = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final AtomicLong maxQueueNanos = new AtomicLong();
+
+        Lane(String name, int weight, int queueCapacity) {
+            this.name = name;
+            this.weight = weight;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    private static class QueuedRequest {
+        final Request request;
+        final Runnable task;
+        final long queuedTime;
+
+        QueuedRequest(Request request, Runnable task, long queuedTime) {
+            this.request = request;
+            this.task = task;
+            this.queuedTime = queuedTime;
+        }
+    }
+}
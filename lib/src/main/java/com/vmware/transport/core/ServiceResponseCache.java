@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core;
+
+import com.vmware.transport.bridge.Request;
+import com.vmware.transport.bridge.Response;
+import com.vmware.transport.bus.store.model.BusStore;
+import com.vmware.transport.bus.store.model.StoreEvictionState;
+import com.vmware.transport.bus.store.model.StoreStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Caches the responses of a service's requests in a {@link BusStore}. Responses are cached
+ * by the key of their request, the store's eviction policy bounds the size of the cache
+ * and the time-to-live of the cached responses. The keys of the cached responses are indexed
+ * by request name, so invalidating the responses of a request doesn't scan the whole cache.
+ */
+class ServiceResponseCache<RequestType extends Request> {
+
+    private final BusStore<String, CachedResponse<RequestType>> store;
+    private final Set<String> requests;
+    private final Map<UUID, PendingResponse<RequestType>> pendingResponses = new ConcurrentHashMap<>();
+    private final List<StoreStream<?>> invalidationStreams = new ArrayList<>();
+
+    // the cached requests by request name and key, guarded by the lock.
+    private final Map<String, Map<String, RequestType>> cachedRequests = new HashMap<>();
+
+    // increased by every invalidation, responses of requests started before an invalidation are not cached.
+    private volatile long generation;
+    private final Object lock = new Object();
+
+    ServiceResponseCache(BusStore<String, CachedResponse<RequestType>> store, String... requests) {
+        this.store = store;
+        this.requests = new HashSet<>(Arrays.asList(requests));
+
+        // drop the responses evicted by the store's eviction policy from the index.
+        StoreStream<CachedResponse<RequestType>> evictionStream = store.onAllChanges(StoreEvictionState.values());
+        evictionStream.subscribe((cachedResponse, change) -> {
+            if (cachedResponse != null) {
+                synchronized (lock) {
+                    removeCachedRequest(cachedResponse.request.getRequest(), (String) change.getObjectId());
+                }
+            }
+        });
+        addInvalidationStream(evictionStream);
+    }
+
+    BusStore<String, CachedResponse<RequestType>> getStore() {
+        return store;
+    }
+
+    boolean isCached(String request) {
+        return requests.isEmpty() || requests.contains(request);
+    }
+
+    /**
+     * Returns the cached response for the key or null.
+     */
+    Response get(String key) {
+        CachedResponse<RequestType> cachedResponse = store.get(key);
+        return cachedResponse != null ? cachedResponse.response : null;
+    }
+
+    /**
+     * Remember the request so its response can be cached by put().
+     */
+    void track(String key, RequestType request) {
+        pendingResponses.put(request.getId(), new PendingResponse<>(key, request, generation));
+    }
+
+    /**
+     * Cache the response of a tracked request.
+     */
+    void put(UUID id, Object response) {
+        if (id == null) {
+            return;
+        }
+        PendingResponse<RequestType> pendingResponse = pendingResponses.remove(id);
+        if (pendingResponse == null || !(response instanceof Response) || ((Response) response).isError()) {
+            return;
+        }
+        synchronized (lock) {
+            if (pendingResponse.generation == generation) {
+                cachedRequests.computeIfAbsent(pendingResponse.request.getRequest(), request -> new HashMap<>())
+                        .put(pendingResponse.key, pendingResponse.request);
+                store.put(pendingResponse.key,
+                        new CachedResponse<>(pendingResponse.request, (Response) response),
+                        CoreStoreStates.ResponseCacheUpdated);
+            }
+        }
+    }
+
+    /**
+     * Forget a tracked request which failed.
+     */
+    void discard(UUID id) {
+        if (id != null) {
+            pendingResponses.remove(id);
+        }
+    }
+
+    /**
+     * Remove the cached responses of the given requests, of all requests if empty.
+     */
+    void invalidate(Set<String> invalidatedRequests) {
+        synchronized (lock) {
+            generation++;
+            List<String> keys = new ArrayList<>();
+            if (invalidatedRequests.isEmpty()) {
+                for (Map<String, RequestType> requestsByKey : cachedRequests.values()) {
+                    keys.addAll(requestsByKey.keySet());
+                }
+                cachedRequests.clear();
+            } else {
+                for (String request : invalidatedRequests) {
+                    Map<String, RequestType> requestsByKey = cachedRequests.remove(request);
+                    if (requestsByKey != null) {
+                        keys.addAll(requestsByKey.keySet());
+                    }
+                }
+            }
+            removeAll(keys);
+        }
+    }
+
+    /**
+     * Remove the cached responses of all requests matching the predicate.
+     */
+    void invalidate(Predicate<RequestType> isAffected) {
+        synchronized (lock) {
+            generation++;
+            List<String> keys = new ArrayList<>();
+            for (Map<String, RequestType> requestsByKey : cachedRequests.values()) {
+                requestsByKey.entrySet().removeIf(entry -> {
+                    if (isAffected.test(entry.getValue())) {
+                        keys.add(entry.getKey());
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            cachedRequests.values().removeIf(Map::isEmpty);
+            removeAll(keys);
+        }
+    }
+
+    private void removeAll(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            store.removeAll(keys, CoreStoreStates.ResponseCacheInvalidated);
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void removeCachedRequest(String request, String key) {
+        Map<String, RequestType> requestsByKey = cachedRequests.get(request);
+        if (requestsByKey != null && requestsByKey.remove(key) != null && requestsByKey.isEmpty()) {
+            cachedRequests.remove(request);
+        }
+    }
+
+    void addInvalidationStream(StoreStream<?> stream) {
+        synchronized (invalidationStreams) {
+            invalidationStreams.add(stream);
+        }
+    }
+
+    void close() {
+        synchronized (invalidationStreams) {
+            for (StoreStream<?> stream : invalidationStreams) {
+                stream.unsubscribe();
+            }
+            invalidationStreams.clear();
+        }
+        pendingResponses.clear();
+        synchronized (lock) {
+            cachedRequests.clear();
+        }
+    }
+
+    static class CachedResponse<RequestType> {
+        final RequestType request;
+        final Response response;
+
+        CachedResponse(RequestType request, Response response) {
+            this.request = request;
+            this.response = response;
+        }
+    }
+
+    private static class PendingResponse<RequestType> {
+        final String key;
+        final RequestType request;
+        final long generation;
+
+        PendingResponse(String key, RequestType request, long generation) {
+            this.key = key;
+            this.request = request;
+            this.generation = generation;
+        }
+    }
+}
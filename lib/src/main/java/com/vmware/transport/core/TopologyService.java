@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core;
+
+import com.vmware.transport.bridge.Request;
+import com.vmware.transport.bridge.Response;
+import com.vmware.transport.bridge.spring.services.TransportSubscriptionService;
+import com.vmware.transport.bus.model.Channel;
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.bus.store.model.BusStore;
+import com.vmware.transport.core.model.ChannelStatistics;
+import com.vmware.transport.core.model.ChannelStatisticsQuery;
+import com.vmware.transport.core.model.TopologyStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Topology Service answers statistics queries about the bus: a summary of its channels, bridge
+ * sessions and stores, and the subscribers and message rates of individual channels.
+ *
+ * The counters are maintained by the channels as messages are sent and delivered, the rates are
+ * derived from them when a channel is queried. A query only inspects the channels it returns,
+ * so it stays cheap on a bus with many channels.
+ */
+@Component
+public class TopologyService extends AbstractService<Request<Object>, Response<Object>> {
+
+    // rates are averaged over at least this interval, queries made more often return the previous rates.
+    static final long MIN_RATE_INTERVAL_MILLIS = 1000;
+
+    @Autowired(required = false)
+    private TransportSubscriptionService subscriptionService;
+
+    TopologyService() {
+        super(CoreChannels.TopologyService);
+    }
+
+    protected void handleServiceRequest(Request request, Message busMessage) {
+        switch (request.getRequest()) {
+            case TopologyCommands.Topology:
+                handleTopologyRequest(request);
+                break;
+
+            case TopologyCommands.ChannelStatistics:
+                handleChannelStatisticsRequest(request);
+                break;
+
+            default:
+                this.handleUnknownRequest(request);
+        }
+    }
+
+    private void handleTopologyRequest(Request request) {
+        Response<Object> response = new Response<>(request.getId(), getTopologyStatistics());
+        this.sendResponse(response, request.getId());
+    }
+
+    private void handleChannelStatisticsRequest(Request request) {
+        ChannelStatisticsQuery query = request.getPayload() != null
+              ? castPayload(ChannelStatisticsQuery.class, request) : new ChannelStatisticsQuery();
+        Response<Object> response = new Response<>(
+              request.getId(), getChannelStatistics(query.getPrefix(), query.getLimit()));
+        this.sendResponse(response, request.getId());
+    }
+
+    TopologyStatistics getTopologyStatistics() {
+        Map<String, Integer> storeSizes = new TreeMap<>();
+        if (this.storeManager instanceof StoreManager) {
+            for (String storeType : ((StoreManager) this.storeManager).getStoreTypes()) {
+                BusStore<Object, Object> store = this.storeManager.getStore(storeType);
+                if (store != null) {
+                    storeSizes.put(storeType, store.getStatistics().size);
+                }
+            }
+        }
+
+        return new TopologyStatistics(
+              this.bus.getApi().getChannelMap().size(),
+              this.bus.getGalacticChannels().size(),
+              subscriptionService != null ? subscriptionService.getOpenChannelCount() : 0,
+              subscriptionService != null ? subscriptionService.getSessionCount() : 0,
+              subscriptionService != null ? subscriptionService.getSubscriptionCount() : 0,
+              storeSizes);
+    }
+
+    /**
+     * Returns the statistics of the channels whose names start with the prefix, ordered by name.
+     *
+     * @param prefix the prefix of the channel names, null for all channels.
+     * @param limit the maximum number of channels to return.
+     */
+    List<ChannelStatistics> getChannelStatistics(String prefix, int limit) {
+        List<Channel> channels = new ArrayList<>();
+        for (Channel channel : this.bus.getApi().getChannels()) {
+            if (prefix == null || channel.getName().startsWith(prefix)) {
+                channels.add(channel);
+            }
+        }
+        channels.sort(Comparator.comparing(Channel::getName));
+
+        List<ChannelStatistics> result = new ArrayList<>();
+        for (Channel channel : channels.subList(0, Math.max(0, Math.min(limit, channels.size())))) {
+            result.add(toChannelStatistics(channel));
+        }
+        return result;
+    }
+
+    private ChannelStatistics toChannelStatistics(Channel channel) {
+        return new ChannelStatistics(
+              channel.getName(),
+              channel.getCreatedTime(),
+              channel.getRefCount(),
+              channel.getPublishMeter().getCount(),
+              channel.getDeliveryMeter().getCount(),
+              channel.getPublishMeter().sampleRate(MIN_RATE_INTERVAL_MILLIS),
+              channel.getDeliveryMeter().sampleRate(MIN_RATE_INTERVAL_MILLIS),
+              this.bus.isGalacticChannel(channel.getName()),
+              subscriptionService != null ? subscriptionService.getChannelSubscriptionCount(channel.getName()) : 0);
+    }
+}
+
+class TopologyCommands {
+    final static String Topology = "topology";
+    final static String ChannelStatistics = "channel-statistics";
+}
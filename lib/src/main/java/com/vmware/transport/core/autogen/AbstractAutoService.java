@@ -9,6 +9,8 @@ import com.google.gson.Gson;
 import com.vmware.transport.bridge.Request;
 import com.vmware.transport.bridge.Response;
 import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
+import com.vmware.transport.bus.store.model.BusStore;
 import com.vmware.transport.core.AbstractService;
 import com.vmware.transport.core.error.RestError;
 import com.vmware.transport.core.model.RestOperation;
@@ -17,6 +19,17 @@ import lombok.Setter;
 import org.springframework.http.HttpMethod;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 
@@ -33,6 +46,18 @@ public abstract class AbstractAutoService<RequestType extends Request, ResponseT
     @Getter @Setter
     protected String apihost = null;                    // String for modifying URI by prepending this as hostname
 
+    // Store used to cache the GET API responses of the requests enabled with cacheGetResponses(), see
+    // BusStore.getOrLoad(). Caching is disabled when null. Use an eviction policy on the store to bound its size
+    // and set the time-to-live of the cached responses.
+    @Getter @Setter
+    protected BusStore<String, Object> getResponseStore = null;
+
+    // trace headers differ for every call without changing the response, they are not part of the cache key.
+    private static final Set<String> UNCACHED_HEADERS = new HashSet<>(Arrays.asList(
+            MessageHeaders.TRACEPARENT, MessageHeaders.TRACESTATE));
+
+    private final Set<String> cachedGetRequests = ConcurrentHashMap.newKeySet();
+
     public static final Integer SERVICE_ERROR = 505;    // Used by servgen
 
     protected IRestApiBridge<RequestType, ResponseType> restApiBridge;
@@ -92,16 +117,89 @@ public abstract class AbstractAutoService<RequestType extends Request, ResponseT
 
             // if headers are provided in the bus message, set them in RestOperation
             if (message.getHeaders() != null) {
-                restOp.setHeaders(message.getHeaders().getHeadersMap());
+                restOp.setHeaders(new HashMap(message.getHeaders().getHeadersMap()));
             }
 
             // add the parameterized headers
             restOp.getHeaders().putAll(apiType.getApiHeaders());
 
-            this.restServiceRequest(restOp);
+            if (this.isGetResponseCached(apiType, method)) {
+                this.cachedGetRequest(getResponseCacheKey(uri, restOp.getHeaders()), restOp, restResponse, restError);
+            } else {
+                this.restServiceRequest(restOp);
+            }
         };
     }
 
+    /**
+     * Cache the GET API responses of the given service requests in the getResponseStore.
+     * Responses are cached per URI and request headers, so callers with different
+     * credentials or tenants never share a response.
+     *
+     * @param requests the request commands of the cached operations.
+     */
+    protected void cacheGetResponses(String... requests) {
+        this.cachedGetRequests.addAll(Arrays.asList(requests));
+    }
+
+    private boolean isGetResponseCached(IApiType<RequestType, ResponseType> apiType, HttpMethod method) {
+        return this.getResponseStore != null
+                && method == HttpMethod.GET
+                && apiType.getRequestType() != null
+                && this.cachedGetRequests.contains(apiType.getRequestType().getRequest());
+    }
+
+    /**
+     * Returns the cache key of a GET API call, the URI followed by a digest of the request headers.
+     * The headers are hashed so credentials are not exposed by the keys of the store.
+     */
+    static String getResponseCacheKey(String uri, Map<String, ?> headers) {
+        TreeMap<String, String> keyHeaders = new TreeMap<>();
+        if (headers != null) {
+            for (Map.Entry<String, ?> header : headers.entrySet()) {
+                String name = header.getKey().toLowerCase(Locale.ROOT);
+                if (!UNCACHED_HEADERS.contains(name)) {
+                    keyHeaders.put(name, String.valueOf(header.getValue()));
+                }
+            }
+        }
+        if (keyHeaders.isEmpty()) {
+            return uri;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, String> header : keyHeaders.entrySet()) {
+                digest.update((header.getKey() + ":" + header.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder key = new StringBuilder(uri).append('#');
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serve a GET API call from the getResponseStore. Concurrent calls with the same key
+     * share a single RestService call, the response is cached for subsequent calls.
+     */
+    private void cachedGetRequest(String key, RestOperation restOp,
+                                  Consumer<Object> restResponse, Consumer<RestError> restError) {
+        this.getResponseStore.getOrLoad(
+                key,
+                (String loadKey, Consumer<Object> loadSuccess, Consumer<Object> loadError) -> {
+                    restOp.setSuccessHandler(loadSuccess);
+                    restOp.setErrorHandler(loadError);
+                    this.restServiceRequest(restOp);
+                },
+                (Object payload) -> restResponse.accept(payload),
+                (Object error) -> restError.accept(error instanceof RestError
+                        ? (RestError) error
+                        : new RestError(String.valueOf(error), SERVICE_ERROR)));
+    }
+
     /**
      * This is called at the bottom of a service request to send a successful response with a payload to the consumer
      *
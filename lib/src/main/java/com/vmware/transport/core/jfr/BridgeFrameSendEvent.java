@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a message sent by the STOMP bridge to its clients.
+ * Disabled by default, enable transport.BridgeFrameSend in the recording settings.
+ */
+@Name("transport.BridgeFrameSend")
+@Label("Bridge Frame Send")
+@Category({"Transport", "Bridge"})
+@Description("A message sent by the STOMP bridge to a destination")
+@Enabled(false)
+@StackTrace(false)
+public class BridgeFrameSendEvent extends Event {
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Destination")
+    String destination;
+
+    @Label("Target User")
+    String targetUser;
+
+    @Label("Payload Class")
+    Class<?> payloadClass;
+
+    /**
+     * End the event and commit it if it passes the recording settings.
+     */
+    public void complete(String channel, String destination, String targetUser, Object payload) {
+        end();
+        if (shouldCommit()) {
+            this.channel = channel;
+            this.destination = destination;
+            this.targetUser = targetUser;
+            this.payloadClass = payload != null ? payload.getClass() : null;
+            commit();
+        }
+    }
+}
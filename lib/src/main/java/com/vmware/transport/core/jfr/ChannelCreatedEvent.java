@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a bus channel being created.
+ */
+@Name("transport.ChannelCreated")
+@Label("Channel Created")
+@Category({"Transport", "Bus"})
+@Description("A bus channel was created")
+public class ChannelCreatedEvent extends Event {
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Creator")
+    String from;
+
+    /**
+     * Commit the event if it is enabled in the recording settings.
+     */
+    public static void record(String channel, String from) {
+        ChannelCreatedEvent event = new ChannelCreatedEvent();
+        if (event.shouldCommit()) {
+            event.channel = channel;
+            event.from = from;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the execution of a message handler or of a responder generating
+ * the response to a request.
+ * Disabled by default, enable transport.MessageHandler in the recording settings.
+ */
+@Name("transport.MessageHandler")
+@Label("Message Handler")
+@Category({"Transport", "Bus"})
+@Description("The execution of a handler or responder for a message received on a bus channel")
+@Enabled(false)
+@StackTrace(false)
+public class MessageHandlerEvent extends Event {
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Payload Class")
+    Class<?> payloadClass;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * End the event and commit it if it passes the recording settings.
+     */
+    public void complete(String channel, Object payload, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.channel = channel;
+            this.payloadClass = payload != null ? payload.getClass() : null;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import com.vmware.transport.bus.model.MessageType;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a message sent to a bus channel. The bus delivers messages
+ * synchronously, so the duration includes the handlers of the channel.
+ * Disabled by default, enable transport.MessageSend in the recording settings.
+ */
+@Name("transport.MessageSend")
+@Label("Message Send")
+@Category({"Transport", "Bus"})
+@Description("A message sent to a bus channel, including its synchronous delivery")
+@Enabled(false)
+@StackTrace(false)
+public class MessageSendEvent extends Event {
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Message Type")
+    String messageType;
+
+    @Label("Payload Class")
+    Class<?> payloadClass;
+
+    @Label("Sender")
+    String from;
+
+    /**
+     * End the event and commit it if it passes the recording settings.
+     */
+    public void complete(String channel, MessageType messageType, Object payload, String from) {
+        end();
+        if (shouldCommit()) {
+            this.channel = channel;
+            this.messageType = messageType != null ? messageType.toString() : null;
+            this.payloadClass = payload != null ? payload.getClass() : null;
+            this.from = from;
+            commit();
+        }
+    }
+}
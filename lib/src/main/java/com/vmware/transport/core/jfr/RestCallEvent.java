@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a REST call made by the RestService.
+ */
+@Name("transport.RestCall")
+@Label("REST Call")
+@Category({"Transport", "REST"})
+@Description("An HTTP call made by the RestService")
+public class RestCallEvent extends Event {
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("Payload Class")
+    String payloadClass;
+
+    /**
+     * End the event and commit it if it passes the recording settings.
+     *
+     * @param payloadClass the name of the class the response is converted to.
+     */
+    public void complete(String channel, String method, String uri, int status, String payloadClass) {
+        end();
+        if (shouldCommit()) {
+            this.channel = channel;
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+            this.payloadClass = payloadClass;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a store mutation, the duration includes the broadcast
+ * of the change to the store's subscribers.
+ * Disabled by default, enable transport.StoreMutation in the recording settings.
+ */
+@Name("transport.StoreMutation")
+@Label("Store Mutation")
+@Category({"Transport", "Store"})
+@Description("A put, remove or batch applied to a bus store, including the change broadcast")
+@Enabled(false)
+@StackTrace(false)
+public class StoreMutationEvent extends Event {
+
+    @Label("Store Type")
+    String storeType;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Payload Class")
+    Class<?> payloadClass;
+
+    @Label("Changes")
+    int changes;
+
+    /**
+     * End the event and commit it if it passes the recording settings.
+     */
+    public void complete(String storeType, String operation, String channel, Object value, int changes) {
+        end();
+        if (shouldCommit()) {
+            this.storeType = storeType;
+            this.operation = operation;
+            this.channel = channel;
+            this.payloadClass = value != null ? value.getClass() : null;
+            this.changes = changes;
+            commit();
+        }
+    }
+}
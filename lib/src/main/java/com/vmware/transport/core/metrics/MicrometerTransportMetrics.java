@@ -0,0 +1,366 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.metrics;
+
+import com.vmware.transport.bridge.spring.services.TransportSubscriptionService;
+import com.vmware.transport.bus.EventBus;
+import com.vmware.transport.bus.model.MessageType;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.bus.store.model.BusStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Records the Transport metrics in a Micrometer {@link MeterRegistry}.
+ *
+ * Channel names are used as tags after replacing the UUIDs they contain with "{id}".
+ * Once maxChannelTags distinct channel tags are in use, all other channels are
+ * recorded with the "other" tag. Meters are cached per channel so recording a
+ * message does not allocate.
+ *
+ * Meters:
+ *   transport.bus.channels                  number of open channels
+ *   transport.bus.messages                  messages sent, by channel and type
+ *   transport.bus.messages.dropped          messages sent to missing channels, by channel
+ *   transport.bus.handler                   message handler duration, by channel and outcome
+ *   transport.service.requests              service request handling duration, by service and outcome
+ *   transport.rest.calls                    RestService call duration, by method, status and outcome
+ *   transport.store.size                    number of store items, by store
+ *   transport.store.hits, misses, evictions store statistics, by store
+ *   transport.store.operations              store changes, by store and operation
+ *   transport.bridge.sessions               number of STOMP sessions with subscriptions
+ *   transport.bridge.subscriptions          number of bridge subscriptions
+ *   transport.bridge.channels               number of channels with bridge subscriptions
+ *   transport.bridge.messages               messages forwarded to bridge clients, by channel
+ *   transport.bridge.subscription.events    subscription changes, by event
+ */
+public class MicrometerTransportMetrics implements TransportMetrics {
+
+    public static final int DEFAULT_MAX_CHANNEL_TAGS = 500;
+    public static final String OTHER_CHANNEL_TAG = "other";
+
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    // Channel names without cached meters are normalized on every message.
+    private static final int MAX_CACHED_CHANNELS = 10000;
+
+    private static final String[] MESSAGE_TYPE_TAGS = {"request", "response", "error"};
+
+    private final MeterRegistry registry;
+    private final int maxChannelTags;
+
+    private final Map<String, ChannelMeters> channelMeters = new ConcurrentHashMap<>();
+    private final Map<String, ChannelMeters> channelMetersByTag = new ConcurrentHashMap<>();
+    private final Map<String, Timer[]> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Counter>> storeCounters = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> storeMeters = new ConcurrentHashMap<>();
+
+    public MicrometerTransportMetrics(MeterRegistry registry) {
+        this(registry, DEFAULT_MAX_CHANNEL_TAGS);
+    }
+
+    public MicrometerTransportMetrics(MeterRegistry registry, int maxChannelTags) {
+        if (maxChannelTags <= 0) {
+            throw new IllegalArgumentException("maxChannelTags must be positive.");
+        }
+        this.registry = registry;
+        this.maxChannelTags = maxChannelTags;
+    }
+
+    /**
+     * Register the channel count of the bus. Micrometer references gauge objects weakly,
+     * so the gauge observes the bus API which lives as long as the bus, not a channel map view.
+     */
+    public MicrometerTransportMetrics bindEventBus(EventBus bus) {
+        Gauge.builder("transport.bus.channels", bus.getApi(), api -> api.getChannelMap().size())
+                .description("Number of open bus channels")
+                .register(registry);
+        return this;
+    }
+
+    /**
+     * Register the metrics of the existing stores, stores created later are registered
+     * by {@link #storeCreated}.
+     */
+    public MicrometerTransportMetrics bindStoreManager(StoreManager storeManager) {
+        for (String storeType : storeManager.getStoreTypes()) {
+            BusStore<?, ?> store = storeManager.getStore(storeType);
+            if (store != null) {
+                storeCreated(store);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Register the session, subscription and channel counts of the bridge.
+     */
+    public MicrometerTransportMetrics bindTransportSubscriptionService(TransportSubscriptionService service) {
+        Gauge.builder("transport.bridge.sessions", service, TransportSubscriptionService::getSessionCount)
+                .description("Number of STOMP sessions with bridge subscriptions")
+                .register(registry);
+        Gauge.builder("transport.bridge.subscriptions", service, TransportSubscriptionService::getSubscriptionCount)
+                .description("Number of bridge subscriptions")
+                .register(registry);
+        Gauge.builder("transport.bridge.channels", service, TransportSubscriptionService::getOpenChannelCount)
+                .description("Number of channels with bridge subscriptions")
+                .register(registry);
+        return this;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void messageSent(String channel, MessageType type) {
+        getChannelMeters(channel).messageCounter(type.ordinal()).increment();
+    }
+
+    @Override
+    public void messageDropped(String channel) {
+        getChannelMeters(channel).droppedCounter().increment();
+    }
+
+    @Override
+    public void handlerCompleted(String channel, long durationNanos, boolean failed) {
+        getChannelMeters(channel).handlerTimer(failed).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void slowHandlerDetected(String channel, long durationNanos) {
+        getChannelMeters(channel).slowHandlerCounter().increment();
+    }
+
+    @Override
+    public void serviceRequestCompleted(String serviceChannel, long durationNanos, boolean failed) {
+        Timer[] timers = serviceTimers.computeIfAbsent(serviceChannel, service -> new Timer[] {
+                serviceTimer(service, "success"),
+                serviceTimer(service, "failure")
+        });
+        timers[failed ? 1 : 0].record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void restCallCompleted(String method, int status, long durationNanos) {
+        Timer.builder("transport.rest.calls")
+                .description("Duration of RestService calls")
+                .tag("method", method)
+                .tag("status", status > 0 ? String.valueOf(status) : "none")
+                .tag("outcome", getOutcome(status))
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void storeCreated(BusStore<?, ?> store) {
+        String storeType = store.getStoreType();
+        List<Meter> meters = new ArrayList<>();
+        meters.add(Gauge.builder("transport.store.size", store, s -> s.getStatistics().size)
+                .description("Number of store items")
+                .tag("store", storeType)
+                .register(registry));
+        meters.add(FunctionCounter.builder("transport.store.hits", store, s -> s.getStatistics().hitCount)
+                .tag("store", storeType)
+                .register(registry));
+        meters.add(FunctionCounter.builder("transport.store.misses", store, s -> s.getStatistics().missCount)
+                .tag("store", storeType)
+                .register(registry));
+        meters.add(FunctionCounter.builder("transport.store.evictions", store, s -> s.getStatistics().evictionCount)
+                .tag("store", storeType)
+                .register(registry));
+        List<Meter> previousMeters = storeMeters.put(storeType, meters);
+        if (previousMeters != null && previousMeters != meters) {
+            removeMeters(previousMeters, meters);
+        }
+    }
+
+    @Override
+    public void storeDestroyed(String storeType) {
+        List<Meter> meters = storeMeters.remove(storeType);
+        if (meters != null) {
+            removeMeters(meters, null);
+        }
+        Map<String, Counter> counters = storeCounters.remove(storeType);
+        if (counters != null) {
+            for (Counter counter : counters.values()) {
+                registry.remove(counter);
+            }
+        }
+    }
+
+    @Override
+    public void storeOperation(String storeType, String operation) {
+        storeCounters.computeIfAbsent(storeType, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(operation, op -> Counter.builder("transport.store.operations")
+                        .description("Store changes")
+                        .tag("store", storeType)
+                        .tag("operation", op)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void bridgeMessageSent(String channel) {
+        getChannelMeters(channel).bridgeCounter().increment();
+    }
+
+    @Override
+    public void bridgeSubscriptionChanged(String event) {
+        registry.counter("transport.bridge.subscription.events", "event", event).increment();
+    }
+
+    /**
+     * Returns the tag used for the channel.
+     */
+    String getChannelTag(String channel) {
+        return getChannelMeters(channel).channelTag;
+    }
+
+    private ChannelMeters getChannelMeters(String channel) {
+        ChannelMeters meters = channelMeters.get(channel);
+        if (meters != null) {
+            return meters;
+        }
+
+        String channelTag = UUID_PATTERN.matcher(channel).replaceAll("{id}");
+        meters = channelMetersByTag.get(channelTag);
+        if (meters == null) {
+            if (channelMetersByTag.size() >= maxChannelTags) {
+                channelTag = OTHER_CHANNEL_TAG;
+            }
+            meters = channelMetersByTag.computeIfAbsent(channelTag, ChannelMeters::new);
+        }
+        if (channelMeters.size() < MAX_CACHED_CHANNELS) {
+            channelMeters.put(channel, meters);
+        }
+        return meters;
+    }
+
+    private Timer serviceTimer(String service, String outcome) {
+        return Timer.builder("transport.service.requests")
+                .description("Duration of service request handling")
+                .tag("service", service)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void removeMeters(List<Meter> meters, List<Meter> keep) {
+        for (Meter meter : meters) {
+            if (keep == null || !keep.contains(meter)) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    private static String getOutcome(int status) {
+        if (status >= 200 && status < 300) {
+            return "SUCCESS";
+        } else if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        } else if (status >= 400 && status < 500) {
+            return "CLIENT_ERROR";
+        } else if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * The meters of a channel tag, created when they are first used. Concurrent
+     * first uses may both create a meter, the registry returns the same instance.
+     */
+    private class ChannelMeters {
+
+        final String channelTag;
+        final Counter[] messageCounters = new Counter[MessageType.values().length];
+        final Timer[] handlerTimers = new Timer[2];
+        volatile Counter droppedCounter;
+        volatile Counter bridgeCounter;
+        volatile Counter slowHandlerCounter;
+
+        ChannelMeters(String channelTag) {
+            this.channelTag = channelTag;
+        }
+
+        Counter messageCounter(int type) {
+            Counter counter = messageCounters[type];
+            if (counter == null) {
+                counter = Counter.builder("transport.bus.messages")
+                        .description("Messages sent to bus channels")
+                        .tag("channel", channelTag)
+                        .tag("type", MESSAGE_TYPE_TAGS[type])
+                        .register(registry);
+                messageCounters[type] = counter;
+            }
+            return counter;
+        }
+
+        Counter droppedCounter() {
+            Counter counter = droppedCounter;
+            if (counter == null) {
+                counter = Counter.builder("transport.bus.messages.dropped")
+                        .description("Messages sent to missing bus channels")
+                        .tag("channel", channelTag)
+                        .register(registry);
+                droppedCounter = counter;
+            }
+            return counter;
+        }
+
+        Counter bridgeCounter() {
+            Counter counter = bridgeCounter;
+            if (counter == null) {
+                counter = Counter.builder("transport.bridge.messages")
+                        .description("Messages forwarded to bridge clients")
+                        .tag("channel", channelTag)
+                        .register(registry);
+                bridgeCounter = counter;
+            }
+            return counter;
+        }
+
+        Counter slowHandlerCounter() {
+            Counter counter = slowHandlerCounter;
+            if (counter == null) {
+                counter = Counter.builder("transport.bus.handler.slow")
+                        .description("Bus message handlers which exceeded the slow handler threshold")
+                        .tag("channel", channelTag)
+                        .register(registry);
+                slowHandlerCounter = counter;
+            }
+            return counter;
+        }
+
+        Timer handlerTimer(boolean failed) {
+            int index = failed ? 1 : 0;
+            Timer timer = handlerTimers[index];
+            if (timer == null) {
+                timer = Timer.builder("transport.bus.handler")
+                        .description("Duration of bus message handlers")
+                        .tag("channel", channelTag)
+                        .tag("outcome", failed ? "failure" : "success")
+                        .register(registry);
+                handlerTimers[index] = timer;
+            }
+            return timer;
+        }
+    }
+}
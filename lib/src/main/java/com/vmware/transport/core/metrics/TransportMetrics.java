@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.metrics;
+
+import com.vmware.transport.bus.model.MessageType;
+import com.vmware.transport.bus.store.model.BusStore;
+
+/**
+ * Receives the measurements of the bus, the stores, the services and the bridge.
+ *
+ * All methods are no-ops by default. The instrumented code gets the installed instance
+ * from {@link TransportMetricsHolder#get()} and only measures durations if
+ * {@link #isEnabled()} returns true, so metrics cost next to nothing while they are disabled.
+ */
+public interface TransportMetrics {
+
+    /**
+     * Metrics used while no other metrics are installed.
+     */
+    TransportMetrics NOOP = new TransportMetrics() {};
+
+    /**
+     * Returns true if durations should be measured.
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * A message was sent to a channel.
+     */
+    default void messageSent(String channel, MessageType type) {}
+
+    /**
+     * A message was dropped because its channel does not exist.
+     */
+    default void messageDropped(String channel) {}
+
+    /**
+     * A message handler has processed a message.
+     */
+    default void handlerCompleted(String channel, long durationNanos, boolean failed) {}
+
+    /**
+     * A message handler ran longer than the slow handler threshold, reported once per invocation.
+     */
+    default void slowHandlerDetected(String channel, long durationNanos) {}
+
+    /**
+     * A service has handled a request. Responses sent asynchronously are not included in the duration.
+     */
+    default void serviceRequestCompleted(String serviceChannel, long durationNanos, boolean failed) {}
+
+    /**
+     * A RestService call has completed, status is 0 if no response was received.
+     */
+    default void restCallCompleted(String method, int status, long durationNanos) {}
+
+    /**
+     * A store was created.
+     */
+    default void storeCreated(BusStore<?, ?> store) {}
+
+    /**
+     * A store was destroyed.
+     */
+    default void storeDestroyed(String storeType) {}
+
+    /**
+     * Items of a store were changed, operation is put, remove or batch.
+     */
+    default void storeOperation(String storeType, String operation) {}
+
+    /**
+     * A bus message was forwarded to the clients subscribed to a bridge channel.
+     */
+    default void bridgeMessageSent(String channel) {}
+
+    /**
+     * A bridge subscription was changed, event is subscribe, unsubscribe or disconnect.
+     */
+    default void bridgeSubscriptionChanged(String event) {}
+}
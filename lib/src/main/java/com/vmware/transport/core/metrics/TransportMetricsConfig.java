@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.metrics;
+
+import com.vmware.transport.bridge.spring.services.TransportSubscriptionService;
+import com.vmware.transport.bus.EventBus;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.core.util.Loggable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs {@link MicrometerTransportMetrics} when Micrometer is on the classpath and
+ * transport.metrics.enabled=true. The metrics are recorded in the application's
+ * MeterRegistry, Spring Boot Actuator exposes them together with its own metrics.
+ * Without a MeterRegistry bean Micrometer's global registry is used.
+ *
+ * Properties:
+ *   transport.metrics.enabled           enable metrics (default false)
+ *   transport.metrics.max-channel-tags  maximum number of distinct channel tags (default 500)
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(name = "transport.metrics.enabled", havingValue = "true")
+public class TransportMetricsConfig extends Loggable implements SmartInitializingSingleton, DisposableBean {
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private ObjectProvider<EventBus> bus;
+
+    @Autowired
+    private ObjectProvider<StoreManager> storeManager;
+
+    @Autowired
+    private ObjectProvider<TransportSubscriptionService> subscriptionService;
+
+    @Value("${transport.metrics.max-channel-tags:" + MicrometerTransportMetrics.DEFAULT_MAX_CHANNEL_TAGS + "}")
+    private int maxChannelTags;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MicrometerTransportMetrics metrics = new MicrometerTransportMetrics(
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), maxChannelTags);
+        // install first, stores created while the existing ones are bound are not missed.
+        TransportMetricsHolder.install(metrics);
+        bus.ifAvailable(metrics::bindEventBus);
+        storeManager.ifAvailable(metrics::bindStoreManager);
+        subscriptionService.ifAvailable(metrics::bindTransportSubscriptionService);
+        this.logInfoMessage("\uD83D\uDCCA", "Transport metrics enabled", "max channel tags " + maxChannelTags);
+    }
+
+    @Override
+    public void destroy() {
+        TransportMetricsHolder.reset();
+    }
+}
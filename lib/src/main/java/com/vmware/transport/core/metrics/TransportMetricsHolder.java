@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.metrics;
+
+/**
+ * Holds the {@link TransportMetrics} used by the instrumented Transport components.
+ * Metrics are disabled until an instance is installed, either by
+ * {@link TransportMetricsConfig} or manually when the bus is used without Spring.
+ */
+public class TransportMetricsHolder {
+
+    private static volatile TransportMetrics metrics = TransportMetrics.NOOP;
+
+    private TransportMetricsHolder() {}
+
+    /**
+     * Returns the installed metrics, never null.
+     */
+    public static TransportMetrics get() {
+        return metrics;
+    }
+
+    /**
+     * Install the metrics, replacing the previously installed ones.
+     */
+    public static void install(TransportMetrics transportMetrics) {
+        metrics = transportMetrics != null ? transportMetrics : TransportMetrics.NOOP;
+    }
+
+    /**
+     * Disable metrics.
+     */
+    public static void reset() {
+        metrics = TransportMetrics.NOOP;
+    }
+}
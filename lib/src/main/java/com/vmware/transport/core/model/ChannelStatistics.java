@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+/**
+ * Snapshot of the traffic and subscribers of a bus channel.
+ */
+public class ChannelStatistics {
+
+    public final String name;
+
+    /**
+     * The time the channel was created, in epoch milliseconds.
+     */
+    public final long createdTime;
+
+    /**
+     * The number of references held on the channel by its subscribers.
+     */
+    public final int subscriberCount;
+
+    /**
+     * The number of messages sent on the channel since it was created.
+     */
+    public final long publishCount;
+
+    /**
+     * The number of deliveries of these messages to subscribers.
+     */
+    public final long deliveryCount;
+
+    /**
+     * Messages sent per second, averaged since the previous statistics request.
+     */
+    public final double publishRate;
+
+    /**
+     * Deliveries per second, averaged since the previous statistics request.
+     */
+    public final double deliveryRate;
+
+    public final boolean galactic;
+
+    /**
+     * The number of bridge subscriptions to the channel, 0 if the channel is not bridged.
+     */
+    public final int bridgeSubscriptionCount;
+
+    public ChannelStatistics(
+          String name,
+          long createdTime,
+          int subscriberCount,
+          long publishCount,
+          long deliveryCount,
+          double publishRate,
+          double deliveryRate,
+          boolean galactic,
+          int bridgeSubscriptionCount) {
+        this.name = name;
+        this.createdTime = createdTime;
+        this.subscriberCount = subscriberCount;
+        this.publishCount = publishCount;
+        this.deliveryCount = deliveryCount;
+        this.publishRate = publishRate;
+        this.deliveryRate = deliveryRate;
+        this.galactic = galactic;
+        this.bridgeSubscriptionCount = bridgeSubscriptionCount;
+    }
+
+    public boolean isBridged() {
+        return bridgeSubscriptionCount > 0;
+    }
+}
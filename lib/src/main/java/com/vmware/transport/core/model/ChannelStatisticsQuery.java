@@ -0,0 +1,24 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Payload of the channel statistics request of the TopologyService.
+ */
+public class ChannelStatisticsQuery {
+
+    // only return the channels whose names start with the prefix, all channels if null.
+    @Getter @Setter
+    private String prefix;
+
+    // maximum number of channels to return, the channels are ordered by name.
+    @Getter @Setter
+    private int limit = 100;
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+/**
+ * Snapshot of the request coalescing counters of a service.
+ */
+public class RequestCoalescingStatistics {
+
+    /**
+     * The number of coalescable requests which were handled by the service.
+     */
+    public final long executedCount;
+
+    /**
+     * The number of requests which shared the response of an identical in-flight request.
+     */
+    public final long coalescedCount;
+
+    /**
+     * The number of executions currently waiting for a response.
+     */
+    public final int inFlightCount;
+
+    public RequestCoalescingStatistics(long executedCount, long coalescedCount, int inFlightCount) {
+        this.executedCount = executedCount;
+        this.coalescedCount = coalescedCount;
+        this.inFlightCount = inFlightCount;
+    }
+
+    /**
+     * Returns the share of coalescable requests which didn't have to be handled by the service.
+     */
+    public double getDedupRatio() {
+        long total = executedCount + coalescedCount;
+        return total == 0 ? 0 : (double) coalescedCount / total;
+    }
+}
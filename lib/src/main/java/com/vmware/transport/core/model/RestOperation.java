@@ -50,6 +50,10 @@ public class RestOperation<Payld, Resp> {
     @Getter @Setter
     private String sentFrom;
 
+    // HTTP client timeout of the call in milliseconds, 0 for the client's default timeouts.
+    @Getter @Setter
+    private long timeoutMillis;
+
     @Getter @Setter
     private Consumer<Resp> successHandler;
 
@@ -40,4 +40,8 @@ public class RestServiceRequest<Req, Resp> {
     @Getter @Setter
     private String sentFrom;
 
+    // time in epoch milliseconds after which the call is no longer needed, null if it has no deadline.
+    @Getter @Setter
+    private Long deadline;
+
 }
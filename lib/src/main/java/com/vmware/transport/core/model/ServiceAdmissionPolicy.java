@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+import lombok.Getter;
+
+/**
+ * Describes which requests a service accepts. By default a policy doesn't reject
+ * anything; each limit is enabled by setting it to a positive value.
+ *
+ * Rate limits are token buckets which are refilled with the given rate and hold at
+ * most burst tokens, every request consumes one token.
+ */
+public class ServiceAdmissionPolicy {
+
+    /**
+     * The number of requests per second accepted by the service, 0 for no limit.
+     */
+    @Getter
+    private double requestsPerSecond;
+
+    /**
+     * The number of requests the service accepts at once after being idle.
+     */
+    @Getter
+    private int requestBurst;
+
+    /**
+     * The number of requests per second accepted from a single user, 0 for no limit.
+     */
+    @Getter
+    private double userRequestsPerSecond;
+
+    /**
+     * The number of requests accepted at once from a single user after being idle.
+     */
+    @Getter
+    private int userRequestBurst;
+
+    /**
+     * The maximum number of requests handled by the service at the same time, 0 for no limit.
+     * A request is handled until the service sends its response or error.
+     */
+    @Getter
+    private int maxInFlightRequests;
+
+    /**
+     * The time after which the in-flight slot of a request is reclaimed if its response was never
+     * sent through the service's sendResponse() and sendError() methods.
+     */
+    @Getter
+    private long inFlightTimeoutMillis = 60000;
+
+    ServiceAdmissionPolicy() {}
+
+    public ServiceAdmissionPolicy setRateLimit(double requestsPerSecond, int burst) {
+        if (requestsPerSecond < 0 || burst < 0) {
+            throw new IllegalArgumentException("rate limit cannot be negative.");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.requestBurst = Math.max(burst, 1);
+        return this;
+    }
+
+    public ServiceAdmissionPolicy setUserRateLimit(double requestsPerSecond, int burst) {
+        if (requestsPerSecond < 0 || burst < 0) {
+            throw new IllegalArgumentException("user rate limit cannot be negative.");
+        }
+        this.userRequestsPerSecond = requestsPerSecond;
+        this.userRequestBurst = Math.max(burst, 1);
+        return this;
+    }
+
+    public ServiceAdmissionPolicy setMaxInFlightRequests(int maxInFlightRequests) {
+        if (maxInFlightRequests < 0) {
+            throw new IllegalArgumentException("maxInFlightRequests cannot be negative.");
+        }
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+
+    public ServiceAdmissionPolicy setInFlightTimeout(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("in-flight timeout must be positive.");
+        }
+        this.inFlightTimeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * Create new ServiceAdmissionPolicy instance.
+     */
+    public static ServiceAdmissionPolicy newInstance() {
+        return new ServiceAdmissionPolicy();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+/**
+ * Snapshot of the admission control state of a service.
+ */
+public class ServiceAdmissionStatistics {
+
+    /**
+     * The number of requests accepted by the service's rate limits.
+     */
+    public final long admittedCount;
+
+    /**
+     * The number of requests rejected by the service's rate limit.
+     */
+    public final long rateLimitedCount;
+
+    /**
+     * The number of requests rejected by the per user rate limit.
+     */
+    public final long userRateLimitedCount;
+
+    /**
+     * The number of requests rejected because too many requests were in flight.
+     */
+    public final long inFlightRejectedCount;
+
+    /**
+     * The number of requests currently handled by the service.
+     */
+    public final int inFlightCount;
+
+    /**
+     * The number of requests the service's rate limit currently accepts, -1 without rate limit.
+     */
+    public final double availableTokens;
+
+    /**
+     * The number of users with a rate limit bucket.
+     */
+    public final int trackedUserCount;
+
+    public ServiceAdmissionStatistics(long admittedCount, long rateLimitedCount, long userRateLimitedCount,
+                                      long inFlightRejectedCount, int inFlightCount, double availableTokens,
+                                      int trackedUserCount) {
+        this.admittedCount = admittedCount;
+        this.rateLimitedCount = rateLimitedCount;
+        this.userRateLimitedCount = userRateLimitedCount;
+        this.inFlightRejectedCount = inFlightRejectedCount;
+        this.inFlightCount = inFlightCount;
+        this.availableTokens = availableTokens;
+        this.trackedUserCount = trackedUserCount;
+    }
+}
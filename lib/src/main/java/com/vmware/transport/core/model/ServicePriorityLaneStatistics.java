@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+/**
+ * Snapshot of a single priority lane's counters, see {@link ServicePriorityLanes}.
+ */
+public class ServicePriorityLaneStatistics {
+
+    /**
+     * The name of the lane.
+     */
+    public final String lane;
+
+    /**
+     * The number of requests waiting in the lane's queue.
+     */
+    public final int queueSize;
+
+    /**
+     * The number of handled requests.
+     */
+    public final long processedCount;
+
+    /**
+     * The number of requests rejected because the lane's queue was full.
+     */
+    public final long rejectedCount;
+
+    /**
+     * The average time requests waited in the lane's queue, in microseconds.
+     */
+    public final long averageQueueLatencyMicros;
+
+    /**
+     * The longest time a request waited in the lane's queue, in microseconds.
+     */
+    public final long maxQueueLatencyMicros;
+
+    public ServicePriorityLaneStatistics(String lane, int queueSize, long processedCount, long rejectedCount,
+                                         long averageQueueLatencyMicros, long maxQueueLatencyMicros) {
+        this.lane = lane;
+        this.queueSize = queueSize;
+        this.processedCount = processedCount;
+        this.rejectedCount = rejectedCount;
+        this.averageQueueLatencyMicros = averageQueueLatencyMicros;
+        this.maxQueueLatencyMicros = maxQueueLatencyMicros;
+    }
+}
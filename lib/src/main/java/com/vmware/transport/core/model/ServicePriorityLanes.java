@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+import com.vmware.transport.bus.model.Message;
+import io.reactivex.functions.Function;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes the priority lanes of a service. Every lane has its own bounded queue, worker
+ * threads take requests from the non-empty lanes in proportion to the lanes' weights.
+ *
+ * Requests are assigned to a lane by the classifier, then by the value of the lane header
+ * of the request message and then by the request name. Requests which can't be classified
+ * are queued on the first lane.
+ */
+public class ServicePriorityLanes {
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+    /**
+     * Request names mapped to the name of their lane.
+     */
+    @Getter
+    private final Map<String, String> requestLanes = new HashMap<>();
+
+    /**
+     * The name of the message header holding the lane name of a request.
+     */
+    @Getter
+    private String laneHeader;
+
+    /**
+     * Function returning the lane name for a request message, or null if it can't classify the request.
+     */
+    @Getter
+    private Function<Message, String> classifier;
+
+    /**
+     * The number of threads handling the queued requests. Requests of the same lane are
+     * handled in order only if the service has a single worker thread.
+     */
+    @Getter
+    private int workerThreads = 1;
+
+    ServicePriorityLanes() {}
+
+    /**
+     * Add a lane.
+     * @param name the name of the lane.
+     * @param weight the share of requests taken from this lane when several lanes have queued requests.
+     * @param queueCapacity the maximum number of queued requests, requests exceeding it are rejected.
+     */
+    public ServicePriorityLanes addLane(String name, int weight, int queueCapacity) {
+        if (weight <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("lane weight and queueCapacity must be positive.");
+        }
+        for (Lane lane : lanes) {
+            if (lane.name.equals(name)) {
+                throw new IllegalArgumentException("lane '" + name + "' already exists.");
+            }
+        }
+        this.lanes.add(new Lane(name, weight, queueCapacity));
+        return this;
+    }
+
+    public ServicePriorityLanes setRequestLane(String laneName, String... requests) {
+        for (String request : requests) {
+            this.requestLanes.put(request, laneName);
+        }
+        return this;
+    }
+
+    public ServicePriorityLanes setLaneHeader(String laneHeader) {
+        this.laneHeader = laneHeader;
+        return this;
+    }
+
+    public ServicePriorityLanes setClassifier(Function<Message, String> classifier) {
+        this.classifier = classifier;
+        return this;
+    }
+
+    public ServicePriorityLanes setWorkerThreads(int workerThreads) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("workerThreads must be positive.");
+        }
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    /**
+     * Returns the lanes in the order they were added.
+     */
+    public List<Lane> getLanes() {
+        return Collections.unmodifiableList(lanes);
+    }
+
+    /**
+     * Create new ServicePriorityLanes instance.
+     */
+    public static ServicePriorityLanes newInstance() {
+        return new ServicePriorityLanes();
+    }
+
+    public static class Lane {
+
+        @Getter
+        private final String name;
+
+        @Getter
+        private final int weight;
+
+        @Getter
+        private final int queueCapacity;
+
+        Lane(String name, int weight, int queueCapacity) {
+            this.name = name;
+            this.weight = weight;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
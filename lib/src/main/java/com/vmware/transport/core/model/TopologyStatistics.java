@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.model;
+
+import java.util.Map;
+
+/**
+ * Summary of the channels, bridge sessions and stores of the bus.
+ */
+public class TopologyStatistics {
+
+    public final int channelCount;
+
+    public final int galacticChannelCount;
+
+    /**
+     * The number of channels with bridge subscriptions.
+     */
+    public final int bridgedChannelCount;
+
+    /**
+     * The number of STOMP sessions with bridge subscriptions.
+     */
+    public final int bridgeSessionCount;
+
+    public final int bridgeSubscriptionCount;
+
+    /**
+     * The number of items in each store, by store type.
+     */
+    public final Map<String, Integer> storeSizes;
+
+    public TopologyStatistics(
+          int channelCount,
+          int galacticChannelCount,
+          int bridgedChannelCount,
+          int bridgeSessionCount,
+          int bridgeSubscriptionCount,
+          Map<String, Integer> storeSizes) {
+        this.channelCount = channelCount;
+        this.galacticChannelCount = galacticChannelCount;
+        this.bridgedChannelCount = bridgedChannelCount;
+        this.bridgeSessionCount = bridgeSessionCount;
+        this.bridgeSubscriptionCount = bridgeSubscriptionCount;
+        this.storeSizes = storeSizes;
+    }
+}
@@ -11,6 +11,7 @@ import com.google.gson.JsonParser;
 import com.vmware.transport.bridge.Request;
 import com.vmware.transport.bridge.Response;
 import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
 import com.vmware.transport.bus.store.model.BusStore;
 import com.vmware.transport.core.AbstractService;
 import com.vmware.transport.core.CoreChannels;
@@ -18,8 +19,15 @@ import com.vmware.transport.core.CoreStoreKeys;
 import com.vmware.transport.core.CoreStores;
 import com.vmware.transport.core.model.RestServiceRequest;
 import com.vmware.transport.core.error.RestError;
+import com.vmware.transport.core.jfr.RestCallEvent;
+import com.vmware.transport.core.metrics.TransportMetrics;
+import com.vmware.transport.core.metrics.TransportMetricsHolder;
 import com.vmware.transport.core.model.RestOperation;
+import com.vmware.transport.core.tracing.Span;
+import com.vmware.transport.core.tracing.SpanKind;
+import com.vmware.transport.core.tracing.TransportTracing;
 import com.vmware.transport.core.util.ClassMapper;
+import com.vmware.transport.core.util.RequestDeadlines;
 import com.vmware.transport.core.util.RestControllerInvoker;
 import com.vmware.transport.core.util.URIMatcher;
 import com.vmware.transport.core.util.URIMethodResult;
@@ -115,6 +123,13 @@ public class RestService extends AbstractService<Request<RestServiceRequest>, Re
         operation.setId(req.getId());
         operation.setSentFrom(this.getName());
 
+        // the remaining time until the request's deadline becomes the HTTP client timeout.
+        Long deadline = this.getCurrentRequestDeadline();
+        if (deadline != null) {
+            operation.setTimeoutMillis(
+                    Math.max(1, RequestDeadlines.getRemainingMillis(deadline, System.currentTimeMillis())));
+        }
+
         // create a success handler to respond
         Consumer<Object> successHandler = (Object restResponseObject) -> {
             this.logDebugMessage(this.getClass().getSimpleName()
@@ -151,6 +166,38 @@ public class RestService extends AbstractService<Request<RestServiceRequest>, Re
     }
 
 
+    /**
+     * Requests sent via restServiceRequest() carry the deadline of the service request
+     * which made the call in their payload.
+     */
+    @Override
+    protected Long getRequestDeadline(Request<RestServiceRequest> req, Message message) {
+        Long deadline = super.getRequestDeadline(req, message);
+        if (req.getPayload() instanceof RestServiceRequest) {
+            Long payloadDeadline = ((RestServiceRequest) req.getPayload()).getDeadline();
+            if (payloadDeadline != null) {
+                deadline = deadline != null ? Math.min(deadline, payloadDeadline) : payloadDeadline;
+            }
+        }
+        return deadline;
+    }
+
+    /**
+     * Expired REST calls are answered with a RestError, like failed REST calls.
+     */
+    @Override
+    protected void handleExpiredRequest(Request<RestServiceRequest> req) {
+        this.logDebugMessage(this.getClass().getSimpleName()
+                + " dropping expired REST request", req.getId().toString());
+
+        RestError error = new RestError("REST request deadline expired before the call was made", 504);
+        Response response = new Response(req.getId(), error);
+        response.setError(true);
+        response.setErrorCode(error.errorCode);
+        response.setErrorMessage(error.message);
+        this.sendError(response, req.getId());
+    }
+
     private URI modifyURI(URI origUri) {
         if (getBaseHost() != null && getBaseHost().length() > 0) {
             String baseHost = getBaseHost();
@@ -222,64 +269,36 @@ public class RestService extends AbstractService<Request<RestServiceRequest>, Re
         if (headers.getContentType() == null) {
             headers.setContentType(mediaType);
         }
+
+        // the REST call continues the trace of the request which made it.
+        Span span = null;
+        if (TransportTracing.isEnabled()) {
+            span = TransportTracing.startSpan(
+                    "HTTP " + operation.getMethod(), SpanKind.CLIENT, TransportTracing.getCurrentContext());
+            span.setAttribute(TransportTracing.ATTR_HTTP_METHOD, String.valueOf(operation.getMethod()))
+                    .setAttribute(TransportTracing.ATTR_HTTP_URL, String.valueOf(operation.getUri()))
+                    .setAttribute(TransportTracing.ATTR_MESSAGE_ID, operation.getId());
+            headers.set(MessageHeaders.TRACEPARENT, span.getContext().toTraceparent());
+            if (span.getContext().getTraceState() != null) {
+                headers.set(MessageHeaders.TRACESTATE, span.getContext().getTraceState());
+            }
+        }
         entity = new HttpEntity<>(operation.getBody(), headers);
 
         // required because PATCH causes a freakout.
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        if (operation.getTimeoutMillis() > 0) {
+            int timeout = (int) Math.min(Integer.MAX_VALUE, operation.getTimeoutMillis());
+            requestFactory.setConnectionRequestTimeout(timeout);
+            requestFactory.setConnectTimeout(timeout);
+            requestFactory.setReadTimeout(timeout);
+        }
         RestTemplate restTemplate = new RestTemplate(requestFactory);
 
         try {
-            ResponseEntity resp;
-            switch (operation.getMethod()) {
-                case GET:
-                    resp = restTemplate.exchange(
-                            operation.getUri(),
-                            HttpMethod.GET,
-                            entity,
-                            Class.forName(operation.getApiClass())
-                    );
-                    operation.getSuccessHandler().accept(resp.getBody());
-                    break;
-
-                case POST:
-                    resp = restTemplate.exchange(
-                            operation.getUri(),
-                            HttpMethod.POST,
-                            entity,
-                            Class.forName(operation.getApiClass())
-                    );
-                    operation.getSuccessHandler().accept(resp.getBody());
-                    break;
-
-                case PUT:
-                    resp = restTemplate.exchange(
-                            operation.getUri(),
-                            HttpMethod.PUT,
-                            entity,
-                            Class.forName(operation.getApiClass())
-                    );
-                    operation.getSuccessHandler().accept(resp.getBody());
-                    break;
-
-                case PATCH:
-                    resp = restTemplate.exchange(
-                            operation.getUri(),
-                            HttpMethod.PATCH,
-                            entity,
-                            Class.forName(operation.getApiClass())
-                    );
-                    operation.getSuccessHandler().accept(resp.getBody());
-                    break;
-
-                case DELETE:
-                    resp = restTemplate.exchange(
-                            operation.getUri(),
-                            HttpMethod.DELETE,
-                            entity,
-                            Class.forName(operation.getApiClass())
-                    );
-                    operation.getSuccessHandler().accept(resp.getBody());
-                    break;
+            ResponseEntity resp = this.exchange(restTemplate, operation, entity, span);
+            if (resp != null) {
+                operation.getSuccessHandler().accept(resp.getBody());
             }
 
         } catch (RestClientResponseException exp) {
@@ -339,6 +358,91 @@ public class RestService extends AbstractService<Request<RestServiceRequest>, Re
 
     }
 
+    /**
+     * Make the REST call, record its duration if metrics are enabled, end the span
+     * of the call if tracing is enabled and commit its flight recorder event.
+     */
+    private ResponseEntity exchange(RestTemplate restTemplate, RestOperation operation, HttpEntity entity,
+                                    Span span) throws ClassNotFoundException {
+
+        TransportMetrics metrics = TransportMetricsHolder.get();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+        RestCallEvent event = new RestCallEvent();
+        event.begin();
+        int status = 0;
+        try {
+            ResponseEntity resp = null;
+            switch (operation.getMethod()) {
+                case GET:
+                    resp = restTemplate.exchange(
+                            operation.getUri(),
+                            HttpMethod.GET,
+                            entity,
+                            Class.forName(operation.getApiClass())
+                    );
+                    break;
+
+                case POST:
+                    resp = restTemplate.exchange(
+                            operation.getUri(),
+                            HttpMethod.POST,
+                            entity,
+                            Class.forName(operation.getApiClass())
+                    );
+                    break;
+
+                case PUT:
+                    resp = restTemplate.exchange(
+                            operation.getUri(),
+                            HttpMethod.PUT,
+                            entity,
+                            Class.forName(operation.getApiClass())
+                    );
+                    break;
+
+                case PATCH:
+                    resp = restTemplate.exchange(
+                            operation.getUri(),
+                            HttpMethod.PATCH,
+                            entity,
+                            Class.forName(operation.getApiClass())
+                    );
+                    break;
+
+                case DELETE:
+                    resp = restTemplate.exchange(
+                            operation.getUri(),
+                            HttpMethod.DELETE,
+                            entity,
+                            Class.forName(operation.getApiClass())
+                    );
+                    break;
+            }
+            if (resp != null) {
+                status = resp.getStatusCodeValue();
+            }
+            return resp;
+        } catch (RestClientResponseException exp) {
+            status = exp.getRawStatusCode();
+            throw exp;
+        } finally {
+            if (metrics.isEnabled() && operation.getMethod() != null) {
+                metrics.restCallCompleted(operation.getMethod().toString(), status, System.nanoTime() - start);
+            }
+            event.complete(this.serviceChannel, String.valueOf(operation.getMethod()),
+                    String.valueOf(operation.getUri()), status, operation.getApiClass());
+            if (span != null) {
+                if (status > 0) {
+                    span.setAttribute(TransportTracing.ATTR_HTTP_STATUS_CODE, status);
+                }
+                if (status == 0 || status >= 400) {
+                    span.setError(status > 0 ? "HTTP " + status : "REST call failed");
+                }
+                span.end();
+            }
+        }
+    }
+
     private URIMethodResult locateRestControllerForURIAndMethod(RestOperation operation) throws Exception {
 
         URIMethodResult result = uriMatcher.findControllerMatch(
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the finished spans in memory, intended for tests.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final List<Span> spans = new ArrayList<>();
+
+    @Override
+    public synchronized void export(Span span) {
+        spans.add(span);
+    }
+
+    /**
+     * Returns the finished spans in the order they ended.
+     */
+    public synchronized List<Span> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * Returns the finished spans with the given name.
+     */
+    public synchronized List<Span> getFinishedSpans(String name) {
+        List<Span> result = new ArrayList<>();
+        for (Span span : spans) {
+            if (span.getName().equals(name)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discard the finished spans.
+     */
+    public synchronized void reset() {
+        spans.clear();
+    }
+}
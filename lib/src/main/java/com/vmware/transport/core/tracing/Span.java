@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed operation within a trace, created with {@link TransportTracing#startSpan}.
+ * The span is exported when it ends, if its trace is sampled.
+ */
+public class Span {
+
+    private final String name;
+    private final SpanKind kind;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startTimeMillis;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+    private volatile long durationNanos = -1;
+    private volatile boolean error;
+    private volatile String errorMessage;
+
+    Span(String name, SpanKind kind, TraceContext context, String parentSpanId) {
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startTimeMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SpanKind getKind() {
+        return kind;
+    }
+
+    /**
+     * The context of this span, propagated to the operations it calls.
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    public String getTraceId() {
+        return context.getTraceId();
+    }
+
+    public String getSpanId() {
+        return context.getSpanId();
+    }
+
+    /**
+     * The id of the parent span, null for the first span of a trace.
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    /**
+     * The start of the span, in epoch milliseconds.
+     */
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    /**
+     * The duration of the span, -1 while the span has not ended.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isEnded() {
+        return durationNanos >= 0;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public synchronized Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    /**
+     * Set an attribute, null values are ignored.
+     */
+    public synchronized Span setAttribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed.
+     */
+    public Span setError(String message) {
+        this.error = true;
+        this.errorMessage = message;
+        return this;
+    }
+
+    /**
+     * End the span and export it, calls after the first one are ignored.
+     */
+    public void end() {
+        synchronized (this) {
+            if (isEnded()) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanos;
+        }
+        if (context.isSampled()) {
+            TransportTracing.export(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s [%s] %s", kind, name, context, attributes);
+    }
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+/**
+ * Receives the finished spans of sampled traces, see {@link TransportTracing#install(SpanExporter)}.
+ * Implementations can forward the spans to an OpenTelemetry SDK or any other tracing backend.
+ * Called on the thread which ended the span, implementations must be thread safe and should not block.
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+}
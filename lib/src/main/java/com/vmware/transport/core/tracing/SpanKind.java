@@ -0,0 +1,17 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+/**
+ * The role of a span, same values as the OpenTelemetry span kinds.
+ */
+public enum SpanKind {
+    INTERNAL,
+    SERVER,
+    CLIENT,
+    PRODUCER,
+    CONSUMER
+}
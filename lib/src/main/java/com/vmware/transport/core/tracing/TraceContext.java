@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identifies a span within a trace. Serialized as a W3C Trace Context traceparent header
+ * (version 00), so traces continue in OpenTelemetry instrumented services and clients.
+ */
+public class TraceContext {
+
+    private static final String VERSION = "00";
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+    private final String traceState;
+
+    public TraceContext(String traceId, String spanId, boolean sampled, String traceState) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+        this.traceState = traceState;
+    }
+
+    /**
+     * The 32 lowercase hex characters id of the trace.
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * The 16 lowercase hex characters id of the span.
+     */
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Returns true if the spans of the trace are exported.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * The vendor specific tracestate header, null if there is none.
+     */
+    public String getTraceState() {
+        return traceState;
+    }
+
+    /**
+     * Create the context of a child span in the same trace.
+     */
+    public TraceContext newChild() {
+        return new TraceContext(traceId, newSpanId(), sampled, traceState);
+    }
+
+    /**
+     * Create the context of the first span of a new, sampled trace.
+     */
+    public static TraceContext newRoot() {
+        return new TraceContext(newTraceId(), newSpanId(), true, null);
+    }
+
+    /**
+     * Returns the traceparent header value.
+     */
+    public String toTraceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    /**
+     * Parse a traceparent header, returns null if the value is missing or invalid.
+     *
+     * @param traceparent the traceparent header.
+     * @param traceState the tracestate header, can be null.
+     */
+    public static TraceContext fromTraceparent(String traceparent, String traceState) {
+        if (traceparent == null) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length < 4 || parts[0].length() != 2 || "ff".equals(parts[0])
+                || (VERSION.equals(parts[0]) && parts.length != 4)) {
+            return null;
+        }
+        String traceId = parts[1];
+        String spanId = parts[2];
+        String flags = parts[3];
+        if (!isHex(traceId, 32) || !isHex(spanId, 16) || !isHex(flags, 2)
+                || INVALID_TRACE_ID.equals(traceId) || INVALID_SPAN_ID.equals(spanId)) {
+            return null;
+        }
+        boolean sampled = (Integer.parseInt(flags, 16) & 1) == 1;
+        return new TraceContext(traceId, spanId, sampled, traceState);
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return toHex(random.nextLong()) + toHex(nonZero(random.nextLong()));
+    }
+
+    private static String newSpanId() {
+        return toHex(nonZero(ThreadLocalRandom.current().nextLong()));
+    }
+
+    private static long nonZero(long value) {
+        return value != 0 ? value : 1;
+    }
+
+    private static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : INVALID_SPAN_ID.substring(hex.length()) + hex;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+import com.vmware.transport.bus.model.MessageHeaders;
+
+import java.util.Map;
+
+/**
+ * Entry point of the distributed tracing support. Tracing is disabled until a {@link SpanExporter}
+ * is installed, then the trace context is carried in the W3C {@link MessageHeaders#TRACEPARENT} and
+ * {@link MessageHeaders#TRACESTATE} message headers across the bus, REST calls, galactic channels
+ * and the STOMP bridge, and spans are reported for service requests, REST calls and bridge sends.
+ */
+public class TransportTracing {
+
+    public static final String ATTR_CHANNEL = "transport.channel";
+    public static final String ATTR_REQUEST = "transport.request";
+    public static final String ATTR_MESSAGE_ID = "transport.message.id";
+    public static final String ATTR_SERVICE = "transport.service";
+    public static final String ATTR_HTTP_METHOD = "http.method";
+    public static final String ATTR_HTTP_URL = "http.url";
+    public static final String ATTR_HTTP_STATUS_CODE = "http.status_code";
+
+    private static volatile SpanExporter exporter;
+
+    private static final ThreadLocal<TraceContext> currentContext = new ThreadLocal<>();
+
+    private TransportTracing() {}
+
+    /**
+     * Enable tracing and export the finished spans to the given exporter.
+     */
+    public static void install(SpanExporter spanExporter) {
+        exporter = spanExporter;
+    }
+
+    /**
+     * Disable tracing.
+     */
+    public static void reset() {
+        exporter = null;
+        currentContext.remove();
+    }
+
+    public static boolean isEnabled() {
+        return exporter != null;
+    }
+
+    /**
+     * Returns the trace context of the operation running on the current thread, null if there is none.
+     */
+    public static TraceContext getCurrentContext() {
+        return currentContext.get();
+    }
+
+    /**
+     * Make the context current on this thread, returns the previous one so it can be restored
+     * once the operation completes.
+     */
+    public static TraceContext setCurrentContext(TraceContext context) {
+        TraceContext previous = currentContext.get();
+        if (context == null) {
+            currentContext.remove();
+        } else {
+            currentContext.set(context);
+        }
+        return previous;
+    }
+
+    /**
+     * Start a new span, a child of the parent context or the first span of a new trace
+     * if there is no parent. The span is not made current.
+     */
+    public static Span startSpan(String name, SpanKind kind, TraceContext parent) {
+        if (parent == null) {
+            return new Span(name, kind, TraceContext.newRoot(), null);
+        }
+        return new Span(name, kind, parent.newChild(), parent.getSpanId());
+    }
+
+    /**
+     * Read the trace context from the message headers, returns null if there is none.
+     */
+    public static TraceContext extract(MessageHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        Object traceparent = headers.getHeader(MessageHeaders.TRACEPARENT);
+        if (traceparent == null) {
+            return null;
+        }
+        Object traceState = headers.getHeader(MessageHeaders.TRACESTATE);
+        return TraceContext.fromTraceparent(
+              traceparent.toString(), traceState != null ? traceState.toString() : null);
+    }
+
+    /**
+     * Returns a copy of the headers which carries the trace context. The headers themselves
+     * are not changed, they are often shared between messages.
+     *
+     * @param headers the message headers, can be null.
+     */
+    public static MessageHeaders inject(MessageHeaders headers, TraceContext context) {
+        MessageHeaders result = MessageHeaders.newInstance();
+        if (headers != null) {
+            result.getHeadersMap().putAll(headers.getHeadersMap());
+        }
+        inject(result.getHeadersMap(), context);
+        return result;
+    }
+
+    /**
+     * Write the trace context to a map of headers, such as the HTTP headers of a REST call
+     * or the native headers of a STOMP message.
+     */
+    public static void inject(Map<String, ? super String> headers, TraceContext context) {
+        headers.put(MessageHeaders.TRACEPARENT, context.toTraceparent());
+        if (context.getTraceState() != null) {
+            headers.put(MessageHeaders.TRACESTATE, context.getTraceState());
+        }
+    }
+
+    static void export(Span span) {
+        SpanExporter spanExporter = exporter;
+        if (spanExporter != null) {
+            spanExporter.export(span);
+        }
+    }
+}
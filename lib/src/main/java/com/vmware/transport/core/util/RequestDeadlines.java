@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.util;
+
+import com.vmware.transport.bus.model.MessageHeaders;
+
+/**
+ * Helpers for the request deadline headers. Clients send the time they are willing to
+ * wait for a response in the {@link MessageHeaders#REQUEST_TIMEOUT} header, when the
+ * request enters the bus it is converted to an absolute {@link MessageHeaders#REQUEST_DEADLINE}
+ * so it can be checked wherever the request is queued or forwarded.
+ */
+public class RequestDeadlines {
+
+    private RequestDeadlines() {}
+
+    /**
+     * Returns the deadline of the request in epoch milliseconds, null if the request has no deadline.
+     */
+    public static Long getDeadline(MessageHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        return toMillis(headers.getHeader(MessageHeaders.REQUEST_DEADLINE));
+    }
+
+    /**
+     * Convert the timeout header into a deadline relative to the given time. Headers which
+     * already have a deadline are left unchanged.
+     *
+     * @return the deadline of the request or null if it has none.
+     */
+    public static Long resolveDeadline(MessageHeaders headers, long now) {
+        if (headers == null) {
+            return null;
+        }
+        Long deadline = getDeadline(headers);
+        if (deadline == null) {
+            Long timeout = toMillis(headers.getHeader(MessageHeaders.REQUEST_TIMEOUT));
+            if (timeout != null) {
+                deadline = now + timeout;
+                headers.setHeader(MessageHeaders.REQUEST_DEADLINE, deadline);
+            }
+        }
+        return deadline;
+    }
+
+    /**
+     * Returns true if the deadline is in the past, requests without deadline never expire.
+     */
+    public static boolean isExpired(Long deadline, long now) {
+        return deadline != null && deadline <= now;
+    }
+
+    /**
+     * Returns the milliseconds left until the deadline, 0 if it has already expired
+     * and Long.MAX_VALUE for requests without deadline.
+     */
+    public static long getRemainingMillis(Long deadline, long now) {
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadline - now);
+    }
+
+    private static Long toMillis(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
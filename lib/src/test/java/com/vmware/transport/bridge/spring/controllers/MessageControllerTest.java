@@ -13,6 +13,7 @@ import com.vmware.transport.broker.TestMessageBrokerConnector;
 import com.vmware.transport.bus.EventBus;
 import com.vmware.transport.bus.EventBusImpl;
 import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -20,6 +21,7 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 
 import java.security.Principal;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -107,6 +109,35 @@ public class MessageControllerTest {
         Assert.assertEquals(bridgeRequest.getSessionAttribute("attributeX"), "valueX");
     }
 
+    @Test
+    public void testBridgeMessageWithDeadline() throws Exception {
+        this.bus.listenRequestStream("channel", message -> {
+            this.message = message;
+            this.count++;
+        });
+
+        Request bridgeRequest = new Request(UUID.randomUUID(), "test", "request-payload");
+        LinkedHashMap<String, Object> requestHeaders = new LinkedHashMap<>();
+        requestHeaders.put(MessageHeaders.REQUEST_TIMEOUT, 5000);
+        bridgeRequest.setHeaders(requestHeaders);
+
+        long now = System.currentTimeMillis();
+        this.controller.bridgeMessage(bridgeRequest, "channel", null);
+        Assert.assertEquals(this.count, 1);
+        long deadline = (Long) this.message.getHeaders().getHeader(MessageHeaders.REQUEST_DEADLINE);
+        Assert.assertTrue(deadline >= now + 5000);
+
+        Request expiredRequest = new Request(UUID.randomUUID(), "test", "request-payload");
+        LinkedHashMap<String, Object> expiredHeaders = new LinkedHashMap<>();
+        expiredHeaders.put(MessageHeaders.REQUEST_DEADLINE, now - 1000);
+        expiredRequest.setHeaders(expiredHeaders);
+
+        this.controller.bridgeMessage(expiredRequest, "channel", null);
+        this.controller.bridgeQueueMessage(expiredRequest, "channel", new TestPrincipal(), null);
+        Assert.assertEquals(this.count, 1);
+        Assert.assertEquals(2, this.controller.getExpiredRequestCount());
+    }
+
     @Test
     public void testBridgeMessageToGalacticChannel() throws Exception {
         TestMessageBrokerConnector mbc1 = new TestMessageBrokerConnector("mbr1");
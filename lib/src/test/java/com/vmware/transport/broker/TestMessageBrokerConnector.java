@@ -7,6 +7,7 @@ package com.vmware.transport.broker;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 public class TestMessageBrokerConnector implements
       MessageBrokerConnector<TestGalacticChannelConfig, TestGalacticSubscription> {
@@ -16,9 +17,13 @@ public class TestMessageBrokerConnector implements
    public boolean connected = false;
 
    public Object lastSentMessage;
+   public UUID lastSentMessageId;
    public TestGalacticChannelConfig lastSentMessageChannel;
    public int messagesSent = 0;
 
+   public List<List<Object>> sentBatches = new ArrayList<>();
+   public int failingBatchSends = 0;
+
    public List<TestGalacticSubscription> subscriptions = new ArrayList<>();
 
    public TestMessageBrokerConnector(String id) {
@@ -53,6 +58,22 @@ public class TestMessageBrokerConnector implements
       return true;
    }
 
+   @Override
+   public boolean sendMessage(TestGalacticChannelConfig channelConfig, Object payload, UUID messageId) {
+      this.lastSentMessageId = messageId;
+      return sendMessage(channelConfig, payload);
+   }
+
+   @Override
+   public synchronized int sendMessages(TestGalacticChannelConfig channelConfig, List<Object> payloads) {
+      if (failingBatchSends > 0) {
+         failingBatchSends--;
+         throw new RuntimeException("failed-to-send-batch");
+      }
+      this.sentBatches.add(new ArrayList<>(payloads));
+      return MessageBrokerConnector.super.sendMessages(channelConfig, payloads);
+   }
+
    @Override
    public void connectMessageBroker() {
       this.connected = true;
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.broker.inmemory;
+
+import com.vmware.transport.broker.GalacticChannelBatching;
+import com.vmware.transport.bus.BusTransaction;
+import com.vmware.transport.bus.EventBus;
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.store.StoreManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class InMemoryMessageBrokerTest {
+
+    private InMemoryMessageBroker broker;
+    private EventBus nodeA;
+    private EventBus nodeB;
+
+    @Before
+    public void before() {
+        broker = InMemoryMessageBroker.newInstance();
+        nodeA = createNode("node-a");
+        nodeB = createNode("node-b");
+    }
+
+    @After
+    public void after() {
+        broker.close();
+    }
+
+    @Test
+    public void testDeliveryBetweenNodes() {
+        nodeA.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-a", "topic"));
+        nodeB.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-b", "topic"));
+
+        List<Object> received = new ArrayList<>();
+        BusTransaction listener1 = nodeB.listenStream("channel", message -> received.add(message.getPayload()));
+        BusTransaction listener2 = nodeB.listenStream("channel", message -> received.add(message.getPayload()));
+
+        // Both listeners of node B share a single broker subscription.
+        Assert.assertEquals(1, broker.getSubscriberCount("topic"));
+
+        nodeA.sendRequestMessage("channel", "hello");
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("hello", received.get(0));
+        Assert.assertEquals(1, broker.getPublishedCount());
+        Assert.assertEquals(1, broker.getDeliveredCount());
+
+        listener1.unsubscribe();
+        Assert.assertEquals(1, broker.getSubscriberCount("topic"));
+        listener2.unsubscribe();
+        Assert.assertEquals(0, broker.getSubscriberCount("topic"));
+    }
+
+    @Test
+    public void testLocalLoopback() {
+        InMemoryGalacticChannelConfig config = new InMemoryGalacticChannelConfig("node-a", "topic");
+        config.setLocalLoopback(true);
+        nodeA.markChannelAsGalactic("channel", config);
+        nodeB.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-b", "topic"));
+
+        List<Object> receivedA = new ArrayList<>();
+        List<Object> receivedB = new ArrayList<>();
+        nodeA.listenStream("channel", message -> receivedA.add(message.getPayload()));
+        nodeB.listenStream("channel", message -> receivedB.add(message.getPayload()));
+
+        nodeA.sendRequestMessage("channel", "from-a");
+        nodeB.sendRequestMessage("channel", "from-b");
+
+        // The echo of node A's own message is dropped.
+        Assert.assertEquals(2, receivedA.size());
+        Assert.assertTrue(receivedA.contains("from-a"));
+        Assert.assertTrue(receivedA.contains("from-b"));
+        Assert.assertEquals(2, receivedB.size());
+    }
+
+    @Test
+    public void testLossAndDisconnect() {
+        nodeA.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-a", "topic"));
+        nodeB.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-b", "topic"));
+
+        List<Object> received = new ArrayList<>();
+        nodeB.listenStream("channel", message -> received.add(message.getPayload()));
+
+        broker.setLossRate(1);
+        nodeA.sendRequestMessage("channel", "lost");
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(1, broker.getLostCount());
+
+        broker.setLossRate(0);
+        nodeB.unregisterMessageBroker("node-b");
+        nodeA.sendRequestMessage("channel", "not-delivered");
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(2, broker.getPublishedCount());
+        Assert.assertEquals(0, broker.getDeliveredCount());
+    }
+
+    @Test
+    public void testBatchedThroughputWithLatency() throws Exception {
+        broker.setLatencyMillis(1);
+
+        InMemoryGalacticChannelConfig config = new InMemoryGalacticChannelConfig("node-a", "topic");
+        config.setBatching(GalacticChannelBatching.newInstance().setMaxBatchSize(64).setLingerMillis(2).setQueueCapacity(20000));
+        nodeA.markChannelAsGalactic("channel", config);
+        nodeB.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-b", "topic"));
+
+        int senders = 4;
+        int messagesPerSender = 2500;
+        CountDownLatch received = new CountDownLatch(senders * messagesPerSender);
+        List<Object> payloads = Collections.synchronizedList(new ArrayList<>());
+        nodeB.listenStream("channel", message -> {
+            payloads.add(message.getPayload());
+            received.countDown();
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < senders; i++) {
+            int sender = i;
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < messagesPerSender; j++) {
+                    nodeA.sendRequestMessage("channel", sender + ":" + j);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(senders * messagesPerSender, broker.getDeliveredCount());
+
+        // Messages of every sender arrive in order.
+        int[] next = new int[senders];
+        for (Object payload : payloads) {
+            String[] parts = ((String) payload).split(":");
+            int sender = Integer.parseInt(parts[0]);
+            Assert.assertEquals(next[sender]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    private EventBus createNode(String nodeId) {
+        EventBusImpl bus = new EventBusImpl();
+        bus.setStoreManager(new StoreManager(bus));
+        bus.registerMessageBroker(broker.createConnector(nodeId));
+        return bus;
+    }
+}
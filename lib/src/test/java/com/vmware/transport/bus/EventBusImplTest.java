@@ -5,16 +5,20 @@
  */
 package com.vmware.transport.bus;
 
+import com.vmware.transport.broker.GalacticChannelBatching;
 import com.vmware.transport.broker.TestGalacticChannelConfig;
 import com.vmware.transport.broker.TestMessageBrokerConnector;
 import com.vmware.transport.bus.model.Channel;
+import com.vmware.transport.bus.model.ChannelLatencyStatistics;
 import com.vmware.transport.bus.model.Message;
 import com.vmware.transport.bus.model.MessageHeaders;
 import com.vmware.transport.bus.model.MessageObject;
 import com.vmware.transport.bus.model.MessageObjectHandlerConfig;
 import com.vmware.transport.bus.model.MessageType;
 import com.vmware.transport.bus.model.MonitorObject;
+import com.vmware.transport.bus.model.MonitorSamplingConfig;
 import com.vmware.transport.bus.model.MonitorType;
+import com.vmware.transport.bus.model.SlowHandlerReport;
 import com.vmware.transport.bus.model.SystemChannels;
 import com.vmware.transport.bus.store.BusStoreApi;
 import com.vmware.transport.bus.store.StoreManager;
@@ -26,8 +30,15 @@ import org.junit.Test;
 import io.reactivex.Observable;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.core.AnyOf.anyOf;
@@ -2043,4 +2054,293 @@ public class EventBusImplTest {
 
         Assert.assertFalse(bus.markChannelAsLocal("invalid-channel"));
     }
+
+    @Test
+    public void testMarkChannelAsGalacticWithBatching() throws Exception {
+
+        TestMessageBrokerConnector mbc1 = new TestMessageBrokerConnector("mbr1");
+        TestGalacticChannelConfig gcc1 =
+              new TestGalacticChannelConfig(mbc1.getMessageBrokerId(), "remote-channel-1");
+        gcc1.setBatching(GalacticChannelBatching.newInstance()
+              .setMaxBatchSize(3)
+              .setLingerMillis(50)
+              .setQueueCapacity(10)
+              .setRetries(1, 10));
+
+        bus.registerMessageBroker(mbc1);
+        bus.markChannelAsGalactic("channel1", gcc1);
+
+        List<MonitorObject> dropped = Collections.synchronizedList(new ArrayList<>());
+        this.bus.getApi().getMonitor().subscribe(message -> {
+            MonitorObject mo = (MonitorObject) message.getPayload();
+            if (mo.getType() == MonitorType.MonitorDropped) {
+                dropped.add(mo);
+            }
+        });
+
+        // Full batches are sent right away, the last one after the linger time.
+        for (int i = 0; i < 7; i++) {
+            bus.sendRequestMessage("channel1", "message-" + i);
+        }
+        waitFor(() -> mbc1.messagesSent == 7);
+        Assert.assertEquals(3, mbc1.sentBatches.size());
+        Assert.assertEquals(Arrays.asList("message-0", "message-1", "message-2"), mbc1.sentBatches.get(0));
+        Assert.assertEquals(Arrays.asList("message-6"), mbc1.sentBatches.get(2));
+        Assert.assertEquals("message-6", mbc1.lastSentMessage);
+
+        // A failed batch is retried.
+        mbc1.failingBatchSends = 1;
+        bus.sendRequestMessage("channel1", "retried-message");
+        waitFor(() -> mbc1.messagesSent == 8);
+        Assert.assertEquals("retried-message", mbc1.lastSentMessage);
+        Assert.assertTrue(dropped.isEmpty());
+
+        // The messages of a batch are dropped once it runs out of retries.
+        mbc1.failingBatchSends = 2;
+        bus.sendRequestMessage("channel1", "dropped-message");
+        waitFor(() -> dropped.size() == 1);
+        Assert.assertEquals(8, mbc1.messagesSent);
+        Assert.assertEquals("channel1", dropped.get(0).getChannel());
+        Assert.assertEquals("dropped-message", ((Message) dropped.get(0).getData()).getPayload());
+
+        // Queued messages are sent when the channel is marked as local.
+        bus.sendRequestMessage("channel1", "last-message");
+        Assert.assertTrue(bus.markChannelAsLocal("channel1"));
+        waitFor(() -> mbc1.messagesSent == 9);
+        Assert.assertEquals("last-message", mbc1.lastSentMessage);
+    }
+
+    @Test
+    public void testMarkChannelAsGalacticWithLocalLoopback() {
+
+        TestMessageBrokerConnector mbc1 = new TestMessageBrokerConnector("mbr1");
+        TestGalacticChannelConfig gcc1 =
+              new TestGalacticChannelConfig(mbc1.getMessageBrokerId(), "remote-channel-1");
+        gcc1.setLocalLoopback(true);
+
+        bus.registerMessageBroker(mbc1);
+        bus.markChannelAsGalactic("channel1", gcc1);
+
+        List<Object> received = new ArrayList<>();
+        List<UUID> receivedIds = new ArrayList<>();
+        bus.listenStream("channel1", response -> {
+            received.add(response.getPayload());
+            receivedIds.add(response.getId());
+        });
+
+        // The message is delivered locally and still published to the broker.
+        UUID id = UUID.randomUUID();
+        bus.sendRequestMessageWithId("channel1", "local-message", id);
+        Assert.assertEquals(Arrays.asList("local-message"), received);
+        Assert.assertEquals(1, mbc1.messagesSent);
+        Assert.assertEquals(id, mbc1.lastSentMessageId);
+
+        // The echo from the broker is dropped, only once.
+        mbc1.subscriptions.get(0).callback.onMessage("local-message", id);
+        Assert.assertEquals(1, received.size());
+        mbc1.subscriptions.get(0).callback.onMessage("local-message", id);
+        Assert.assertEquals(2, received.size());
+
+        // Messages from remote peers are delivered.
+        mbc1.subscriptions.get(0).callback.onMessage("remote-message", UUID.randomUUID());
+        mbc1.subscriptions.get(0).callback.onMessage("remote-message-2");
+        Assert.assertEquals(Arrays.asList("local-message", "local-message", "remote-message", "remote-message-2"),
+              received);
+
+        // Messages sent without id get one, used for the local delivery and the broker.
+        bus.sendRequestMessage("channel1", "message-without-id");
+        Assert.assertEquals(5, received.size());
+        Assert.assertNotNull(mbc1.lastSentMessageId);
+        Assert.assertEquals(mbc1.lastSentMessageId, receivedIds.get(4));
+        mbc1.subscriptions.get(0).callback.onMessage("message-without-id", mbc1.lastSentMessageId);
+        Assert.assertEquals(5, received.size());
+    }
+
+    @Test
+    public void testChannelLatencyTracking() {
+        Assert.assertFalse(bus.getApi().isLatencyTrackingEnabled());
+        Assert.assertNull(bus.getApi().getChannelLatencyStatistics("service"));
+
+        // use a long interval, the test completes the interval itself.
+        bus.getApi().enableLatencyTracking(60000);
+        Assert.assertTrue(bus.getApi().isLatencyTrackingEnabled());
+
+        bus.listenRequestStream("service", message ->
+              bus.sendResponseMessageWithId("service", "response", message.getId()));
+        List<List<ChannelLatencyStatistics>> published = new ArrayList<>();
+        bus.listenStream(SystemChannels.CHANNEL_LATENCY,
+              message -> published.add((List<ChannelLatencyStatistics>) message.getPayload()));
+
+        for (int i = 0; i < 10; i++) {
+            bus.sendRequestMessageWithId("service", "request", UUID.randomUUID());
+        }
+        // requests without id and unknown responses are ignored.
+        bus.sendRequestMessage("service", "request");
+        bus.sendResponseMessageWithId("service", "response", UUID.randomUUID());
+
+        ((EventBusLowApiImpl) bus.getApi()).getLatencyTracker().publishStatistics();
+
+        ChannelLatencyStatistics statistics = bus.getApi().getChannelLatencyStatistics("service");
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(10, statistics.count);
+        Assert.assertEquals(10, statistics.totalCount);
+        Assert.assertTrue(statistics.p99Micros <= statistics.maxMicros);
+        Assert.assertEquals(1, bus.getApi().getChannelLatencyStatistics().size());
+        Assert.assertEquals(1, published.size());
+        Assert.assertEquals("service", published.get(0).get(0).channel);
+
+        bus.sendRequestMessageWithId("service", "request", UUID.randomUUID());
+        ((EventBusLowApiImpl) bus.getApi()).getLatencyTracker().publishStatistics();
+        statistics = bus.getApi().getChannelLatencyStatistics("service");
+        Assert.assertEquals(1, statistics.count);
+        Assert.assertEquals(11, statistics.totalCount);
+
+        bus.getApi().disableLatencyTracking();
+        Assert.assertFalse(bus.getApi().isLatencyTrackingEnabled());
+        Assert.assertTrue(bus.getApi().getChannelLatencyStatistics().isEmpty());
+    }
+
+    @Test
+    public void testChannelLatencyPendingRequests() {
+        ChannelLatencyTracker.PendingRequests pendingRequests = new ChannelLatencyTracker.PendingRequests(1);
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+
+        pendingRequests.put(id1, 100);
+        Assert.assertEquals(0, pendingRequests.take(id2));
+        Assert.assertEquals(100, pendingRequests.take(id1));
+        Assert.assertEquals(0, pendingRequests.take(id1));
+
+        // a single slot, the second request replaces the first one.
+        pendingRequests.put(id1, 100);
+        pendingRequests.put(id2, 200);
+        Assert.assertEquals(0, pendingRequests.take(id1));
+        Assert.assertEquals(200, pendingRequests.take(id2));
+        Assert.assertEquals(1, pendingRequests.overwrittenCount.sum());
+    }
+
+    @Test
+    public void testSlowHandlerDetection() throws Exception {
+        List<SlowHandlerReport> reports = Collections.synchronizedList(new ArrayList<>());
+        this.bus.getApi().getMonitor().subscribe(message -> {
+            MonitorObject mo = (MonitorObject) message.getPayload();
+            if (mo.getType() == MonitorType.MonitorSlowHandler) {
+                reports.add((SlowHandlerReport) mo.getData());
+            }
+        });
+        Assert.assertFalse(this.bus.getApi().isSlowHandlerDetectionEnabled());
+        this.bus.getApi().enableSlowHandlerDetection(20);
+        Assert.assertTrue(this.bus.getApi().isSlowHandlerDetectionEnabled());
+
+        CountDownLatch release = new CountDownLatch(1);
+        this.bus.listenRequestStream("slow-channel", message -> release.await(5, TimeUnit.SECONDS));
+        this.bus.listenRequestStream("fast-channel", message -> {});
+        this.bus.respondStream("slow-responder", message -> {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(40);
+            while (System.nanoTime() < end) {
+                LockSupport.parkNanos(end - System.nanoTime());
+            }
+            return "done";
+        });
+
+        this.bus.sendRequestMessage("fast-channel", "fast");
+
+        // the stuck handler is reported while it is still running, with a stack sample of its thread.
+        Thread sender = new Thread(() -> this.bus.sendRequestMessage("slow-channel", "slow"));
+        sender.start();
+        waitFor(() -> !reports.isEmpty());
+        SlowHandlerReport report = reports.get(0);
+        Assert.assertEquals("slow-channel", report.channel);
+        Assert.assertEquals(sender.getId(), report.threadId);
+        Assert.assertFalse(report.completed);
+        Assert.assertTrue(report.durationMillis >= 20);
+        Assert.assertTrue(report.stackTrace.length > 0);
+
+        release.countDown();
+        sender.join();
+        Assert.assertEquals(1, reports.size());
+
+        this.bus.sendRequestMessage("slow-responder", "request");
+        waitFor(() -> reports.size() == 2);
+        Assert.assertEquals("slow-responder", reports.get(1).channel);
+
+        this.bus.getApi().disableSlowHandlerDetection();
+        Assert.assertFalse(this.bus.getApi().isSlowHandlerDetectionEnabled());
+        this.bus.sendRequestMessage("slow-responder", "request");
+        Assert.assertEquals(2, reports.size());
+    }
+
+    @Test
+    public void testMonitorSampling() throws Exception {
+        List<MonitorObject> events = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        this.bus.getApi().getSampledMonitor().subscribe(mo -> {
+            events.add(mo);
+            threads.add(Thread.currentThread().getName());
+        });
+
+        this.bus.listenStream("sampled::orders", message -> {});
+        this.bus.listenStream("sampled::noise", message -> {});
+        this.bus.sendResponseMessage("sampled::orders", "not sampled");
+        Assert.assertFalse(this.bus.getApi().isMonitorSamplingEnabled());
+
+        this.bus.getApi().enableMonitorSampling(MonitorSamplingConfig.newInstance()
+              .sampleChannels("sampled::n?ise", 0)
+              .sampleChannels("sampled::*", 1)
+              .setDefaultSampleRate(0)
+              .setTypes(MonitorType.MonitorData));
+        Assert.assertTrue(this.bus.getApi().isMonitorSamplingEnabled());
+
+        for (int i = 0; i < 10; i++) {
+            this.bus.sendResponseMessage("sampled::orders", "order-" + i);
+            this.bus.sendResponseMessage("sampled::noise", "noise-" + i);
+        }
+        this.bus.listenStream("other", message -> {});
+        this.bus.sendResponseMessage("other", "other");
+
+        waitFor(() -> events.size() == 10);
+        for (MonitorObject mo : events) {
+            Assert.assertEquals(MonitorType.MonitorData, mo.getType());
+            Assert.assertEquals("sampled::orders", mo.getChannel());
+            // payloads are not captured by default.
+            Assert.assertFalse(mo.hasData());
+        }
+        Assert.assertEquals("monitor-sampler", threads.get(0));
+
+        this.bus.getApi().enableMonitorSampling(MonitorSamplingConfig.newInstance().setCapturePayload(true));
+        this.bus.sendResponseMessage("sampled::orders", "captured");
+        waitFor(() -> events.size() > 10);
+        MonitorObject captured = events.get(events.size() - 1);
+        Assert.assertEquals("captured", ((Message) captured.getData()).getPayload());
+
+        this.bus.getApi().disableMonitorSampling();
+        Assert.assertFalse(this.bus.getApi().isMonitorSamplingEnabled());
+    }
+
+    @Test
+    public void testMonitorSamplingDoesNotBlockSenders() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        this.bus.getApi().getSampledMonitor().subscribe(mo -> release.await(5, TimeUnit.SECONDS));
+        this.bus.getApi().enableMonitorSampling(MonitorSamplingConfig.newInstance()
+              .setTypes(MonitorType.MonitorData)
+              .setBufferSize(5));
+
+        this.bus.listenStream("busy-channel", message -> {});
+        for (int i = 0; i < 100; i++) {
+            this.bus.sendResponseMessage("busy-channel", i);
+        }
+        EventBusLowApiImpl api = (EventBusLowApiImpl) this.bus.getApi();
+        Assert.assertTrue(api.getMonitorSampler().getDroppedCount() >= 94);
+
+        release.countDown();
+        this.bus.getApi().disableMonitorSampling();
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
 }
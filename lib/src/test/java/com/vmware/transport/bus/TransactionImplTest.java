@@ -14,9 +14,14 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class TransactionImplTest {
 
@@ -335,6 +340,218 @@ public class TransactionImplTest {
         Assert.assertEquals(this.counter, 2);
     }
 
+    @Test
+    public void testCommitAsync() throws Exception {
+        Transaction transaction = initTransaction(Transaction.TransactionType.ASYNC);
+
+        transaction.sendRequest(this.channel, "request1");
+        transaction.sendRequest(this.channel, "request2");
+
+        CompletableFuture<Message[]> future = transaction.commitAsync();
+        Assert.assertFalse(future.isDone());
+
+        this.bus.sendResponseMessageWithId(channel, "response2", this.requestMessages.get(1).getId());
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+
+        Message[] result = future.get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(result.length, 2);
+        Assert.assertEquals(result[0].getPayload(), "response1");
+        Assert.assertEquals(result[1].getPayload(), "response2");
+    }
+
+    @Test
+    public void testCommitAsyncWithError() throws Exception {
+        Transaction transaction = initTransaction(Transaction.TransactionType.ASYNC);
+        transaction.sendRequest(this.channel, "request1");
+
+        CompletableFuture<Message[]> future = transaction.commitAsync();
+        this.bus.sendErrorMessageWithId(channel, "response1-error", this.requestMessages.get(0).getId());
+
+        Exception futureException = null;
+        try {
+            future.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            futureException = ex;
+        }
+        Assert.assertNotNull(futureException);
+        Assert.assertTrue(futureException.getCause() instanceof TransactionException);
+        Assert.assertEquals(
+              ((TransactionException) futureException.getCause()).getErrorMessage().getPayload(), "response1-error");
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        Transaction transaction = initTransaction(Transaction.TransactionType.ASYNC);
+        transaction.setRequestTimeout(50, TimeUnit.MILLISECONDS);
+
+        transaction.sendRequest(this.channel, "request1");
+        transaction.sendRequest(this.channel, "request2");
+
+        CompletableFuture<Message[]> future = transaction.commitAsync();
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+
+        Exception futureException = null;
+        try {
+            future.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            futureException = ex;
+        }
+        Assert.assertNotNull(futureException);
+        Assert.assertNotNull(this.errorMsg);
+        Assert.assertNull(this.responses);
+
+        // Verify that the handler of the timed out request was released.
+        Assert.assertEquals(this.bus.getApi().getChannelMap().get(channel).getRefCount().intValue(), 1);
+
+        // Late responses are ignored.
+        this.bus.sendResponseMessageWithId(channel, "response2", this.requestMessages.get(1).getId());
+        Assert.assertNull(this.responses);
+    }
+
+    @Test
+    public void testTransactionTimeout() {
+        Transaction transaction = initTransaction(Transaction.TransactionType.SYNC);
+        transaction.setTimeout(50, TimeUnit.MILLISECONDS);
+
+        transaction.sendRequest(this.channel, "request1");
+        transaction.waitForStoreReady("testStore");
+
+        TransactionReceipt receipt = transaction.commit();
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!receipt.isAborted() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        Assert.assertTrue(receipt.isAborted());
+        Assert.assertTrue(receipt.isTimedOut());
+        Assert.assertEquals(receipt.getRequestsCompleted(), 1);
+
+        this.storeManager.getStore("testStore").initialize();
+        Assert.assertFalse(receipt.isComplete());
+    }
+
+    @Test
+    public void testMaxParallelRequests() {
+        Transaction transaction = initTransaction(Transaction.TransactionType.ASYNC);
+        transaction.setMaxParallelRequests(2);
+
+        transaction.sendRequest(this.channel, "request1");
+        transaction.sendRequest(this.channel, "request2");
+        transaction.sendRequest(this.channel, "request3");
+
+        TransactionReceipt receipt = transaction.commit();
+        Assert.assertEquals(this.requestMessages.size(), 2);
+        Assert.assertEquals(receipt.getRequestsSent(), 2);
+
+        this.bus.sendResponseMessageWithId(channel, "response2", this.requestMessages.get(1).getId());
+        Assert.assertEquals(this.requestMessages.size(), 3);
+        Assert.assertEquals(this.requestMessages.get(2).getPayload(), "request3");
+
+        this.bus.sendResponseMessageWithId(channel, "response3", this.requestMessages.get(2).getId());
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+        verifyTransactionCompleted(receipt, "response1", "response2", "response3");
+    }
+
+    @Test
+    public void testDagTransaction() {
+        Transaction transaction = initTransaction(Transaction.TransactionType.DAG);
+
+        transaction.sendRequest(this.channel, "request1");
+        int request2 = transaction.sendRequest(this.channel, (Message[] msgs) -> "request2");
+        transaction.waitForStoreReady("testStore");
+        int request4 = transaction.sendRequest(this.channel,
+              (Message[] msgs) -> msgs[0].getPayload() + "+" + msgs[1].getPayload(), 0, request2);
+        transaction.sendRequest(this.channel,
+              (Message[] msgs) -> "request5:" + msgs[0].getPayload(), request4);
+
+        TransactionReceipt receipt = transaction.commit();
+
+        // Independent requests are sent at once.
+        Assert.assertEquals(this.requestMessages.size(), 2);
+        Assert.assertEquals(receipt.getRequestsSent(), 3);
+
+        this.bus.sendResponseMessageWithId(channel, "response2", this.requestMessages.get(1).getId());
+        Assert.assertEquals(this.requestMessages.size(), 2);
+
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+        Assert.assertEquals(this.requestMessages.size(), 3);
+        Assert.assertEquals(this.requestMessages.get(2).getPayload(), "response1+response2");
+        verifyTransactionInProgress(receipt, 2);
+
+        this.bus.sendResponseMessageWithId(channel, "response4", this.requestMessages.get(2).getId());
+        Assert.assertEquals(this.requestMessages.get(3).getPayload(), "request5:response4");
+
+        this.bus.sendResponseMessageWithId(channel, "response5", this.requestMessages.get(3).getId());
+        this.storeManager.getStore("testStore").initialize();
+
+        verifyTransactionCompleted(receipt, "response1", "response2",
+              this.storeManager.getStore("testStore"), "response4", "response5");
+        Assert.assertEquals(receipt.getCriticalPath(), Collections.singletonList(2));
+
+        // Verify that there is only one channel reference (the one from the listenRequestStream).
+        Assert.assertEquals(this.bus.getApi().getChannelMap().get(channel).getRefCount().intValue(), 1);
+    }
+
+    @Test
+    public void testDagTransactionCriticalPath() {
+        Transaction transaction = initTransaction(Transaction.TransactionType.DAG);
+
+        transaction.sendRequest(this.channel, "request1");
+        transaction.sendRequest(this.channel, "request2");
+        transaction.sendRequest(this.channel, (Message[] msgs) -> "request3", 0, 1);
+
+        TransactionReceipt receipt = transaction.commit();
+        Assert.assertTrue(receipt.getCriticalPath().isEmpty());
+
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+        this.bus.sendResponseMessageWithId(channel, "response2", this.requestMessages.get(1).getId());
+        this.bus.sendResponseMessageWithId(channel, "response3", this.requestMessages.get(2).getId());
+
+        verifyTransactionCompleted(receipt, "response1", "response2", "response3");
+        Assert.assertEquals(receipt.getCriticalPath(), Arrays.asList(1, 2));
+    }
+
+    @Test
+    public void testDagTransactionPayloadFunctionError() {
+        Transaction transaction = initTransaction(Transaction.TransactionType.DAG);
+
+        transaction.sendRequest(this.channel, "request1");
+        transaction.sendRequest(this.channel, (Message[] msgs) -> {
+            throw new Exception("Test Exception");
+        }, 0);
+
+        TransactionReceipt receipt = transaction.commit();
+        this.bus.sendResponseMessageWithId(channel, "response1", this.requestMessages.get(0).getId());
+
+        Assert.assertTrue(receipt.isAborted());
+        Assert.assertTrue(this.errorMsg.getPayload().toString().contains("Test Exception"));
+        Assert.assertEquals(this.requestMessages.size(), 1);
+    }
+
+    @Test
+    public void testInvalidDagDependencies() {
+        Transaction transaction = initTransaction(Transaction.TransactionType.DAG);
+        transaction.sendRequest(this.channel, "request1");
+
+        Exception lastEx = null;
+        try {
+            transaction.sendRequest(this.channel, (Message[] msgs) -> "request2", 1);
+        } catch (IllegalArgumentException ex) {
+            lastEx = ex;
+        }
+        Assert.assertNotNull(lastEx);
+
+        lastEx = null;
+        try {
+            initTransaction(Transaction.TransactionType.ASYNC)
+                  .sendRequest(this.channel, (Message[] msgs) -> "request2", 0);
+        } catch (IllegalStateException ex) {
+            lastEx = ex;
+        }
+        Assert.assertNotNull(lastEx);
+    }
+
     private Transaction initTransaction(Transaction.TransactionType type) {
         Transaction transaction = bus.createTransaction(type, "test-transaction");
         transaction.onComplete( (Message[] msgs) -> this.responses = msgs );
@@ -19,6 +19,7 @@ import com.vmware.transport.bus.store.model.OpenStoreRequest;
 import com.vmware.transport.bus.store.model.StoreContent;
 import com.vmware.transport.bus.store.model.StoreContentResponse;
 import com.vmware.transport.bus.store.model.TestStoreItem;
+import com.vmware.transport.bus.store.model.UpdateStoreBatchResponse;
 import com.vmware.transport.bus.store.model.UpdateStoreRequest;
 import com.vmware.transport.bus.store.model.UpdateStoreResponse;
 import org.junit.Assert;
@@ -31,6 +32,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -196,6 +198,45 @@ public class GalacticStoreServiceTest {
         Assert.assertEquals(channel2Responses.size(), 3);
     }
 
+    @Test
+    public void testStoreBackendBatchUpdate() {
+        String syncChannel1 = addNewGalacticStoreSyncChannel();
+        List<Object> channel1Responses = new ArrayList<>();
+        List<BusStoreError> channe1Errors = new ArrayList<>();
+        listenSyncChannel(syncChannel1, channel1Responses, channe1Errors);
+
+        sendOpenStoreRequest(syncChannel1, "store2");
+
+        BusStore<String, String> store2 = storeManager.getStore("store2");
+        Map<String, String> items = new HashMap<>();
+        items.put("item3", "bronze");
+        items.put("item4", "copper");
+        store2.putAll(items, "update");
+
+        Assert.assertEquals(channel1Responses.size(), 2);
+        Assert.assertTrue(channel1Responses.get(1) instanceof UpdateStoreBatchResponse);
+        UpdateStoreBatchResponse batchResponse = (UpdateStoreBatchResponse) channel1Responses.get(1);
+        Assert.assertEquals(batchResponse.storeId, "store2");
+        Assert.assertEquals(batchResponse.responseType, "updateStoreBatchResponse");
+        Assert.assertEquals(batchResponse.storeVersion, 2);
+        Assert.assertEquals(batchResponse.updates.size(), 2);
+        for (UpdateStoreResponse update : batchResponse.updates) {
+            validateStoreUpdateResponse(update, "store2", update.itemId, items.get(update.itemId), 2);
+        }
+
+        store2.removeAll(Arrays.asList("item1", "item2"), "remove");
+        Assert.assertEquals(channel1Responses.size(), 3);
+        batchResponse = (UpdateStoreBatchResponse) channel1Responses.get(2);
+        Assert.assertEquals(batchResponse.storeVersion, 3);
+        validateStoreUpdateResponse(batchResponse.updates.get(0), "store2", "item1", null, 3);
+        validateStoreUpdateResponse(batchResponse.updates.get(1), "store2", "item2", null, 3);
+
+        // Batches with a single change are sent as regular update responses.
+        store2.removeAll(Arrays.asList("item3"), "remove");
+        Assert.assertEquals(channel1Responses.size(), 4);
+        validateStoreUpdateResponse(channel1Responses.get(3), "store2", "item3", null, 4);
+    }
+
     @Test
     public void testStoreUpdateRequest() {
         String syncChannel1 = addNewGalacticStoreSyncChannel();
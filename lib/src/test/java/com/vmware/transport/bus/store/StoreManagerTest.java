@@ -58,9 +58,13 @@ public class StoreManagerTest {
       testStore.getBusStoreInitializer()
             .add(storeItem.uuid, storeItem)
             .done();
+      testStore.setMutationLanes(2);
 
       Assert.assertTrue(storeManager.destroyStore("testStore"));
 
+      // verify that the mutation lanes are stopped
+      Assert.assertTrue(testStore.getMutationLaneStatistics().isEmpty());
+
       // verify that testStore content is not deleted
       Assert.assertTrue(testStore.allValues().contains(storeItem));
 
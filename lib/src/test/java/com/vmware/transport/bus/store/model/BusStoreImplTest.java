@@ -6,6 +6,7 @@
  */
 package com.vmware.transport.bus.store.model;
 
+import com.vmware.transport.bus.BusTransaction;
 import com.vmware.transport.bus.EventBus;
 import com.vmware.transport.bus.EventBusImpl;
 import io.reactivex.functions.BiConsumer;
@@ -14,10 +15,19 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BusStoreImplTest {
 
@@ -246,6 +256,43 @@ public class BusStoreImplTest {
    }
 
 
+   @Test
+   public void testOnChangeDoesNotCreateBusChannels() {
+      store.getBusStoreInitializer()
+            .add(item1.uuid, item1)
+            .add(item2.uuid, item2)
+            .done();
+
+      int channelCount = eventBus.getApi().getChannelMap().size();
+
+      StoreStream<TestStoreItem> item1Stream = store.onChange(item1.uuid);
+      item1Stream.subscribe(testStoreItem -> {
+         allStoreEvents++;
+      });
+
+      store.put(item1.uuid, item1, TestStoreItemState.ITEM_UPDATED);
+      store.put(item3.uuid, item3, TestStoreItemState.ITEM_ADDED);
+      store.remove(item2.uuid, TestStoreItemState.ITEM_REMOVED);
+      store.remove(item3.uuid, TestStoreItemState.ITEM_REMOVED);
+
+      Assert.assertEquals(allStoreEvents, 1);
+      Assert.assertEquals(eventBus.getApi().getChannelMap().size(), channelCount);
+
+      item1Stream.unsubscribe();
+      store.put(item1.uuid, item1, TestStoreItemState.ITEM_UPDATED);
+      Assert.assertEquals(allStoreEvents, 1);
+
+      // Verify that object listeners are completed when the object is removed
+      // and don't receive changes for re-added objects.
+      store.onChange(item1.uuid).subscribe(testStoreItem -> {
+         storeRemoveEvents++;
+      });
+      store.remove(item1.uuid, TestStoreItemState.ITEM_REMOVED);
+      store.put(item1.uuid, item1, TestStoreItemState.ITEM_ADDED);
+      Assert.assertEquals(storeRemoveEvents, 1);
+      Assert.assertEquals(eventBus.getApi().getChannelMap().size(), channelCount);
+   }
+
    @Test
    public void testOnChangeWithStoreStateChangeConsumer() {
       store.getBusStoreInitializer()
@@ -466,6 +513,13 @@ public class BusStoreImplTest {
          Assert.assertFalse(uuidTestStoreItemMap.isEmpty());
       });
 
+      // Verify that unsubscribed handlers are not called.
+      BusTransaction cancelledWait = store.whenReady(uuidTestStoreItemMap -> {
+         whenReadyCalls++;
+      });
+      Assert.assertNotNull(cancelledWait);
+      cancelledWait.unsubscribe();
+
       store.getBusStoreInitializer()
             .add(item1.uuid, item1)
             .done();
@@ -479,10 +533,10 @@ public class BusStoreImplTest {
 
       // Verify that calling whenReady on already initialized
       // store will invoke the whenReady handler.
-      store.whenReady(uuidTestStoreItemMap -> {
+      Assert.assertNull(store.whenReady(uuidTestStoreItemMap -> {
          whenReadyCalls++;
          Assert.assertFalse(uuidTestStoreItemMap.isEmpty());
-      });
+      }));
       Assert.assertEquals(whenReadyCalls, 2);
 
       // Verify that whenReady handler exceptions are handled
@@ -587,6 +641,465 @@ public class BusStoreImplTest {
       Assert.assertNull(lastException);
    }
 
+   @Test
+   public void testPutAllAndRemoveAll() {
+      store.initialize();
+
+      List<StoreStateChangeBatch<TestStoreItem, UUID>> batches = new ArrayList<>();
+      store.onAllBatchChanges().subscribe(batches::add);
+
+      store.onAllChanges().subscribe((testStoreItem, stateChange) -> {
+         allStoreEvents++;
+         lastStoreChange = stateChange;
+      });
+      store.onAllChanges(TestStoreItemState.ITEM_REMOVED).subscribe(testStoreItem -> {
+         storeRemoveEvents++;
+      });
+
+      Map<UUID, TestStoreItem> map = new HashMap<>();
+      map.put(item1.uuid, item1);
+      map.put(item2.uuid, item2);
+      map.put(item3.uuid, item3);
+      store.putAll(map, TestStoreItemState.ITEM_ADDED);
+
+      verifyTestItemMap(store.allValuesAsMap(), item1, item2, item3);
+      Assert.assertEquals(store.getCurrentVersion(), 2);
+      Assert.assertEquals(batches.size(), 1);
+      Assert.assertEquals(batches.get(0).getStoreVersion(), 2);
+      Assert.assertEquals(batches.get(0).getChanges().size(), 3);
+      Assert.assertEquals(allStoreEvents, 3);
+      Assert.assertEquals(lastStoreChange.getStoreVersion(), 2);
+
+      Assert.assertEquals(store.removeAll(
+            Arrays.asList(item1.uuid, item2.uuid, item4.uuid, null), TestStoreItemState.ITEM_REMOVED), 2);
+
+      verifyTestItemMap(store.allValuesAsMap(), item3);
+      Assert.assertEquals(store.getCurrentVersion(), 3);
+      Assert.assertEquals(batches.size(), 2);
+      Assert.assertEquals(batches.get(1).getChanges().size(), 2);
+      Assert.assertTrue(batches.get(1).getChanges().get(0).isDeleteChange());
+      Assert.assertEquals(storeRemoveEvents, 2);
+      Assert.assertEquals(allStoreEvents, 5);
+
+      // Removing missing items shouldn't change the store version.
+      Assert.assertEquals(store.removeAll(Arrays.asList(item1.uuid, item4.uuid), TestStoreItemState.ITEM_REMOVED), 0);
+      Assert.assertEquals(store.getCurrentVersion(), 3);
+      Assert.assertEquals(batches.size(), 2);
+
+      // Single changes are delivered to the batch stream as batches with one change.
+      store.put(item4.uuid, item4, TestStoreItemState.ITEM_ADDED);
+      Assert.assertEquals(batches.size(), 3);
+      Assert.assertEquals(batches.get(2).getChanges().size(), 1);
+      Assert.assertEquals(batches.get(2).getStoreVersion(), 4);
+   }
+
+   @Test
+   public void testBatchWithNullValue() {
+      store.getBusStoreInitializer()
+            .add(item1.uuid, item1)
+            .done();
+
+      List<StoreStateChangeBatch<TestStoreItem, UUID>> batches = new ArrayList<>();
+      store.onAllBatchChanges().subscribe(batches::add);
+
+      // Verify that a null value rejects the whole batch.
+      Map<UUID, TestStoreItem> map = new LinkedHashMap<>();
+      map.put(item2.uuid, item2);
+      map.put(item3.uuid, null);
+      map.put(item4.uuid, item4);
+      try {
+         store.putAll(map, TestStoreItemState.ITEM_ADDED);
+         Assert.fail("putAll should reject a null value");
+      } catch (IllegalArgumentException ex) {
+         Assert.assertTrue(ex.getMessage().contains(item3.uuid.toString()));
+      }
+
+      Assert.assertFalse(store.batch(batch -> batch
+            .put(item2.uuid, item2, TestStoreItemState.ITEM_ADDED)
+            .remove(item1.uuid, TestStoreItemState.ITEM_REMOVED)
+            .put(item3.uuid, null, TestStoreItemState.ITEM_ADDED)));
+
+      verifyTestItemMap(store.allValuesAsMap(), item1);
+      Assert.assertEquals(store.getCurrentVersion(), 1);
+      Assert.assertTrue(batches.isEmpty());
+   }
+
+   @Test
+   public void testBatch() {
+      store.getBusStoreInitializer()
+            .add(item1.uuid, item1)
+            .add(item2.uuid, item2)
+            .done();
+
+      List<StoreStateChangeBatch<TestStoreItem, UUID>> batches = new ArrayList<>();
+      store.onAllBatchChanges().subscribe(batches::add);
+
+      store.onChange(item1.uuid).subscribe(testStoreItem -> {
+         storeUpdateEvents++;
+         lastItem = testStoreItem;
+      });
+
+      TestStoreItem modifiedItem1 = new TestStoreItem("modifiedItem", 10);
+      Assert.assertTrue(store.batch(batch -> batch
+            .put(item1.uuid, modifiedItem1, TestStoreItemState.ITEM_UPDATED)
+            .put(item3.uuid, item3, TestStoreItemState.ITEM_ADDED)
+            .remove(item2.uuid, TestStoreItemState.ITEM_REMOVED)
+            .put(null, item4, TestStoreItemState.ITEM_ADDED)));
+
+      verifyTestItemMap(store.allValuesAsMap(), modifiedItem1, item3);
+      Assert.assertEquals(store.getCurrentVersion(), 2);
+      Assert.assertEquals(batches.size(), 1);
+      Assert.assertEquals(batches.get(0).getChanges().size(), 3);
+      Assert.assertEquals(batches.get(0).getChanges().get(2).getObjectId(), item2.uuid);
+      Assert.assertEquals(storeUpdateEvents, 1);
+      Assert.assertEquals(lastItem, modifiedItem1);
+
+      // Verify that none of the changes are applied if the batch function fails.
+      Assert.assertFalse(store.batch(batch -> {
+         batch.put(item4.uuid, item4, TestStoreItemState.ITEM_ADDED);
+         throw new Exception("Test Exception");
+      }));
+      Assert.assertNull(store.get(item4.uuid));
+      Assert.assertEquals(store.getCurrentVersion(), 2);
+      Assert.assertEquals(batches.size(), 1);
+
+      // Empty batches shouldn't be broadcast.
+      Assert.assertTrue(store.batch(batch -> {}));
+      Assert.assertEquals(store.getCurrentVersion(), 2);
+      Assert.assertEquals(batches.size(), 1);
+   }
+
+   @Test
+   public void testSizeBoundedEviction() {
+      store.initialize();
+      store.setEvictionPolicy(StoreEvictionPolicy.newInstance().setMaxEntries(2));
+
+      store.onAllChanges(StoreEvictionState.SIZE_EVICTED).subscribe((testStoreItem, stateChange) -> {
+         storeRemoveEvents++;
+         lastRemovedItem = testStoreItem;
+         lastStoreChange = stateChange;
+      });
+
+      store.put(item1.uuid, item1, TestStoreItemState.ITEM_ADDED);
+      store.put(item2.uuid, item2, TestStoreItemState.ITEM_ADDED);
+      Assert.assertEquals(store.get(item1.uuid), item1);
+
+      // item2 is the least recently used item.
+      store.put(item3.uuid, item3, TestStoreItemState.ITEM_ADDED);
+      verifyTestItemMap(store.allValuesAsMap(), item1, item3);
+      Assert.assertEquals(storeRemoveEvents, 1);
+      Assert.assertEquals(lastRemovedItem, item2);
+      Assert.assertTrue(lastStoreChange.isDeleteChange());
+      Assert.assertEquals(lastStoreChange.getStoreVersion(), store.getCurrentVersion());
+
+      store.putAll(Collections.singletonMap(item4.uuid, item4), TestStoreItemState.ITEM_ADDED);
+      verifyTestItemMap(store.allValuesAsMap(), item3, item4);
+      Assert.assertEquals(storeRemoveEvents, 2);
+      Assert.assertEquals(lastRemovedItem, item1);
+
+      Assert.assertNull(store.get(item2.uuid));
+      StoreStatistics statistics = store.getStatistics();
+      Assert.assertEquals(statistics.size, 2);
+      Assert.assertEquals(statistics.hitCount, 1);
+      Assert.assertEquals(statistics.missCount, 1);
+      Assert.assertEquals(statistics.evictionCount, 2);
+
+      // Setting a smaller limit evicts the existing items.
+      store.setEvictionPolicy(StoreEvictionPolicy.newInstance().setMaxEntries(1));
+      Assert.assertEquals(store.allValues().size(), 1);
+      Assert.assertEquals(storeRemoveEvents, 3);
+
+      store.setEvictionPolicy(null);
+      Assert.assertNull(store.getEvictionPolicy());
+      store.put(item1.uuid, item1, TestStoreItemState.ITEM_ADDED);
+      store.put(item2.uuid, item2, TestStoreItemState.ITEM_ADDED);
+      Assert.assertEquals(store.allValues().size(), 3);
+      Assert.assertEquals(storeRemoveEvents, 3);
+   }
+
+   @Test
+   public void testSizeBoundedEvictionWithFullAccessBuffer() {
+      final AtomicLong time = new AtomicLong(1000);
+      ((BusStoreImpl<UUID, TestStoreItem>) store).setClock(time::get);
+      store.initialize();
+      store.setEvictionPolicy(StoreEvictionPolicy.newInstance().setMaxEntries(2));
+
+      store.put(item1.uuid, item1, TestStoreItemState.ITEM_ADDED);
+      store.put(item2.uuid, item2, TestStoreItemState.ITEM_ADDED);
+      for (int i = 0; i < StoreEvictionTracker.MAX_BUFFERED_ACCESSES; i++) {
+         Assert.assertEquals(store.get(item2.uuid), item2);
+      }
+
+      // The access buffer is full, the read of item1 only updates its access time.
+      time.addAndGet(10);
+      Assert.assertEquals(store.get(item1.uuid), item1);
+
+      // item2 is the least recently used item.
+      store.put(item3.uuid, item3, TestStoreItemState.ITEM_ADDED);
+      verifyTestItemMap(store.allValuesAsMap(), item1, item3);
+      Assert.assertEquals(store.getStatistics().evictionCount, 1);
+   }
+
+   @Test
+   public void testExpiration() {
+      final AtomicLong time = new AtomicLong(1000);
+      ((BusStoreImpl<UUID, TestStoreItem>) store).setClock(time::get);
+
+      store.getBusStoreInitializer()
+            .add(item1.uuid, item1)
+            .add(item2.uuid, item2)
+            .done();
+
+      store.setEvictionPolicy(StoreEvictionPolicy.newInstance()
+            .setTimeToLive(100, TimeUnit.MILLISECONDS)
+            .setTimeToIdle(50, TimeUnit.MILLISECONDS));
+
+      store.onAllChanges().subscribe((testStoreItem, stateChange) -> {
+         allStoreEvents++;
+         lastStoreChange = stateChange;
+      });
+
+      time.addAndGet(40);
+      Assert.assertEquals(store.get(item1.uuid), item1);
+
+      // item2 was idle for 50ms.
+      time.addAndGet(10);
+      verifyTestItemMap(store.allValuesAsMap(), item1);
+      Assert.assertEquals(allStoreEvents, 1);
+      Assert.assertEquals(lastStoreChange.getObjectId(), item2.uuid);
+      Assert.assertEquals(lastStoreChange.getType(), StoreEvictionState.TTI_EXPIRED);
+
+      // item1 is accessed frequently but its time-to-live expires.
+      time.addAndGet(30);
+      Assert.assertEquals(store.get(item1.uuid), item1);
+      time.addAndGet(20);
+      Assert.assertNull(store.get(item1.uuid));
+      Assert.assertEquals(allStoreEvents, 2);
+      Assert.assertEquals(lastStoreChange.getType(), StoreEvictionState.TTL_EXPIRED);
+
+      // put() resets the expiration times.
+      store.put(item3.uuid, item3, TestStoreItemState.ITEM_ADDED);
+      time.addAndGet(40);
+      store.put(item3.uuid, item3, TestStoreItemState.ITEM_UPDATED);
+      time.addAndGet(40);
+      store.cleanUp();
+      verifyTestItemMap(store.allValuesAsMap(), item3);
+      time.addAndGet(10);
+      store.cleanUp();
+      Assert.assertTrue(store.allValues().isEmpty());
+      Assert.assertEquals(store.getStatistics().evictionCount, 3);
+   }
+
+   @Test
+   public void testGetOrLoad() {
+      store.initialize();
+
+      final List<java.util.function.Consumer<TestStoreItem>> loads = new ArrayList<>();
+      final List<java.util.function.Consumer<Object>> failedLoads = new ArrayList<>();
+      final List<TestStoreItem> results = new ArrayList<>();
+      store.setLoader((id, successHandler, errorHandler) -> {
+         loads.add(successHandler);
+         failedLoads.add(errorHandler);
+      });
+
+      store.onAllChanges(StoreLoadState.LOADED).subscribe(testStoreItem -> {
+         storeAddEvents++;
+      });
+
+      // Concurrent loads of the same item are coalesced.
+      store.getOrLoad(item1.uuid, results::add, error -> lastException = (Exception) error);
+      store.getOrLoad(item1.uuid, results::add, error -> lastException = (Exception) error);
+      Assert.assertEquals(loads.size(), 1);
+      Assert.assertTrue(results.isEmpty());
+
+      loads.get(0).accept(item1);
+      // Subsequent completions of the same load are ignored.
+      loads.get(0).accept(item2);
+      failedLoads.get(0).accept(new Exception("Test Exception"));
+
+      Assert.assertEquals(results, Arrays.asList(item1, item1));
+      Assert.assertEquals(store.get(item1.uuid), item1);
+      Assert.assertEquals(storeAddEvents, 1);
+      Assert.assertNull(lastException);
+
+      // Stored items are returned without calling the loader.
+      store.getOrLoad(item1.uuid, results::add, null);
+      Assert.assertEquals(results.size(), 3);
+      Assert.assertEquals(loads.size(), 1);
+
+      store.getOrLoad(item2.uuid, results::add, error -> lastException = (Exception) error);
+      failedLoads.get(1).accept(new Exception("Test Exception"));
+      Assert.assertEquals(lastException.getMessage(), "Test Exception");
+      Assert.assertNull(store.get(item2.uuid));
+
+      // Failed loads are not cached.
+      store.getOrLoad(item2.uuid, results::add, null);
+      Assert.assertEquals(loads.size(), 3);
+
+      // The provided loader is used instead of the store's loader.
+      store.getOrLoad(item3.uuid, (id, successHandler, errorHandler) -> successHandler.accept(item3),
+            results::add, null);
+      Assert.assertEquals(store.get(item3.uuid), item3);
+      Assert.assertEquals(loads.size(), 3);
+
+      StoreStatistics statistics = store.getStatistics();
+      Assert.assertEquals(statistics.loadSuccessCount, 2);
+      Assert.assertEquals(statistics.loadFailureCount, 1);
+
+      lastException = null;
+      store.setLoader(null);
+      store.getOrLoad(item4.uuid, results::add, error -> lastException = (Exception) error);
+      Assert.assertNotNull(lastException);
+   }
+
+   @Test
+   public void testGetOrLoadRefreshAhead() {
+      final AtomicLong time = new AtomicLong(1000);
+      ((BusStoreImpl<UUID, TestStoreItem>) store).setClock(time::get);
+      store.initialize();
+      store.setEvictionPolicy(StoreEvictionPolicy.newInstance()
+            .setTimeToLive(100, TimeUnit.MILLISECONDS)
+            .setRefreshAhead(20, TimeUnit.MILLISECONDS));
+
+      final TestStoreItem refreshedItem1 = new TestStoreItem("refreshedItem", 1);
+      final List<java.util.function.Consumer<TestStoreItem>> loads = new ArrayList<>();
+      store.setLoader((id, successHandler, errorHandler) -> loads.add(successHandler));
+
+      store.onAllChanges(StoreLoadState.REFRESHED).subscribe(testStoreItem -> {
+         storeUpdateEvents++;
+      });
+
+      store.getOrLoad(item1.uuid, testStoreItem -> lastItem = testStoreItem, null);
+      loads.get(0).accept(item1);
+      Assert.assertEquals(lastItem, item1);
+
+      time.addAndGet(70);
+      store.getOrLoad(item1.uuid, testStoreItem -> lastItem = testStoreItem, null);
+      Assert.assertEquals(loads.size(), 1);
+
+      // The item is returned and reloaded in the background.
+      time.addAndGet(10);
+      store.getOrLoad(item1.uuid, testStoreItem -> lastItem = testStoreItem, null);
+      store.getOrLoad(item1.uuid, testStoreItem -> lastItem = testStoreItem, null);
+      Assert.assertEquals(loads.size(), 2);
+      Assert.assertEquals(lastItem, item1);
+
+      loads.get(1).accept(refreshedItem1);
+      Assert.assertEquals(storeUpdateEvents, 1);
+
+      // The refresh resets the time-to-live.
+      time.addAndGet(50);
+      store.getOrLoad(item1.uuid, testStoreItem -> lastItem = testStoreItem, null);
+      Assert.assertEquals(lastItem, refreshedItem1);
+      Assert.assertEquals(loads.size(), 2);
+   }
+
+   @Test
+   public void testMutationLanes() throws Exception {
+      store.getBusStoreInitializer()
+            .add(item1.uuid, item1)
+            .add(item2.uuid, item2)
+            .add(item3.uuid, item3)
+            .done();
+      store.setMutationLanes(2);
+
+      final Map<UUID, List<Integer>> appliedMutations = new ConcurrentHashMap<>();
+      store.onMutationRequest("increaseCount").subscribe(
+            (MutationRequestWrapper<TestStoreItemUpdateRequest> requestWrapper) -> {
+               TestStoreItemUpdateRequest request = requestWrapper.getRequest();
+               appliedMutations.computeIfAbsent(request.item.uuid, id -> new CopyOnWriteArrayList<>())
+                     .add(request.incCountBy);
+               requestWrapper.success(request.item);
+            });
+      store.onMutationRequest("fail").subscribe(requestWrapper -> {
+         throw new Exception("Test Exception");
+      });
+
+      final int mutationsPerItem = 50;
+      final CountDownLatch completed = new CountDownLatch(mutationsPerItem * 3 + 1);
+      for (int i = 0; i < mutationsPerItem; i++) {
+         for (TestStoreItem item : Arrays.asList(item1, item2, item3)) {
+            store.mutate(item.uuid, new TestStoreItemUpdateRequest(item, i), "increaseCount",
+                  result -> completed.countDown(), null);
+         }
+      }
+      store.mutate(item1.uuid, new TestStoreItemUpdateRequest(item1, 0), "fail",
+            null, error -> {
+               lastException = (Exception) error;
+               completed.countDown();
+            });
+
+      Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+      Assert.assertEquals(lastException.getMessage(), "Test Exception");
+
+      // Mutations of the same item are processed in order.
+      for (TestStoreItem item : Arrays.asList(item1, item2, item3)) {
+         List<Integer> mutations = appliedMutations.get(item.uuid);
+         Assert.assertEquals(mutations.size(), mutationsPerItem);
+         for (int i = 0; i < mutationsPerItem; i++) {
+            Assert.assertEquals(mutations.get(i).intValue(), i);
+         }
+      }
+
+      // Lane counters are updated after the mutation handlers return.
+      long processedCount = 0;
+      for (int i = 0; i < 100 && processedCount < mutationsPerItem * 3 + 1; i++) {
+         Thread.sleep(10);
+         processedCount = 0;
+         for (StoreMutationLaneStatistics laneStatistics : store.getMutationLaneStatistics()) {
+            processedCount += laneStatistics.processedCount;
+         }
+      }
+      Assert.assertEquals(store.getMutationLaneStatistics().size(), 2);
+      Assert.assertEquals(processedCount, mutationsPerItem * 3 + 1);
+
+      store.setMutationLanes(0);
+      Assert.assertTrue(store.getMutationLaneStatistics().isEmpty());
+   }
+
+   @Test
+   public void testMutationLanesRunInParallel() throws Exception {
+      store.initialize();
+      store.setMutationLanes(2);
+
+      // find an item on the other lane than item1.
+      TestStoreItem otherItem = item2;
+      while (StoreMutationEngine.laneIndex(otherItem.uuid, 2) == StoreMutationEngine.laneIndex(item1.uuid, 2)) {
+         otherItem = new TestStoreItem("otherItem", 1);
+      }
+
+      final CountDownLatch blocked = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+      store.onMutationRequest("update").subscribe(
+            (MutationRequestWrapper<TestStoreItemUpdateRequest> requestWrapper) -> {
+               if (requestWrapper.getRequest().item == item1) {
+                  blocked.countDown();
+                  release.await();
+               }
+               requestWrapper.success(requestWrapper.getRequest().item);
+            });
+
+      final CountDownLatch completed = new CountDownLatch(2);
+      try {
+         store.mutate(item1.uuid, new TestStoreItemUpdateRequest(item1, 1), "update",
+               result -> completed.countDown(), null);
+         Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+         // the mutation of the other lane completes while item1's handler is blocked.
+         store.mutate(otherItem.uuid, new TestStoreItemUpdateRequest(otherItem, 1), "update",
+               result -> completed.countDown(), null);
+         long deadline = System.currentTimeMillis() + 5000;
+         while (completed.getCount() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+         }
+         Assert.assertEquals(completed.getCount(), 1);
+      } finally {
+         release.countDown();
+      }
+      Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+      store.setMutationLanes(0);
+   }
+
    private void verifyTestItemMap(Map<UUID, TestStoreItem> map, TestStoreItem... items) {
       Assert.assertEquals(map.size(), items.length);
       for (TestStoreItem item : items) {
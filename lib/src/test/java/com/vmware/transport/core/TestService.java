@@ -50,6 +50,16 @@ public class TestService extends AbstractService<TestRequest, TestResponse> {
             case TestCommand.GENERAL_ERROR_OVERQUEUE:
                 this.sendGeneralErrorOverQueue(request, message.getId());
                 break;
+
+            case TestCommand.DIRECT_BUS_REPLY:
+                this.sendDirectBusReply(request, message.getId());
+                break;
+
+            case TestCommand.NO_REPLY:
+                break;
+
+            default:
+                this.handleUnknownRequest(request);
         }
     }
 
@@ -123,6 +133,13 @@ public class TestService extends AbstractService<TestRequest, TestResponse> {
         this.sendError(errResponse, id, request.getTargetUser());
     }
 
+    // replies on the bus without going through sendResponse().
+    private void sendDirectBusReply(TestRequest request, UUID id) {
+        TestServiceObjectResponse responsePayload = new TestServiceObjectResponse();
+        responsePayload.setResponseValue("DirectBusReply");
+        this.bus.sendResponseMessageWithId(this.serviceChannel, new TestResponse(request.getId(), responsePayload), id);
+    }
+
     private void sendGeneralErrorOverQueue(TestRequest request, UUID id) {
         GeneralError err = new GeneralError(HttpStatus.I_AM_A_TEAPOT.getReasonPhrase(), HttpStatus.I_AM_A_TEAPOT.toString());
         this.sendError(err, id, request.getTargetUser());
@@ -12,14 +12,22 @@ import com.vmware.transport.bridge.Response;
 import com.vmware.transport.bus.EventBus;
 import com.vmware.transport.bus.EventBusImpl;
 import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
 import com.vmware.transport.bus.store.BusStoreApi;
 import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.bus.store.model.BusStore;
+import com.vmware.transport.bus.store.model.StoreEvictionPolicy;
+import com.vmware.transport.bus.store.model.StoreStatistics;
 import com.vmware.transport.core.error.GeneralError;
 import com.vmware.transport.core.error.RestError;
 import com.vmware.transport.core.model.*;
 import com.vmware.transport.core.operations.MockRestController;
 import com.vmware.transport.core.operations.RestService;
 import com.vmware.transport.core.operations.SecurityConfiguration;
+import com.vmware.transport.core.tracing.InMemorySpanExporter;
+import com.vmware.transport.core.tracing.Span;
+import com.vmware.transport.core.tracing.SpanKind;
+import com.vmware.transport.core.tracing.TransportTracing;
 import com.vmware.transport.core.util.RestControllerInvoker;
 import com.vmware.transport.core.util.RestControllerReflection;
 import com.vmware.transport.core.util.URIMatcher;
@@ -38,8 +46,13 @@ import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -444,4 +457,578 @@ public class TestServiceTest {
                 }
         );
     }
+
+    @Test
+    public void testRequestCoalescing() throws Exception {
+
+        stubFor(get(urlEqualTo("/bus-test-coalescing"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withFixedDelay(500)
+                        .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                        .withBody("shared")));
+
+        TestService service = context.getBean(TestService.class);
+        service.enableRequestCoalescing(TestCommand.COMMAND_C);
+        RequestCoalescingStatistics initialStats = service.getRequestCoalescingStatistics();
+
+        String serviceChannel = "test::TestService";
+        CountDownLatch responses = new CountDownLatch(3);
+
+        try {
+            UUID[] ids = new UUID[3];
+            TestRequest[] requests = new TestRequest[3];
+            for (int i = 0; i < 3; i++) {
+                TestServiceObjectRequest requestPayload = new TestServiceObjectRequest();
+                requestPayload.setRequestValue("Coalesced Melody");
+
+                ids[i] = UUID.randomUUID();
+                requests[i] = new TestRequest();
+                requests[i].setId(ids[i]);
+                requests[i].setRequest(TestCommand.COMMAND_C);
+                requests[i].setPayload(requestPayload);
+                requests[i].uri = new URI("http://localhost:9999/bus-test-coalescing");
+                requests[i].method = HttpMethod.GET;
+            }
+            requests[2].setTargetUser("user-id");
+
+            Thread[] senders = new Thread[3];
+            for (int i = 0; i < 3; i++) {
+                final int index = i;
+                senders[i] = new Thread(() -> bus.requestOnceWithId(
+                        ids[index],
+                        serviceChannel,
+                        requests[index],
+                        (Message msg) -> {
+                            TestResponse resp = (TestResponse) msg.getPayload();
+                            TestServiceObjectResponse respPayload = (TestServiceObjectResponse) resp.getPayload();
+                            Assert.assertEquals(ids[index], resp.getId());
+                            Assert.assertEquals("\"shared\"", respPayload.getResponseValue());
+                            if (index == 2) {
+                                Assert.assertEquals("user-id", msg.getTargetUser());
+                            }
+                            responses.countDown();
+                        }
+                ));
+            }
+
+            // the first request blocks its thread until the upstream call completes.
+            senders[0].start();
+            Thread.sleep(200);
+            senders[1].run();
+            senders[2].run();
+
+            Assert.assertTrue(responses.await(5, TimeUnit.SECONDS));
+            verify(1, getRequestedFor(urlEqualTo("/bus-test-coalescing")));
+
+            RequestCoalescingStatistics stats = service.getRequestCoalescingStatistics();
+            Assert.assertEquals(1, stats.executedCount - initialStats.executedCount);
+            Assert.assertEquals(2, stats.coalescedCount - initialStats.coalescedCount);
+            Assert.assertEquals(0, stats.inFlightCount);
+        } finally {
+            service.disableRequestCoalescing();
+        }
+    }
+
+    @Test
+    public void testCoalescedRequestsOfDirectBusReplies() throws Exception {
+
+        TestService service = context.getBean(TestService.class);
+        service.enableRequestCoalescing(TestCommand.NO_REPLY);
+        service.setRequestCoalescingTimeout(50);
+
+        try {
+            // the leader is answered with a bus message instead of sendResponse().
+            UUID leaderId = UUID.randomUUID();
+            bus.sendRequestMessageWithId("test::TestService", createRequest(TestCommand.NO_REPLY, leaderId), leaderId);
+            Message[] follower = { null };
+            UUID followerId = UUID.randomUUID();
+            bus.requestOnceWithId(followerId, "test::TestService", createRequest(TestCommand.NO_REPLY, followerId),
+                    (Message msg) -> follower[0] = msg);
+            Assert.assertNull(follower[0]);
+
+            TestServiceObjectResponse responsePayload = new TestServiceObjectResponse();
+            responsePayload.setResponseValue("direct");
+            bus.sendResponseMessageWithId(
+                    "test::TestService", new TestResponse(leaderId, responsePayload), leaderId);
+            Assert.assertNotNull(follower[0]);
+            Assert.assertEquals(followerId, ((TestResponse) follower[0].getPayload()).getId());
+            Assert.assertEquals(0, service.getRequestCoalescingStatistics().inFlightCount);
+
+            // followers of a leader which never gets a response time out.
+            bus.sendRequestMessageWithId("test::TestService", createRequest(TestCommand.NO_REPLY, leaderId), leaderId);
+            Message[] expired = { null };
+            UUID expiredId = UUID.randomUUID();
+            bus.requestOnceWithId(expiredId, "test::TestService", createRequest(TestCommand.NO_REPLY, expiredId),
+                    (Message msg) -> {},
+                    (Message msg) -> expired[0] = msg);
+            Thread.sleep(100);
+            UUID nextLeaderId = UUID.randomUUID();
+            bus.sendRequestMessageWithId(
+                    "test::TestService", createRequest(TestCommand.NO_REPLY, nextLeaderId), nextLeaderId);
+            Assert.assertNotNull(expired[0]);
+            Assert.assertEquals(504, (long) ((GeneralError) expired[0].getPayload()).errorCode);
+
+            bus.sendResponseMessageWithId(
+                    "test::TestService", new TestResponse(nextLeaderId, responsePayload), nextLeaderId);
+            Assert.assertEquals(0, service.getRequestCoalescingStatistics().inFlightCount);
+        } finally {
+            service.disableRequestCoalescing();
+            service.setRequestCoalescingTimeout(RequestCoalescer.DEFAULT_TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void testResponseCache() {
+
+        TestService service = context.getBean(TestService.class);
+        service.enableResponseCache(StoreEvictionPolicy.newInstance().setMaxEntries(10), TestCommand.COMMAND_A);
+        BusStore<String, String> itemStore = storeManager.createStore("test-response-cache-items");
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                sendCommandA("Cached Melody");
+            }
+
+            StoreStatistics stats = service.getResponseCacheStatistics();
+            Assert.assertEquals(1, stats.size);
+            Assert.assertEquals(2, stats.hitCount);
+            Assert.assertEquals(1, stats.missCount);
+
+            sendCommandA("Other Melody");
+            Assert.assertEquals(2, service.getResponseCacheStatistics().size);
+
+            service.invalidateResponseCacheOnChange(itemStore, TestCommand.COMMAND_A);
+            itemStore.put("item", "value", "updated");
+            Assert.assertEquals(0, service.getResponseCacheStatistics().size);
+
+            sendCommandA("Cached Melody");
+            stats = service.getResponseCacheStatistics();
+            Assert.assertEquals(1, stats.size);
+            Assert.assertEquals(2, stats.hitCount);
+        } finally {
+            service.disableResponseCache();
+            storeManager.destroyStore("test-response-cache-items");
+        }
+    }
+
+    @Test
+    public void testResponseCacheIsPerUser() {
+
+        TestService service = context.getBean(TestService.class);
+        service.enableResponseCache(null, TestCommand.COMMAND_A);
+
+        try {
+            for (String user : new String[] { "ella", "miles", "ella" }) {
+                TestRequest request = createRequest(TestCommand.COMMAND_A, UUID.randomUUID());
+                request.setTargetUser(user);
+                bus.sendRequestMessageWithId("test::TestService", request, request.getId());
+            }
+
+            StoreStatistics stats = service.getResponseCacheStatistics();
+            Assert.assertEquals(2, stats.size);
+            Assert.assertEquals(1, stats.hitCount);
+            Assert.assertEquals(2, stats.missCount);
+        } finally {
+            service.disableResponseCache();
+        }
+    }
+
+    @Test
+    public void testInvalidateResponseCacheByRequest() {
+
+        TestService service = context.getBean(TestService.class);
+        service.enableResponseCache(StoreEvictionPolicy.newInstance().setMaxEntries(2));
+
+        try {
+            for (String command : new String[] { TestCommand.COMMAND_A, TestCommand.COMMAND_B }) {
+                TestRequest request = createRequest(command, UUID.randomUUID());
+                bus.sendRequestMessageWithId("test::TestService", request, request.getId());
+            }
+            Assert.assertEquals(2, service.getResponseCacheStatistics().size);
+
+            service.invalidateResponseCache(TestCommand.COMMAND_B);
+            Assert.assertEquals(1, service.getResponseCacheStatistics().size);
+
+            // the response of COMMAND_A is evicted and dropped from the index.
+            TestRequest request = createRequest(TestCommand.COMMAND_B, UUID.randomUUID());
+            request.setTargetUser("ella");
+            bus.sendRequestMessageWithId("test::TestService", request, request.getId());
+            request = createRequest(TestCommand.COMMAND_B, UUID.randomUUID());
+            bus.sendRequestMessageWithId("test::TestService", request, request.getId());
+            Assert.assertEquals(2, service.getResponseCacheStatistics().size);
+            Assert.assertEquals(1, service.getResponseCacheStatistics().evictionCount);
+
+            service.invalidateResponseCache(TestCommand.COMMAND_A);
+            Assert.assertEquals(2, service.getResponseCacheStatistics().size);
+
+            service.invalidateResponseCache();
+            Assert.assertEquals(0, service.getResponseCacheStatistics().size);
+        } finally {
+            service.disableResponseCache();
+        }
+    }
+
+    @Test
+    public void testAdmissionPolicy() {
+
+        TestService service = context.getBean(TestService.class);
+        service.setAdmissionPolicy(ServiceAdmissionPolicy.newInstance()
+                .setRateLimit(0.01, 3)
+                .setUserRateLimit(0.01, 1));
+
+        try {
+            sendCommandA("Limited Melody");
+            Assert.assertNull(sendOverQueueCommand("user-1"));
+            GeneralError userError = sendOverQueueCommand("user-1");
+            Assert.assertNotNull(userError);
+            Assert.assertEquals(429, (long) userError.errorCode);
+
+            Assert.assertNull(sendOverQueueCommand("user-2"));
+            GeneralError serviceError = sendOverQueueCommand("user-3");
+            Assert.assertNotNull(serviceError);
+            Assert.assertEquals(429, (long) serviceError.errorCode);
+
+            ServiceAdmissionStatistics stats = service.getAdmissionStatistics();
+            Assert.assertEquals(3, stats.admittedCount);
+            Assert.assertEquals(1, stats.userRateLimitedCount);
+            Assert.assertEquals(1, stats.rateLimitedCount);
+            Assert.assertEquals(0, stats.inFlightCount);
+            Assert.assertEquals(3, stats.trackedUserCount);
+            Assert.assertTrue(stats.availableTokens < 1);
+        } finally {
+            service.setAdmissionPolicy(null);
+        }
+        Assert.assertNull(service.getAdmissionStatistics());
+    }
+
+    @Test
+    public void testServiceRateLimitDoesntChargeUser() throws Exception {
+
+        TestService service = context.getBean(TestService.class);
+        service.setAdmissionPolicy(ServiceAdmissionPolicy.newInstance()
+                .setRateLimit(20, 1)
+                .setUserRateLimit(0.01, 1));
+
+        try {
+            Assert.assertNull(sendOverQueueCommand("user-1"));
+            GeneralError serviceError = sendOverQueueCommand("user-2");
+            Assert.assertNotNull(serviceError);
+            Assert.assertEquals(429, (long) serviceError.errorCode);
+
+            // user-2 still has its token once the service bucket is refilled.
+            Thread.sleep(100);
+            Assert.assertNull(sendOverQueueCommand("user-2"));
+
+            ServiceAdmissionStatistics stats = service.getAdmissionStatistics();
+            Assert.assertEquals(2, stats.admittedCount);
+            Assert.assertEquals(0, stats.userRateLimitedCount);
+            Assert.assertEquals(1, stats.rateLimitedCount);
+        } finally {
+            service.setAdmissionPolicy(null);
+        }
+    }
+
+    @Test
+    public void testUnknownRequestsReleaseInFlightSlots() {
+
+        TestService service = context.getBean(TestService.class);
+        service.setAdmissionPolicy(ServiceAdmissionPolicy.newInstance().setMaxInFlightRequests(2));
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                Message response = sendRequest("UnknownCommand");
+                Assert.assertNotNull(response);
+                Assert.assertFalse(response.isError());
+                Assert.assertTrue(((Response) response.getPayload()).getPayload().toString()
+                        .contains("Unknown Request/Command 'UnknownCommand'"));
+            }
+            sendCommandA("Admitted Melody");
+
+            ServiceAdmissionStatistics stats = service.getAdmissionStatistics();
+            Assert.assertEquals(0, stats.inFlightCount);
+            Assert.assertEquals(0, stats.inFlightRejectedCount);
+        } finally {
+            service.setAdmissionPolicy(null);
+        }
+    }
+
+    @Test
+    public void testInFlightSlotsExpire() throws Exception {
+
+        TestService service = context.getBean(TestService.class);
+        service.setAdmissionPolicy(ServiceAdmissionPolicy.newInstance()
+                .setMaxInFlightRequests(2)
+                .setInFlightTimeout(50));
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                Assert.assertNull(sendRequest(TestCommand.NO_REPLY));
+            }
+            Assert.assertEquals(2, service.getAdmissionStatistics().inFlightCount);
+            Thread.sleep(100);
+            sendCommandA("Admitted Melody");
+            Assert.assertEquals(0, service.getAdmissionStatistics().inFlightRejectedCount);
+        } finally {
+            service.setAdmissionPolicy(null);
+        }
+    }
+
+    @Test
+    public void testPriorityLanes() throws Exception {
+
+        TestService service = context.getBean(TestService.class);
+        service.setPriorityLanes(ServicePriorityLanes.newInstance()
+                .addLane("interactive", 4, 10)
+                .addLane("bulk", 1, 10)
+                .setRequestLane("bulk", TestCommand.COMMAND_B)
+                .setLaneHeader("lane"));
+
+        String serviceChannel = "test::TestService";
+        CountDownLatch responses = new CountDownLatch(3);
+
+        try {
+            String[] commands = { TestCommand.COMMAND_A, TestCommand.COMMAND_B, TestCommand.COMMAND_A };
+            for (int i = 0; i < commands.length; i++) {
+                TestServiceObjectRequest requestPayload = new TestServiceObjectRequest();
+                requestPayload.setRequestValue("Lane Song");
+
+                TestRequest request = new TestRequest();
+                UUID id = UUID.randomUUID();
+                request.setId(id);
+                request.setRequest(commands[i]);
+                request.setPayload(requestPayload);
+
+                bus.listenStream(serviceChannel,
+                        (Message msg) -> responses.countDown(),
+                        (Message msg) -> Assert.fail(),
+                        id);
+                if (i == 2) {
+                    bus.sendRequestMessageWithId(serviceChannel, request, id, MessageHeaders.newInstance("lane", "bulk"));
+                } else {
+                    bus.sendRequestMessageWithId(serviceChannel, request, id);
+                }
+            }
+
+            Assert.assertTrue(responses.await(5, TimeUnit.SECONDS));
+
+            List<ServicePriorityLaneStatistics> stats = service.getPriorityLaneStatistics();
+            Assert.assertEquals(2, stats.size());
+            Assert.assertEquals("interactive", stats.get(0).lane);
+            Assert.assertEquals(1, stats.get(0).processedCount);
+            Assert.assertEquals("bulk", stats.get(1).lane);
+            Assert.assertEquals(2, stats.get(1).processedCount);
+            Assert.assertEquals(0, stats.get(1).queueSize);
+        } finally {
+            service.setPriorityLanes(null);
+        }
+        Assert.assertTrue(service.getPriorityLaneStatistics().isEmpty());
+    }
+
+    @Test
+    public void testPriorityLaneWorkersStopOffline() throws Exception {
+
+        TestService service = context.getBean(TestService.class);
+        Set<Thread> previousWorkers = getRequestWorkers();
+        service.setPriorityLanes(ServicePriorityLanes.newInstance()
+                .addLane("interactive", 1, 10)
+                .setWorkerThreads(2));
+
+        try {
+            Set<Thread> workers = getRequestWorkers();
+            workers.removeAll(previousWorkers);
+            Assert.assertEquals(2, workers.size());
+
+            service.offline();
+            for (Thread worker : workers) {
+                worker.join(5000);
+                Assert.assertFalse(worker.isAlive());
+            }
+            Assert.assertTrue(service.getPriorityLaneStatistics().isEmpty());
+
+            service.online();
+            CountDownLatch response = new CountDownLatch(1);
+            TestRequest request = createRequest(TestCommand.COMMAND_A, UUID.randomUUID());
+            bus.requestOnceWithId(request.getId(), "test::TestService", request,
+                    (Message msg) -> response.countDown());
+            Assert.assertTrue(response.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, service.getPriorityLaneStatistics().size());
+        } finally {
+            service.setPriorityLanes(null);
+        }
+    }
+
+    private Set<Thread> getRequestWorkers() {
+        Set<Thread> workers = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().contains("-request-worker-")) {
+                workers.add(thread);
+            }
+        }
+        return workers;
+    }
+
+    @Test
+    public void testExpiredRequest() {
+
+        TestService service = context.getBean(TestService.class);
+        long expiredCount = service.getExpiredRequestCount();
+
+        TestServiceObjectRequest requestPayload = new TestServiceObjectRequest();
+        requestPayload.setRequestValue("Late Melody");
+
+        TestRequest request = new TestRequest();
+        UUID id = UUID.randomUUID();
+        request.setId(id);
+        request.setRequest(TestCommand.COMMAND_A);
+        request.setPayload(requestPayload);
+
+        final GeneralError[] error = { null };
+        bus.listenStream("test::TestService",
+                (Message msg) -> Assert.fail(),
+                (Message msg) -> error[0] = (GeneralError) msg.getPayload(),
+                id);
+        bus.sendRequestMessageWithId("test::TestService", request, id,
+                MessageHeaders.newInstance(MessageHeaders.REQUEST_DEADLINE, System.currentTimeMillis() - 1000));
+
+        Assert.assertNotNull(error[0]);
+        Assert.assertEquals(504, (long) error[0].errorCode);
+        Assert.assertEquals(expiredCount + 1, service.getExpiredRequestCount());
+    }
+
+    @Test
+    public void testServiceTracing() throws Exception {
+
+        stubFor(get(urlEqualTo("/bus-test-service-traced"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", APPLICATION_JSON_VALUE)
+                        .withBody("traced-baby")));
+
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        TransportTracing.install(exporter);
+        try {
+            TestRequest request = new TestRequest();
+            UUID id = UUID.randomUUID();
+            request.setId(id);
+            request.setRequest(TestCommand.COMMAND_C);
+            request.setPayload(new TestServiceObjectRequest());
+            request.uri = new URI("http://localhost:9999/bus-test-service-traced");
+            request.method = HttpMethod.GET;
+
+            final Message[] response = { null };
+            bus.requestOnceWithId(id, "test::TestService", request, (Message msg) -> response[0] = msg);
+            Assert.assertNotNull(response[0]);
+
+            Span serviceSpan = exporter.getFinishedSpans("test::TestService " + TestCommand.COMMAND_C).get(0);
+            Span clientSpan = exporter.getFinishedSpans("HTTP GET").get(0);
+            Assert.assertNull(serviceSpan.getParentSpanId());
+            Assert.assertEquals(SpanKind.SERVER, serviceSpan.getKind());
+            Assert.assertEquals(id, serviceSpan.getAttribute(TransportTracing.ATTR_MESSAGE_ID));
+            Assert.assertEquals(SpanKind.CLIENT, clientSpan.getKind());
+            Assert.assertEquals(200, clientSpan.getAttribute(TransportTracing.ATTR_HTTP_STATUS_CODE));
+            Assert.assertFalse(clientSpan.isError());
+
+            // the service span -> the RestService span -> the HTTP call, all in the same trace.
+            for (Span span : exporter.getFinishedSpans()) {
+                Assert.assertEquals(serviceSpan.getTraceId(), span.getTraceId());
+            }
+            Span restSpan = null;
+            for (Span span : exporter.getFinishedSpans()) {
+                if (span.getSpanId().equals(clientSpan.getParentSpanId())) {
+                    restSpan = span;
+                }
+            }
+            Assert.assertNotNull(restSpan);
+            Assert.assertEquals(serviceSpan.getSpanId(), restSpan.getParentSpanId());
+
+            // the response continues the trace of the request.
+            Assert.assertEquals(serviceSpan.getTraceId(),
+                    TransportTracing.extract(response[0].getHeaders()).getTraceId());
+
+            verify(getRequestedFor(urlEqualTo("/bus-test-service-traced"))
+                    .withHeader(MessageHeaders.TRACEPARENT,
+                            equalTo(clientSpan.getContext().toTraceparent())));
+        } finally {
+            TransportTracing.reset();
+        }
+    }
+
+    private GeneralError sendOverQueueCommand(String targetUser) {
+        TestServiceObjectRequest requestPayload = new TestServiceObjectRequest();
+        requestPayload.setRequestValue("Limited Song");
+
+        TestRequest request = new TestRequest();
+        UUID id = UUID.randomUUID();
+        request.setId(id);
+        request.setRequest(TestCommand.COMMAND_OVERQUEUE);
+        request.setTargetUser(targetUser);
+        request.setPayload(requestPayload);
+
+        final GeneralError[] error = { null };
+        final boolean[] received = { false };
+        bus.requestOnceWithId(
+                id,
+                "test::TestService",
+                request,
+                (Message msg) -> {
+                    Assert.assertEquals(targetUser, msg.getTargetUser());
+                    received[0] = true;
+                },
+                (Message msg) -> {
+                    Assert.assertEquals(targetUser, msg.getTargetUser());
+                    error[0] = (GeneralError) msg.getPayload();
+                    received[0] = true;
+                }
+        );
+        Assert.assertTrue(received[0]);
+        return error[0];
+    }
+
+    private Message sendRequest(String command) {
+        UUID id = UUID.randomUUID();
+        final Message[] response = { null };
+        bus.requestOnceWithId(
+                id,
+                "test::TestService",
+                createRequest(command, id),
+                (Message msg) -> response[0] = msg,
+                (Message msg) -> response[0] = msg
+        );
+        return response[0];
+    }
+
+    private TestRequest createRequest(String command, UUID id) {
+        TestRequest request = new TestRequest();
+        request.setId(id);
+        request.setRequest(command);
+        request.setPayload(new TestServiceObjectRequest());
+        return request;
+    }
+
+    private void sendCommandA(String value) {
+        TestServiceObjectRequest requestPayload = new TestServiceObjectRequest();
+        requestPayload.setRequestValue(value);
+
+        TestRequest request = new TestRequest();
+        UUID id = UUID.randomUUID();
+        request.setId(id);
+        request.setRequest(TestCommand.COMMAND_A);
+        request.setPayload(requestPayload);
+
+        final boolean[] received = { false };
+        bus.requestOnceWithId(
+                id,
+                "test::TestService",
+                request,
+                (Message msg) -> {
+                    TestResponse resp = (TestResponse) msg.getPayload();
+                    TestServiceObjectResponse respPayload = (TestServiceObjectResponse) resp.getPayload();
+                    Assert.assertEquals(id, resp.getId());
+                    Assert.assertEquals("CommandA-" + value, respPayload.getResponseValue());
+                    received[0] = true;
+                }
+        );
+        Assert.assertTrue(received[0]);
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core;
+
+import com.vmware.transport.bridge.Request;
+import com.vmware.transport.bridge.Response;
+import com.vmware.transport.broker.inmemory.InMemoryGalacticChannelConfig;
+import com.vmware.transport.broker.inmemory.InMemoryMessageBroker;
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.core.model.ChannelStatistics;
+import com.vmware.transport.core.model.ChannelStatisticsQuery;
+import com.vmware.transport.core.model.TopologyStatistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TopologyServiceTest {
+
+    private EventBusImpl bus;
+    private StoreManager storeManager;
+    private TopologyService service;
+
+    @Before
+    public void before() {
+        bus = new EventBusImpl();
+        storeManager = new StoreManager(bus);
+        bus.setStoreManager(storeManager);
+
+        service = new TopologyService();
+        service.bus = bus;
+        service.storeManager = storeManager;
+        service.initialize();
+    }
+
+    @Test
+    public void testChannelStatistics() throws Exception {
+        bus.listenRequestStream("stats::a", message -> {});
+        bus.listenRequestStream("stats::a", message -> {});
+        bus.listenStream("stats::a", message -> {});
+        bus.listenStream("stats::b", message -> {});
+        bus.listenStream("other", message -> {});
+
+        bus.sendRequestMessage("stats::a", "request");
+        bus.sendRequestMessage("stats::a", "request");
+        bus.sendResponseMessage("stats::a", "response");
+
+        List<ChannelStatistics> statistics = service.getChannelStatistics("stats::", 10);
+        Assert.assertEquals(2, statistics.size());
+
+        ChannelStatistics a = statistics.get(0);
+        Assert.assertEquals("stats::a", a.name);
+        Assert.assertEquals(3, a.subscriberCount);
+        Assert.assertEquals(3, a.publishCount);
+        // two request listeners receive the requests, the stream listener receives the response.
+        Assert.assertEquals(5, a.deliveryCount);
+        Assert.assertFalse(a.galactic);
+        Assert.assertFalse(a.isBridged());
+
+        ChannelStatistics b = statistics.get(1);
+        Assert.assertEquals("stats::b", b.name);
+        Assert.assertEquals(0, b.publishCount);
+        Assert.assertEquals(0, b.deliveryCount);
+        Assert.assertTrue(b.createdTime > 0);
+
+        Assert.assertEquals(1, service.getChannelStatistics("stats::", 1).size());
+        Assert.assertTrue(service.getChannelStatistics(null, 100).size() >= 3);
+
+        // rates are computed over the interval between two queries.
+        Thread.sleep(TopologyService.MIN_RATE_INTERVAL_MILLIS + 100);
+        for (int i = 0; i < 10; i++) {
+            bus.sendRequestMessage("stats::b", "request");
+        }
+        Thread.sleep(TopologyService.MIN_RATE_INTERVAL_MILLIS + 100);
+        ChannelStatistics sampled = service.getChannelStatistics("stats::b", 1).get(0);
+        Assert.assertEquals(10, sampled.publishCount);
+        Assert.assertTrue(sampled.publishRate > 0);
+        Assert.assertTrue(sampled.publishRate < 10);
+        Assert.assertEquals(0, sampled.deliveryRate, 0);
+    }
+
+    @Test
+    public void testTopologyStatistics() {
+        InMemoryMessageBroker broker = InMemoryMessageBroker.newInstance();
+        try {
+            bus.registerMessageBroker(broker.createConnector("node"));
+            bus.markChannelAsGalactic("galactic", new InMemoryGalacticChannelConfig("node", "topic"));
+            storeManager.createStore("store-a").put("key", "value", null);
+            storeManager.createStore("store-b");
+
+            TopologyStatistics statistics = service.getTopologyStatistics();
+            Assert.assertEquals(bus.getApi().getChannelMap().size(), statistics.channelCount);
+            Assert.assertEquals(1, statistics.galacticChannelCount);
+            Assert.assertEquals(0, statistics.bridgeSessionCount);
+            Assert.assertEquals(Integer.valueOf(1), statistics.storeSizes.get("store-a"));
+            Assert.assertEquals(Integer.valueOf(0), statistics.storeSizes.get("store-b"));
+
+            Assert.assertTrue(service.getChannelStatistics("galactic", 1).get(0).galactic);
+        } finally {
+            broker.close();
+        }
+    }
+
+    @Test
+    public void testServiceRequests() {
+        bus.listenStream("channel", message -> {});
+        List<Response> responses = new ArrayList<>();
+
+        Request<Object> topologyRequest = new Request<>(UUID.randomUUID(), TopologyCommands.Topology, null);
+        bus.requestOnceWithId(topologyRequest.getId(), CoreChannels.TopologyService, topologyRequest,
+              (Message message) -> responses.add((Response) message.getPayload()));
+
+        ChannelStatisticsQuery query = new ChannelStatisticsQuery();
+        query.setPrefix("channel");
+        Request<Object> statisticsRequest =
+              new Request<>(UUID.randomUUID(), TopologyCommands.ChannelStatistics, query);
+        bus.requestOnceWithId(statisticsRequest.getId(), CoreChannels.TopologyService, statisticsRequest,
+              (Message message) -> responses.add((Response) message.getPayload()));
+
+        Assert.assertEquals(2, responses.size());
+        Assert.assertTrue(responses.get(0).getPayload() instanceof TopologyStatistics);
+        List<ChannelStatistics> channels = (List<ChannelStatistics>) responses.get(1).getPayload();
+        Assert.assertEquals(1, channels.size());
+        Assert.assertEquals("channel", channels.get(0).name);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.autogen;
+
+import com.vmware.transport.bridge.Request;
+import com.vmware.transport.bridge.Response;
+import com.vmware.transport.bus.EventBus;
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
+import com.vmware.transport.bus.model.MessageObject;
+import com.vmware.transport.bus.model.MessageType;
+import com.vmware.transport.bus.store.BusStoreApi;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.core.CoreChannels;
+import com.vmware.transport.core.model.RestServiceRequest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AbstractAutoServiceTest {
+
+    private static final String CACHED_REQUEST = "get-items";
+    private static final String UNCACHED_REQUEST = "get-status";
+
+    private TestAutoService service;
+    private AtomicInteger upstreamCalls;
+    private List<Object> results;
+
+    @Before
+    public void before() {
+        EventBusImpl bus = new EventBusImpl();
+        StoreManager storeManager = new StoreManager(bus);
+        bus.setStoreManager(storeManager);
+
+        upstreamCalls = new AtomicInteger();
+        results = new ArrayList<>();
+        bus.respondStream(CoreChannels.RestService, (Message message) -> {
+            Request request = (Request) message.getPayload();
+            RestServiceRequest restRequest = (RestServiceRequest) request.getPayload();
+            upstreamCalls.incrementAndGet();
+            return new Response<>(request.getId(), "items for " + restRequest.getHeaders().get("Authorization"));
+        });
+
+        service = new TestAutoService(bus, storeManager);
+        service.setGetResponseStore(storeManager.createStore("auto-service-responses"));
+    }
+
+    @Test
+    public void testCallersWithDifferentCredentialsDontShareResponses() {
+        service.cacheGetResponses(CACHED_REQUEST);
+
+        get(CACHED_REQUEST, "Bearer alice");
+        get(CACHED_REQUEST, "Bearer bob");
+        Assert.assertEquals(2, upstreamCalls.get());
+        Assert.assertEquals("items for Bearer alice", results.get(0));
+        Assert.assertEquals("items for Bearer bob", results.get(1));
+
+        // the same caller is served from the cache.
+        get(CACHED_REQUEST, "Bearer alice");
+        Assert.assertEquals(2, upstreamCalls.get());
+        Assert.assertEquals("items for Bearer alice", results.get(2));
+
+        // the credentials don't appear in the keys of the store.
+        for (Object key : service.getGetResponseStore().allValuesAsMap().keySet()) {
+            Assert.assertFalse(key.toString().contains("alice"));
+        }
+    }
+
+    @Test
+    public void testCachingIsOptIn() {
+        get(UNCACHED_REQUEST, "Bearer alice");
+        get(UNCACHED_REQUEST, "Bearer alice");
+        Assert.assertEquals(2, upstreamCalls.get());
+        Assert.assertTrue(service.getGetResponseStore().allValues().isEmpty());
+    }
+
+    @Test
+    public void testTraceHeadersAreNotPartOfTheKey() {
+        MessageHeaders headers = MessageHeaders.newInstance("Authorization", "Bearer alice");
+        String key = AbstractAutoService.getResponseCacheKey("http://localhost/items", headers.getHeadersMap());
+        headers.setHeader(MessageHeaders.TRACEPARENT, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        Assert.assertEquals(key, AbstractAutoService.getResponseCacheKey(
+              "http://localhost/items", headers.getHeadersMap()));
+        Assert.assertNotEquals(key, AbstractAutoService.getResponseCacheKey(
+              "http://localhost/items", MessageHeaders.newInstance("authorization", "Bearer bob").getHeadersMap()));
+    }
+
+    private void get(String request, String authorization) {
+        MessageObject<Object> message = new MessageObject<>(MessageType.MessageTypeRequest, null);
+        message.setId(UUID.randomUUID());
+        message.setHeaders(MessageHeaders.newInstance("Authorization", authorization));
+        ApiType<Request, Response> apiType = new ApiType<>(new Request<>(request, null), new Response<>());
+
+        service.restApiBridge.apiRequest(
+              apiType,
+              HttpMethod.GET,
+              "http://localhost/items",
+              null,
+              (type, payload, msg) -> results.add(payload),
+              (type, err, msg) -> Assert.fail(err.message),
+              "java.lang.Object",
+              message);
+    }
+
+    private static class TestAutoService extends AbstractAutoService<Request, Response> {
+
+        TestAutoService(EventBus bus, BusStoreApi storeManager) {
+            super("test-auto-service");
+            this.bus = bus;
+            this.storeManager = storeManager;
+        }
+
+        @Override
+        protected void handleServiceRequest(Request request, Message busMessage) {
+        }
+    }
+}
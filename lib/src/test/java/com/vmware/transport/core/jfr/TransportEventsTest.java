@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.jfr;
+
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.bus.store.model.BusStore;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransportEventsTest {
+
+    private EventBusImpl bus;
+    private StoreManager storeManager;
+    private Recording recording;
+    private Path recordingFile;
+
+    @Before
+    public void before() throws Exception {
+        bus = new EventBusImpl();
+        storeManager = new StoreManager(bus);
+        bus.setStoreManager(storeManager);
+        recordingFile = Files.createTempFile("transport-events", ".jfr");
+    }
+
+    @After
+    public void after() throws Exception {
+        if (recording != null) {
+            recording.close();
+        }
+        Files.deleteIfExists(recordingFile);
+    }
+
+    @Test
+    public void testBusEvents() throws Exception {
+        recording = new Recording();
+        recording.enable("transport.MessageSend");
+        recording.enable("transport.MessageHandler");
+        recording.enable("transport.ChannelCreated");
+        recording.enable("transport.ChannelDestroyed");
+        recording.start();
+
+        bus.listenStream("jfr-channel", message -> {});
+        bus.sendResponseMessage("jfr-channel", "response");
+        bus.closeChannel("jfr-channel", "test");
+
+        List<RecordedEvent> events = stop();
+        RecordedEvent send = find(events, "transport.MessageSend", "jfr-channel");
+        Assert.assertNotNull(send);
+        Assert.assertEquals("MessageTypeResponse", send.getString("messageType"));
+        Assert.assertEquals(String.class.getName(), send.getClass("payloadClass").getName());
+
+        RecordedEvent handler = find(events, "transport.MessageHandler", "jfr-channel");
+        Assert.assertNotNull(handler);
+        Assert.assertFalse(handler.getBoolean("failed"));
+        Assert.assertTrue(send.getDuration().compareTo(handler.getDuration()) >= 0);
+
+        Assert.assertNotNull(find(events, "transport.ChannelCreated", "jfr-channel"));
+        Assert.assertNotNull(find(events, "transport.ChannelDestroyed", "jfr-channel"));
+    }
+
+    @Test
+    public void testStoreEvents() throws Exception {
+        BusStore<String, Integer> store = storeManager.createStore("jfr-store");
+
+        recording = new Recording();
+        recording.enable("transport.StoreMutation");
+        recording.start();
+
+        store.put("1", 1, null);
+        store.remove("1", null);
+        store.remove("2", null);
+
+        List<RecordedEvent> events = stop();
+        List<String> operations = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("transport.StoreMutation")) {
+                Assert.assertEquals("jfr-store", event.getString("storeType"));
+                Assert.assertEquals(Integer.class.getName(), event.getClass("payloadClass").getName());
+                operations.add(event.getString("operation"));
+            }
+        }
+        Assert.assertEquals(2, operations.size());
+        Assert.assertTrue(operations.contains("put"));
+        Assert.assertTrue(operations.contains("remove"));
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        recording = new Recording();
+        recording.start();
+
+        bus.listenStream("jfr-channel", message -> {});
+        bus.sendResponseMessage("jfr-channel", "response");
+
+        List<RecordedEvent> events = stop();
+        Assert.assertNull(find(events, "transport.MessageSend", "jfr-channel"));
+        Assert.assertNull(find(events, "transport.MessageHandler", "jfr-channel"));
+        Assert.assertNotNull(find(events, "transport.ChannelCreated", "jfr-channel"));
+    }
+
+    private List<RecordedEvent> stop() throws Exception {
+        recording.stop();
+        recording.dump(recordingFile);
+        return RecordingFile.readAllEvents(recordingFile);
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name, String channel) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name) && channel.equals(event.getString("channel"))) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
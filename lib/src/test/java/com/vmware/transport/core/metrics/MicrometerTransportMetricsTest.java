@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.metrics;
+
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.store.StoreManager;
+import com.vmware.transport.bus.store.model.BusStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class MicrometerTransportMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private MicrometerTransportMetrics metrics;
+    private EventBusImpl bus;
+    private StoreManager storeManager;
+
+    @Before
+    public void before() {
+        bus = new EventBusImpl();
+        storeManager = new StoreManager(bus);
+        bus.setStoreManager(storeManager);
+        registry = new SimpleMeterRegistry();
+        metrics = new MicrometerTransportMetrics(registry, 3);
+        TransportMetricsHolder.install(metrics);
+        metrics.bindEventBus(bus).bindStoreManager(storeManager);
+    }
+
+    @After
+    public void after() {
+        TransportMetricsHolder.reset();
+    }
+
+    @Test
+    public void testBusMetrics() {
+        bus.listenStream("channel", message -> {});
+        bus.listenRequestStream("channel", message -> {});
+
+        bus.sendRequestMessage("channel", "request");
+        bus.sendResponseMessage("channel", "response");
+        bus.sendResponseMessage("channel", "response");
+        bus.sendRequestMessage("missing-channel", "dropped");
+
+        Assert.assertEquals(1, registry.get("transport.bus.messages")
+                .tags("channel", "channel", "type", "request").counter().count(), 0);
+        Assert.assertEquals(2, registry.get("transport.bus.messages")
+                .tags("channel", "channel", "type", "response").counter().count(), 0);
+        Assert.assertEquals(1, registry.get("transport.bus.messages.dropped")
+                .tag("channel", "missing-channel").counter().count(), 0);
+        Assert.assertEquals(3, registry.get("transport.bus.handler")
+                .tags("channel", "channel", "outcome", "success").timer().count());
+        Assert.assertTrue(registry.get("transport.bus.channels").gauge().value() > 0);
+    }
+
+    @Test
+    public void testChannelGaugeSurvivesGarbageCollection() throws Exception {
+        bus.listenStream("channel", message -> {});
+        int channelCount = bus.getApi().getChannelMap().size();
+
+        // the gauge must not depend on objects which are only referenced by the registry.
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(channelCount, registry.get("transport.bus.channels").gauge().value(), 0);
+    }
+
+    @Test
+    public void testChannelTags() {
+        Assert.assertEquals("user-{id}", metrics.getChannelTag("user-" + UUID.randomUUID()));
+        Assert.assertEquals("user-{id}", metrics.getChannelTag("user-" + UUID.randomUUID()));
+        Assert.assertEquals("channel-1", metrics.getChannelTag("channel-1"));
+        Assert.assertEquals("channel-2", metrics.getChannelTag("channel-2"));
+
+        // The limit of 3 channel tags is reached.
+        Assert.assertEquals(MicrometerTransportMetrics.OTHER_CHANNEL_TAG, metrics.getChannelTag("channel-3"));
+        Assert.assertEquals("channel-1", metrics.getChannelTag("channel-1"));
+    }
+
+    @Test
+    public void testStoreMetrics() {
+        BusStore<String, String> store = storeManager.createStore("store");
+        store.put("1", "one", null);
+        store.put("2", "two", null);
+        store.remove("1", null);
+        store.get("2");
+        store.get("3");
+
+        Assert.assertEquals(1, registry.get("transport.store.size").tag("store", "store").gauge().value(), 0);
+        Assert.assertEquals(1, registry.get("transport.store.hits").tag("store", "store").functionCounter().count(), 0);
+        Assert.assertEquals(1, registry.get("transport.store.misses").tag("store", "store").functionCounter().count(), 0);
+        Assert.assertEquals(2, registry.get("transport.store.operations")
+                .tags("store", "store", "operation", "put").counter().count(), 0);
+        Assert.assertEquals(1, registry.get("transport.store.operations")
+                .tags("store", "store", "operation", "remove").counter().count(), 0);
+
+        storeManager.destroyStore("store");
+        Assert.assertNull(registry.find("transport.store.size").tag("store", "store").gauge());
+        Assert.assertNull(registry.find("transport.store.operations").tag("store", "store").counter());
+    }
+
+    @Test
+    public void testDisabledMetrics() {
+        TransportMetricsHolder.reset();
+        Assert.assertFalse(TransportMetricsHolder.get().isEnabled());
+
+        bus.listenStream("channel", message -> {});
+        bus.sendResponseMessage("channel", "response");
+        Assert.assertNull(registry.find("transport.bus.messages").counter());
+        Assert.assertNull(registry.find("transport.bus.handler").timer());
+    }
+}
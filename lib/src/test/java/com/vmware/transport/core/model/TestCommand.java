@@ -12,4 +12,6 @@ public abstract class TestCommand {
     public static final String COMMAND_OVERQUEUE = "CommandOverQueue";
     public static final String ERROR_RESPONSE_OVERQUEUE = "ErrorResponseOverQueue";
     public static final String GENERAL_ERROR_OVERQUEUE = "GeneralErrorOverQueue";
+    public static final String DIRECT_BUS_REPLY = "DirectBusReply";
+    public static final String NO_REPLY = "NoReply";
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.tracing;
+
+import com.vmware.transport.broker.inmemory.InMemoryGalacticChannelConfig;
+import com.vmware.transport.broker.inmemory.InMemoryMessageBroker;
+import com.vmware.transport.bus.EventBusImpl;
+import com.vmware.transport.bus.model.Message;
+import com.vmware.transport.bus.model.MessageHeaders;
+import com.vmware.transport.bus.store.StoreManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TransportTracingTest {
+
+    private InMemorySpanExporter exporter;
+    private EventBusImpl bus;
+
+    @Before
+    public void before() {
+        bus = createBus();
+        exporter = new InMemorySpanExporter();
+        TransportTracing.install(exporter);
+    }
+
+    @After
+    public void after() {
+        TransportTracing.reset();
+    }
+
+    @Test
+    public void testTraceparent() {
+        TraceContext context = TraceContext.newRoot();
+        Assert.assertEquals(32, context.getTraceId().length());
+        Assert.assertEquals(16, context.getSpanId().length());
+
+        TraceContext parsed = TraceContext.fromTraceparent(context.toTraceparent(), "vendor=value");
+        Assert.assertEquals(context.getTraceId(), parsed.getTraceId());
+        Assert.assertEquals(context.getSpanId(), parsed.getSpanId());
+        Assert.assertTrue(parsed.isSampled());
+        Assert.assertEquals("vendor=value", parsed.getTraceState());
+
+        TraceContext child = parsed.newChild();
+        Assert.assertEquals(context.getTraceId(), child.getTraceId());
+        Assert.assertNotEquals(context.getSpanId(), child.getSpanId());
+
+        Assert.assertFalse(TraceContext.fromTraceparent(
+              "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00", null).isSampled());
+        Assert.assertNull(TraceContext.fromTraceparent(null, null));
+        Assert.assertNull(TraceContext.fromTraceparent("invalid", null));
+        Assert.assertNull(TraceContext.fromTraceparent(
+              "00-00000000000000000000000000000000-00f067aa0ba902b7-01", null));
+        Assert.assertNull(TraceContext.fromTraceparent(
+              "00-4bf92f3577b34da6a3ce929d0e0e4736-00F067AA0BA902B7-01", null));
+    }
+
+    @Test
+    public void testSpans() {
+        Span parent = TransportTracing.startSpan("parent", SpanKind.SERVER, null);
+        Span child = TransportTracing.startSpan("child", SpanKind.CLIENT, parent.getContext())
+              .setAttribute(TransportTracing.ATTR_CHANNEL, "channel")
+              .setAttribute(TransportTracing.ATTR_REQUEST, null)
+              .setError("failed");
+        Assert.assertFalse(child.isEnded());
+        child.end();
+        child.end();
+        parent.end();
+
+        Assert.assertEquals(2, exporter.getFinishedSpans().size());
+        Assert.assertSame(child, exporter.getFinishedSpans().get(0));
+        Assert.assertTrue(child.getDurationNanos() >= 0);
+        Assert.assertEquals(parent.getSpanId(), child.getParentSpanId());
+        Assert.assertEquals(parent.getTraceId(), child.getTraceId());
+        Assert.assertEquals(1, child.getAttributes().size());
+        Assert.assertTrue(child.isError());
+
+        TraceContext unsampled = TraceContext.fromTraceparent(
+              "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00", null);
+        TransportTracing.startSpan("unsampled", SpanKind.INTERNAL, unsampled).end();
+        Assert.assertEquals(2, exporter.getFinishedSpans().size());
+    }
+
+    @Test
+    public void testBusPropagation() {
+        List<Message> requests = new ArrayList<>();
+        List<TraceContext> handlerContexts = new ArrayList<>();
+        List<Message> responses = new ArrayList<>();
+        bus.listenRequestStream("channel", message -> {
+            requests.add(message);
+            handlerContexts.add(TransportTracing.getCurrentContext());
+        });
+        bus.listenStream("channel", responses::add);
+
+        // messages sent without a trace context don't get one.
+        bus.sendRequestMessage("channel", "untraced");
+        Assert.assertNull(requests.get(0).getHeader(MessageHeaders.TRACEPARENT));
+        Assert.assertNull(handlerContexts.get(0));
+
+        Span span = TransportTracing.startSpan("client", SpanKind.CLIENT, null);
+        MessageHeaders headers = MessageHeaders.newInstance("header", "value");
+        UUID id = UUID.randomUUID();
+        TraceContext previous = TransportTracing.setCurrentContext(span.getContext());
+        try {
+            bus.sendRequestMessageWithId("channel", "traced", id, headers);
+        } finally {
+            TransportTracing.setCurrentContext(previous);
+        }
+        Assert.assertNull(TransportTracing.getCurrentContext());
+
+        Message request = requests.get(1);
+        Assert.assertEquals(span.getContext().toTraceparent(), request.getHeader(MessageHeaders.TRACEPARENT));
+        Assert.assertEquals("value", request.getHeader("header"));
+        // the handler runs within the trace context of the request.
+        Assert.assertEquals(span.getSpanId(), handlerContexts.get(1).getSpanId());
+        // the headers of the sender are not changed.
+        Assert.assertNull(headers.getHeader(MessageHeaders.TRACEPARENT));
+
+        // responses sent later, outside of any trace context, continue the trace of their request.
+        bus.sendResponseMessageWithId("channel", "response", id);
+        Assert.assertEquals(span.getContext().toTraceparent(),
+              responses.get(0).getHeader(MessageHeaders.TRACEPARENT));
+
+        bus.sendResponseMessageWithId("channel", "other-response", UUID.randomUUID());
+        Assert.assertNull(responses.get(1).getHeader(MessageHeaders.TRACEPARENT));
+    }
+
+    @Test
+    public void testDisabledTracing() {
+        TransportTracing.reset();
+        List<Message> requests = new ArrayList<>();
+        bus.listenRequestStream("channel", message -> requests.add(message));
+
+        TransportTracing.setCurrentContext(TraceContext.newRoot());
+        bus.sendRequestMessage("channel", "request");
+        Assert.assertNull(requests.get(0).getHeaders());
+    }
+
+    @Test
+    public void testGalacticPropagation() throws Exception {
+        // with latency the messages are delivered on the broker's thread, without the sender's context.
+        InMemoryMessageBroker broker = InMemoryMessageBroker.newInstance().setLatencyMillis(1);
+        try {
+            EventBusImpl nodeA = createBus();
+            EventBusImpl nodeB = createBus();
+            nodeA.registerMessageBroker(broker.createConnector("node-a"));
+            nodeB.registerMessageBroker(broker.createConnector("node-b"));
+            nodeA.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-a", "topic"));
+            nodeB.markChannelAsGalactic("channel", new InMemoryGalacticChannelConfig("node-b", "topic"));
+
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Message> received = new ArrayList<>();
+            nodeB.listenStream("channel", message -> {
+                received.add(message);
+                latch.countDown();
+            });
+
+            TraceContext context = TraceContext.newRoot();
+            TransportTracing.setCurrentContext(context);
+            nodeA.sendRequestMessage("channel", "hello");
+
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(context.toTraceparent(), received.get(0).getHeader(MessageHeaders.TRACEPARENT));
+        } finally {
+            broker.close();
+        }
+    }
+
+    private static EventBusImpl createBus() {
+        EventBusImpl eventBus = new EventBusImpl();
+        eventBus.setStoreManager(new StoreManager(eventBus));
+        return eventBus;
+    }
+}
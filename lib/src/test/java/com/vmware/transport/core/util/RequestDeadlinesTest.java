@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package com.vmware.transport.core.util;
+
+import com.vmware.transport.bus.model.MessageHeaders;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RequestDeadlinesTest {
+
+    @Test
+    public void testResolveDeadline() {
+        Assert.assertNull(RequestDeadlines.resolveDeadline(null, 1000));
+        Assert.assertNull(RequestDeadlines.resolveDeadline(MessageHeaders.newInstance(), 1000));
+
+        MessageHeaders headers = MessageHeaders.newInstance(MessageHeaders.REQUEST_TIMEOUT, 500);
+        Assert.assertEquals(Long.valueOf(1500), RequestDeadlines.resolveDeadline(headers, 1000));
+        Assert.assertEquals(Long.valueOf(1500), RequestDeadlines.getDeadline(headers));
+
+        // existing deadlines are not changed.
+        Assert.assertEquals(Long.valueOf(1500), RequestDeadlines.resolveDeadline(headers, 2000));
+
+        headers = MessageHeaders.newInstance(MessageHeaders.REQUEST_TIMEOUT, "250");
+        Assert.assertEquals(Long.valueOf(1250), RequestDeadlines.resolveDeadline(headers, 1000));
+
+        headers = MessageHeaders.newInstance(MessageHeaders.REQUEST_TIMEOUT, "invalid");
+        Assert.assertNull(RequestDeadlines.resolveDeadline(headers, 1000));
+    }
+
+    @Test
+    public void testExpiration() {
+        Assert.assertFalse(RequestDeadlines.isExpired(null, 1000));
+        Assert.assertFalse(RequestDeadlines.isExpired(1001L, 1000));
+        Assert.assertTrue(RequestDeadlines.isExpired(1000L, 1000));
+
+        Assert.assertEquals(Long.MAX_VALUE, RequestDeadlines.getRemainingMillis(null, 1000));
+        Assert.assertEquals(200, RequestDeadlines.getRemainingMillis(1200L, 1000));
+        Assert.assertEquals(0, RequestDeadlines.getRemainingMillis(800L, 1000));
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020 VMware, Inc.
+ * SPDX-License-Identifier: BSD-2-Clause
+ *
+ */
+package samples.load;
+
+import app.Application;
+import com.vmware.transport.bridge.Request;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import samples.calendar.CalendarService;
+import samples.pong.PongService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for the STOMP bridge. Starts the sample app on a random local port,
+ * opens many STOMP sessions, subscribes them to a service's private queue and drives
+ * request/response traffic through the MessageController to the service.
+ *
+ * Every session sends its next request as soon as it got the response to the previous one.
+ * The report contains the connection setup time and request latency histograms, the
+ * throughput and the CPU time and allocations of the server threads.
+ *
+ * Run with: ./gradlew :sample-app:loadTest --args='--load.sessions=2000 --load.service=pong'
+ *
+ * Options:
+ *   load.sessions            number of STOMP sessions (default 1000)
+ *   load.requests            requests sent by every session (default 100)
+ *   load.service             pong, pong-full or calendar (default pong)
+ *   load.connectConcurrency  maximum number of concurrent connection attempts (default 100)
+ *   load.timeoutSeconds      maximum duration of each phase (default 120)
+ */
+public class StompLoadGenerator {
+
+    // Threads of the embedded Tomcat and the Spring STOMP channels.
+    private static final String[] SERVER_THREAD_PREFIXES = {
+            "http-nio", "clientInboundChannel", "clientOutboundChannel", "brokerChannel", "MessageBroker"
+    };
+
+    private final int port;
+    private final int sessionCount;
+    private final int requestsPerSession;
+    private final int connectConcurrency;
+    private final long timeoutSeconds;
+    private final String channel;
+    private final String command;
+
+    private final List<SessionClient> sessions = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Long> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger failedConnections = new AtomicInteger();
+
+    // latencies in microseconds
+    private final Histogram connectLatency = new ConcurrentHistogram(3);
+    private final Histogram requestLatency = new ConcurrentHistogram(3);
+    private CountDownLatch completedSessions;
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new StompLoadGenerator(port, context.getEnvironment()).run();
+        } finally {
+            context.close();
+        }
+    }
+
+    StompLoadGenerator(int port, Environment env) {
+        this.port = port;
+        this.sessionCount = env.getProperty("load.sessions", Integer.class, 1000);
+        this.requestsPerSession = env.getProperty("load.requests", Integer.class, 100);
+        this.connectConcurrency = env.getProperty("load.connectConcurrency", Integer.class, 100);
+        this.timeoutSeconds = env.getProperty("load.timeoutSeconds", Long.class, 120L);
+
+        String service = env.getProperty("load.service", "pong");
+        switch (service) {
+            case "pong":
+                this.channel = PongService.Channel;
+                this.command = "basic";
+                break;
+            case "pong-full":
+                this.channel = PongService.Channel;
+                this.command = "full";
+                break;
+            case "calendar":
+                this.channel = CalendarService.Channel;
+                this.command = "time";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown service: " + service);
+        }
+    }
+
+    void run() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        System.out.printf("Opening %d sessions to ws://localhost:%d/transport%n", sessionCount, port);
+        long connectStart = System.nanoTime();
+        connectSessions(stompClient);
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        System.out.printf("Connected %d sessions in %dms, %d failed%n",
+                sessions.size(), connectMillis, failedConnections.get());
+
+        // Give the bridge time to process the subscriptions before sending requests.
+        Thread.sleep(1000);
+
+        Map<Long, long[]> serverThreadsBefore = sampleServerThreads();
+        long processCpuBefore = getProcessCpuTime();
+        completedSessions = new CountDownLatch(sessions.size());
+        long trafficStart = System.nanoTime();
+        for (SessionClient session : sessions) {
+            session.sendNextRequest();
+        }
+        boolean completed = completedSessions.await(timeoutSeconds, TimeUnit.SECONDS);
+        long trafficNanos = System.nanoTime() - trafficStart;
+        Map<Long, long[]> serverThreadsAfter = sampleServerThreads();
+        long processCpuAfter = getProcessCpuTime();
+
+        report(completed, trafficNanos, serverThreadsBefore, serverThreadsAfter, processCpuAfter - processCpuBefore);
+
+        for (SessionClient session : sessions) {
+            session.session.disconnect();
+        }
+        stompClient.stop();
+    }
+
+    private void connectSessions(WebSocketStompClient stompClient) throws InterruptedException {
+        Semaphore permits = new Semaphore(connectConcurrency);
+        CountDownLatch connected = new CountDownLatch(sessionCount);
+        String url = "ws://localhost:" + port + "/transport";
+
+        for (int i = 0; i < sessionCount; i++) {
+            permits.acquire();
+            long start = System.nanoTime();
+            stompClient.connect(url, new StompSessionHandlerAdapter() {}).addCallback(
+                    session -> {
+                        connectLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                        SessionClient client = new SessionClient(session);
+                        session.subscribe("/user/queue/" + channel, client);
+                        sessions.add(client);
+                        permits.release();
+                        connected.countDown();
+                    },
+                    exception -> {
+                        failedConnections.incrementAndGet();
+                        permits.release();
+                        connected.countDown();
+                    });
+        }
+        connected.await(timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A STOMP session subscribed to the service's private queue, sends its next
+     * request when it receives a response.
+     */
+    private class SessionClient implements StompFrameHandler {
+
+        private final StompSession session;
+        private final AtomicInteger remaining = new AtomicInteger(requestsPerSession);
+
+        SessionClient(StompSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            Map<?, ?> response = (Map<?, ?>) payload;
+            Object id = response.get("id");
+            Long sentTime = id != null ? pendingRequests.remove(UUID.fromString(id.toString())) : null;
+            if (sentTime == null) {
+                // not a response to one of our requests
+                return;
+            }
+            requestLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentTime));
+            if (Boolean.TRUE.equals(response.get("error"))) {
+                errors.incrementAndGet();
+            }
+            sendNextRequest();
+        }
+
+        void sendNextRequest() {
+            if (remaining.getAndDecrement() <= 0) {
+                completedSessions.countDown();
+                return;
+            }
+            UUID id = UUID.randomUUID();
+            pendingRequests.put(id, System.nanoTime());
+            try {
+                session.send("/pub/queue/" + channel, new Request<>(1, id, command, "load"));
+            } catch (Exception e) {
+                pendingRequests.remove(id);
+                errors.incrementAndGet();
+                completedSessions.countDown();
+            }
+        }
+    }
+
+    private void report(boolean completed, long trafficNanos, Map<Long, long[]> before,
+                        Map<Long, long[]> after, long processCpuNanos) {
+
+        double seconds = trafficNanos / 1e9;
+        long serverCpuNanos = 0;
+        long serverAllocatedBytes = 0;
+        for (Map.Entry<Long, long[]> entry : after.entrySet()) {
+            long[] start = before.getOrDefault(entry.getKey(), new long[2]);
+            serverCpuNanos += Math.max(0, entry.getValue()[0] - start[0]);
+            serverAllocatedBytes += Math.max(0, entry.getValue()[1] - start[1]);
+        }
+        long responses = requestLatency.getTotalCount();
+
+        System.out.println();
+        System.out.printf("Service: %s (%s), sessions: %d, requests per session: %d%n",
+                channel, command, sessions.size(), requestsPerSession);
+        if (!completed) {
+            System.out.printf("Timed out after %ds, %d requests without response%n",
+                    timeoutSeconds, pendingRequests.size());
+        }
+        System.out.printf("Responses: %d in %.2fs, %.0f responses/s, %d errors%n",
+                responses, seconds, responses / seconds, errors.get());
+        printLatency("connection setup", connectLatency);
+        printLatency("request latency", requestLatency);
+        System.out.printf("Server threads: cpu %.2fs (%.1f%% of one core), allocated %.1fMB (%.0f bytes/response)%n",
+                serverCpuNanos / 1e9, 100 * serverCpuNanos / (double) trafficNanos,
+                serverAllocatedBytes / (1024.0 * 1024.0),
+                responses > 0 ? serverAllocatedBytes / (double) responses : 0.0);
+        System.out.printf("Process cpu (server and load generator): %.2fs%n", processCpuNanos / 1e9);
+    }
+
+    /**
+     * Print the percentiles and a histogram with power of two millisecond buckets.
+     */
+    private static void printLatency(String name, Histogram latency) {
+        long count = latency.getTotalCount();
+        if (count == 0) {
+            System.out.printf("%s: no samples%n", name);
+            return;
+        }
+        System.out.printf("%s: count=%d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                name, count,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+        long bucketMillis = 1;
+        for (HistogramIterationValue bucket : latency.logarithmicBucketValues(1000, 2.0)) {
+            long bucketCount = bucket.getCountAddedInThisIterationStep();
+            if (bucketCount > 0) {
+                char[] bar = new char[(int) Math.round(40.0 * bucketCount / count)];
+                Arrays.fill(bar, '#');
+                System.out.printf("  <= %5dms %8d %s%n", bucketMillis, bucketCount, new String(bar));
+            }
+            bucketMillis <<= 1;
+        }
+    }
+
+    /**
+     * Returns the cpu time and allocated bytes of the server threads by thread id.
+     */
+    private static Map<Long, long[]> sampleServerThreads() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, long[]> result = new HashMap<>();
+        for (ThreadInfo info : threadBean.getThreadInfo(threadBean.getAllThreadIds())) {
+            if (info == null || !isServerThread(info.getThreadName())) {
+                continue;
+            }
+            long id = info.getThreadId();
+            result.put(id, new long[] {
+                    threadBean.getThreadCpuTime(id),
+                    threadBean.getThreadAllocatedBytes(id)
+            });
+        }
+        return result;
+    }
+
+    private static boolean isServerThread(String threadName) {
+        for (String prefix : SERVER_THREAD_PREFIXES) {
+            if (threadName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getProcessCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+}